@@ -0,0 +1,89 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.bean;
+package com.smartgwt.client.bean;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gwt.core.client.GWT;
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.util.SC;
+
+/**
+ * Benchmark for the generated direct property dispatch in BeanFactory.  The
+ * {@link WideCanvas} fixture is generated by com.smartgwt.rebind.DispatchFixtureWriter.
+ */
+public class BeanFactoryDispatchBenchmark extends SmartGWTTestCase {
+
+    private static final int ITERATIONS = 100;
+
+    public interface WideMetaFactory extends BeanFactory.MetaFactory {
+        BeanFactory<WideCanvas> getWideCanvasFactory();
+    }
+
+    @Override
+    protected void gwtSetUp() throws Exception {
+        super.gwtSetUp();
+        GWT.create(WideMetaFactory.class);
+    }
+
+    @Override
+    protected void gwtTearDown() throws Exception {
+        BeanFactory.setDirectPropertyDispatch(true);
+        super.gwtTearDown();
+    }
+
+    /**
+     * Logs the time to apply every property of WideCanvas with the map lookup and with direct
+     * dispatch.
+     */
+    public void testDispatch() {
+        Map<String, Object> properties = createProperties();
+
+        BeanFactory.setDirectPropertyDispatch(false);
+        long map = timeSetProperties(properties);
+        BeanFactory.setDirectPropertyDispatch(true);
+        long direct = timeSetProperties(properties);
+
+        SC.logInfo("BeanFactory.setProperties, " + WideCanvas.PROPERTY_COUNT + " properties x " +
+                   ITERATIONS + " instances: map lookup " + map + "ms, direct dispatch " + direct + "ms");
+    }
+
+    private long timeSetProperties(Map<String, Object> properties) {
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < ITERATIONS; i++) {
+            BeanFactory.setProperties(new WideCanvas(), properties);
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+    // Matches the rotation of setter types in DispatchFixtureWriter
+    private static Map<String, Object> createProperties() {
+        Map<String, Object> properties = new HashMap<String, Object>();
+        for (int i = 0; i < WideCanvas.PROPERTY_COUNT; i++) {
+            switch (i % 6) {
+                case 0: properties.put("intProperty" + i, i); break;
+                case 1: properties.put("stringProperty" + i, "value" + i); break;
+                case 2: properties.put("booleanProperty" + i, Boolean.TRUE); break;
+                case 3: properties.put("integerObjectProperty" + i, i); break;
+                case 4: properties.put("doubleProperty" + i, i + 0.5); break;
+                default: properties.put("booleanObjectProperty" + i, Boolean.FALSE); break;
+            }
+        }
+        return properties;
+    }
+}
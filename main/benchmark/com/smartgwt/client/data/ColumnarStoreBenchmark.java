@@ -0,0 +1,53 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data;
+
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.types.OperatorId;
+import com.smartgwt.client.types.SummaryFunctionType;
+import com.smartgwt.client.util.SC;
+
+/**
+ * Benchmark for filtering and summarizing in a ColumnarStore.
+ */
+
+public class ColumnarStoreBenchmark extends SmartGWTTestCase {
+
+    /**
+     * Logs the time for filtering and summarizing a large data set.
+     */
+    public void testFilterAndSummary() {
+        ColumnarStore store = ColumnarStoreTestCase.createStore(200000);
+        AdvancedCriteria criteria = new AdvancedCriteria(OperatorId.AND, new Criterion[] {
+            new Criterion("value", OperatorId.GREATER_THAN, 0.25f),
+            new Criterion("color", OperatorId.NOT_EQUAL, "Blue")
+        });
+
+        long start = System.currentTimeMillis();
+        int count = store.getRowCount(criteria);
+        long filterTime = System.currentTimeMillis() - start;
+        assertTrue(count > 0);
+
+        start = System.currentTimeMillis();
+        Double sum = store.getSummary("value", SummaryFunctionType.SUM, null);
+        long summaryTime = System.currentTimeMillis() - start;
+        assertNotNull(sum);
+
+        SC.logInfo("ColumnarStore, 200000 rows: filter " + filterTime + "ms (" + count +
+                   " matches), sum " + summaryTime + "ms");
+    }
+}
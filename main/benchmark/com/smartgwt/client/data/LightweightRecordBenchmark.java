@@ -0,0 +1,63 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.data;
+
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.util.SC;
+
+/**
+ * Benchmark for the heap used by records without back-references.
+ */
+public class LightweightRecordBenchmark extends SmartGWTTestCase {
+
+    private static final int ROW_COUNT = 100000;
+
+    /**
+     * Logs the JS heap used by 100k-row client-only DataSources built from ordinary and
+     * lightweight records.  Only browsers which expose <code>performance.memory</code> report
+     * a figure.
+     */
+    public void testHeap() {
+        double before = getUsedHeap();
+        DataSource full = new ClientOnlyDS("lightweightRecordFullDS", ROW_COUNT);
+        double fullHeap = getUsedHeap() - before;
+
+        before = getUsedHeap();
+        DataSource light = new ClientOnlyDS("lightweightRecordLightDS", 0);
+        Record[] lightRecords = new Record[ROW_COUNT];
+        for (int i = 0; i < ROW_COUNT; i++) {
+            lightRecords[i] = new LightweightRecord();
+            lightRecords[i].setAttribute("id", i);
+            lightRecords[i].setAttribute("name", "row " + i);
+        }
+        light.setCacheData(lightRecords);
+        double lightHeap = getUsedHeap() - before;
+
+        assertEquals(ROW_COUNT, light.getCacheData().length);
+        if (before < 0) {
+            SC.logInfo("Record heap comparison: performance.memory is not available in this browser");
+        } else {
+            SC.logInfo("Record heap, " + ROW_COUNT + " rows: Record " + Math.round(fullHeap / 1024) +
+                       "KB, LightweightRecord " + Math.round(lightHeap / 1024) + "KB");
+        }
+    }
+
+
+    private static native double getUsedHeap() /*-{
+        var memory = $wnd.performance && $wnd.performance.memory;
+        return memory ? memory.usedJSHeapSize : -1;
+    }-*/;
+}
@@ -0,0 +1,63 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.data;
+package com.smartgwt.client.data;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.util.SC;
+
+/**
+ * Benchmark for walking record arrays without a wrapper per row.
+ */
+public class RecordCursorBenchmark extends SmartGWTTestCase {
+
+    private static final int ROW_COUNT = 50000;
+
+    /**
+     * Logs the time to read one attribute from every row of a large array.
+     */
+    public void testCursor() {
+        JavaScriptObject rows = createRows(ROW_COUNT);
+
+        long start = System.currentTimeMillis();
+        int total = 0;
+        for (Record record : Record.convertToRecordArray(rows)) {
+            total += record.getAttributeAsInt("id");
+        }
+        long converted = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        int cursorTotal = 0;
+        RecordCursor<Record> cursor = Record.createCursor(rows);
+        while (cursor.next()) {
+            cursorTotal += cursor.get().getAttributeAsInt("id");
+        }
+        long cursorTime = System.currentTimeMillis() - start;
+
+        assertEquals(total, cursorTotal);
+        SC.logInfo("Reading " + ROW_COUNT + " records: convertToRecordArray " + converted +
+                   "ms, RecordCursor " + cursorTime + "ms");
+    }
+
+    private static native JavaScriptObject createRows(int rowCount) /*-{
+        var rows = $wnd.Array.create();
+        for (var r = 0; r < rowCount; r++) {
+            rows.push({ id: r % 100 });
+        }
+        return rows;
+    }-*/;
+}
@@ -0,0 +1,68 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.data;
+
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.util.SC;
+
+/**
+ * Benchmark for RecordList hash indexes.
+ */
+public class RecordIndexBenchmark extends SmartGWTTestCase {
+
+    private static final int ROW_COUNT = 5000;
+
+    /**
+     * Logs the time to join two lists by scanning and through an index.
+     */
+    public void testJoin() {
+        RecordList left = createList(), right = createList();
+
+        long start = System.currentTimeMillis();
+        int matched = 0;
+        for (int i = 0; i < ROW_COUNT; i++) {
+            if (right.findIndex("id", left.get(i).getAttributeAsInt("id")) >= 0) matched++;
+        }
+        long scanned = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        right.createIndex("id");
+        int indexedMatched = 0;
+        for (int i = 0; i < ROW_COUNT; i++) {
+            if (right.findIndex("id", left.get(i).getAttributeAsInt("id")) >= 0) indexedMatched++;
+        }
+        long indexed = System.currentTimeMillis() - start;
+
+        assertEquals(matched, indexedMatched);
+        SC.logInfo("Joining " + ROW_COUNT + " x " + ROW_COUNT + " records: scan " + scanned +
+                   "ms, index " + indexed + "ms");
+    }
+
+    private static RecordList createList() {
+        Record[] records = new Record[ROW_COUNT];
+        for (int i = 0; i < ROW_COUNT; i++) {
+            records[i] = createRecord(i, "g" + (i % 10));
+        }
+        return new RecordList(records);
+    }
+
+    private static Record createRecord(int id, String group) {
+        Record record = new Record();
+        record.setAttribute("id", id);
+        record.setAttribute("group", group);
+        return record;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.util;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.SmartGWTTestCase;
+
+/**
+ * Benchmark for bulk primitive array conversion in JSOHelper.
+ * <P>
+ * Bulk copying only applies to compiled code, so this benchmark is meaningful in web mode;
+ * in hosted mode both settings take the element-wise path and nothing is measured.
+ */
+public class JSOHelperArrayConversionBenchmark extends SmartGWTTestCase {
+
+    private static final int[] SIZES = {10000, 100000, 1000000};
+
+    @Override
+    protected void gwtTearDown() throws Exception {
+        JSOHelper.setBulkArrayCopy(true);
+        super.gwtTearDown();
+    }
+
+    /**
+     * Logs element-wise vs. bulk conversion times for 10k, 100k and 1M elements.
+     */
+    public void testConversion() {
+        if (!GWT.isScript()) {
+            SC.logInfo("JSOHelper array conversion benchmark skipped: bulk copying requires web mode");
+            return;
+        }
+        for (int size : SIZES) {
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) values[i] = i * 0.5;
+
+            // warm up both paths so the first timing does not include JIT compilation
+            JSOHelper.setBulkArrayCopy(false);
+            timeRoundTrip(values);
+            long elementWise = timeRoundTrip(values);
+            JSOHelper.setBulkArrayCopy(true);
+            timeRoundTrip(values);
+            long bulk = timeRoundTrip(values);
+            long start = System.currentTimeMillis();
+            JsTypedArrayView view = JsTypedArrayView.create(values);
+            long typed = System.currentTimeMillis() - start;
+
+            assertEquals(size, view.getLength());
+            SC.logInfo("JSOHelper double[] round trip, " + size + " elements: element-wise " +
+                       elementWise + "ms, bulk " + bulk + "ms, typed array " + typed + "ms");
+        }
+    }
+
+    private long timeRoundTrip(double[] values) {
+        long start = System.currentTimeMillis();
+        JavaScriptObject holder = JSOHelper.createObject();
+        JSOHelper.setAttribute(holder, "values", values);
+        double[] result = JSOHelper.getAttributeAsDoubleArray(holder, "values");
+        long elapsed = System.currentTimeMillis() - start;
+        assertEquals(values.length, result.length);
+        return elapsed;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.widgets.form.fields;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.data.ClientOnlyDS;
+import com.smartgwt.client.data.Criteria;
+import com.smartgwt.client.data.DSResponse;
+import com.smartgwt.client.data.Record;
+import com.smartgwt.client.util.SC;
+
+/**
+ * Benchmark for caching pickList results.
+ */
+public class PickListResultCacheBenchmark extends SmartGWTTestCase {
+
+    protected void gwtTearDown() throws Exception {
+        PickListResultCache.clear();
+        super.gwtTearDown();
+    }
+
+    /**
+     * Logs the time for answering narrowing prefixes from a large complete result.
+     */
+    public void testNarrowingPrefixes() {
+        JavaScriptObject ds = new ClientOnlyDS(0).getOrCreateJsObj();
+        JavaScriptObject request = PickListResultCacheTestCase.createRequest();
+        Record[] records = new Record[20000];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = new Record();
+            records[i].setAttribute("id", i);
+            records[i].setAttribute("name", "a" + i);
+        }
+        DSResponse response = new DSResponse();
+        response.setData(records);
+        response.setStartRow(0);
+        response.setTotalRows(records.length);
+        PickListResultCache.store(ds, new Criteria("name", "a").getJsObj(), request, response.getJsObj());
+
+        long start = System.currentTimeMillis();
+        String prefix = "a";
+        for (int i = 1; i <= 4; i++) {
+            prefix += i;
+            assertNotNull(PickListResultCache.find(ds, new Criteria("name", prefix).getJsObj(), request));
+        }
+        SC.logInfo("PickListResultCache, 20000 rows: 4 narrowing prefixes in " +
+                   (System.currentTimeMillis() - start) + "ms");
+    }
+}
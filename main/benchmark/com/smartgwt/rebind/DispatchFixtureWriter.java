@@ -0,0 +1,84 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.rebind;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Writes the source of <code>com.smartgwt.client.bean.WideCanvas</code>, the Canvas subclass
+ * with many setters of its own used by BeanFactoryDispatchBenchmark.  Run by the
+ * <code>compile.benchmarks</code> target before the benchmarks are compiled.
+ * <p>
+ * Usage: <code>DispatchFixtureWriter &lt;output directory&gt; &lt;property count&gt;</code>
+ */
+public class DispatchFixtureWriter {
+
+    // Setter parameter types, used in rotation.  Property names are the type's prefix followed
+    // by the index of the property, e.g. "intProperty0", "stringProperty1".
+    static final String[][] TYPES = {
+        {"int", "int"},
+        {"String", "string"},
+        {"boolean", "boolean"},
+        {"Integer", "integerObject"},
+        {"double", "double"},
+        {"Boolean", "booleanObject"}
+    };
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: DispatchFixtureWriter <output directory> <property count>");
+            System.exit(1);
+        }
+        File dir = new File(args[0], "com/smartgwt/client/bean");
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        PrintWriter out = new PrintWriter(new FileWriter(new File(dir, "WideCanvas.java")));
+        try {
+            write(out, Integer.parseInt(args[1]));
+        } finally {
+            out.close();
+        }
+    }
+
+    static void write(PrintWriter out, int propertyCount) {
+        out.println("// Generated by " + DispatchFixtureWriter.class.getName() + " - do not edit");
+        out.println("package com.smartgwt.client.bean;");
+        out.println();
+        out.println("import com.smartgwt.client.widgets.Canvas;");
+        out.println();
+        out.println("/**");
+        out.println(" * A Canvas subclass declaring " + propertyCount + " properties of its own.");
+        out.println(" */");
+        out.println("public class WideCanvas extends Canvas {");
+        out.println();
+        out.println("    public static final int PROPERTY_COUNT = " + propertyCount + ";");
+        for (int i = 0; i < propertyCount; i++) {
+            String type = TYPES[i % TYPES.length][0],
+                   name = TYPES[i % TYPES.length][1] + "Property" + i;
+            out.println();
+            out.println("    public void set" + Character.toUpperCase(name.charAt(0)) + name.substring(1) +
+                        "(" + type + " value) {");
+            out.println("        setAttribute(\"" + name + "\", value, true);");
+            out.println("    }");
+        }
+        out.println("}");
+    }
+}
@@ -244,7 +244,108 @@ public class SmartGwtEntryPoint implements EntryPoint {
                 }
         });
 
-        $wnd.SmartGWT.convertToJavaObject = $entry(function (object, listAsArray, forceMap) {
+        // helper routine for convertToJavaObject(); not wrapped with $entry()
+        // Returns the Java object to use for a non-array JS object that is a POJO, has a
+        // SGWT wrapper, or is a SmartClient widget, FormItem, RelativeDate or class instance.
+        // Returns undefined if the object should instead be converted to a Map.
+        $wnd.SmartGWT._convertToJavaReference = function (object) {
+            var refProperty = @com.smartgwt.client.util.SC::REF;
+
+            // Check for a POJO.
+            if (!@com.smartgwt.client.util.JSOHelper::isJSO(Ljava/lang/Object;)(object)) {
+                return object;
+            }
+
+            if (object[refProperty] != null) {
+                return object[refProperty];
+            }
+            if ($wnd.isc.isA.Canvas(object)) {
+                return @com.smartgwt.client.widgets.Canvas::getById(Ljava/lang/String;)(object.getID());
+            }
+
+            if ($wnd.isc.isA.String(object.name) && $wnd.isc.isA.DynamicForm(object.form)) {
+                var formJ = @com.smartgwt.client.widgets.form.DynamicForm::getOrCreateRef(Lcom/google/gwt/core/client/JavaScriptObject;)(object.form);
+                return formJ.@com.smartgwt.client.widgets.form.DynamicForm::getField(Ljava/lang/String;)(object.name);
+            }
+
+            if ($wnd.isc.isA.String(object._constructor)) {
+                var objectConstructor = object._constructor;
+                if (objectConstructor == "RelativeDate") {
+                    return (object[refProperty] = @com.smartgwt.client.data.RelativeDate::new(Lcom/google/gwt/core/client/JavaScriptObject;)(object));
+                }
+                // Don't convert `AdvancedCriteria' here; we want this API to return
+                // a `Map' for the advanced criteria JSO.
+            }
+
+            if ($wnd.isc.isAn.Instance(object) && object.getClassName != null) {
+                return (object[refProperty] = @com.smartgwt.client.util.ObjectFactory::createInstance(Ljava/lang/String;Lcom/google/gwt/core/client/JavaScriptObject;)(object.getClassName(), object));
+            }
+            var undef;
+            return undef;
+        };
+
+        // helper routine for convertToJavaObject(); not wrapped with $entry()
+        // Creates the context for one top-level conversion.  The context memoizes converted
+        // Maps and Lists by JS object identity, so a sub-object referred to from several places
+        // is converted once and shared, and cyclic graphs terminate.  It also enforces the
+        // depth and node limits configured via JSOHelper.setConversionMaxDepth()/MaxNodes().
+        $wnd.SmartGWT._createConversionContext = function () {
+            var context = {
+                maxDepth: @com.smartgwt.client.util.JSOHelper::getConversionMaxDepth()(),
+                maxNodes: @com.smartgwt.client.util.JSOHelper::getConversionMaxNodes()(),
+                depth: 0,
+                nodes: 0,
+                limitLogged: false,
+
+                get : function (object) {
+                    if (this._map != null) return this._map.get(object);
+                    var index = this._keys.indexOf(object);
+                    if (index != -1) return this._values[index];
+                },
+                put : function (object, converted) {
+                    if (this._map != null) {
+                        this._map.set(object, converted);
+                    } else {
+                        this._keys.push(object);
+                        this._values.push(converted);
+                    }
+                },
+
+                // Returns false (and logs a warning once) if converting another object would
+                // exceed the configured limits.  Otherwise must be matched by a call to exit().
+                enter : function () {
+                    if ((this.maxDepth >= 0 && this.depth >= this.maxDepth) ||
+                        (this.maxNodes >= 0 && this.nodes >= this.maxNodes))
+                    {
+                        if (!this.limitLogged) {
+                            this.limitLogged = true;
+                            $wnd.isc.Log.logWarn("convertToJavaObject: conversion limit reached " +
+                                "(maxDepth: " + this.maxDepth + ", maxNodes: " + this.maxNodes +
+                                ") - nested objects beyond the limit are converted to null.");
+                        }
+                        return false;
+                    }
+                    this.depth++;
+                    this.nodes++;
+                    return true;
+                },
+                exit : function () {
+                    this.depth--;
+                }
+            };
+            // Prefer a native Map for O(1) identity lookup; fall back to parallel arrays
+            if (typeof $wnd.Map == "function") {
+                context._map = new $wnd.Map();
+            } else {
+                context._keys = [];
+                context._values = [];
+            }
+            return context;
+        };
+
+        // The optional "context" parameter is used for the recursive calls; top-level callers
+        // should omit it and a fresh context is created for each conversion.
+        $wnd.SmartGWT.convertToJavaObject = $entry(function (object, listAsArray, forceMap, context) {
         	
             if (object == null) return null;
             var refProperty = @com.smartgwt.client.util.SC::REF;
@@ -255,54 +356,42 @@ public class SmartGwtEntryPoint implements EntryPoint {
 	    	} else if ($wnd.isc.isA.Date(object)) {
 
                 return @com.smartgwt.client.util.JSOHelper::convertToJavaDate(Lcom/google/gwt/core/client/JavaScriptObject;)(object);
-	    	} else if ($wnd.isc.isAn.Array(object)) {
+	    	}
 
-	    		var convertedArray = [];
-	    		for (var i = 0; i < object.length; i++) {
-	    			convertedArray[i] =  $wnd.SmartGWT.convertToJavaObject(object[i], false, false);
-	    		}
-	    		// now we've converted all our members and we need to return a Java array or List
+            if (context == null) context = $wnd.SmartGWT._createConversionContext();
+
+            if ($wnd.isc.isAn.Array(object)) {
+
+                var converted = context.get(object);
+                if (converted !== undefined) return converted;
+                if (!context.enter()) return null;
+
+	    		// The Java array or List is registered before the members are converted so
+	    		// that any member referring back to this array resolves to the same object.
 	    		if (listAsArray) {
-	    			return  @com.smartgwt.client.util.JSOHelper::convertToJavaObjectArray(Lcom/google/gwt/core/client/JavaScriptObject;)(convertedArray);
+	    			var javaArray = @com.smartgwt.client.util.JSOHelper::createObjectArray(I)(object.length);
+	    			context.put(object, javaArray);
+	    			for (var i = 0; i < object.length; i++) {
+	    				var member = $wnd.SmartGWT.convertToJavaObject(object[i], false, false, context);
+	    				@com.smartgwt.client.util.JSOHelper::setObjectArrayValue([Ljava/lang/Object;ILjava/lang/Object;)(javaArray, i, member);
+	    			}
+	    			context.exit();
+	    			return javaArray;
 	    		} else {
 
 	    			var javaList = @java.util.ArrayList::new()();
-	    			for (var i = 0; i < convertedArray.length; i++) {
-	    				javaList.@java.util.ArrayList::add(Ljava/lang/Object;)(convertedArray[i]);
+	    			context.put(object, javaList);
+	    			for (var i = 0; i < object.length; i++) {
+	    				var member = $wnd.SmartGWT.convertToJavaObject(object[i], false, false, context);
+	    				javaList.@java.util.ArrayList::add(Ljava/lang/Object;)(member === undefined ? null : member);
 	    			}
+	    			context.exit();
 	    			return javaList;
 	    		}
             } else {
                 if (forceMap !== true) {
-                    // Check for a POJO.
-                    if (!@com.smartgwt.client.util.JSOHelper::isJSO(Ljava/lang/Object;)(object)) {
-                        return object;
-                    }
-
-                    if (object[refProperty] != null) {
-                        return object[refProperty];
-                    }
-                    if ($wnd.isc.isA.Canvas(object)) {
-                        return @com.smartgwt.client.widgets.Canvas::getById(Ljava/lang/String;)(object.getID());
-                    }
-
-                    if ($wnd.isc.isA.String(object.name) && $wnd.isc.isA.DynamicForm(object.form)) {
-                        var formJ = @com.smartgwt.client.widgets.form.DynamicForm::getOrCreateRef(Lcom/google/gwt/core/client/JavaScriptObject;)(object.form);
-                        return formJ.@com.smartgwt.client.widgets.form.DynamicForm::getField(Ljava/lang/String;)(object.name);
-                    }
-
-                    if ($wnd.isc.isA.String(object._constructor)) {
-                        var objectConstructor = object._constructor;
-                        if (objectConstructor == "RelativeDate") {
-                            return (object[refProperty] = @com.smartgwt.client.data.RelativeDate::new(Lcom/google/gwt/core/client/JavaScriptObject;)(object));
-                        }
-                        // Don't convert `AdvancedCriteria' here; we want this API to return
-                        // a `Map' for the advanced criteria JSO.
-                    }
-
-                    if ($wnd.isc.isAn.Instance(object) && object.getClassName != null) {
-                        return (object[refProperty] = @com.smartgwt.client.util.ObjectFactory::createInstance(Ljava/lang/String;Lcom/google/gwt/core/client/JavaScriptObject;)(object.getClassName(), object));
-                    }
+                    var reference = $wnd.SmartGWT._convertToJavaReference(object);
+                    if (reference !== undefined) return reference;
                 } else {
                     if (object[refProperty] != null) {
                         if (@com.smartgwt.client.util.JSOHelper::isJavaMap(Ljava/lang/Object;)(object[refProperty])) {
@@ -311,8 +400,13 @@ public class SmartGwtEntryPoint implements EntryPoint {
                     }
                 }
 
+                var converted = context.get(object);
+                if (converted !== undefined) return converted;
+                if (!context.enter()) return null;
+
 	    	 	// convert to a map
 	    	 	var javaMap = @java.util.LinkedHashMap::new()();
+	    	 	context.put(object, javaMap);
 	    	 	// If it's a tree node, clean it up before converting otherwise we may end up serializing out
 	    	 	// all parents and children!
                 var treeProp = $wnd.isc.Tree.getPrototype().treeProperty;
@@ -338,13 +432,30 @@ public class SmartGwtEntryPoint implements EntryPoint {
 
                     var val = object[fieldName];
                     //if the field name is '__ref', the the value is already a GWT java object reference
-                    var convertedVal = (fieldName == refProperty || this.isNativeJavaObject(val) ? val : $wnd.SmartGWT.convertToJavaObject(val, false, false));
+                    var convertedVal = (fieldName == refProperty || this.isNativeJavaObject(val) ? val : $wnd.SmartGWT.convertToJavaObject(val, false, false, context));
  					@com.smartgwt.client.util.JSOHelper::doAddToMap(Ljava/util/Map;Ljava/lang/String;Ljava/lang/Object;)(javaMap, fieldName, convertedVal);
 	    	 	}
+	    	 	context.exit();
 	    	 	return javaMap;
 	    	 }
         });
 
+        // Variant of convertToJavaObject() used by the lazy JSOHelper.asMap() / asList() views.
+        // Objects that convertToJavaObject() would turn into a Map or List are instead wrapped
+        // in a live view, so nested values are only converted when they are accessed.
+        $wnd.SmartGWT.convertToJavaView = $entry(function (object) {
+            if (object == null) return null;
+            if (!$wnd.isc.isA.Object(object) || $wnd.isc.isA.Date(object)) {
+                return $wnd.SmartGWT.convertToJavaObject(object, false, false);
+            }
+            if ($wnd.isc.isAn.Array(object)) {
+                return @com.smartgwt.client.util.JSOHelper::asList(Lcom/google/gwt/core/client/JavaScriptObject;)(object);
+            }
+            var reference = $wnd.SmartGWT._convertToJavaReference(object);
+            if (reference !== undefined) return reference;
+            return @com.smartgwt.client.util.JSOHelper::asMap(Lcom/google/gwt/core/client/JavaScriptObject;)(object);
+        });
+
         // Given a GWT Java Object such as a java.lang.Integer, convert to the primitive type (an int) 
         // so we can manipulate the value directly in JavaScript
         $wnd.SmartGWT.convertToPrimitiveType = $entry(function (object) {
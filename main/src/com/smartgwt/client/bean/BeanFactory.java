@@ -18,6 +18,7 @@ package com.smartgwt.client.bean;
 
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.Scheduler;
 
 import com.smartgwt.client.bean.BeanProperty;
 
@@ -298,6 +299,14 @@ public abstract class BeanFactory<BeanClass> {
     *
     * <p>Furthermore, the className can also be used as a Constructor in
     * {@link com.smartgwt.client.docs.ComponentXML Component XML}. 
+    * How factories are registered is controlled by the
+    * <code>smartgwt.beanFactoryRegistration</code> configuration property.
+    * With the default, <code>eager</code>, every factory is created
+    * when the meta factory is. Setting the property to <code>lazy</code> or
+    * <code>deferred</code> in your module shortens startup, but the className
+    * then only becomes available to Component XML once its factory has been
+    * used or, with <code>deferred</code>, created in the background shortly
+    * after startup.
     *
     * <p>Alternatively if only specific <code>Canvas</code> types need to be
     * instantiated and configured dynamically, you can generate specific
@@ -338,6 +347,14 @@ public abstract class BeanFactory<BeanClass> {
     *
     * <p>Furthermore, the className can also be used as a Constructor in
     * {@link com.smartgwt.client.docs.ComponentXML Component XML}. 
+    * How factories are registered is controlled by the
+    * <code>smartgwt.beanFactoryRegistration</code> configuration property.
+    * With the default, <code>eager</code>, every factory is created
+    * when the meta factory is. Setting the property to <code>lazy</code> or
+    * <code>deferred</code> in your module shortens startup, but the className
+    * then only becomes available to Component XML once its factory has been
+    * used or, with <code>deferred</code>, created in the background shortly
+    * after startup.
     *
     * <p>Alternatively if only specific <code>FormItem</code> types need to be
     * instantiated and configured dynamically, you can generate specific
@@ -767,13 +784,23 @@ public abstract class BeanFactory<BeanClass> {
     // Note that this will only return factories defined in this GWT module ...
     // it is unaware of any other modules.
     public static BeanFactory<?> getFactory (String className) {
-        return factoriesByName.get(className);
+        BeanFactory<?> factory = factoriesByName.get(className);
+        if (factory == null && pendingFactoriesByName != null) {
+            final PendingFactory pending = pendingFactoriesByName.get(className);
+            if (pending != null) factory = loadPendingFactory(pending);
+        }
+        return factory;
     }
 
     // Note that this will only return factories defined in this GWT module ...
     // it is unaware of any other modules.
     public static BeanFactory<?> getFactory (Class<?> klass) {
-        return factoriesByClass.get(klass);
+        BeanFactory<?> factory = factoriesByClass.get(klass);
+        if (factory == null && pendingFactoriesByClass != null) {
+            final PendingFactory pending = pendingFactoriesByClass.get(klass);
+            if (pending != null) factory = loadPendingFactory(pending);
+        }
+        return factory;
     }
 
     public static BeanFactory<?> getFactory (Object object) {
@@ -784,6 +811,103 @@ public abstract class BeanFactory<BeanClass> {
         return getFactory(object.getClass());
     }
 
+    /**
+     * Implemented by generated meta factories which register their factories
+     * lazily, to create a factory the first time it is needed. This is an
+     * implementation detail of the generated code, and not intended to be
+     * implemented by application code.
+     */
+    public static interface FactoryLoader {
+        /**
+         * Creates and registers the factory identified by the token.
+         *
+         * @param token the index of the class passed to
+         *              {@link BeanFactory#registerFactoryLoader}
+         * @return the factory
+         */
+        BeanFactory<?> loadFactory (int token);
+    }
+
+    // A factory which has been declared by a generated meta factory, but not
+    // yet created. We keep just the class literal and a token which the
+    // FactoryLoader turns back into a call to the generated create() method.
+    private static class PendingFactory {
+        final FactoryLoader loader;
+        final int token;
+        final Class<?> beanClass;
+        final String beanClassName;
+
+        PendingFactory (FactoryLoader loader, int token, Class<?> beanClass) {
+            this.loader = loader;
+            this.token = token;
+            this.beanClass = beanClass;
+            this.beanClassName = beanClass.getName();
+        }
+    }
+
+    private static Map<String, PendingFactory> pendingFactoriesByName;
+    private static Map<Class<?>, PendingFactory> pendingFactoriesByClass;
+
+    // How many pending factories to create each time the incremental command runs
+    private static final int DEFERRED_BATCH_SIZE = 10;
+
+    /**
+     * Registers factories to be created on demand. Called by the generated
+     * meta factories, depending on the
+     * <code>smartgwt.beanFactoryRegistration</code> configuration property,
+     * instead of creating each factory when the meta factory is created.
+     * <p>
+     * A pending factory is created the first time it is looked up via
+     * {@link #getFactory(Class)} or {@link #getFactory(String)}, which includes
+     * any use of the static <code>BeanFactory</code> API with the class or its
+     * instances. Until then, the class is not registered with SmartClient, so
+     * it cannot yet be used as a constructor in
+     * {@link com.smartgwt.client.docs.ComponentXML Component XML}.  If
+     * <code>deferred</code> is true, the remaining factories are created in
+     * small batches by an incremental command once the current event has
+     * been handled, so that they are available to Component XML shortly after
+     * startup.
+     *
+     * @param loader the generated loader which creates factories from tokens
+     * @param beanClasses the bean classes; the token of each class is its index
+     * @param deferred whether to create the remaining factories in the background
+     */
+    public static void registerFactoryLoader (FactoryLoader loader, Class<?>[] beanClasses, boolean deferred) {
+        if (pendingFactoriesByName == null) {
+            pendingFactoriesByName = new HashMap<String, PendingFactory>();
+            pendingFactoriesByClass = new HashMap<Class<?>, PendingFactory>();
+        }
+        for (int i = 0; i < beanClasses.length; i++) {
+            final Class<?> beanClass = beanClasses[i];
+            if (factoriesByClass.containsKey(beanClass) || pendingFactoriesByClass.containsKey(beanClass)) {
+                continue;
+            }
+            final PendingFactory pending = new PendingFactory(loader, i, beanClass);
+            pendingFactoriesByName.put(pending.beanClassName, pending);
+            pendingFactoriesByClass.put(beanClass, pending);
+        }
+
+        if (deferred && !pendingFactoriesByClass.isEmpty()) {
+            Scheduler.get().scheduleIncremental(new Scheduler.RepeatingCommand() {
+                public boolean execute () {
+                    int remaining = DEFERRED_BATCH_SIZE;
+                    while (remaining-- > 0 && !pendingFactoriesByClass.isEmpty()) {
+                        loadPendingFactory(pendingFactoriesByClass.values().iterator().next());
+                    }
+                    return !pendingFactoriesByClass.isEmpty();
+                }
+            });
+        }
+    }
+
+    private static BeanFactory<?> loadPendingFactory (PendingFactory pending) {
+        // Remove the stub first, since creating the factory looks itself up
+        pendingFactoriesByName.remove(pending.beanClassName);
+        pendingFactoriesByClass.remove(pending.beanClass);
+        pending.loader.loadFactory(pending.token);
+        return factoriesByClass.get(pending.beanClass);
+    }
+
     // Registers a factory for a base class.
     protected static void registerFactory (BeanFactory<?> factory) {
         // Bail out if a factory has already been registered for the class name
@@ -1006,6 +1130,33 @@ public abstract class BeanFactory<BeanClass> {
         }
     }
    
+    // Whether doSetProperty tries the generated dispatchSetProperty before
+    // looking the property up in the properties map.
+    private static boolean directPropertyDispatch = true;
+
+    /**
+     * Controls whether generated factories call setters directly, via a
+     * dispatch on the property name generated for each bean class, rather than
+     * looking up each property in a map. Direct dispatch is enabled by default;
+     * disabling it is only useful for comparing the performance of the two
+     * paths.
+     *
+     * @param enabled whether to use direct dispatch
+     */
+    public static void setDirectPropertyDispatch (boolean enabled) {
+        directPropertyDispatch = enabled;
+    }
+
+    /**
+     * Whether generated factories call setters directly.
+     *
+     * @return whether direct dispatch is enabled
+     * @see #setDirectPropertyDispatch(boolean)
+     */
+    public static boolean getDirectPropertyDispatch () {
+        return directPropertyDispatch;
+    }
+
     /**
      * Gets a property of a bean.
      *
@@ -1240,6 +1391,78 @@ public abstract class BeanFactory<BeanClass> {
     // getMethods().
     protected abstract BeanProperty<BeanClass>[] getProperties (JsArray<JavaScriptObject> methods);
 
+    // The following two methods are used by factories generated with the
+    // "compact" value of the smartgwt.beanFactoryMetadata configuration
+    // property. Instead of a JSNI function and a constructor call for every
+    // method and property, such factories generate a single dispatch function
+    // with a case for each method, and a table which describes the
+    // properties. This is a little slower to set up, but makes for
+    // considerably less generated code.
+
+    // Creates the JsArray expected by getProperties() from a generated
+    // dispatch function, which takes the method number, the bean and the
+    // value (for setters).
+    protected static native JsArray<JavaScriptObject> bindMethods (JavaScriptObject dispatcher, int count) /*-{
+        var methods = [];
+        for (var i = 0; i < count; i++) {
+            methods[i] = (function (id) {
+                return function (b, v) {return dispatcher(id, b, v)};
+            })(i);
+        }
+        return methods;
+    }-*/;
+
+    // Creates the properties from a generated table. The names are separated
+    // by commas. For each property, the table holds the number of getters and
+    // the number of setters, followed by a pair of numbers for each getter
+    // and then each setter: the index of its value type, and the index of its
+    // method. This mirrors the choice of BeanProperty subclass which the
+    // generator makes in the default mode.
+    @SuppressWarnings("unchecked")
+    protected BeanProperty<BeanClass>[] createProperties (String names, Class<?>[] valueTypes, int[] table, JsArray<JavaScriptObject> methods) {
+        final String[] propertyNames = names.length() == 0 ? new String[0] : names.split(",");
+        final BeanProperty<BeanClass>[] result = (BeanProperty<BeanClass>[]) new BeanProperty[propertyNames.length];
+
+        int t = 0;
+        for (int i = 0; i < propertyNames.length; i++) {
+            final String name = propertyNames[i];
+            final int getterCount = table[t++];
+            final int setterCount = table[t++];
+
+            if (getterCount == 1 && setterCount == 1 && table[t] == table[t + 2]) {
+                final BeanMethod<BeanClass, ?> method = new BeanMethod<BeanClass, Object>(valueTypes[table[t]], methods.get(table[t + 1]), methods.get(table[t + 3]));
+                result[i] = new BeanProperty1Getter1Setter<BeanClass>(name, method);
+                t += 4;
+            } else if (getterCount == 1 && setterCount == 0) {
+                final BeanMethod<BeanClass, ?> method = new BeanMethod<BeanClass, Object>(valueTypes[table[t]], methods.get(table[t + 1]), null);
+                result[i] = new BeanProperty1Getter<BeanClass>(name, method);
+                t += 2;
+            } else if (getterCount == 0 && setterCount == 1) {
+                final BeanMethod<BeanClass, ?> method = new BeanMethod<BeanClass, Object>(valueTypes[table[t]], null, methods.get(table[t + 1]));
+                result[i] = new BeanProperty1Setter<BeanClass>(name, method);
+                t += 2;
+            } else {
+                BeanMethod[] getters = null;
+                if (getterCount > 0) {
+                    getters = new BeanMethod[getterCount];
+                    for (int j = 0; j < getterCount; j++, t += 2) {
+                        getters[j] = new BeanMethod<BeanClass, Object>(valueTypes[table[t]], methods.get(table[t + 1]), null);
+                    }
+                }
+                BeanMethod[] setters = null;
+                if (setterCount > 0) {
+                    setters = new BeanMethod[setterCount];
+                    for (int j = 0; j < setterCount; j++, t += 2) {
+                        setters[j] = new BeanMethod<BeanClass, Object>(valueTypes[table[t]], null, methods.get(table[t + 1]));
+                    }
+                }
+                result[i] = new BeanPropertyMultiple<BeanClass>(name, getters, setters);
+            }
+        }
+
+        return result;
+    }
+
     // Creates the SmartClient SGWTFactory. Most of the callback functions are
     // actually the same for every SGWTFactory, and defined in the SGWTModule,
     // so we pass the reference to the module.
@@ -1377,12 +1600,50 @@ public abstract class BeanFactory<BeanClass> {
         // no-arg method names beanFactoryInit()
     }
 
+    // Results of dispatchSetProperty
+    protected static final int PROPERTY_SET = 0;
+    protected static final int PROPERTY_NOT_DISPATCHED = 1;
+    protected static final int PROPERTY_NOT_FOUND = 2;
+
+    // Generated subclasses override this to call setters directly, switching on
+    // the hash code of the property name. Properties with exactly one setter
+    // are set and PROPERTY_SET is returned. Other properties of this class
+    // (overloaded setters, or getters only) return PROPERTY_NOT_DISPATCHED, so
+    // that the BeanProperty in the properties map picks the setter. Names
+    // which are not properties of this class return PROPERTY_NOT_FOUND, which
+    // lets us skip the map and go straight to the superclass factory.
+    protected int dispatchSetProperty (Object bean, String propertyName, Object value) {
+        return PROPERTY_NOT_DISPATCHED;
+    }
+
+    // Used by the generated dispatchSetProperty, so that errors are reported
+    // in the same way as BeanProperty.setProperty
+    protected IllegalArgumentException setPropertyException (Object bean, String propertyName,
+                                                             Object value, IllegalArgumentException cause) {
+        final String message = "Could not set property " + bean.getClass().getName() + "." + propertyName +
+                               " given value of type " + (value == null ? "null" : value.getClass().getName());
+        return new IllegalArgumentException(message, cause);
+    }
+
     // Sets a property of the bean to a value
     @SuppressWarnings("unchecked")
     public void doSetProperty (Object bean, String propertyName, Object value) {
         // Note that we don't want to use the parameterized BeanClass type
         // here, because we'd like to be able to call this from the static
         // method.
+
+        if (directPropertyDispatch && propertyName != null) {
+            final int result = dispatchSetProperty(bean, propertyName, value);
+            if (result == PROPERTY_SET) return;
+            if (result == PROPERTY_NOT_FOUND) {
+                if (superclassFactory == null) {
+                    setJavascriptProperty((BeanClass) bean, propertyName, value);
+                } else {
+                    superclassFactory.doSetProperty(bean, propertyName, value);
+                }
+                return;
+            }
+        }
         
         BeanProperty<BeanClass> property = properties.get(propertyName);
         if (property == null) {
@@ -29,6 +29,7 @@ import com.smartgwt.client.bean.BeanFactory;
 import com.smartgwt.client.data.Record;
 import com.smartgwt.client.types.ValueEnum;
 import com.smartgwt.client.util.JSOHelper;
+import com.smartgwt.client.util.PropertyBatch;
 import com.smartgwt.client.widgets.BaseWidget;
 import com.smartgwt.client.util.ConfigUtil;
 import com.smartgwt.client.util.SC;
@@ -110,6 +111,15 @@ public class DataClass extends JsObject implements HasHandlers {
         super(jsObj);
     }
 
+    /**
+     * Set every attribute in the batch with a single call into JavaScript
+     * @param properties the attributes to set; if null, nothing is set
+     * @see BaseWidget#applyProperties(PropertyBatch)
+     */
+    public void applyProperties(PropertyBatch properties) {
+        if (properties != null) properties.applyTo(jsObj);
+    }
+
     /**
      * Set attribute value to a String
      * @param property
@@ -30,7 +30,22 @@ public class RefDataClass extends DataClass {
     }
 
     public RefDataClass(JavaScriptObject jsObj) {
+        this(jsObj, false);
+    }
+
+    /**
+     * Wrap an existing object.  Unless <code>lightweight</code> is true, any existing SC.REF
+     * and SC.MODULE attributes are removed, so that the object is no longer represented by any
+     * other wrapper.  A lightweight wrapper leaves the object untouched: it neither adds nor
+     * removes back-references, so it can be created and dropped freely without affecting the
+     * object or any wrapper which already refers to it.
+     *
+     * @param jsObj the object to wrap
+     * @param lightweight true to leave the SC.REF and SC.MODULE attributes alone
+     */
+    protected RefDataClass(JavaScriptObject jsObj, boolean lightweight) {
         super(jsObj);
+        if (lightweight) return;
         //when we're being constructed using the JSO directly, make sure we clear out any other
         //SC.REF attributes to make sure this object is represented by a different GWT object ref
         JSOHelper.deleteAttribute(jsObj, SC.REF);
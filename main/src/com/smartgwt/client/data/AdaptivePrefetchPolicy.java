@@ -0,0 +1,150 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data;
+
+/**
+ * A {@link PrefetchPolicy} which reads ahead in the direction of scrolling, far enough to
+ * cover the rows that will be scrolled through while the fetch is in flight.
+ * <P>
+ * The read-ahead is the scroll velocity multiplied by the measured latency and a
+ * {@link #setSafetyFactor safety factor}, between {@link #setMinRows minRows} and a limit
+ * of {@link #setMaxRows maxRows} or {@link #setMaxBytes maxBytes} worth of rows, whichever is
+ * smaller.  When scrolling stops, the read-ahead is split evenly before and after the
+ * requested rows.  When scrolling is so fast that the user would be past the read-ahead
+ * before it arrived, only the requested rows are fetched, since anything more would be
+ * wasted.
+ */
+public class AdaptivePrefetchPolicy implements PrefetchPolicy {
+
+    // assumed until a fetch has completed
+    private static final double DEFAULT_LATENCY = 300;
+
+    private int minRows = 75;
+    private int maxRows = 2000;
+    private int maxBytes = 1024 * 1024;
+    private double safetyFactor = 1.5;
+
+    public int[] getFetchRange(int startRow, int endRow, int totalRows, PrefetchStats stats) {
+        int requested = Math.max(endRow - startRow, 1);
+        double velocity = stats.getScrollVelocity(),
+               latency = stats.getLatency(),
+               rowSize = stats.getRowSize();
+
+        int limit = maxRows;
+        if (rowSize > 0) limit = (int) Math.min(limit, maxBytes / rowSize);
+        limit = Math.max(limit, minRows);
+
+        // rows scrolled through while a fetch is in flight
+        double travel = Math.abs(velocity) * (latency < 0 ? DEFAULT_LATENCY : latency) / 1000;
+
+        int fetchStart, fetchEnd;
+        if (travel > limit) {
+            fetchStart = startRow;
+            fetchEnd = endRow;
+        } else {
+            int lead = (int) Math.min(limit, Math.max(minRows, travel * safetyFactor));
+            if (Math.abs(velocity) < requested) {
+                fetchStart = startRow - lead / 2;
+                fetchEnd = endRow + lead - lead / 2;
+            } else if (velocity > 0) {
+                fetchStart = startRow - minRows / 4;
+                fetchEnd = endRow + lead;
+            } else {
+                fetchStart = startRow - lead;
+                fetchEnd = endRow + minRows / 4;
+            }
+        }
+
+        fetchStart = Math.max(fetchStart, 0);
+        if (totalRows >= 0) fetchEnd = Math.min(fetchEnd, totalRows);
+        return new int[] {fetchStart, Math.max(fetchEnd, endRow)};
+    }
+
+    /**
+     * The smallest number of rows to read ahead.
+     *
+     * @param minRows minimum read-ahead. Default value is 75
+     */
+    public void setMinRows(int minRows) {
+        this.minRows = minRows;
+    }
+
+    /**
+     * The smallest number of rows to read ahead.
+     *
+     * @return minimum read-ahead
+     */
+    public int getMinRows() {
+        return minRows;
+    }
+
+    /**
+     * The largest number of rows to read ahead.
+     *
+     * @param maxRows maximum read-ahead. Default value is 2000
+     */
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * The largest number of rows to read ahead.
+     *
+     * @return maximum read-ahead
+     */
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * The largest estimated size of the rows read ahead, so that wide rows are read ahead in
+     * smaller batches.
+     *
+     * @param maxBytes maximum read-ahead in bytes. Default value is 1048576
+     */
+    public void setMaxBytes(int maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * The largest estimated size of the rows read ahead.
+     *
+     * @return maximum read-ahead in bytes
+     */
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Multiplier applied to the rows expected to be scrolled through during a fetch, to allow
+     * for variation in latency and scroll speed.
+     *
+     * @param safetyFactor read-ahead multiplier. Default value is 1.5
+     */
+    public void setSafetyFactor(double safetyFactor) {
+        this.safetyFactor = safetyFactor;
+    }
+
+    /**
+     * Multiplier applied to the rows expected to be scrolled through during a fetch.
+     *
+     * @return read-ahead multiplier
+     */
+    public double getSafetyFactor() {
+        return safetyFactor;
+    }
+}
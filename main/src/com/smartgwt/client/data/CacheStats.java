@@ -0,0 +1,253 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.util.JSOHelper;
+
+/**
+ * Fetch and cache statistics collected by a {@link ResultSet} or {@link DataSource}, as
+ * returned by {@link ResultSet#getStats()} and {@link DataSource#getStats()}.  The getters
+ * read the current values, so a CacheStats instance stays up to date.
+ * <P>
+ * For a DataSource, fetches are the "fetch" operations it has performed, including those on
+ * behalf of ResultSets, and filter time is spent in <code>applyFilter()</code>.  For a
+ * ResultSet, fetches are the batches of rows which have arrived, latency is measured from the
+ * request for missing rows, and cache hits and misses count requests for rows which were and
+ * were not already loaded.
+ * <P>
+ * Byte counts are the size of the response text when available, and otherwise an estimate of
+ * the in-memory size of the records.
+ * <P>
+ * Statistics are only collected once they have been asked for, with <code>getStats()</code> or
+ * <code>addStatsUpdatedHandler()</code>, or if the log category <code>"cacheStats"</code> is
+ * set to INFO in the Developer Console when the ResultSet or DataSource is created.  With that
+ * category enabled, a one-line summary is logged each time the statistics change.
+ */
+public class CacheStats {
+
+    private static final int[] LATENCY_BOUNDS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+    private static final JavaScriptObject latencyBoundsJS = JSOHelper.convertToJavaScriptArray(LATENCY_BOUNDS);
+
+    private final JavaScriptObject state;
+
+    public CacheStats(JavaScriptObject state) {
+        this.state = state;
+    }
+
+    /**
+     * The upper bounds, in milliseconds, of the buckets of the
+     * {@link #getLatencyHistogram() latency histogram}, apart from the last bucket, which
+     * has no upper bound.
+     *
+     * @return latency bucket bounds
+     */
+    public static int[] getLatencyBounds() {
+        return LATENCY_BOUNDS.clone();
+    }
+
+    /**
+     * The number of fetches completed.
+     *
+     * @return fetch count
+     */
+    public int getFetchCount() {
+        return JSOHelper.getAttributeAsInt(state, "fetches");
+    }
+
+    /**
+     * The number of rows fetched.
+     *
+     * @return rows fetched
+     */
+    public int getRowsFetched() {
+        return JSOHelper.getAttributeAsInt(state, "rows");
+    }
+
+    /**
+     * The number of bytes fetched.
+     *
+     * @return bytes fetched
+     */
+    public double getBytesFetched() {
+        return JSOHelper.getAttributeAsDouble(state, "bytes");
+    }
+
+    /**
+     * The number of fetches whose round-trip latency fell into each bucket, as bounded by
+     * {@link #getLatencyBounds()}.
+     *
+     * @return counts per latency bucket
+     */
+    public int[] getLatencyHistogram() {
+        return JSOHelper.getAttributeAsIntArray(state, "histogram");
+    }
+
+    /**
+     * The mean round-trip latency of fetches.
+     *
+     * @return mean latency in milliseconds, or -1 if no latency has been measured
+     */
+    public double getAverageLatency() {
+        int measured = JSOHelper.getAttributeAsInt(state, "latencyCount");
+        return measured == 0 ? -1 : JSOHelper.getAttributeAsDouble(state, "latencyTotal") / measured;
+    }
+
+    /**
+     * The number of requests for rows which were all loaded.
+     *
+     * @return cache hits
+     */
+    public int getCacheHits() {
+        return JSOHelper.getAttributeAsInt(state, "hits");
+    }
+
+    /**
+     * The number of requests for rows which were not all loaded.
+     *
+     * @return cache misses
+     */
+    public int getCacheMisses() {
+        return JSOHelper.getAttributeAsInt(state, "misses");
+    }
+
+    /**
+     * The proportion of requests for rows which were all loaded.
+     *
+     * @return cache hit ratio between 0 and 1, or -1 if no rows have been requested
+     */
+    public double getCacheHitRatio() {
+        int hits = getCacheHits(), total = hits + getCacheMisses();
+        return total == 0 ? -1 : (double) hits / total;
+    }
+
+    /**
+     * Time spent filtering on the client.
+     *
+     * @return filter time in milliseconds
+     */
+    public double getFilterTime() {
+        return JSOHelper.getAttributeAsDouble(state, "filterTime");
+    }
+
+    /**
+     * Time spent sorting on the client.
+     *
+     * @return sort time in milliseconds
+     */
+    public double getSortTime() {
+        return JSOHelper.getAttributeAsDouble(state, "sortTime");
+    }
+
+    /**
+     * The number of times the cache was invalidated.
+     *
+     * @return invalidation count
+     */
+    public int getInvalidationCount() {
+        return JSOHelper.getAttributeAsInt(state, "invalidations");
+    }
+
+    /**
+     * Reset all statistics to zero.
+     */
+    public void reset() {
+        reset(state);
+    }
+
+    /**
+     * A compact one-line summary of the statistics.
+     */
+    @Override
+    public String toString() {
+        double latency = getAverageLatency(), ratio = getCacheHitRatio();
+        return "fetches=" + getFetchCount() + " rows=" + getRowsFetched() +
+               " bytes=" + Math.round(getBytesFetched()) +
+               " latency=" + (latency < 0 ? "-" : Math.round(latency) + "ms") +
+               " hits=" + (ratio < 0 ? "-" : Math.round(ratio * 100) + "%") +
+               " filter=" + Math.round(getFilterTime()) + "ms" +
+               " sort=" + Math.round(getSortTime()) + "ms" +
+               " invalidations=" + getInvalidationCount();
+    }
+
+    // The ResultSet and DataSource keep their statistics in objects created and updated by
+    // these methods.
+
+    static JavaScriptObject createState() {
+        JavaScriptObject state = JSOHelper.createObject();
+        reset(state);
+        return state;
+    }
+
+    private static native void reset(JavaScriptObject state) /*-{
+        state.fetches = state.rows = state.bytes = 0;
+        state.latencyCount = state.latencyTotal = 0;
+        state.hits = state.misses = 0;
+        state.filterTime = state.sortTime = 0;
+        state.invalidations = 0;
+        state.histogram = [];
+        for (var i = 0; i <= @com.smartgwt.client.data.CacheStats::latencyBoundsJS.length; i++) {
+            state.histogram[i] = 0;
+        }
+    }-*/;
+
+    // Records a fetch of rowCount rows and its latency, unless negative.  The size is that of
+    // the response text, if its length is known, or else estimated from a sample record.
+    static native void recordFetch(JavaScriptObject state, JavaScriptObject sample, int rowCount,
+                                   int textLength, double latency) /*-{
+        var bytes = textLength;
+        if (bytes < 0) {
+            bytes = 0;
+            if (sample != null && rowCount > 0) {
+                for (var key in sample) {
+                    var value = sample[key];
+                    if (key.charAt(0) == "_" || typeof value == "function") continue;
+                    bytes += 2 * key.length + (typeof value == "string" ? 2 * value.length : 8);
+                }
+                bytes *= rowCount;
+            }
+        }
+        state.fetches++;
+        state.rows += rowCount;
+        state.bytes += bytes;
+        @com.smartgwt.client.data.CacheStats::recordLatency(Lcom/google/gwt/core/client/JavaScriptObject;D)(state, latency);
+    }-*/;
+
+    static native void recordLatency(JavaScriptObject state, double latency) /*-{
+        if (latency < 0) return;
+        var bounds = @com.smartgwt.client.data.CacheStats::latencyBoundsJS,
+            bucket = 0;
+        while (bucket < bounds.length && latency > bounds[bucket]) bucket++;
+        state.histogram[bucket]++;
+        state.latencyCount++;
+        state.latencyTotal += latency;
+    }-*/;
+
+    static native boolean isLogEnabled(JavaScriptObject owner) /*-{
+        return owner.logIsInfoEnabled != null && owner.logIsInfoEnabled("cacheStats");
+    }-*/;
+
+    // Logs a summary for the Developer Console, if the "cacheStats" category is enabled
+    static void log(JavaScriptObject owner, JavaScriptObject state) {
+        if (isLogEnabled(owner)) logSummary(owner, state);
+    }
+
+    private static native void logSummary(JavaScriptObject owner, JavaScriptObject state) /*-{
+        var stats = @com.smartgwt.client.data.CacheStats::new(Lcom/google/gwt/core/client/JavaScriptObject;)(state);
+        owner.logInfo(stats.@java.lang.Object::toString()(), "cacheStats");
+    }-*/;
+}
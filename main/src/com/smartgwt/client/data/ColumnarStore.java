@@ -0,0 +1,520 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.types.SummaryFunctionType;
+import com.smartgwt.client.util.JSOHelper;
+
+/**
+ * Read-only storage of a large data set by column, for a
+ * {@link DataSource#setClientOnly client-only} DataSource, installed with
+ * {@link DataSource#setColumnarStore}.  Instead of one JavaScript object per record, the
+ * values of each numeric, date and time field are kept in a single typed array, booleans in
+ * a byte array, and the values of other fields are dictionary-encoded, with an array of
+ * codes into a list of distinct values.  This takes much less memory than
+ * {@link DataSource#setCacheData cacheData} for hundreds of thousands of rows, and scans the
+ * values of a field much faster.
+ * <P>
+ * Fetches are filtered and sorted directly on the columns, and Records are created only for
+ * the rows returned by each fetch, so a paged ListGrid materializes just the rows it shows.
+ * The result of the last filter and sort is kept, so paging through it does not repeat the
+ * work.  Criteria on dictionary-encoded fields are evaluated once per distinct value rather
+ * than once per row.  Operators which cannot be evaluated on a column, such as comparisons
+ * between fields, are evaluated against the materialized row.
+ * <P>
+ * Summaries such as sums and averages are also computed on the columns; see
+ * {@link #getSummary}.  Add, update and remove operations fail, since the store is read-only.
+ * <P>
+ * A field holding a value not matching its declared type, such as a string in an
+ * <code>integer</code> field, is dictionary-encoded instead.  Fields not declared in the
+ * DataSource are stored if they are present in the first record.
+ */
+public class ColumnarStore {
+
+    private final JavaScriptObject store;
+
+    /**
+     * Create a store holding the values of the given records.  The records are copied, and are
+     * not referenced by the store afterwards.
+     *
+     * @param fields the fields of the DataSource, as returned by {@link DataSource#getFields()}
+     * @param records the records to store
+     */
+    public ColumnarStore(DataSourceField[] fields, Record[] records) {
+        this(fields, JSOHelper.convertToJavaScriptArray(records));
+    }
+
+    /**
+     * Create a store holding the values of a JavaScript array of records.
+     *
+     * @param fields the fields of the DataSource, as returned by {@link DataSource#getFields()}
+     * @param records a JavaScript array of records
+     */
+    public ColumnarStore(DataSourceField[] fields, JavaScriptObject records) {
+        JavaScriptObject fieldsJS = JSOHelper.createJavaScriptArray();
+        for (int i = 0; fields != null && i < fields.length; i++) {
+            JavaScriptObject field = JSOHelper.createObject();
+            JSOHelper.setAttribute(field, "name", fields[i].getName());
+            JSOHelper.setAttribute(field, "type", fields[i].getAttributeAsString("type"));
+            JSOHelper.setArrayValue(fieldsJS, i, field);
+        }
+        store = createStore(fieldsJS, records);
+    }
+
+    /**
+     * The number of rows in the store.
+     *
+     * @return row count
+     */
+    public native int getLength() /*-{
+        return this.@com.smartgwt.client.data.ColumnarStore::store.length;
+    }-*/;
+
+    /**
+     * Create a Record holding the values of a row.
+     *
+     * @param row the row number
+     *
+     * @return a new Record for the row
+     */
+    public Record getRecord(int row) {
+        if (row < 0 || row >= getLength()) throw new IndexOutOfBoundsException("Row " + row + " of " + getLength());
+        return new Record(materialize(row));
+    }
+
+    /**
+     * The number of rows matching criteria.
+     *
+     * @param criteria the criteria (may be null for all rows)
+     *
+     * @return matching row count
+     */
+    public int getRowCount(Criteria criteria) {
+        return getRowCount(criteria == null ? null : criteria.getJsObj());
+    }
+
+    /**
+     * Compute a summary of a field over the rows matching criteria.  Null values are skipped.
+     * <code>SUM</code> and <code>AVG</code> apply to numeric fields, <code>MIN</code> and
+     * <code>MAX</code> to numeric and date fields (giving the time in milliseconds), and
+     * <code>COUNT</code> counts the non-null values of any field.
+     *
+     * @param fieldName the field to summarize
+     * @param function SUM, AVG, MIN, MAX or COUNT
+     * @param criteria the criteria (may be null for all rows)
+     *
+     * @return the summary, or null if there are no values to summarize
+     * @throws IllegalArgumentException for other summary functions
+     */
+    public Double getSummary(String fieldName, SummaryFunctionType function, Criteria criteria) throws IllegalArgumentException {
+        switch (function) {
+            case SUM: case AVG: case MIN: case MAX: case COUNT:
+                return getSummary(fieldName, function.getValue(), criteria == null ? null : criteria.getJsObj());
+            default:
+                throw new IllegalArgumentException("Unsupported summary function: " + function.getValue());
+        }
+    }
+
+    // The DataSource's getClientOnlyResponse() override calls this for every request
+    native JavaScriptObject getResponse(JavaScriptObject dsRequest) /*-{
+        return this.@com.smartgwt.client.data.ColumnarStore::store.getResponse(dsRequest);
+    }-*/;
+
+    private native JavaScriptObject materialize(int row) /*-{
+        return this.@com.smartgwt.client.data.ColumnarStore::store.materialize(row);
+    }-*/;
+
+    private native int getRowCount(JavaScriptObject criteria) /*-{
+        var store = this.@com.smartgwt.client.data.ColumnarStore::store,
+            rows = store.query(criteria, null, null);
+        return rows == null ? store.length : rows.length;
+    }-*/;
+
+    private native Double getSummary(String fieldName, String function, JavaScriptObject criteria) /*-{
+        var result = this.@com.smartgwt.client.data.ColumnarStore::store.summarize(fieldName, function, criteria);
+        return result == null ? null : @java.lang.Double::valueOf(D)(result);
+    }-*/;
+
+    private static native JavaScriptObject createStore(JavaScriptObject fields, JavaScriptObject records) /*-{
+        var isc = $wnd.isc,
+            length = records == null ? 0 : records.length,
+            Float64 = $wnd.Float64Array || $wnd.Array,
+            Int32 = $wnd.Int32Array || $wnd.Array,
+            Uint8 = $wnd.Uint8Array || $wnd.Array,
+            BOOLEAN_NULL = 2;
+
+        var isDate = function (value) {
+            return value != null && typeof value == "object" && typeof value.getTime == "function";
+        };
+
+        // Returns a column of the given type, or null if a value doesn't fit it
+        var buildTypedColumn = function (name, type) {
+            var isDateType = type == "date" || type == "datetime" || type == "time";
+            if (type == "boolean") {
+                var flags = new Uint8(length);
+                for (var i = 0; i < length; i++) {
+                    var value = records[i][name];
+                    if (value == null) flags[i] = BOOLEAN_NULL;
+                    else if (value === true || value === false) flags[i] = value ? 1 : 0;
+                    else return null;
+                }
+                return { kind: "boolean", values: flags };
+            }
+            if (!isDateType && type != "integer" && type != "float" && type != "sequence" && type != "intEnum") {
+                return null;
+            }
+            var values = new Float64(length),
+                column = { kind: isDateType ? "date" : "number", values: values };
+            for (var i = 0; i < length; i++) {
+                var value = records[i][name];
+                if (value == null) {
+                    values[i] = NaN;
+                } else if (isDateType && isDate(value)) {
+                    values[i] = value.getTime();
+                    if (value.logicalDate) column.logicalDate = true;
+                    if (value.logicalTime) column.logicalTime = true;
+                } else if (!isDateType && typeof value == "number") {
+                    values[i] = value;
+                } else {
+                    return null;
+                }
+            }
+            return column;
+        };
+
+        var buildDictionaryColumn = function (name) {
+            var codes = new Int32(length), dictionary = [], index = {};
+            for (var i = 0; i < length; i++) {
+                var value = records[i][name];
+                if (value == null) {
+                    codes[i] = -1;
+                    continue;
+                }
+                var key = typeof value == "object" ? null : typeof value + ":" + value,
+                    code = key == null ? undefined : index[key];
+                if (code === undefined) {
+                    code = dictionary.length;
+                    dictionary[code] = value;
+                    if (key != null) index[key] = code;
+                }
+                codes[i] = code;
+            }
+            return { kind: "dictionary", codes: codes, dictionary: dictionary };
+        };
+
+        var names = [], columns = {};
+        var addColumn = function (name, type) {
+            if (name == null || columns[name] != null) return;
+            names.push(name);
+            columns[name] = buildTypedColumn(name, type) || buildDictionaryColumn(name);
+        };
+        for (var i = 0; fields != null && i < fields.length; i++) addColumn(fields[i].name, fields[i].type);
+        if (length > 0) {
+            for (var name in records[0]) {
+                if (name.charAt(0) != "_" && typeof records[0][name] != "function") addColumn(name, null);
+            }
+        }
+
+        var materialize = function (row) {
+            var record = {};
+            for (var i = 0; i < names.length; i++) {
+                var name = names[i], column = columns[name];
+                if (column.kind == "dictionary") {
+                    var code = column.codes[row];
+                    if (code >= 0) record[name] = column.dictionary[code];
+                } else if (column.kind == "boolean") {
+                    var flag = column.values[row];
+                    if (flag != BOOLEAN_NULL) record[name] = flag == 1;
+                } else {
+                    var value = column.values[row];
+                    if (value !== value) continue;
+                    if (column.kind == "date") {
+                        value = new $wnd.Date(value);
+                        if (column.logicalDate) value.logicalDate = true;
+                        if (column.logicalTime) value.logicalTime = true;
+                    }
+                    record[name] = value;
+                }
+            }
+            return record;
+        };
+
+        // The numeric form of a criterion value for a number, date or boolean column: null for
+        // null, and undefined if the value can't be compared on the column.
+        var toNumber = function (value) {
+            if (value == null) return null;
+            if (typeof value == "number") return value;
+            if (typeof value == "boolean") return value ? 1 : 0;
+            if (isDate(value)) return value.getTime();
+            return undefined;
+        };
+
+        var compileOnRow = function (criterion) {
+            var predicate = @com.smartgwt.client.data.CompiledCriteria::getPredicate(Lcom/google/gwt/core/client/JavaScriptObject;)(criterion);
+            return function (row) { return !!predicate(materialize(row)); };
+        };
+
+        // Evaluates the criterion once for each distinct value of the column
+        var compileOnDictionary = function (criterion, column) {
+            var predicate = @com.smartgwt.client.data.CompiledCriteria::getPredicate(Lcom/google/gwt/core/client/JavaScriptObject;)(criterion),
+                dictionary = column.dictionary,
+                codes = column.codes,
+                matches = new Uint8(dictionary.length),
+                nullMatches = !!predicate({});
+            for (var i = 0; i < dictionary.length; i++) {
+                var record = {};
+                record[criterion.fieldName] = dictionary[i];
+                matches[i] = predicate(record) ? 1 : 0;
+            }
+            return function (row) {
+                var code = codes[row];
+                return code < 0 ? nullMatches : matches[code] == 1;
+            };
+        };
+
+        var compileOnBooleans = function (criterion, column) {
+            var flags = column.values, operator = criterion.operator;
+            if (operator == "isNull") return function (row) { return flags[row] == BOOLEAN_NULL; };
+            if (operator == "notNull") return function (row) { return flags[row] != BOOLEAN_NULL; };
+            if (operator != "equals" && operator != "notEqual") return null;
+            var value = toNumber(criterion.value);
+            if (value === undefined) return null;
+            var flag = value == null ? BOOLEAN_NULL : value,
+                equals = operator == "equals";
+            return function (row) { return (flags[row] == flag) == equals; };
+        };
+
+        var compileOnNumbers = function (criterion, column) {
+            var values = column.values, operator = criterion.operator;
+            switch (operator) {
+            case "isNull":
+                return function (row) { return values[row] !== values[row]; };
+            case "notNull":
+                return function (row) { return values[row] === values[row]; };
+            case "equals":
+            case "notEqual":
+                var value = toNumber(criterion.value);
+                if (value === undefined) return null;
+                var equals = operator == "equals";
+                if (value == null) return function (row) { return (values[row] !== values[row]) == equals; };
+                return function (row) { return (values[row] === value) == equals; };
+            case "greaterThan":
+            case "greaterOrEqual":
+            case "lessThan":
+            case "lessOrEqual":
+                var bound = toNumber(criterion.value);
+                if (bound == null) return null;
+                if (operator == "greaterThan") return function (row) { return values[row] > bound; };
+                if (operator == "greaterOrEqual") return function (row) { return values[row] >= bound; };
+                if (operator == "lessThan") return function (row) { return values[row] < bound; };
+                return function (row) { return values[row] <= bound; };
+            case "between":
+            case "betweenInclusive":
+                var start = toNumber(criterion.start), end = toNumber(criterion.end);
+                if (start == null || end == null) return null;
+                if (operator == "between") return function (row) { return values[row] > start && values[row] < end; };
+                return function (row) { return values[row] >= start && values[row] <= end; };
+            case "inSet":
+            case "notInSet":
+                if (!isc.isAn.Array(criterion.value)) return null;
+                var set = {}, includesNull = false;
+                for (var i = 0; i < criterion.value.length; i++) {
+                    var member = toNumber(criterion.value[i]);
+                    if (member === undefined) return null;
+                    if (member == null) includesNull = true;
+                    else set[member] = true;
+                }
+                var inSet = operator == "inSet";
+                return function (row) {
+                    var x = values[row];
+                    return (x !== x ? includesNull : set[x] === true) == inSet;
+                };
+            }
+            return null;
+        };
+
+        var compileCriterion = function (criterion) {
+            var operator = criterion.operator;
+            if (operator == "and" || operator == "or" || operator == "not") {
+                var subCriteria = criterion.criteria || [], fns = [];
+                for (var i = 0; i < subCriteria.length; i++) fns[i] = compileCriterion(subCriteria[i]);
+                // "not" is true when none of its subcriteria are: the negation of their "or"
+                var all = operator == "and", count = fns.length;
+                var combined = function (row) {
+                    for (var i = 0; i < count; i++) {
+                        if (!fns[i](row) == all) return !all;
+                    }
+                    return all;
+                };
+                return operator == "not" ? function (row) { return !combined(row); } : combined;
+            }
+            var column = columns[criterion.fieldName], compiled = null;
+            // operators comparing against another field, such as "equalsField", need the row
+            if (column != null && !/Field$/.test(operator)) {
+                if (column.kind == "dictionary") compiled = compileOnDictionary(criterion, column);
+                else if (column.kind == "boolean") compiled = compileOnBooleans(criterion, column);
+                else compiled = compileOnNumbers(criterion, column);
+            }
+            return compiled || compileOnRow(criterion);
+        };
+
+        // Returns a function testing a row number against the criteria, or null for all rows
+        var compile = function (criteria, textMatchStyle) {
+            if (criteria == null) return null;
+            if (!isc.DataSource.isAdvancedCriteria(criteria)) {
+                if (isc.isAn.emptyObject(criteria)) return null;
+                criteria = isc.DataSource.convertCriteria(criteria, textMatchStyle);
+            }
+            if ((criteria.operator == "and" || criteria.operator == "or") &&
+                (criteria.criteria == null || criteria.criteria.length == 0))
+            {
+                return criteria.operator == "and" ? null : function () { return false; };
+            }
+            return compileCriterion(criteria);
+        };
+
+        var compareValues = function (a, b) {
+            if (typeof a == "string" && typeof b == "string") {
+                var lowerA = a.toLowerCase(), lowerB = b.toLowerCase();
+                if (lowerA != lowerB) return lowerA < lowerB ? -1 : 1;
+            }
+            return a < b ? -1 : a > b ? 1 : 0;
+        };
+
+        // Returns a function giving a number by which rows sort in the order of the column
+        var getSortKey = function (column) {
+            var values = column.values;
+            if (column.kind == "boolean") {
+                return function (row) { return values[row] == BOOLEAN_NULL ? -1 : values[row]; };
+            }
+            if (column.kind != "dictionary") {
+                return function (row) { var x = values[row]; return x !== x ? -Infinity : x; };
+            }
+            if (column.ranks == null) {
+                var dictionary = column.dictionary, order = [];
+                for (var i = 0; i < dictionary.length; i++) order[i] = i;
+                order.sort(function (a, b) { return compareValues(dictionary[a], dictionary[b]); });
+                column.ranks = new Int32(dictionary.length);
+                for (var i = 0; i < order.length; i++) column.ranks[order[i]] = i;
+            }
+            var codes = column.codes, ranks = column.ranks;
+            return function (row) { var code = codes[row]; return code < 0 ? -1 : ranks[code]; };
+        };
+
+        var sortRows = function (rows, sortBy) {
+            var keys = [], directions = [];
+            if (!isc.isAn.Array(sortBy)) sortBy = [sortBy];
+            for (var i = 0; i < sortBy.length; i++) {
+                var spec = sortBy[i], descending = spec.charAt(0) == "-",
+                    column = columns[descending ? spec.substring(1) : spec];
+                if (column == null) continue;
+                keys.push(getSortKey(column));
+                directions.push(descending ? -1 : 1);
+            }
+            if (keys.length == 0) return;
+            rows.sort(function (a, b) {
+                for (var i = 0; i < keys.length; i++) {
+                    var x = keys[i](a), y = keys[i](b);
+                    if (x != y) return x < y ? -directions[i] : directions[i];
+                }
+                return a - b;
+            });
+        };
+
+        var store = { length: length };
+
+        store.materialize = materialize;
+
+        // Returns the matching row numbers in sort order, or null for all rows in order.  The
+        // last result is kept, since a paging ResultSet repeats the same query for each page.
+        store.query = function (criteria, textMatchStyle, sortBy) {
+            if (sortBy != null && sortBy.length == 0) sortBy = null;
+            var key = @com.smartgwt.client.data.Criteria::getCanonicalKey(Lcom/google/gwt/core/client/JavaScriptObject;)(criteria) +
+                      "|" + textMatchStyle + "|" + (sortBy == null ? "" : String(sortBy));
+            if (store.lastKey === key) return store.lastRows;
+
+            var predicate = compile(criteria, textMatchStyle), rows = null;
+            if (predicate != null) {
+                rows = [];
+                for (var i = 0; i < length; i++) {
+                    if (predicate(i)) rows.push(i);
+                }
+            }
+            if (sortBy != null) {
+                if (rows == null) {
+                    rows = new Array(length);
+                    for (var i = 0; i < length; i++) rows[i] = i;
+                }
+                sortRows(rows, sortBy);
+            }
+            store.lastKey = key;
+            store.lastRows = rows;
+            return rows;
+        };
+
+        store.summarize = function (name, summaryFunction, criteria) {
+            var column = columns[name];
+            if (column == null) return summaryFunction == "count" ? 0 : null;
+            var rows = store.query(criteria, null, null),
+                rowCount = rows == null ? length : rows.length,
+                count = 0, sum = 0, min = Infinity, max = -Infinity;
+            for (var i = 0; i < rowCount; i++) {
+                var row = rows == null ? i : rows[i], value;
+                if (column.kind == "dictionary") {
+                    var code = column.codes[row];
+                    if (code < 0) continue;
+                    value = column.dictionary[code];
+                    if (summaryFunction != "count" && typeof value != "number") continue;
+                } else if (column.kind == "boolean") {
+                    value = column.values[row];
+                    if (value == BOOLEAN_NULL) continue;
+                } else {
+                    value = column.values[row];
+                    if (value !== value) continue;
+                }
+                count++;
+                sum += value;
+                if (value < min) min = value;
+                if (value > max) max = value;
+            }
+            switch (summaryFunction) {
+            case "count": return count;
+            case "sum": return count == 0 || column.kind == "date" ? null : sum;
+            case "avg": return count == 0 || column.kind == "date" ? null : sum / count;
+            case "min": return count == 0 ? null : min;
+            case "max": return count == 0 ? null : max;
+            }
+            return null;
+        };
+
+        store.getResponse = function (dsRequest) {
+            if (dsRequest.operationType != "fetch") {
+                return { status: -1, data: "ColumnarStore is read-only: " + dsRequest.operationType + " is not supported" };
+            }
+            var rows = store.query(dsRequest.data, dsRequest.textMatchStyle, dsRequest.sortBy),
+                totalRows = rows == null ? length : rows.length,
+                startRow = Math.min(dsRequest.startRow || 0, totalRows),
+                endRow = dsRequest.endRow == null ? totalRows : Math.min(dsRequest.endRow, totalRows),
+                data = new $wnd.Array();
+            for (var i = startRow; i < endRow; i++) data.push(materialize(rows == null ? i : rows[i]));
+            return { status: 0, data: data, startRow: startRow, endRow: Math.max(startRow, endRow), totalRows: totalRows };
+        };
+
+        return store;
+    }-*/;
+}
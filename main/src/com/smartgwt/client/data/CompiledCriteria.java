@@ -0,0 +1,408 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * A {@link Criteria} or {@link AdvancedCriteria} compiled into a single JavaScript predicate
+ * function, for testing many records against the same criteria.
+ * <P>
+ * Evaluating criteria normally walks the criterion tree and interprets each operator for
+ * every record.  Compiling does that walk once: each criterion becomes a small function with
+ * its operands already prepared (dates converted to times, regular expressions and
+ * <code>inSet</code> lookups built), and <code>and</code>, <code>or</code> and
+ * <code>not</code> combine them with short-circuit evaluation.  Compiled criteria are cached
+ * on a canonical form of the criteria, so compiling equal criteria again is cheap.
+ * <P>
+ * The common operators - the <code>equals</code>, comparison, <code>between</code>, substring,
+ * <code>regexp</code>, <code>isNull</code>, <code>inSet</code> and <code>equalsField</code>
+ * families and their negated and case-insensitive forms - are compiled directly, without
+ * reference to field types: values are compared as they are stored in the record, with dates
+ * compared by time.  Any other criterion, or one with a relative date operand, is evaluated by
+ * the SmartClient <code>evaluateCriterion()</code> method of the DataSource passed to
+ * {@link #compile(Criteria, DataSource)}, or of an internal client-only DataSource.
+ * <P>
+ * Simple Criteria are treated as an "and" of <code>equals</code> criteria, with an array value
+ * meaning <code>inSet</code>, as in {@link RecordList#findAll(Map)}.
+ * <P>
+ * {@link RecordList#findAll(AdvancedCriteria)} and the related RecordList methods use
+ * compiled criteria automatically.
+ */
+public class CompiledCriteria {
+
+    private static final int CACHE_SIZE = 100;
+
+    private static final Map<String, CompiledCriteria> cache =
+        new LinkedHashMap<String, CompiledCriteria>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledCriteria> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+
+    private static JavaScriptObject fallbackDataSource;
+
+    private final String key;
+    private final JavaScriptObject predicate;
+
+    private CompiledCriteria(String key, JavaScriptObject predicate) {
+        this.key = key;
+        this.predicate = predicate;
+    }
+
+    /**
+     * Compile criteria, or return the cached result of compiling equal criteria.
+     *
+     * @param criteria the criteria to compile
+     *
+     * @return the compiled criteria
+     */
+    public static CompiledCriteria compile(Criteria criteria) {
+        return compile(criteria, null);
+    }
+
+    /**
+     * Compile criteria, or return the cached result of compiling equal criteria.  Criteria
+     * which cannot be compiled directly are evaluated by <code>dataSource</code>, so that its
+     * field types are taken into account.
+     *
+     * @param criteria the criteria to compile
+     * @param dataSource the DataSource to evaluate other criteria with (may be null)
+     *
+     * @return the compiled criteria
+     */
+    public static CompiledCriteria compile(Criteria criteria, DataSource dataSource) {
+        JavaScriptObject criteriaJS = criteria == null ? null : criteria.getJsObj();
+        JavaScriptObject dataSourceJS = dataSource == null ? null : dataSource.getOrCreateJsObj();
+        String key = Criteria.getCanonicalKey(criteriaJS) + (dataSource == null ? "" : "@" + dataSource.getID());
+
+        CompiledCriteria compiled = cache.get(key);
+        if (compiled == null) {
+            compiled = new CompiledCriteria(key, compilePredicate(criteriaJS, dataSourceJS));
+            cache.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Discard all cached compiled criteria.
+     */
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * The canonical form of the criteria, which equal criteria share.
+     *
+     * @return the key the compiled criteria are cached under
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Test a record against the criteria.
+     *
+     * @param record the record to test
+     *
+     * @return true if the record matches
+     */
+    public boolean matches(Record record) {
+        return record != null && matches(record.getJsObj());
+    }
+
+    /**
+     * Test a JavaScript record against the criteria.
+     *
+     * @param record the record to test
+     *
+     * @return true if the record matches
+     */
+    public native boolean matches(JavaScriptObject record) /*-{
+        if (record == null) return false;
+        var predicate = this.@com.smartgwt.client.data.CompiledCriteria::predicate;
+        return !!predicate(record);
+    }-*/;
+
+    // Returns the index of the first matching record in data from start to
+    // end inclusive (end < 0 meaning the last record), or -1 if there is none.
+    native int findNextIndex(JavaScriptObject data, int start, int end) /*-{
+        var predicate = this.@com.smartgwt.client.data.CompiledCriteria::predicate,
+            last = data.length - 1;
+        if (end < 0 || end > last) end = last;
+        for (var i = Math.max(start, 0); i <= end; i++) {
+            var record = data[i];
+            if (record != null && predicate(record)) return i;
+        }
+        return -1;
+    }-*/;
+
+    // Returns the matching records of data, or null if there are none
+    native JavaScriptObject findAll(JavaScriptObject data) /*-{
+        var predicate = this.@com.smartgwt.client.data.CompiledCriteria::predicate,
+            result = [];
+        for (var i = 0, length = data.length; i < length; i++) {
+            var record = data[i];
+            if (record != null && predicate(record)) result.push(record);
+        }
+        return result.length == 0 ? null : result;
+    }-*/;
+
+    // The predicate function for criteria given as a JavaScript object, through the cache
+    static JavaScriptObject getPredicate(JavaScriptObject criteria) {
+        return compile(new Criteria(criteria)).predicate;
+    }
+
+    private static JavaScriptObject getFallbackDataSource() {
+        if (fallbackDataSource == null) {
+            DataSource dataSource = new DataSource();
+            dataSource.setClientOnly(true);
+            fallbackDataSource = dataSource.getOrCreateJsObj();
+        }
+        return fallbackDataSource;
+    }
+
+    private static native JavaScriptObject compilePredicate(JavaScriptObject criteria, JavaScriptObject dataSource) /*-{
+        var isc = $wnd.isc;
+
+        var alwaysTrue = function () { return true; };
+
+        // Dates are compared by time, everything else as it is
+        var normalize = function (value) {
+            return value != null && typeof value == "object" && typeof value.getTime == "function" ? value.getTime() : value;
+        };
+        var toLower = function (value) {
+            return value == null ? null : String(value).toLowerCase();
+        };
+        var isRelativeDate = function (value) {
+            return value != null && typeof value == "object" && value._constructor == "RelativeDate";
+        };
+
+        var fallback = function (criterion) {
+            var ds = dataSource;
+            return function (record) {
+                if (ds == null) ds = @com.smartgwt.client.data.CompiledCriteria::getFallbackDataSource()();
+                return ds.evaluateCriterion(record, criterion);
+            };
+        };
+
+        var combine = function (fns, isAnd) {
+            var length = fns.length;
+            if (length == 0) return alwaysTrue;
+            if (length == 1) return fns[0];
+            if (isAnd) {
+                return function (record) {
+                    for (var i = 0; i < length; i++) if (!fns[i](record)) return false;
+                    return true;
+                };
+            }
+            return function (record) {
+                for (var i = 0; i < length; i++) if (fns[i](record)) return true;
+                return false;
+            };
+        };
+
+        var negate = function (fn) {
+            return function (record) { return !fn(record); };
+        };
+
+        var compileString = function (field, value, caseInsensitive, test) {
+            if (value == null) return null;
+            var operand = caseInsensitive ? toLower(value) : String(value);
+            return function (record) {
+                var recordValue = record[field];
+                if (recordValue == null) return false;
+                recordValue = caseInsensitive ? String(recordValue).toLowerCase() : String(recordValue);
+                return test(recordValue, operand);
+            };
+        };
+
+        var compileCompare = function (field, value, test) {
+            if (value == null) return null;
+            var operand = normalize(value);
+            return function (record) {
+                var recordValue = normalize(record[field]);
+                return recordValue != null && test(recordValue, operand);
+            };
+        };
+
+        var isNegated = function (operator) {
+            return operator.indexOf("not") == 0 || operator.indexOf("iNot") == 0;
+        };
+
+        var contains = function (a, b) { return a.indexOf(b) != -1; };
+        var startsWith = function (a, b) { return a.lastIndexOf(b, 0) == 0; };
+        var endsWith = function (a, b) { var i = a.length - b.length; return i >= 0 && a.indexOf(b, i) == i; };
+
+        var compileCriterion = function (criterion) {
+            if (criterion == null) return alwaysTrue;
+            var operator = criterion.operator,
+                field = criterion.fieldName,
+                value = criterion.value;
+
+            if (isRelativeDate(value) || isRelativeDate(criterion.start) || isRelativeDate(criterion.end)) {
+                return fallback(criterion);
+            }
+
+            var compiled = null;
+            switch (operator) {
+            case "and":
+            case "or":
+            case "not":
+                var subCriteria = criterion.criteria || [], fns = [];
+                for (var i = 0; i < subCriteria.length; i++) fns[i] = compileCriterion(subCriteria[i]);
+                compiled = operator == "not" ? negate(combine(fns, false)) : combine(fns, operator == "and");
+                break;
+
+            case "isNull":
+                compiled = function (record) { return record[field] == null; };
+                break;
+            case "notNull":
+                compiled = function (record) { return record[field] != null; };
+                break;
+
+            case "equals":
+            case "notEqual":
+                var operand = normalize(value), equals;
+                if (operand == null) {
+                    equals = function (record) { return record[field] == null; };
+                } else {
+                    equals = function (record) { return normalize(record[field]) == operand; };
+                }
+                compiled = operator == "equals" ? equals : negate(equals);
+                break;
+            case "iEquals":
+            case "iNotEqual":
+                var iEquals = compileString(field, value, true, function (a, b) { return a == b; });
+                if (iEquals != null) compiled = operator == "iEquals" ? iEquals : negate(iEquals);
+                break;
+
+            case "greaterThan":
+                compiled = compileCompare(field, value, function (a, b) { return a > b; });
+                break;
+            case "lessThan":
+                compiled = compileCompare(field, value, function (a, b) { return a < b; });
+                break;
+            case "greaterOrEqual":
+                compiled = compileCompare(field, value, function (a, b) { return a >= b; });
+                break;
+            case "lessOrEqual":
+                compiled = compileCompare(field, value, function (a, b) { return a <= b; });
+                break;
+            case "between":
+            case "betweenInclusive":
+                var start = normalize(criterion.start), end = normalize(criterion.end),
+                    inclusive = operator == "betweenInclusive";
+                compiled = function (record) {
+                    var recordValue = normalize(record[field]);
+                    if (recordValue == null) return false;
+                    if (start != null && (inclusive ? recordValue < start : recordValue <= start)) return false;
+                    if (end != null && (inclusive ? recordValue > end : recordValue >= end)) return false;
+                    return true;
+                };
+                break;
+
+            case "contains":
+            case "iContains":
+            case "notContains":
+            case "iNotContains":
+                var containsFn = compileString(field, value, operator.charAt(0) == "i", contains);
+                if (containsFn != null) compiled = !isNegated(operator) ? containsFn : negate(containsFn);
+                break;
+            case "startsWith":
+            case "iStartsWith":
+            case "notStartsWith":
+            case "iNotStartsWith":
+                var startsFn = compileString(field, value, operator.charAt(0) == "i", startsWith);
+                if (startsFn != null) compiled = !isNegated(operator) ? startsFn : negate(startsFn);
+                break;
+            case "endsWith":
+            case "iEndsWith":
+            case "notEndsWith":
+            case "iNotEndsWith":
+                var endsFn = compileString(field, value, operator.charAt(0) == "i", endsWith);
+                if (endsFn != null) compiled = !isNegated(operator) ? endsFn : negate(endsFn);
+                break;
+
+            case "regexp":
+            case "iregexp":
+                if (value == null) break;
+                var regexp;
+                try {
+                    regexp = new RegExp(value, operator == "iregexp" ? "i" : "");
+                } catch (e) {
+                    break;
+                }
+                compiled = function (record) {
+                    var recordValue = record[field];
+                    return recordValue != null && regexp.test(String(recordValue));
+                };
+                break;
+
+            case "inSet":
+            case "notInSet":
+                if (value == null || !isc.isAn.Array(value)) break;
+                var set = {}, includesNull = false;
+                for (var i = 0; i < value.length; i++) {
+                    var member = normalize(value[i]);
+                    if (member == null) includesNull = true;
+                    else set[typeof member + ":" + member] = true;
+                }
+                var inSet = function (record) {
+                    var recordValue = normalize(record[field]);
+                    if (recordValue == null) return includesNull;
+                    return set[typeof recordValue + ":" + recordValue] === true;
+                };
+                compiled = operator == "inSet" ? inSet : negate(inSet);
+                break;
+
+            case "equalsField":
+            case "notEqualField":
+                if (value == null) break;
+                var equalsField = function (record) {
+                    return normalize(record[field]) == normalize(record[value]);
+                };
+                compiled = operator == "equalsField" ? equalsField : negate(equalsField);
+                break;
+            }
+            return compiled != null ? compiled : fallback(criterion);
+        };
+
+        if (criteria == null) return alwaysTrue;
+        if (!isc.DataSource.isAdvancedCriteria(criteria)) {
+            // Simple criteria: each property must equal the value, or be one of
+            // the values if an array is given.
+            var simple = [];
+            for (var key in criteria) {
+                if (key == "_constructor" || key == "__ref" || key == "__module") continue;
+                var simpleValue = criteria[key];
+                if (simpleValue === undefined) continue;
+                simple[simple.length] = {
+                    fieldName: key,
+                    operator: isc.isAn.Array(simpleValue) ? "inSet" : "equals",
+                    value: simpleValue
+                };
+            }
+            return compileCriterion({ operator: "and", criteria: simple });
+        }
+        return compileCriterion(criteria);
+    }-*/;
+}
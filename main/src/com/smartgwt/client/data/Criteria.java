@@ -234,4 +234,209 @@ public class Criteria extends DataClass {
         return $wnd.isc.DataSource.convertCriteria(simpleCriteria);
     }-*/;
 
+    /**
+     * Returns an equivalent copy of this criteria in a canonical form, so that criteria which
+     * differ only in the way they were built compare, {@link #isEquivalent match} and
+     * {@link #fingerprint fingerprint} alike.  For AdvancedCriteria, nested "and" and "or" criteria are merged into their
+     * parent when it has the same operator (nested "or" criteria are also merged into a "not",
+     * which negates the "or" of its sub-criteria), the sub-criteria of "and", "or" and "not" are put
+     * in a canonical order with duplicates removed, "and" and "or" criteria with a single
+     * sub-criterion are replaced by that sub-criterion, and <code>inSet</code> and
+     * <code>notInSet</code> values are sorted.  Simple criteria keep their format, with their
+     * properties in a canonical order.
+     *
+     * @return the normalized criteria
+     */
+    public Criteria normalize() {
+        JavaScriptObject normalized = normalize(getJsObj());
+        if ("AdvancedCriteria".equals(JSOHelper.getAttribute(normalized, "_constructor"))) {
+            return new AdvancedCriteria(normalized);
+        }
+        return this instanceof Criterion ? new Criterion(normalized) : new Criteria(normalized);
+    }
+
+    /**
+     * Whether this criteria is equivalent to another, that is, whether their
+     * {@link #normalize normalized} forms are the same.
+     *
+     * @param other the criteria to compare with
+     * @return true if the criteria are equivalent
+     */
+    public boolean isEquivalent(Criteria other) {
+        return other != null && isEquivalent(getJsObj(), other.getJsObj());
+    }
+
+    static boolean isEquivalent(JavaScriptObject criteria, JavaScriptObject other) {
+        return getNormalizedKey(criteria).equals(getNormalizedKey(other));
+    }
+
+    /**
+     * Returns a stable hash of the {@link #normalize normalized} form of this criteria.
+     * Equivalent criteria have the same fingerprint, whatever order they were built in, and
+     * the fingerprint is the same on every page load.  Different criteria may occasionally
+     * share a fingerprint, so use it as a hash, and {@link #isEquivalent isEquivalent()} to
+     * decide whether criteria are the same.
+     *
+     * @return the fingerprint, as a string of 16 hexadecimal digits
+     */
+    public String fingerprint() {
+        return fingerprint(getJsObj());
+    }
+
+    static String fingerprint(JavaScriptObject criteria) {
+        return hash(getNormalizedKey(criteria));
+    }
+
+    /**
+     * Returns a string form of the {@link #normalize normalized} criteria, which is the same
+     * for two criteria exactly when they are {@link #isEquivalent equivalent}.  Unlike the
+     * {@link #fingerprint fingerprint} it can serve as a key for results fetched with the
+     * criteria, at the cost of its length.
+     *
+     * @return the equivalence key
+     */
+    public String getEquivalenceKey() {
+        return getNormalizedKey(getJsObj());
+    }
+
+    // The canonical key of the normalized criteria, which is the same exactly when the criteria
+    // are equivalent
+    static String getNormalizedKey(JavaScriptObject criteria) {
+        return getCanonicalKey(normalize(criteria));
+    }
+
+    static native JavaScriptObject normalize(JavaScriptObject criteria) /*-{
+        if (criteria == null) return null;
+        var isc = $wnd.isc,
+            canonical = @com.smartgwt.client.data.Criteria::getCanonicalFunction()();
+
+        var isSkipped = function (object, key) {
+            return key == "__ref" || key == "__module" || object[key] === undefined;
+        };
+
+        // Sorts by canonical form, dropping duplicates
+        var sortUnique = function (values) {
+            var keyed = [], seen = {};
+            for (var i = 0; i < values.length; i++) {
+                var key = canonical(values[i]);
+                if (seen[key]) continue;
+                seen[key] = true;
+                keyed[keyed.length] = { key: key, value: values[i] };
+            }
+            keyed.sort(function (a, b) { return a.key < b.key ? -1 : a.key > b.key ? 1 : 0; });
+            var result = [];
+            for (var i = 0; i < keyed.length; i++) result[i] = keyed[i].value;
+            return result;
+        };
+
+        var copyProperties = function (object, sortArrays) {
+            var keys = [], result = {};
+            for (var key in object) {
+                if (!isSkipped(object, key)) keys[keys.length] = key;
+            }
+            keys.sort();
+            for (var i = 0; i < keys.length; i++) {
+                var value = object[keys[i]];
+                result[keys[i]] = sortArrays && isc.isAn.Array(value) ? sortUnique(value) : value;
+            }
+            return result;
+        };
+
+        var normalizeNode = function (node) {
+            var operator = node.operator;
+            if (operator != "and" && operator != "or" && operator != "not") {
+                var isSet = operator == "inSet" || operator == "notInSet";
+                var leaf = copyProperties(node, false);
+                delete leaf._constructor;
+                if (isSet && isc.isAn.Array(leaf.value)) leaf.value = sortUnique(leaf.value);
+                return leaf;
+            }
+
+            // "not" negates the "or" of its sub-criteria, so nested "or"s merge into it
+            var merge = operator == "not" ? "or" : operator,
+                subCriteria = node.criteria || [],
+                flattened = [];
+            for (var i = 0; i < subCriteria.length; i++) {
+                if (subCriteria[i] == null) continue;
+                var child = normalizeNode(subCriteria[i]);
+                if (child.operator == merge && child.criteria != null) {
+                    flattened = flattened.concat(child.criteria);
+                } else {
+                    flattened[flattened.length] = child;
+                }
+            }
+            flattened = sortUnique(flattened);
+            if (operator != "not" && flattened.length == 1) return flattened[0];
+            return { operator: operator, criteria: flattened };
+        };
+
+        if (!isc.DataSource.isAdvancedCriteria(criteria)) return copyProperties(criteria, true);
+
+        var result = normalizeNode(criteria);
+        if (criteria._constructor == "AdvancedCriteria") {
+            result = copyProperties(result, false);
+            result._constructor = "AdvancedCriteria";
+        }
+        return result;
+    }-*/;
+
+    // Serializes a value with object keys in sorted order, so that equal
+    // values have the same key however they were built.
+    static native String getCanonicalKey(JavaScriptObject criteria) /*-{
+        var canonical = @com.smartgwt.client.data.Criteria::getCanonicalFunction()();
+        return canonical(criteria);
+    }-*/;
+
+    private static JavaScriptObject canonicalFunction;
+
+    private static JavaScriptObject getCanonicalFunction() {
+        if (canonicalFunction == null) canonicalFunction = createCanonicalFunction();
+        return canonicalFunction;
+    }
+
+    private static native JavaScriptObject createCanonicalFunction() /*-{
+        var isc = $wnd.isc;
+        var canonical = function (value) {
+            if (value == null) return "null";
+            var type = typeof value;
+            if (type == "string") return "s" + value.length + ":" + value;
+            if (type == "number" || type == "boolean") return type.charAt(0) + value;
+            if (type == "function") return "f" + value;
+            if (typeof value.getTime == "function") {
+                return (value.logicalDate ? "l" : value.logicalTime ? "t" : "d") + value.getTime();
+            }
+            var result;
+            if (isc.isAn.Array(value)) {
+                result = "[";
+                for (var i = 0; i < value.length; i++) result += canonical(value[i]) + ",";
+                return result + "]";
+            }
+            var keys = [];
+            for (var key in value) {
+                if (key == "__ref" || key == "__module") continue;
+                if (value[key] === undefined) continue;
+                keys[keys.length] = key;
+            }
+            keys.sort();
+            result = "{";
+            for (var i = 0; i < keys.length; i++) {
+                result += canonical(keys[i]) + "=" + canonical(value[keys[i]]) + ";";
+            }
+            return result + "}";
+        };
+        return canonical;
+    }-*/;
+
+    // Two 32-bit FNV-1a hashes with different offsets, as 16 hex digits
+    private static native String hash(String value) /*-{
+        var fnv = function (h) {
+            for (var i = 0; i < value.length; i++) {
+                h ^= value.charCodeAt(i);
+                h = (h + (h << 1) + (h << 4) + (h << 7) + (h << 8) + (h << 24)) >>> 0;
+            }
+            return ("0000000" + h.toString(16)).slice(-8);
+        };
+        return fnv(0x811c9dc5) + fnv(0x050c5d1f);
+    }-*/;
+
 }
@@ -46,6 +46,7 @@ import com.smartgwt.client.widgets.calendar.*;
 import com.smartgwt.client.widgets.calendar.events.*;
 import com.smartgwt.client.widgets.cube.*;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -274,6 +275,25 @@ public class DSResponse extends RPCResponse {
         return dataJS == null ? null : new RecordList(dataJS);
     }
 
+    /**
+     * Return the data as a List of Maps, converted using the declared field types of the
+     * passed DataSource - see {@link RecordConverter}.  This is considerably cheaper than
+     * calling {@link Record#toMap()} on each record of {@link #getData()}.
+     *
+     * @param dataSource the DataSource whose field types describe the data
+     * @return the data, or null if there is no data
+     */
+    public List<Map<String, Object>> getDataAsMaps(DataSource dataSource) {
+        JavaScriptObject dataJS = getAttributeAsJavaScriptObject("data");
+        if (dataJS == null) return null;
+        if (!JSOHelper.isArray(dataJS)) {
+            List<Map<String, Object>> maps = new ArrayList<Map<String, Object>>(1);
+            maps.add(dataSource.getRecordConverter().toMap(dataJS));
+            return maps;
+        }
+        return dataSource.getRecordConverter().toMaps(dataJS);
+    }
+
     /**
      * HTTP headers returned by the server, as a Map of Header name -> Header value
      * <p>
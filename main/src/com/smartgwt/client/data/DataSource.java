@@ -99,7 +99,7 @@ import com.google.gwt.event.shared.HasHandlers;
  * Example</a> custom databinding-capable components.
  * @see com.smartgwt.client.widgets.DataBoundComponent
  */
-public class DataSource extends BaseClass  implements com.smartgwt.client.data.events.HasHandleErrorHandlers {
+public class DataSource extends BaseClass  implements com.smartgwt.client.data.events.HasHandleErrorHandlers, com.smartgwt.client.data.events.HasStatsUpdatedHandlers {
 
     public static DataSource getOrCreateRef(JavaScriptObject jsObj) {
         if(jsObj == null) return null;
@@ -870,6 +870,7 @@ public class DataSource extends BaseClass  implements com.smartgwt.client.data.e
      */
     public void setInheritsFrom(String inheritsFrom)  throws IllegalStateException {
         setAttribute("inheritsFrom", inheritsFrom, false);
+        recordConverter = null;
     }
 
     /**
@@ -2199,6 +2200,10 @@ public class DataSource extends BaseClass  implements com.smartgwt.client.data.e
                 //handle case where oneTimeDS is cared from original DS (when clientOnly=true with dataURL)
                 jObj = $wnd.isc.DS.get(this.inheritsFrom).__ref;
             }
+            var columnarStore = jObj.@com.smartgwt.client.data.DataSource::columnarStore;
+            if (columnarStore != null) {
+                return columnarStore.@com.smartgwt.client.data.ColumnarStore::getResponse(Lcom/google/gwt/core/client/JavaScriptObject;)(dsRequest);
+            }
             var requestJ = @com.smartgwt.client.data.DSRequest::new(Lcom/google/gwt/core/client/JavaScriptObject;)(dsRequest);
             var serverDataJ = serverData == null ? null : @com.smartgwt.client.data.Record::convertToRecordArray(Lcom/google/gwt/core/client/JavaScriptObject;)(serverData);
             var responseJ = jObj.@com.smartgwt.client.data.DataSource::getClientOnlyResponse(Lcom/smartgwt/client/data/DSRequest;[Lcom/smartgwt/client/data/Record;)(requestJ,serverDataJ);
@@ -2218,7 +2223,258 @@ public class DataSource extends BaseClass  implements com.smartgwt.client.data.e
             return jObj.@com.smartgwt.client.data.DataSource::useOfflineResponse(Lcom/smartgwt/client/data/DSRequest;Lcom/smartgwt/client/data/DSResponse;)(requestJ, responseJ);
         });
 
+        // Compare criteria in their normalized form, so that criteria which differ only in
+        // the order or nesting of their clauses are recognized as equivalent, or as narrower,
+        // and can be served from a ResultSet's cache instead of refetched.
+        self.__compareCriteria = self.compareCriteria;
+        self.compareCriteria = $entry(function(newCriteria, oldCriteria, requestProperties, policy) {
+            if (newCriteria != null && oldCriteria != null &&
+                @com.smartgwt.client.data.Criteria::isEquivalent(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(newCriteria, oldCriteria))
+            {
+                return 0;
+            }
+            return this.__compareCriteria(
+                @com.smartgwt.client.data.Criteria::normalize(Lcom/google/gwt/core/client/JavaScriptObject;)(newCriteria),
+                @com.smartgwt.client.data.Criteria::normalize(Lcom/google/gwt/core/client/JavaScriptObject;)(oldCriteria),
+                requestProperties, policy);
+        });
+
+        if (this.@com.smartgwt.client.data.DataSource::statsState != null ||
+            @com.smartgwt.client.data.CacheStats::isLogEnabled(Lcom/google/gwt/core/client/JavaScriptObject;)(self))
+        {
+            this.@com.smartgwt.client.data.DataSource::installStats()();
+        }
+
+        // Coalesce identical fetches while one is in flight; see setCoalesceFetches()
+        var isc = $wnd.isc,
+            pendingFetches = {},
+            callerProperties = ["clientContext", "internalClientContext", "resultSet", "resultTree",
+                                "componentId", "showPrompt", "prompt"],
+            identityProperties = ["operationId", "startRow", "endRow", "sortBy", "textMatchStyle",
+                                  "outputs", "additionalOutputs", "groupBy", "summaryFunctions",
+                                  "willHandleError", "dataProtocol"];
+        // Returns the key of a fetch, or null if it has properties which make it unsafe to share
+        var getFetchKey = function (criteria, requestProperties) {
+            var identity = {};
+            if (requestProperties != null) {
+                for (var key in requestProperties) {
+                    var value = requestProperties[key];
+                    if (value == null || key.indexOf("__") == 0 || callerProperties.indexOf(key) >= 0) continue;
+                    if (identityProperties.indexOf(key) < 0) return null;
+                    identity[key] = value;
+                }
+            }
+            return @com.smartgwt.client.data.Criteria::getNormalizedKey(Lcom/google/gwt/core/client/JavaScriptObject;)(criteria == null ? {} : criteria) +
+                   "|" + @com.smartgwt.client.data.Criteria::getCanonicalKey(Lcom/google/gwt/core/client/JavaScriptObject;)(identity);
+        };
+        var fetchData = self.fetchData;
+        self.fetchData = function (criteria, callback, requestProperties) {
+            if (!selfJ.@com.smartgwt.client.data.DataSource::coalesceFetches) return fetchData.apply(this, arguments);
+            var key = getFetchKey(criteria, requestProperties);
+            if (key == null) return fetchData.apply(this, arguments);
+
+            var pending = pendingFetches[key];
+            if (pending != null) {
+                pending.waiters.push({ callback: callback, requestProperties: requestProperties || {} });
+                selfJ.@com.smartgwt.client.data.DataSource::coalescedFetchCount++;
+                return;
+            }
+            pending = pendingFetches[key] = { waiters: [] };
+            requestProperties = isc.addProperties({}, requestProperties, { __coalesceKey: key });
+            return fetchData.call(this, criteria, function (dsResponse, data, dsRequest) {
+                if (pendingFetches[key] === pending) delete pendingFetches[key];
+                if (callback != null) isc.Class.fireCallback(callback, "dsResponse,data,dsRequest", [dsResponse, data, dsRequest]);
+                // each waiter receives its own copies of the records, since components mark them
+                for (var i = 0; i < pending.waiters.length; i++) {
+                    var waiter = pending.waiters[i],
+                        waiterData = isc.isAn.Array(data) ? data.map(function (record) {
+                            return isc.isAn.Object(record) ? isc.addProperties({}, record) : record;
+                        }) : data,
+                        waiterResponse = isc.addProperties({}, dsResponse, { data: waiterData }),
+                        waiterRequest = isc.addProperties({}, dsRequest);
+                    for (var j = 0; j < callerProperties.length; j++) {
+                        var property = callerProperties[j];
+                        waiterRequest[property] = waiter.requestProperties[property];
+                    }
+                    waiterResponse.clientContext = waiterRequest.clientContext;
+                    if (waiter.callback != null) {
+                        isc.Class.fireCallback(waiter.callback, "dsResponse,data,dsRequest", [waiterResponse, waiterData, waiterRequest]);
+                    }
+                }
+            }, requestProperties);
+        };
+        // An error handled centrally may never reach the callback, so forget the pending fetch
+        // when its response arrives
+        var coalescedTransformResponse = self.transformResponse;
+        self.transformResponse = function (dsResponse, dsRequest, data) {
+            var key = dsRequest == null ? null : dsRequest.__coalesceKey;
+            if (key != null && dsResponse != null && dsResponse.status < 0) delete pendingFetches[key];
+            return coalescedTransformResponse.apply(this, arguments);
+        };
+    }-*/;
+
+    private boolean coalesceFetches;
+    private int coalescedFetchCount;
+
+    /**
+     * Whether identical fetches share one request while it is in flight.  With this set,
+     * a fetch with the same {@link Criteria#isEquivalent equivalent criteria}, operationId,
+     * row range, sort and textMatchStyle as a fetch which is still waiting for its response
+     * is not sent: its callback is called when the pending fetch completes, with its own
+     * copies of the records, and its own clientContext.  This avoids duplicate round trips
+     * when many components, such as the rows of a grid editing with a SelectItem, request
+     * the same options at once.
+     * <P>
+     * Fetches with other request properties, such as <code>parentNode</code> or custom
+     * <code>params</code>, are always sent.  If the shared fetch fails and the error is handled
+     * centrally rather than by callbacks, it is reported once, and the callbacks of the
+     * coalesced fetches are not called, as for the fetch which was sent.
+     * <P>
+     * Defaults to false.
+     *
+     * @param coalesceFetches true to coalesce identical pending fetches
+     * @see #getCoalescedFetchCount()
+     */
+    public void setCoalesceFetches(boolean coalesceFetches) {
+        this.coalesceFetches = coalesceFetches;
+    }
+
+    /**
+     * Whether identical pending fetches are coalesced.
+     *
+     * @return true if identical pending fetches share one request
+     * @see #setCoalesceFetches(boolean)
+     */
+    public boolean getCoalesceFetches() {
+        return coalesceFetches;
+    }
+
+    /**
+     * The number of fetches which were not sent because an identical fetch was in flight.
+     *
+     * @return coalesced fetch count
+     * @see #setCoalesceFetches(boolean)
+     */
+    public int getCoalescedFetchCount() {
+        return coalescedFetchCount;
+    }
+
+    private ColumnarStore columnarStore;
+
+    /**
+     * Serve the fetches of this {@link #setClientOnly client-only} DataSource from a
+     * {@link ColumnarStore}, instead of {@link #setCacheData cacheData} or
+     * {@link #setTestData testData}.  Requests are filtered, sorted and paged on the store's
+     * columns, and Records are created only for the rows returned.  The store is read-only,
+     * so add, update and remove operations fail.
+     *
+     * @param columnarStore the store, or null to serve requests from cacheData again
+     */
+    public void setColumnarStore(ColumnarStore columnarStore) {
+        this.columnarStore = columnarStore;
+    }
+
+    /**
+     * The store set by {@link #setColumnarStore}.
+     *
+     * @return the columnar store, or null
+     */
+    public ColumnarStore getColumnarStore() {
+        return columnarStore;
+    }
+
+    private JavaScriptObject statsState;
+    private boolean statsInstalled;
+
+    // Wraps transformRequest(), transformResponse() and applyFilter() to collect the statistics
+    // returned by getStats().  Installed on first use, since every fetch pays for the wrappers.
+    private native void installStats() /*-{
+        if (this.@com.smartgwt.client.data.DataSource::statsInstalled) return;
+        this.@com.smartgwt.client.data.DataSource::statsInstalled = true;
+        var self = this.@com.smartgwt.client.core.BaseClass::getJsObj()(),
+            stats = this.@com.smartgwt.client.data.DataSource::getStatsState()(),
+            selfJ = this;
+        var transformRequest = self.transformRequest;
+        self.transformRequest = function(dsRequest) {
+            if (dsRequest != null) dsRequest.__statsStart = new Date().getTime();
+            return transformRequest.apply(this, arguments);
+        };
+        var transformResponse = self.transformResponse;
+        self.transformResponse = $entry(function(dsResponse, dsRequest, data) {
+            var result = transformResponse.apply(this, arguments);
+            if (dsRequest != null && dsRequest.operationType == "fetch") {
+                var latency = dsRequest.__statsStart == null ? -1 : new Date().getTime() - dsRequest.__statsStart,
+                    records = $wnd.isc.isAn.Array(dsResponse.data) ? dsResponse.data :
+                              $wnd.isc.isAn.Array(data) ? data : [];
+                @com.smartgwt.client.data.CacheStats::recordFetch(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;IID)(
+                    stats, records[0], records.length, typeof data == "string" ? data.length : -1, latency);
+                selfJ.@com.smartgwt.client.data.DataSource::statsUpdated(Ljava/lang/String;ID)("fetch", records.length, latency);
+            }
+            if (dsResponse != null && dsResponse.invalidateCache) {
+                stats.invalidations++;
+                selfJ.@com.smartgwt.client.data.DataSource::statsUpdated(Ljava/lang/String;ID)("invalidate", 0, -1);
+            }
+            return result;
+        });
+        var applyFilter = self.applyFilter;
+        self.applyFilter = function() {
+            var start = new Date().getTime();
+            try {
+                return applyFilter.apply(this, arguments);
+            } finally {
+                stats.filterTime += new Date().getTime() - start;
+            }
+        };
     }-*/;
+
+    private JavaScriptObject getStatsState() {
+        if (statsState == null) statsState = CacheStats.createState();
+        return statsState;
+    }
+
+    private void statsUpdated(String kind, int rows, double latency) {
+        CacheStats.log(getJsObj(), getStatsState());
+        if (getHandlerCount(StatsUpdatedEvent.getType()) == 0) return;
+        JavaScriptObject sample = JSOHelper.createObject();
+        JSOHelper.setAttribute(sample, "kind", kind);
+        JSOHelper.setAttribute(sample, "rows", rows);
+        if (latency >= 0) JSOHelper.setAttribute(sample, "latency", latency);
+        JSOHelper.setAttribute(sample, "stats", getStatsState());
+        fireEvent(new StatsUpdatedEvent(sample));
+    }
+
+    /**
+     * Statistics on the fetches performed by this DataSource: fetch count, rows and bytes
+     * fetched, a round-trip latency histogram, time spent in client-side filtering, and
+     * invalidations requested by the server.  See {@link CacheStats} for details, and
+     * {@link ResultSet#getStats()} for the cache statistics of a ResultSet.
+     * <P>
+     * Statistics are collected from the first call to this method or to
+     * {@link #addStatsUpdatedHandler addStatsUpdatedHandler()}.
+     *
+     * @return the statistics
+     */
+    public CacheStats getStats() {
+        JavaScriptObject state = getStatsState();
+        if (isCreated()) installStats();
+        return new CacheStats(state);
+    }
+
+    /**
+     * Add a statsUpdated handler.
+     * <p>
+     * Notification fired when a fetch completes or the server requests cache invalidation, after
+     * the {@link #getStats() statistics} have been updated.  Use this hook to report the
+     * statistics to your own monitoring.
+     *
+     * @param handler the statsUpdated handler
+     * @return {@link HandlerRegistration} used to remove this handler
+     */
+    public HandlerRegistration addStatsUpdatedHandler(com.smartgwt.client.data.events.StatsUpdatedHandler handler) {
+        getStatsState();
+        if (isCreated()) installStats();
+        return doAddHandler(handler, StatsUpdatedEvent.getType());
+    }
     
     // override setID() - if this.addGlobalID is false, don't register the ID with the IDManager
     // Note: this is called directly from BaseClass init method so this.scClassName may not yet have
@@ -2617,6 +2873,7 @@ public class DataSource extends BaseClass  implements com.smartgwt.client.data.e
      */
     public void setInheritsFrom(DataSource inheritsFrom) throws IllegalStateException {
         setAttribute("inheritsFrom", inheritsFrom.getOrCreateJsObj(), false);
+        recordConverter = null;
     }
 
     
@@ -2645,6 +2902,7 @@ public class DataSource extends BaseClass  implements com.smartgwt.client.data.e
         }
         JavaScriptObject fieldJS = field.getJsObj();
         addFieldPreCreate(fieldJS);
+        recordConverter = null;
     }
 
     private native void addFieldPreCreate(JavaScriptObject fieldJS) /*-{
@@ -2674,6 +2932,22 @@ public class DataSource extends BaseClass  implements com.smartgwt.client.data.e
         return dsFields;
     }
 
+    private RecordConverter recordConverter;
+
+    /**
+     * Returns a {@link RecordConverter} that converts records of this DataSource to Java Maps
+     * or beans using the declared field types.  The converter is compiled from the DataSource's
+     * fields the first time this method is called and cached until the fields change.
+     *
+     * @return the record converter for this DataSource
+     */
+    public RecordConverter getRecordConverter() {
+        if (recordConverter == null || !recordConverter.isCurrent(this)) {
+            recordConverter = new RecordConverter(this);
+        }
+        return recordConverter;
+    }
+
     /**
      * Given a fieldName and a dataValue, apply any {@link com.smartgwt.client.data.DataSourceField#getValueMap valueMap} for
      * the field and return the display value for the field. If the field has no specified valueMap or the value does not
@@ -0,0 +1,79 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.util.JSOHelper;
+
+/**
+ * A Record which does not write the {@link com.smartgwt.client.util.SC#REF} and
+ * {@link com.smartgwt.client.util.SC#MODULE} back-reference attributes onto its JavaScript
+ * object, nor remove them from an existing object it wraps.
+ * <P>
+ * An ordinary Record created with <code>new Record()</code> stores a reference to itself on
+ * its JavaScript object, so that the same Java object is returned whenever the record is
+ * retrieved from a component.  That keeps the wrapper alive for as long as the record is, and
+ * adds two properties to every record.  A LightweightRecord is just a view of the JavaScript
+ * object: it can be created on each access and dropped again, and two LightweightRecords of
+ * the same object are {@link #equals equal}.  Use it when building large amounts of data, for
+ * instance the {@link DataSource#setCacheData cacheData} of a client-only DataSource, or to
+ * read records without disturbing their existing wrappers.
+ * <P>
+ * Because no back-reference is stored, a record retrieved from a component is never the
+ * LightweightRecord which was passed in, but a new Record wrapping the same object.
+ */
+public class LightweightRecord extends Record {
+
+    /**
+     * Create a new record with no attributes.
+     */
+    public LightweightRecord() {
+        super(JSOHelper.createObject(), true);
+    }
+
+    /**
+     * Wrap an existing object, leaving any back-reference attributes it has untouched.
+     *
+     * @param jsObj the object to wrap
+     */
+    public LightweightRecord(JavaScriptObject jsObj) {
+        super(jsObj, true);
+    }
+
+    /**
+     * Wrap each element of a native array of records.  Unlike
+     * {@link Record#convertToRecordArray(JavaScriptObject)}, this does not return existing
+     * wrappers, and does not modify the elements.
+     *
+     * @param nativeArray the native array of records
+     * @return array of records
+     */
+    public static LightweightRecord[] convertToLightweightRecordArray(JavaScriptObject nativeArray) {
+        if (nativeArray == null) {
+            return new LightweightRecord[]{};
+        }
+        if (!JSOHelper.isArray(nativeArray)) {
+            return new LightweightRecord[]{ new LightweightRecord(nativeArray) };
+        }
+        int length = JSOHelper.getArrayLength(nativeArray);
+        LightweightRecord[] objects = new LightweightRecord[length];
+        for (int i = 0; i < length; i++) {
+            objects[i] = new LightweightRecord(JSOHelper.getValueFromJavaScriptObjectArray(nativeArray, i));
+        }
+        return objects;
+    }
+}
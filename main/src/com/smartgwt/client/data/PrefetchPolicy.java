@@ -0,0 +1,43 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data;
+
+/**
+ * Decides which rows a paged {@link ResultSet} fetches when rows that are not loaded are
+ * requested, in place of the fixed {@link ResultSet#setResultSize resultSize} batches.
+ * Install one with {@link ResultSet#setPrefetchPolicy}; {@link AdaptivePrefetchPolicy} is the
+ * built-in implementation.
+ *
+ * @see PrefetchStats
+ */
+public interface PrefetchPolicy {
+
+    /**
+     * Return the range of rows to fetch for a request for rows that are not all loaded.  The
+     * range is widened if necessary to include the requested rows, and rows in it which are
+     * already loaded or loading are not fetched again.
+     *
+     * @param startRow  first requested row
+     * @param endRow    row after the last requested row
+     * @param totalRows total number of rows, or -1 if not yet known
+     * @param stats     scroll velocity, latency and row size measured by the ResultSet
+     *
+     * @return a two-element array of the first row to fetch and the row after the last, or
+     *         null to fetch as if no policy was installed
+     */
+    int[] getFetchRange(int startRow, int endRow, int totalRows, PrefetchStats stats);
+}
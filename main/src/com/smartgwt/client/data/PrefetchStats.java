@@ -0,0 +1,107 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Measurements and counters kept by a {@link ResultSet} with a {@link PrefetchPolicy}, as
+ * returned by {@link ResultSet#getPrefetchStats}.  The measurements are moving averages, and
+ * the getters read the current values, so a PrefetchStats instance stays up to date.
+ */
+public class PrefetchStats {
+
+    private final JavaScriptObject state;
+
+    PrefetchStats(JavaScriptObject state) {
+        this.state = state;
+    }
+
+    /**
+     * The speed at which the requested rows are moving, in rows per second.  Positive when
+     * scrolling towards the end of the data, negative when scrolling back, and 0 when the
+     * requested rows have not changed for a second.
+     *
+     * @return scroll velocity in rows per second
+     */
+    public native double getScrollVelocity() /*-{
+        var state = this.@com.smartgwt.client.data.PrefetchStats::state;
+        return state.velocity || 0;
+    }-*/;
+
+    /**
+     * The time from requesting rows to their arrival.
+     *
+     * @return round-trip latency in milliseconds, or -1 if no fetch has completed yet
+     */
+    public native double getLatency() /*-{
+        var state = this.@com.smartgwt.client.data.PrefetchStats::state;
+        return state.latency == null ? -1 : state.latency;
+    }-*/;
+
+    /**
+     * The estimated in-memory size of a loaded record, sampled as rows arrive.
+     *
+     * @return row size in bytes, or -1 if no rows have arrived yet
+     */
+    public native double getRowSize() /*-{
+        var state = this.@com.smartgwt.client.data.PrefetchStats::state;
+        return state.rowSize == null ? -1 : state.rowSize;
+    }-*/;
+
+    /**
+     * The number of rows fetched beyond the requested rows because of the policy.
+     *
+     * @return rows prefetched
+     */
+    public native int getPrefetchedRows() /*-{
+        var state = this.@com.smartgwt.client.data.PrefetchStats::state;
+        return state.prefetchedRows || 0;
+    }-*/;
+
+    /**
+     * The number of prefetched rows which were later requested.
+     *
+     * @return prefetch hits
+     */
+    public native int getPrefetchHits() /*-{
+        var state = this.@com.smartgwt.client.data.PrefetchStats::state;
+        return state.prefetchHits || 0;
+    }-*/;
+
+    /**
+     * The number of prefetched rows which were discarded by
+     * {@link ResultSet#invalidateCache() invalidating the cache}, for example on a change of
+     * criteria, without having been requested.
+     *
+     * @return rows wasted
+     */
+    public native int getWastedRows() /*-{
+        var state = this.@com.smartgwt.client.data.PrefetchStats::state;
+        return state.wastedRows || 0;
+    }-*/;
+
+    /**
+     * The number of prefetched rows which have neither been requested nor discarded yet.
+     *
+     * @return rows prefetched but not yet requested
+     */
+    public native int getPendingRows() /*-{
+        var state = this.@com.smartgwt.client.data.PrefetchStats::state;
+        return state.pendingCount || 0;
+    }-*/;
+}
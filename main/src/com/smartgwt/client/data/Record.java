@@ -97,6 +97,17 @@ public class Record extends RefDataClass {
     public Record(JavaScriptObject jsObj) {
         super(jsObj);
     }
+
+    /**
+     * Wrap an existing object, optionally as a lightweight wrapper which leaves its
+     * back-reference attributes alone.  See {@link LightweightRecord}.
+     *
+     * @param jsObj the object to wrap
+     * @param lightweight true to create a lightweight wrapper
+     */
+    protected Record(JavaScriptObject jsObj, boolean lightweight) {
+        super(jsObj, lightweight);
+    }
     
     public Record(Map recordProperties) {
         JavaScriptObject jsObj = JSOHelper.convertMapToJavascriptObject(recordProperties);
@@ -140,10 +151,10 @@ public class Record extends RefDataClass {
             return new Record[]{};
         }
         if (JSOHelper.isArray(nativeArray)) {
-            JavaScriptObject[] componentsj = JSOHelper.toArray(nativeArray);
-            Record[] objects = new Record[componentsj.length];
-            for (int i = 0; i < componentsj.length; i++) {
-                JavaScriptObject componentJS = componentsj[i];
+            int length = JSOHelper.getArrayLength(nativeArray);
+            Record[] objects = new Record[length];
+            for (int i = 0; i < length; i++) {
+                JavaScriptObject componentJS = JSOHelper.getValueFromJavaScriptObjectArray(nativeArray, i);
                 Record obj = (Record) RefDataClass.getRef(componentJS);
                 if (obj == null) obj = new Record(componentJS);
                 objects[i] = obj;
@@ -155,6 +166,34 @@ public class Record extends RefDataClass {
             return ret;
         }
     }
+
+    /**
+     * Returns a cursor which walks over a native array of records using a single reusable
+     * Record, rather than creating a Record for every row as
+     * {@link #convertToRecordArray(JavaScriptObject)} does.  See {@link RecordCursor}.
+     *
+     * @param nativeArray the native array of records
+     * @return a cursor positioned before the first record
+     */
+    public static RecordCursor<Record> createCursor(JavaScriptObject nativeArray) {
+        return new RecordCursor<Record>(nativeArray, new Record()) {
+            @Override
+            protected Record createRecord(JavaScriptObject jsObj) {
+                return new Record(jsObj);
+            }
+        };
+    }
+
+    /**
+     * Returns a List view of a native array of records which only creates Records for the
+     * rows actually accessed.  See {@link RecordArrayView}.
+     *
+     * @param nativeArray the native array of records
+     * @return the view
+     */
+    public static RecordArrayView<Record> createArrayView(JavaScriptObject nativeArray) {
+        return createCursor(nativeArray).createView();
+    }
     
     /**
      * Convert this record to a Map. This is a recursive conversion so if an attribute on this
@@ -168,4 +207,26 @@ public class Record extends RefDataClass {
         delete $wnd.SmartGWT._cleanSgwtProperties;
         return map;
     }-*/;
+
+    /**
+     * Convert this record to a Map using the declared field types of a DataSource rather than
+     * inspecting each value - see {@link RecordConverter}.  If <code>dataSource</code> is null,
+     * this is equivalent to {@link #toMap()}.
+     * @param dataSource DataSource whose field types describe this record
+     * @return the Map
+     */
+    public Map toMap(DataSource dataSource) {
+        if (dataSource == null) return toMap();
+        return dataSource.getRecordConverter().toMap(this);
+    }
+
+    /**
+     * Returns a live view of this record as a Map.  Unlike {@link #toMap()}, attribute values
+     * are only converted to Java when they are read, and changes made through the Map are
+     * applied directly to this record - see {@link JSOHelper#asMap(JavaScriptObject)}.
+     * @return the Map view
+     */
+    public Map<String, Object> asMap() {
+        return JSOHelper.asMap(getJsObj());
+    }
 }
@@ -0,0 +1,63 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A read-only {@link java.util.List} view of a native JavaScript array of records which only
+ * creates wrappers for the indexes actually accessed.  Rows which already have a wrapper are
+ * returned through that wrapper; otherwise a wrapper is created on first access and returned
+ * again on later accesses through the same view.
+ * <P>
+ * The view reflects the array's length at the time it was created, so it should not be used
+ * after records are added to or removed from the underlying array.
+ * <P>
+ * Use a {@link RecordCursor} instead if every record is visited once and none are kept.
+ *
+ * @param <R> the type of record in the view
+ */
+public class RecordArrayView<R extends Record> extends AbstractList<R> implements RandomAccess {
+
+    private final RecordCursor<R> cursor;
+
+    // Allocated on first access, so an untouched view costs nothing per row
+    private Object[] records;
+
+    RecordArrayView(RecordCursor<R> cursor) {
+        this.cursor = cursor;
+    }
+
+    @SuppressWarnings("unchecked")
+    public R get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        if (records == null) records = new Object[size()];
+        R record = (R) records[index];
+        if (record == null) {
+            record = cursor.toRecord(index);
+            records[index] = record;
+        }
+        return record;
+    }
+
+    public int size() {
+        return cursor.getLength();
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.bean.BeanFactory;
+
+/**
+ * Converts records of a particular {@link DataSource} to Java <code>Map</code>s or beans, using
+ * the declared {@link DataSourceField#getType field types} instead of inspecting each value.
+ * <p>
+ * The generic conversion performed by {@link Record#toMap()} has to determine the type of
+ * every value it encounters; for example each number is stringified to decide whether it
+ * becomes an <code>Integer</code> or a <code>Double</code>.  A <code>RecordConverter</code>
+ * resolves each field's base type (text, integer, float, boolean or date) once, when it is
+ * created, and then coerces values directly.  Values whose JavaScript type does not match the
+ * declared field type, fields of other types, and attributes not declared on the DataSource
+ * are converted with the generic rules described in the
+ * {@link com.smartgwt.client.docs.JavaScriptToJavaConversion JS -> Java conversion article}.
+ * <p>
+ * Note that, unlike the generic conversion, a whole number stored in a field of type "float"
+ * is returned as a <code>Double</code>, and a number stored in a field of type "integer" is
+ * always returned as an <code>Integer</code> (or <code>Long</code> if out of range).
+ * <p>
+ * Obtain a converter via {@link DataSource#getRecordConverter()}, which compiles it on first
+ * use and caches it on the DataSource.
+ */
+public class RecordConverter {
+
+    private final JavaScriptObject plan;
+    private boolean includeUndeclaredFields = true;
+
+    RecordConverter(DataSource dataSource) {
+        plan = compile(dataSource.getOrCreateJsObj());
+    }
+
+    // Builds the conversion plan: parallel arrays of field names and base type codes, plus a
+    // lookup of declared field names.  Type codes are interpreted by convertTypedValue below.
+    private static native JavaScriptObject compile(JavaScriptObject ds) /*-{
+        var plan = { names: [], types: [], declared: {}, fields: ds.fields },
+            fieldNames = ds.getFieldNames(false) || [],
+            SimpleType = $wnd.isc.SimpleType;
+        for (var i = 0; i < fieldNames.length; i++) {
+            var name = fieldNames[i],
+                field = ds.getField(name),
+                type = field == null ? null : field.type,
+                code = 0;
+            if (type != null && !field.multiple) {
+                if (SimpleType.inheritsFrom(type, "boolean")) code = 4;
+                else if (SimpleType.inheritsFrom(type, "integer")) code = 2;
+                else if (SimpleType.inheritsFrom(type, "float")) code = 3;
+                else if (SimpleType.inheritsFrom(type, "date") ||
+                         SimpleType.inheritsFrom(type, "time")) code = 5;
+                else if (SimpleType.inheritsFrom(type, "text")) code = 1;
+            }
+            plan.names.push(name);
+            plan.types.push(code);
+            plan.declared[name] = true;
+        }
+
+        plan.convertTypedValue = function (value, code) {
+            var valueType = typeof value;
+            if (code == 1 && valueType == "string") {
+                return value;
+            } else if ((code == 2 || code == 3) && valueType == "number") {
+                if (code == 2 && value % 1 === 0) {
+                    if (value <= @java.lang.Integer::MAX_VALUE && value >= @java.lang.Integer::MIN_VALUE) {
+                        return @com.smartgwt.client.util.JSOHelper::toInteger(I)(value);
+                    }
+                    return @com.smartgwt.client.util.JSOHelper::toLong(D)(value);
+                }
+                return @com.smartgwt.client.util.JSOHelper::toDouble(D)(value);
+            } else if (code == 4 && valueType == "boolean") {
+                return @com.smartgwt.client.util.JSOHelper::toBoolean(Z)(value);
+            } else if (code == 5 && $wnd.isc.isA.Date(value)) {
+                return @com.smartgwt.client.util.JSOHelper::convertToJavaDate(Lcom/google/gwt/core/client/JavaScriptObject;)(value);
+            }
+            if ($wnd.SmartGWT.isNativeJavaObject(value)) return value;
+            return $wnd.SmartGWT.convertToJavaObject(value, false, false);
+        };
+
+        plan.toMap = function (record, includeUndeclared) {
+            var javaMap = @java.util.LinkedHashMap::new()(),
+                names = this.names,
+                types = this.types;
+            for (var i = 0; i < names.length; i++) {
+                var value = record[names[i]];
+                if (value === undefined) continue;
+                @com.smartgwt.client.util.JSOHelper::doAddToMap(Ljava/util/Map;Ljava/lang/String;Ljava/lang/Object;)(javaMap, names[i],
+                    value == null ? null : this.convertTypedValue(value, types[i]));
+            }
+            if (includeUndeclared) {
+                var refProperty = @com.smartgwt.client.util.SC::REF,
+                    moduleProperty = @com.smartgwt.client.util.SC::MODULE;
+                for (var key in record) {
+                    if (this.declared[key] || key == refProperty || key == moduleProperty ||
+                        key == $wnd.isc.gwtModule || !$wnd.isc.isA.String(key))
+                    {
+                        continue;
+                    }
+                    var value = record[key];
+                    @com.smartgwt.client.util.JSOHelper::doAddToMap(Ljava/util/Map;Ljava/lang/String;Ljava/lang/Object;)(javaMap, key,
+                        $wnd.SmartGWT.isNativeJavaObject(value) ? value :
+                            $wnd.SmartGWT.convertToJavaObject(value, false, false));
+                }
+            }
+            return javaMap;
+        };
+        return plan;
+    }-*/;
+
+    // Whether the plan was compiled for the DataSource's current fields.  SmartClient replaces
+    // the fields object of a DataSource when its fields are changed.
+    boolean isCurrent(DataSource dataSource) {
+        return isCompiledFor(plan, dataSource.getOrCreateJsObj());
+    }
+
+    private static native boolean isCompiledFor(JavaScriptObject plan, JavaScriptObject ds) /*-{
+        return plan.fields === ds.fields;
+    }-*/;
+
+    /**
+     * Sets whether attributes of a record that are not declared as fields of the DataSource
+     * are included in converted Maps.  Default is true, matching {@link Record#toMap()}.
+     *
+     * @param includeUndeclaredFields whether to include undeclared attributes
+     */
+    public void setIncludeUndeclaredFields(boolean includeUndeclaredFields) {
+        this.includeUndeclaredFields = includeUndeclaredFields;
+    }
+
+    /**
+     * Whether attributes not declared as DataSource fields are included in converted Maps.
+     * @return the current setting
+     * @see #setIncludeUndeclaredFields(boolean)
+     */
+    public boolean getIncludeUndeclaredFields() {
+        return includeUndeclaredFields;
+    }
+
+    /**
+     * Converts a record to a Map using the declared field types.
+     *
+     * @param record the record to convert
+     * @return the converted Map, or null if <code>record</code> is null
+     */
+    public Map<String, Object> toMap(Record record) {
+        return record == null ? null : toMap(record.getJsObj());
+    }
+
+    /**
+     * Converts a JavaScript record object to a Map using the declared field types.
+     *
+     * @param recordJS the record to convert
+     * @return the converted Map, or null if <code>recordJS</code> is null
+     */
+    public native Map<String, Object> toMap(JavaScriptObject recordJS) /*-{
+        if (recordJS == null) return null;
+        var plan = this.@com.smartgwt.client.data.RecordConverter::plan;
+        return plan.toMap(recordJS, this.@com.smartgwt.client.data.RecordConverter::includeUndeclaredFields);
+    }-*/;
+
+    /**
+     * Converts an array of records to a List of Maps using the declared field types.
+     *
+     * @param records the records to convert
+     * @return the converted Maps
+     */
+    public List<Map<String, Object>> toMaps(Record[] records) {
+        List<Map<String, Object>> maps = new ArrayList<Map<String, Object>>(records.length);
+        for (Record record : records) {
+            maps.add(toMap(record));
+        }
+        return maps;
+    }
+
+    /**
+     * Converts a JavaScript array of records to a List of Maps using the declared field types.
+     * The whole array is converted in a single call into JavaScript.
+     *
+     * @param recordArray the JavaScript array of records to convert
+     * @return the converted Maps, or null if <code>recordArray</code> is null
+     */
+    public native List<Map<String, Object>> toMaps(JavaScriptObject recordArray) /*-{
+        if (recordArray == null) return null;
+        var plan = this.@com.smartgwt.client.data.RecordConverter::plan,
+            includeUndeclared = this.@com.smartgwt.client.data.RecordConverter::includeUndeclaredFields,
+            javaList = @java.util.ArrayList::new(I)(recordArray.length);
+        for (var i = 0; i < recordArray.length; i++) {
+            var record = recordArray[i];
+            javaList.@java.util.ArrayList::add(Ljava/lang/Object;)(record == null ? null : plan.toMap(record, includeUndeclared));
+        }
+        return javaList;
+    }-*/;
+
+    /**
+     * Converts a record to an instance of a bean class.  The conversion is Map based: the
+     * record is first converted to a Map with {@link #toMap(Record)}, and the Map is then
+     * applied with {@link BeanFactory#newInstance(Class, Map)}, so each call allocates an
+     * intermediate Map and the bean receives the converted values rather than the raw record
+     * values.  A {@link BeanFactory} must have been generated for the bean class.
+     *
+     * @param beanClass the class of bean to create
+     * @param record the record to convert
+     * @return the new bean, or null if <code>record</code> is null
+     * @throws IllegalStateException if no factory has been generated for the class
+     */
+    public <T> T toBean(Class<T> beanClass, Record record) {
+        if (record == null) return null;
+        @SuppressWarnings("unchecked")
+        T bean = (T) BeanFactory.newInstance(beanClass, toMap(record));
+        return bean;
+    }
+
+    /**
+     * Returns the names of the DataSource fields this converter was compiled for.
+     * @return the field names
+     */
+    public native String[] getFieldNames() /*-{
+        var plan = this.@com.smartgwt.client.data.RecordConverter::plan;
+        return @com.smartgwt.client.util.JSOHelper::convertToJavaStringArray(Lcom/google/gwt/core/client/JavaScriptObject;)(plan.names);
+    }-*/;
+}
@@ -0,0 +1,193 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.core.RefDataClass;
+import com.smartgwt.client.util.JSOHelper;
+
+/**
+ * Walks a native JavaScript array of records by index without creating a wrapper object for
+ * every row.  Rows which have never been wrapped are presented through a single reusable
+ * "flyweight" record that is re-pointed at each row in turn; rows which already have a
+ * wrapper are presented through that wrapper.
+ * <P>
+ * Typical usage:
+ * <pre>
+ * RecordCursor&lt;Record&gt; cursor = Record.createCursor(nativeArray);
+ * while (cursor.next()) {
+ *     total += cursor.get().getAttributeAsInt("amount");
+ * }
+ * </pre>
+ * The record returned by {@link #get()} is only valid until the cursor is moved, so it must
+ * not be stored, added to a component or used as a map key.  Call {@link #toRecord()} for a
+ * record which may be kept.
+ * <P>
+ * A non-array value is treated as an array containing only that value, as in
+ * {@link Record#convertToRecordArray(JavaScriptObject)}.
+ *
+ * @param <R> the type of record presented by the cursor
+ * @see RecordArrayView
+ */
+public abstract class RecordCursor<R extends Record> {
+
+    private final JavaScriptObject nativeArray;
+    private final boolean isArray;
+    private final int length;
+    private final R flyweight;
+
+    private int index = -1;
+    private JavaScriptObject current;
+
+    /**
+     * Create a cursor positioned before the first record.
+     *
+     * @param nativeArray the native array of records (may be null)
+     * @param flyweight the record to re-point at rows which have no wrapper of their own
+     */
+    protected RecordCursor(JavaScriptObject nativeArray, R flyweight) {
+        this.nativeArray = nativeArray;
+        this.isArray = nativeArray != null && JSOHelper.isArray(nativeArray);
+        this.length = nativeArray == null ? 0 : (isArray ? JSOHelper.getArrayLength(nativeArray) : 1);
+        this.flyweight = flyweight;
+    }
+
+    /**
+     * Create a new wrapper for a row which has none.  Called by {@link #toRecord()}.
+     *
+     * @param jsObj the row
+     * @return a new record wrapping <code>jsObj</code>
+     */
+    protected abstract R createRecord(JavaScriptObject jsObj);
+
+    /**
+     * The number of records the cursor walks over.
+     *
+     * @return the number of records
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * The current position of the cursor, or -1 if it is positioned before the first record.
+     *
+     * @return the current index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Move to the next record.
+     *
+     * @return false if there are no more records
+     */
+    public boolean next() {
+        if (index + 1 >= length) {
+            index = length;
+            current = null;
+            return false;
+        }
+        moveTo(index + 1);
+        return true;
+    }
+
+    /**
+     * Position the cursor before the first record, so that {@link #next()} starts again.
+     */
+    public void reset() {
+        index = -1;
+        current = null;
+    }
+
+    /**
+     * Move to the record at the given index.
+     *
+     * @param index the index of the record
+     * @return the record at that index, as returned by {@link #get()}
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of range
+     */
+    public R moveTo(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+        }
+        this.index = index;
+        current = getRow(index);
+        return get();
+    }
+
+    /**
+     * The underlying JavaScript object of the current record.
+     *
+     * @return the current row, or null if the cursor is not positioned on a record
+     */
+    public JavaScriptObject getJsObj() {
+        return current;
+    }
+
+    /**
+     * The current record.  This is the row's own wrapper if it already has one, and otherwise
+     * the shared flyweight record, so it is only valid until the cursor is moved.
+     *
+     * @return the current record, or null if the cursor is not positioned on a record
+     */
+    @SuppressWarnings("unchecked")
+    public R get() {
+        if (current == null) return null;
+        R existing = (R) RefDataClass.getRef(current);
+        if (existing != null) return existing;
+        flyweight.setJsObj(current);
+        return flyweight;
+    }
+
+    /**
+     * A record for the current row which, unlike the result of {@link #get()}, remains valid
+     * after the cursor moves.  A wrapper is only created if the row has none of its own.
+     *
+     * @return the current record, or null if the cursor is not positioned on a record
+     */
+    public R toRecord() {
+        return current == null ? null : wrap(current);
+    }
+
+    /**
+     * A lazy list view of the records this cursor walks over.  The view does not depend on the
+     * position of the cursor, and does not move it.
+     *
+     * @return a new view of the records
+     */
+    public RecordArrayView<R> createView() {
+        return new RecordArrayView<R>(this);
+    }
+
+    // Used by RecordArrayView, which does not move the cursor
+    R toRecord(int index) {
+        JavaScriptObject row = getRow(index);
+        return row == null ? null : wrap(row);
+    }
+
+    private JavaScriptObject getRow(int index) {
+        return isArray ? JSOHelper.getValueFromJavaScriptObjectArray(nativeArray, index) : nativeArray;
+    }
+
+    @SuppressWarnings("unchecked")
+    private R wrap(JavaScriptObject row) {
+        R existing = (R) RefDataClass.getRef(row);
+        return existing != null ? existing : createRecord(row);
+    }
+}
@@ -0,0 +1,356 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.util.JSOHelper;
+
+/**
+ * A hash index over the values of one or more properties of the records in a
+ * {@link RecordList}, created by {@link RecordList#createIndex(String...)}.  Looking up a
+ * record by value through an index takes constant time, rather than a scan of the list.
+ * <P>
+ * Once a RecordList has an index, its <code>find()</code>, <code>findIndex()</code> and
+ * <code>findAll()</code> methods use it automatically for lookups on exactly the indexed
+ * properties, so existing code benefits without changes.
+ * <P>
+ * The index is kept up to date as the list changes.  Records set or added at the end of the
+ * list through {@link RecordList#set set()}, {@link RecordList#add add()} and
+ * {@link RecordList#addList(Record[]) addList()} are indexed as they are added; any other
+ * change to the list, including sorting and the changes reported by
+ * {@link RecordList#addDataChangedHandler dataChanged}, causes the index to be rebuilt on the
+ * next lookup.  Changing the value of an indexed property on a record which is already in the
+ * list is <b>not</b> detected: call {@link #invalidate()} afterwards.
+ * <P>
+ * Only string, numeric and boolean values are indexed.  Lookups return the same records as a
+ * scan of the list, which compares values loosely, so that for example the string "1"
+ * matches the number 1.  The index only answers a lookup when every value it holds for each
+ * property has the same type as the value looked up; other lookups, including lookups for
+ * null or dates, scan the list as before.  For a {@link ResultSet}, the index is only used
+ * while {@link ResultSet#allMatchingRowsCached() all matching rows are cached}.
+ */
+public class RecordIndex {
+
+    private static final int STRING_VALUE = 1;
+    private static final int NUMBER_VALUE = 2;
+    private static final int BOOLEAN_VALUE = 4;
+    private static final int OTHER_VALUE = 8;
+
+    private final RecordList list;
+    private final String[] properties;
+    private final JavaScriptObject propertiesJS;
+
+    // Maps each key to the position of the only record with that key, or to an
+    // array of positions in ascending order if there are several.
+    private JavaScriptObject map;
+    // For each property, the types (the bits below) of the non-null values
+    // the records in the list have had since the index was built
+    private JavaScriptObject types;
+    private boolean valid;
+    private boolean usable;
+
+    RecordIndex(RecordList list, String[] properties) {
+        this.list = list;
+        this.properties = properties;
+        this.propertiesJS = JSOHelper.convertToJavaScriptArray(properties);
+    }
+
+    /**
+     * The properties this index covers, in the order in which values are passed to the lookup
+     * methods.
+     *
+     * @return the indexed properties
+     */
+    public String[] getProperties() {
+        return properties.clone();
+    }
+
+    /**
+     * Whether every key in the index identifies a single record.  Uniqueness can only be
+     * established while the index is usable, so this returns false for a {@link ResultSet}
+     * which does not have all matching rows cached.
+     *
+     * @return true if the index is usable and there are no duplicate keys
+     */
+    public boolean isUnique() {
+        return ensureValid() && isUnique(map);
+    }
+
+    /**
+     * Discard the index contents, so that they are rebuilt on the next lookup.  Call this
+     * after changing the value of an indexed property of a record in the list.
+     */
+    public void invalidate() {
+        valid = false;
+        map = null;
+        types = null;
+    }
+
+    /**
+     * Find the index of the first record whose indexed properties have the given values.
+     *
+     * @param values one value per indexed property, in the order of {@link #getProperties()}
+     *
+     * @return index of the first matching record or -1 if not found
+     */
+    public int findIndex(Object... values) {
+        String key = getLookupKey(values);
+        return key == null ? list.findIndex(toMap(values)) : getPosition(key);
+    }
+
+    /**
+     * Find the first record whose indexed properties have the given values.
+     *
+     * @param values one value per indexed property, in the order of {@link #getProperties()}
+     *
+     * @return first matching record or null if not found
+     */
+    public Record find(Object... values) {
+        int index = findIndex(values);
+        return index < 0 ? null : list.get(index);
+    }
+
+    /**
+     * Find all records whose indexed properties have the given values.
+     *
+     * @param values one value per indexed property, in the order of {@link #getProperties()}
+     *
+     * @return all matching records or null if none found
+     */
+    public Record[] findAll(Object... values) {
+        String key = getLookupKey(values);
+        if (key == null) return list.findAll(toMap(values));
+        JavaScriptObject rows = getRows(key);
+        return rows == null ? null : Record.convertToRecordArray(rows);
+    }
+
+    // The RecordList calls these to keep the index current, and to use it for lookups.
+
+    boolean covers(String property) {
+        return properties.length == 1 && properties[0].equals(property);
+    }
+
+    boolean covers(Map<?, ?> values) {
+        if (values.size() != properties.length) return false;
+        for (String property : properties) {
+            if (!values.containsKey(property)) return false;
+        }
+        return true;
+    }
+
+    Object[] getValues(Map<?, ?> values) {
+        Object[] result = new Object[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            result[i] = values.get(properties[i]);
+        }
+        return result;
+    }
+
+    // Returns the key to look up for the values, or null if the index cannot
+    // answer and the caller should scan the list instead. Keys are typed, but
+    // the scan compares with ==, so the index can only answer if every value
+    // it holds for a property has the type of the value looked up.
+    String getLookupKey(Object... values) {
+        String key = getKey(values);
+        if (key == null || !ensureValid()) return null;
+        for (int i = 0; i < values.length; i++) {
+            if (!hasOnlyType(types, i, typeOf(values[i]))) return null;
+        }
+        return key;
+    }
+
+    // The position of the first record with the key, or -1 if there is none
+    int getPosition(String key) {
+        return getPosition(map, key);
+    }
+
+    // The records with the key, or null if there are none
+    JavaScriptObject getRows(String key) {
+        return getRows(list.getOrCreateJsObj(), map, key);
+    }
+
+    void rowReplaced(int pos, JavaScriptObject oldRow, JavaScriptObject newRow) {
+        if (!valid || !usable) return;
+        removeRow(map, propertiesJS, oldRow, pos);
+        addRow(map, types, propertiesJS, newRow, pos);
+    }
+
+    void rowsAppended(int from) {
+        if (!valid || !usable) return;
+        addRows(map, types, propertiesJS, list.getOrCreateJsObj(), from);
+    }
+
+    private boolean ensureValid() {
+        if (!valid) {
+            JavaScriptObject data = list.getOrCreateJsObj();
+            usable = isIndexable(data);
+            if (usable) {
+                map = createMap();
+                types = createTypes(properties.length);
+                addRows(map, types, propertiesJS, data, 0);
+            }
+            valid = true;
+        }
+        return usable;
+    }
+
+    private Map<String, Object> toMap(Object[] values) {
+        Map<String, Object> map = new HashMap<String, Object>();
+        for (int i = 0; i < properties.length; i++) {
+            map.put(properties[i], i < values.length ? values[i] : null);
+        }
+        return map;
+    }
+
+    // Builds the same key from Java values as keyOf() (below) builds from the
+    // JavaScript values of a record, or returns null if a value isn't indexable.
+    private String getKey(Object[] values) {
+        if (values == null || values.length != properties.length) return null;
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (i > 0) key.append('|');
+            if (value instanceof String) {
+                String string = (String) value;
+                key.append('s').append(string.length()).append(':').append(string);
+            } else if (value instanceof Number) {
+                double number = ((Number) value).doubleValue();
+                // NaN matches nothing, not even itself
+                if (Double.isNaN(number)) return null;
+                key.append('n').append(numberKey(number));
+            } else if (value instanceof Boolean) {
+                key.append('b').append(((Boolean) value).booleanValue());
+            } else {
+                return null;
+            }
+        }
+        return key.toString();
+    }
+
+    // One of the type bits for a value getKey() accepts
+    private static int typeOf(Object value) {
+        if (value instanceof String) return STRING_VALUE;
+        if (value instanceof Number) return NUMBER_VALUE;
+        return BOOLEAN_VALUE;
+    }
+
+    private static native String numberKey(double value) /*-{
+        return "" + value;
+    }-*/;
+
+    private static native JavaScriptObject createMap() /*-{
+        return {};
+    }-*/;
+
+    private static native JavaScriptObject createTypes(int length) /*-{
+        var types = [];
+        for (var i = 0; i < length; i++) types[i] = 0;
+        return types;
+    }-*/;
+
+    private static native boolean hasOnlyType(JavaScriptObject types, int i, int type) /*-{
+        return (types[i] | type) == type;
+    }-*/;
+
+    private static native boolean isIndexable(JavaScriptObject data) /*-{
+        if ($wnd.isc.isAn.Array(data)) return true;
+        return !!(data.allMatchingRowsCached && data.allMatchingRowsCached());
+    }-*/;
+
+    private static native String keyOf(JavaScriptObject record, JavaScriptObject properties) /*-{
+        if (record == null) return null;
+        var key = "";
+        for (var i = 0; i < properties.length; i++) {
+            var value = record[properties[i]], type = typeof value;
+            if (i > 0) key += "|";
+            if (type == "string") key += "s" + value.length + ":" + value;
+            else if (type == "number") key += "n" + value;
+            else if (type == "boolean") key += "b" + value;
+            else return null;
+        }
+        return key;
+    }-*/;
+
+    private static native void addRows(JavaScriptObject map, JavaScriptObject types, JavaScriptObject properties, JavaScriptObject data, int from) /*-{
+        var length = data.getLength();
+        for (var i = from; i < length; i++) {
+            @com.smartgwt.client.data.RecordIndex::addRow(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;I)(map, types, properties, data.get(i), i);
+        }
+    }-*/;
+
+    private static native void addRow(JavaScriptObject map, JavaScriptObject types, JavaScriptObject properties, JavaScriptObject record, int pos) /*-{
+        if (record != null) {
+            for (var i = 0; i < properties.length; i++) {
+                var value = record[properties[i]], type = typeof value;
+                if (value == null) continue;
+                types[i] |= type == "string" ? @com.smartgwt.client.data.RecordIndex::STRING_VALUE :
+                            type == "number" ? @com.smartgwt.client.data.RecordIndex::NUMBER_VALUE :
+                            type == "boolean" ? @com.smartgwt.client.data.RecordIndex::BOOLEAN_VALUE :
+                            @com.smartgwt.client.data.RecordIndex::OTHER_VALUE;
+            }
+        }
+        var key = @com.smartgwt.client.data.RecordIndex::keyOf(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(record, properties);
+        if (key == null) return;
+        var existing = map[key];
+        if (existing === undefined) {
+            map[key] = pos;
+            return;
+        }
+        if (typeof existing == "number") existing = map[key] = [existing];
+        var i = existing.length;
+        while (i > 0 && existing[i - 1] > pos) i--;
+        existing.splice(i, 0, pos);
+    }-*/;
+
+    private static native void removeRow(JavaScriptObject map, JavaScriptObject properties, JavaScriptObject record, int pos) /*-{
+        var key = @com.smartgwt.client.data.RecordIndex::keyOf(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(record, properties);
+        if (key == null) return;
+        var existing = map[key];
+        if (existing === pos) {
+            delete map[key];
+        } else if (existing != null && typeof existing == "object") {
+            var i = existing.indexOf(pos);
+            if (i >= 0) existing.splice(i, 1);
+            if (existing.length == 1) map[key] = existing[0];
+        }
+    }-*/;
+
+    private static native boolean isUnique(JavaScriptObject map) /*-{
+        for (var key in map) {
+            if (typeof map[key] != "number") return false;
+        }
+        return true;
+    }-*/;
+
+    private static native int getPosition(JavaScriptObject map, String key) /*-{
+        var existing = map[key];
+        if (existing === undefined) return -1;
+        return typeof existing == "number" ? existing : existing[0];
+    }-*/;
+
+    private static native JavaScriptObject getRows(JavaScriptObject data, JavaScriptObject map, String key) /*-{
+        var existing = map[key];
+        if (existing === undefined) return null;
+        if (typeof existing == "number") return [data.get(existing)];
+        var rows = [];
+        for (var i = 0; i < existing.length; i++) rows[i] = data.get(existing[i]);
+        return rows;
+    }-*/;
+}
@@ -214,7 +214,12 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return index of the first matching Record or -1 if not found
      */
-    public native int findIndex(Map properties) /*-{
+    public int findIndex(Map properties) {
+        RecordIndex recordIndex = getIndexFor(properties);
+        int index = recordIndex == null ? NOT_INDEXED : findIndexed(recordIndex, recordIndex.getValues(properties));
+        return index != NOT_INDEXED ? index : _findIndex(properties);
+    }
+    private native int _findIndex(Map properties) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         return self.findIndex(@com.smartgwt.client.util.JSOHelper::convertMapToJavascriptObject(Ljava/util/Map;)(properties));
     }-*/;
@@ -226,7 +231,11 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return index of the first matching Record or -1 if not found
      */
-    public native int findIndex(String propertyName, String value) /*-{
+    public int findIndex(String propertyName, String value) {
+        int index = findIndexed(getIndexFor(propertyName), value);
+        return index != NOT_INDEXED ? index : _findIndex(propertyName, value);
+    }
+    private native int _findIndex(String propertyName, String value) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         return self.findIndex(propertyName, value);
     }-*/;
@@ -238,7 +247,11 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return index of the first matching Record or -1 if not found
      */
-    public native int findIndex(String propertyName, int value) /*-{
+    public int findIndex(String propertyName, int value) {
+        int index = findIndexed(getIndexFor(propertyName), value);
+        return index != NOT_INDEXED ? index : _findIndex(propertyName, value);
+    }
+    private native int _findIndex(String propertyName, int value) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         return self.findIndex(propertyName, value);
     }-*/;
@@ -252,7 +265,11 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return index of the first matching Record or -1 if not found
      */
-    public native int findIndex(String propertyName, Long value) /*-{
+    public int findIndex(String propertyName, Long value) {
+        int index = findIndexed(getIndexFor(propertyName), value);
+        return index != NOT_INDEXED ? index : _findIndex(propertyName, value);
+    }
+    private native int _findIndex(String propertyName, Long value) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         return self.findIndex(propertyName, value);
     }-*/;
@@ -264,7 +281,11 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return index of the first matching Record or -1 if not found
      */
-    public native int findIndex(String propertyName, float value) /*-{
+    public int findIndex(String propertyName, float value) {
+        int index = findIndexed(getIndexFor(propertyName), value);
+        return index != NOT_INDEXED ? index : _findIndex(propertyName, value);
+    }
+    private native int _findIndex(String propertyName, float value) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         return self.findIndex(propertyName, value);
     }-*/;
@@ -276,7 +297,11 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return index of the first matching Record or -1 if not found
      */
-    public native int findIndex(String propertyName, boolean value) /*-{
+    public int findIndex(String propertyName, boolean value) {
+        int index = findIndexed(getIndexFor(propertyName), value);
+        return index != NOT_INDEXED ? index : _findIndex(propertyName, value);
+    }
+    private native int _findIndex(String propertyName, boolean value) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         return self.findIndex(propertyName, value);
     }-*/;
@@ -410,7 +435,12 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return first matching object or null if not found
      */
-    public native Record find(String propertyName, Object value) /*-{
+    public Record find(String propertyName, Object value) {
+        int index = findIndexed(getIndexFor(propertyName), value);
+        if (index == NOT_INDEXED) return _find(propertyName, value);
+        return index < 0 ? null : get(index);
+    }
+    private native Record _find(String propertyName, Object value) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         var recordJS = self.find(propertyName, value);
         return recordJS == null || recordJS === undefined ? null : @com.smartgwt.client.data.Record::getOrCreateRef(Lcom/google/gwt/core/client/JavaScriptObject;)(recordJS);
@@ -436,7 +466,12 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return first matching object or null if not found
      */
-    public native Record find(String propertyName, Long value) /*-{
+    public Record find(String propertyName, Long value) {
+        int index = findIndexed(getIndexFor(propertyName), value);
+        if (index == NOT_INDEXED) return _find(propertyName, value);
+        return index < 0 ? null : get(index);
+    }
+    private native Record _find(String propertyName, Long value) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         var recordJS = self.find(propertyName, value);
         return recordJS == null || recordJS === undefined ? null : @com.smartgwt.client.data.Record::getOrCreateRef(Lcom/google/gwt/core/client/JavaScriptObject;)(recordJS);
@@ -451,7 +486,9 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      */
     public Record find(String propertyName, Boolean value) {
         if (value == null) return null;
-        return this._find(propertyName, value.booleanValue());
+        int index = findIndexed(getIndexFor(propertyName), value);
+        if (index == NOT_INDEXED) return this._find(propertyName, value.booleanValue());
+        return index < 0 ? null : get(index);
     }
     private native Record _find(String propertyName, boolean value) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
@@ -466,7 +503,12 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return all matching Objects or null if none found
      */
-    public native Record[] findAll(Map properties) /*-{
+    public Record[] findAll(Map properties) {
+        RecordIndex recordIndex = getIndexFor(properties);
+        Record[] records = recordIndex == null ? NOT_INDEXED_RECORDS : findAllIndexed(recordIndex, recordIndex.getValues(properties));
+        return records != NOT_INDEXED_RECORDS ? records : _findAll(properties);
+    }
+    private native Record[] _findAll(Map properties) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         var recordsJS = self.findAll(@com.smartgwt.client.util.JSOHelper::convertMapToJavascriptObject(Ljava/util/Map;)(properties));
         return recordsJS == null || recordsJS === undefined ? null : @com.smartgwt.client.data.Record::convertToRecordArray(Lcom/google/gwt/core/client/JavaScriptObject;)(recordsJS);
@@ -480,7 +522,11 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return all matching Objects or null if none found
      */
-    public native Record[] findAll(String propertyName, String value) /*-{
+    public Record[] findAll(String propertyName, String value) {
+        Record[] records = findAllIndexed(getIndexFor(propertyName), value);
+        return records != NOT_INDEXED_RECORDS ? records : _findAll(propertyName, value);
+    }
+    private native Record[] _findAll(String propertyName, String value) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         var recordsJS = self.findAll(propertyName, value);
         return recordsJS == null || recordsJS === undefined ? null : @com.smartgwt.client.data.Record::convertToRecordArray(Lcom/google/gwt/core/client/JavaScriptObject;)(recordsJS);
@@ -494,7 +540,11 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return all matching Objects or null if none found
      */
-    public native Record[] findAll(String propertyName, int value) /*-{
+    public Record[] findAll(String propertyName, int value) {
+        Record[] records = findAllIndexed(getIndexFor(propertyName), value);
+        return records != NOT_INDEXED_RECORDS ? records : _findAll(propertyName, value);
+    }
+    private native Record[] _findAll(String propertyName, int value) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         var recordsJS = self.findAll(propertyName, value);
         return recordsJS == null || recordsJS === undefined ? null : @com.smartgwt.client.data.Record::convertToRecordArray(Lcom/google/gwt/core/client/JavaScriptObject;)(recordsJS);
@@ -510,7 +560,11 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return all matching Objects or null if none found
      */
-    public native Record[] findAll(String propertyName, Long value) /*-{
+    public Record[] findAll(String propertyName, Long value) {
+        Record[] records = findAllIndexed(getIndexFor(propertyName), value);
+        return records != NOT_INDEXED_RECORDS ? records : _findAll(propertyName, value);
+    }
+    private native Record[] _findAll(String propertyName, Long value) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         var recordsJS = self.findAll(propertyName, value);
         return recordsJS == null || recordsJS === undefined ? null : @com.smartgwt.client.data.Record::convertToRecordArray(Lcom/google/gwt/core/client/JavaScriptObject;)(recordsJS);
@@ -524,7 +578,11 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return all matching Objects or null if none found
      */
-    public native Record[] findAll(String propertyName, float value) /*-{
+    public Record[] findAll(String propertyName, float value) {
+        Record[] records = findAllIndexed(getIndexFor(propertyName), value);
+        return records != NOT_INDEXED_RECORDS ? records : _findAll(propertyName, value);
+    }
+    private native Record[] _findAll(String propertyName, float value) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         var recordsJS = self.findAll(propertyName, value);
         return recordsJS == null || recordsJS === undefined ? null : @com.smartgwt.client.data.Record::convertToRecordArray(Lcom/google/gwt/core/client/JavaScriptObject;)(recordsJS);
@@ -538,7 +596,11 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return all matching Objects or null if none found
      */
-    public native Record[] findAll(String propertyName, boolean value) /*-{
+    public Record[] findAll(String propertyName, boolean value) {
+        Record[] records = findAllIndexed(getIndexFor(propertyName), value);
+        return records != NOT_INDEXED_RECORDS ? records : _findAll(propertyName, value);
+    }
+    private native Record[] _findAll(String propertyName, boolean value) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         var recordsJS = self.findAll(propertyName, value);
         return recordsJS == null || recordsJS === undefined ? null : @com.smartgwt.client.data.Record::convertToRecordArray(Lcom/google/gwt/core/client/JavaScriptObject;)(recordsJS);
@@ -565,7 +627,12 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return all matching Objects or null if none found
      */
-    public native Record[] findAll(AdvancedCriteria adCriteria) /*-{
+    public Record[] findAll(AdvancedCriteria adCriteria) {
+        if (!isNativeArray()) return _findAll(adCriteria);
+        JavaScriptObject recordsJS = CompiledCriteria.compile(adCriteria).findAll(getOrCreateJsObj());
+        return recordsJS == null ? null : Record.convertToRecordArray(recordsJS);
+    }
+    private native Record[] _findAll(AdvancedCriteria adCriteria) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         var recordsJS = self.findAll(adCriteria.@com.smartgwt.client.core.DataClass::getJsObj()());
         return recordsJS == null || recordsJS === undefined ? null : @com.smartgwt.client.data.Record::convertToRecordArray(Lcom/google/gwt/core/client/JavaScriptObject;)(recordsJS);
@@ -578,7 +645,12 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return first matching object or null if not found
      */
-    public native Record find(AdvancedCriteria adCriteria) /*-{
+    public Record find(AdvancedCriteria adCriteria) {
+        if (!isNativeArray()) return _find(adCriteria);
+        int index = CompiledCriteria.compile(adCriteria).findNextIndex(getOrCreateJsObj(), 0, -1);
+        return index < 0 ? null : get(index);
+    }
+    private native Record _find(AdvancedCriteria adCriteria) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         var recordJS = self.find(adCriteria.@com.smartgwt.client.core.DataClass::getJsObj()());
         return recordJS == null || recordJS === undefined ? null : @com.smartgwt.client.data.Record::getOrCreateRef(Lcom/google/gwt/core/client/JavaScriptObject;)(recordJS);
@@ -590,7 +662,11 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return index of the first matching Record or -1 if not found
      */
-    public native int findIndex(AdvancedCriteria adCriteria) /*-{
+    public int findIndex(AdvancedCriteria adCriteria) {
+        if (!isNativeArray()) return _findIndex(adCriteria);
+        return CompiledCriteria.compile(adCriteria).findNextIndex(getOrCreateJsObj(), 0, -1);
+    }
+    private native int _findIndex(AdvancedCriteria adCriteria) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         return self.findIndex(adCriteria.@com.smartgwt.client.core.DataClass::getJsObj()());
     }-*/;
@@ -603,7 +679,11 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      * 
      * @return index of the first matching Record or -1 if not found
      */
-    public native int findNextIndex(int startIndex, AdvancedCriteria adCriteria, int endIndex) /*-{
+    public int findNextIndex(int startIndex, AdvancedCriteria adCriteria, int endIndex) {
+        if (!isNativeArray()) return _findNextIndex(startIndex, adCriteria, endIndex);
+        return CompiledCriteria.compile(adCriteria).findNextIndex(getOrCreateJsObj(), startIndex, endIndex);
+    }
+    private native int _findNextIndex(int startIndex, AdvancedCriteria adCriteria, int endIndex) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         return self.findNextIndex(startIndex, adCriteria.@com.smartgwt.client.core.DataClass::getJsObj()(), null, endIndex);
     }-*/;
@@ -615,7 +695,11 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      * 
      * @return index of the first matching Record or -1 if not found
      */
-    public native int findNextIndex(int startIndex, AdvancedCriteria adCriteria) /*-{
+    public int findNextIndex(int startIndex, AdvancedCriteria adCriteria) {
+        if (!isNativeArray()) return _findNextIndex(startIndex, adCriteria);
+        return CompiledCriteria.compile(adCriteria).findNextIndex(getOrCreateJsObj(), startIndex, -1);
+    }
+    private native int _findNextIndex(int startIndex, AdvancedCriteria adCriteria) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         return self.findNextIndex(startIndex, adCriteria.@com.smartgwt.client.core.DataClass::getJsObj()());
     }-*/;
@@ -742,7 +826,20 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      *
      * @return whatever's at that position, null if not found
      */
-    public native Record set(int pos, Record record) /*-{
+    public Record set(int pos, Record record) {
+        if (indexes == null) return _set(pos, record);
+        JavaScriptObject oldRow = getRow(pos);
+        Record result;
+        updatingIndexes = true;
+        try {
+            result = _set(pos, record);
+        } finally {
+            updatingIndexes = false;
+        }
+        for (RecordIndex index : indexes) index.rowReplaced(pos, oldRow, record.getJsObj());
+        return result;
+    }
+    private native Record _set(int pos, Record record) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         var recordJS = self.set(pos, record.@com.smartgwt.client.data.Record::getJsObj()());
         return recordJS == null || recordJS === undefined ? null : @com.smartgwt.client.data.Record::getOrCreateRef(Lcom/google/gwt/core/client/JavaScriptObject;)(recordJS);
@@ -758,6 +855,7 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
     public native Record addAt(Record record, int pos) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         var recordJS =  self.addAt(record.@com.smartgwt.client.data.Record::getJsObj()(), pos);
+        this.@com.smartgwt.client.data.RecordList::invalidateIndexes()();
         return recordJS == null || recordJS === undefined ? null : @com.smartgwt.client.data.Record::getOrCreateRef(Lcom/google/gwt/core/client/JavaScriptObject;)(recordJS);
     }-*/;
 
@@ -770,6 +868,7 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
     public native Record removeAt(int pos) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         var recordJS =   self.removeAt(pos);
+        this.@com.smartgwt.client.data.RecordList::invalidateIndexes()();
         return recordJS == null || recordJS === undefined ? null : @com.smartgwt.client.data.Record::getOrCreateRef(Lcom/google/gwt/core/client/JavaScriptObject;)(recordJS);
     }-*/;
 
@@ -778,7 +877,21 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      * @param record object to add
      *
      */
-    public native void add(Record record) /*-{
+    public void add(Record record) {
+        if (indexes == null) {
+            _add(record);
+            return;
+        }
+        int length = getLength();
+        updatingIndexes = true;
+        try {
+            _add(record);
+        } finally {
+            updatingIndexes = false;
+        }
+        for (RecordIndex index : indexes) index.rowsAppended(length);
+    }
+    private native void _add(Record record) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         self.add(record.@com.smartgwt.client.data.Record::getJsObj()());
     }-*/;
@@ -789,7 +902,21 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      * @param list list of items to add
      *
      */
-    public native void addList(Record[] list) /*-{
+    public void addList(Record[] list) {
+        if (indexes == null) {
+            _addList(list);
+            return;
+        }
+        int length = getLength();
+        updatingIndexes = true;
+        try {
+            _addList(list);
+        } finally {
+            updatingIndexes = false;
+        }
+        for (RecordIndex index : indexes) index.rowsAppended(length);
+    }
+    private native void _addList(Record[] list) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         self.addList(@com.smartgwt.client.util.JSOHelper::convertToJavaScriptArray([Ljava/lang/Object;)(list));
     }-*/;
@@ -802,7 +929,21 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
      * @param listEndRow optional end index in list (non-inclusive)
      *
      */
-    public native void addList(Record[] list, int listStartRow, int listEndRow) /*-{
+    public void addList(Record[] list, int listStartRow, int listEndRow) {
+        if (indexes == null) {
+            _addList(list, listStartRow, listEndRow);
+            return;
+        }
+        int length = getLength();
+        updatingIndexes = true;
+        try {
+            _addList(list, listStartRow, listEndRow);
+        } finally {
+            updatingIndexes = false;
+        }
+        for (RecordIndex index : indexes) index.rowsAppended(length);
+    }
+    private native void _addList(Record[] list, int listStartRow, int listEndRow) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         self.addList(@com.smartgwt.client.util.JSOHelper::convertToJavaScriptArray([Ljava/lang/Object;)(list), listStartRow, listEndRow);
     }-*/;
@@ -815,6 +956,7 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
     public native void setLength(int length) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         self.setLength(length);
+        this.@com.smartgwt.client.data.RecordList::invalidateIndexes()();
     }-*/;
 
     /**
@@ -826,6 +968,7 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
     public native void addListAt(Record[] list, int pos) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         self.addListAt(@com.smartgwt.client.util.JSOHelper::convertToJavaScriptArray([Ljava/lang/Object;)(list), pos);
+        this.@com.smartgwt.client.data.RecordList::invalidateIndexes()();
     }-*/;
 
     /**
@@ -837,6 +980,7 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
     public native Boolean remove(Record record) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         var retVal =self.remove(record.@com.smartgwt.client.data.Record::getJsObj()());
+        this.@com.smartgwt.client.data.RecordList::invalidateIndexes()();
         if(retVal == null || retVal === undefined) {
             return null;
         } else {
@@ -852,6 +996,7 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
     public native void removeList(Record[] list) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         self.removeList(@com.smartgwt.client.util.JSOHelper::convertToJavaScriptArray([Ljava/lang/Object;)(list));
+        this.@com.smartgwt.client.data.RecordList::invalidateIndexes()();
     }-*/;
 
     /**
@@ -864,6 +1009,7 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
     public native void sort() /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         self.sort();
+        this.@com.smartgwt.client.data.RecordList::invalidateIndexes()();
     }-*/;
 
     /**
@@ -882,6 +1028,7 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
             var record2J = @com.smartgwt.client.data.Record::getOrCreateRef(Lcom/google/gwt/core/client/JavaScriptObject;)(record2);
             return comparator.@java.util.Comparator::compare(Ljava/lang/Object;Ljava/lang/Object;)(record1J, record2J);
         });
+        this.@com.smartgwt.client.data.RecordList::invalidateIndexes()();
         if (result == null) return null;
         return @com.smartgwt.client.data.RecordList::getOrCreateRef(Lcom/google/gwt/core/client/JavaScriptObject;)(result);
     }-*/;
@@ -912,6 +1059,7 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
     public native RecordList sortByProperty(String property, boolean up) /*-{
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         var ret = self.sortByProperty(property, up);
+        this.@com.smartgwt.client.data.RecordList::invalidateIndexes()();
         if(ret == null || ret === undefined) return null;
         return @com.smartgwt.client.data.RecordList::new(Lcom/google/gwt/core/client/JavaScriptObject;)(ret);
     }-*/;
@@ -938,6 +1086,7 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
                     return @com.smartgwt.client.data.RecordList::normalizedValue(Ljava/lang/Number;)(value);
                 }
             })));
+        this.@com.smartgwt.client.data.RecordList::invalidateIndexes()();
     }-*/;
 
     private static double normalizedValue(Number number) {
@@ -953,6 +1102,7 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
         var sortSpecifiersJS = @com.smartgwt.client.util.JSOHelper::convertToJavaScriptArray([Ljava/lang/Object;)(sortSpecifiers);
         var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
         self.setSort(sortSpecifiersJS);
+        this.@com.smartgwt.client.data.RecordList::invalidateIndexes()();
     }-*/;
 
     /**
@@ -985,6 +1135,8 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
         return doAddHandler(handler, com.smartgwt.client.data.events.DataChangedEvent.getType());
     }
 
+    private boolean dataChangedEventSetup;
+
     private native void setupDataChangedEvent() /*-{
         var obj,
             selfJ = this;
@@ -993,13 +1145,20 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
         } else {
             obj = this.@com.smartgwt.client.core.BaseClass::getConfig()();
         }
+        if (selfJ.@com.smartgwt.client.data.RecordList::dataChangedEventSetup) return;
+        selfJ.@com.smartgwt.client.data.RecordList::dataChangedEventSetup = true;
         obj.onDataChanged = $entry(function () {
-            var param = {};
-            var event = @com.smartgwt.client.data.events.DataChangedEvent::new(Lcom/google/gwt/core/client/JavaScriptObject;)(param);
-            selfJ.@com.smartgwt.client.core.BaseClass::fireEvent(Lcom/google/gwt/event/shared/GwtEvent;)(event);
+            selfJ.@com.smartgwt.client.data.RecordList::onDataChanged()();
         });
     }-*/;
 
+    private void onDataChanged() {
+        if (!updatingIndexes) invalidateIndexes();
+        if (getHandlerCount(com.smartgwt.client.data.events.DataChangedEvent.getType()) > 0) {
+            fireEvent(new com.smartgwt.client.data.events.DataChangedEvent(JSOHelper.createObject()));
+        }
+    }
+
     /**
      * Returns the records in this RecordList as an array.
      *
@@ -1009,6 +1168,118 @@ public class RecordList extends BaseClass implements com.smartgwt.client.data.ev
         return getRange(0, getLength());
     }
 
+    private List<RecordIndex> indexes;
+
+    // Set while set(), add() and addList() update the indexes themselves, so
+    // that the dataChanged notification does not discard them.
+    private boolean updatingIndexes;
+
+    private static final int NOT_INDEXED = -2;
+    private static final Record[] NOT_INDEXED_RECORDS = new Record[0];
+
+    /**
+     * Create a hash index on one or more properties of the records in this list, so that
+     * records can be looked up by value without scanning the list.  Once created, the index is
+     * used automatically by {@link #find find()}, {@link #findIndex findIndex()} and
+     * {@link #findAll findAll()} for lookups on exactly the indexed properties, and it is kept
+     * up to date as the list changes - see {@link RecordIndex} for details.
+     * <P>
+     * If an index on the same properties already exists, it is returned.  Note that the index
+     * belongs to this RecordList object, so it is not used by other RecordLists wrapping the
+     * same data.
+     *
+     * @param properties the properties to index, in the order their values are passed to
+     * the lookup methods of the index
+     *
+     * @return the index
+     */
+    public RecordIndex createIndex(String... properties) {
+        if (properties == null || properties.length == 0) {
+            throw new IllegalArgumentException("createIndex() requires at least one property");
+        }
+        RecordIndex index = getIndex(properties);
+        if (index != null) return index;
+        getOrCreateJsObj();
+        index = new RecordIndex(this, properties.clone());
+        if (indexes == null) {
+            indexes = new java.util.ArrayList<RecordIndex>();
+            setupDataChangedEvent();
+        }
+        indexes.add(index);
+        return index;
+    }
+
+    /**
+     * Return the index previously created on exactly these properties, in this order.
+     *
+     * @param properties the indexed properties
+     *
+     * @return the index, or null if there is none
+     */
+    public RecordIndex getIndex(String... properties) {
+        if (indexes == null) return null;
+        for (RecordIndex index : indexes) {
+            if (java.util.Arrays.equals(index.getProperties(), properties)) return index;
+        }
+        return null;
+    }
+
+    /**
+     * Remove an index created by {@link #createIndex}, so that it is no longer maintained.
+     *
+     * @param index the index to remove
+     */
+    public void dropIndex(RecordIndex index) {
+        if (indexes == null) return;
+        indexes.remove(index);
+        if (indexes.isEmpty()) indexes = null;
+    }
+
+    private void invalidateIndexes() {
+        if (indexes == null) return;
+        for (RecordIndex index : indexes) index.invalidate();
+    }
+
+    private RecordIndex getIndexFor(String property) {
+        if (indexes == null) return null;
+        for (RecordIndex index : indexes) {
+            if (index.covers(property)) return index;
+        }
+        return null;
+    }
+
+    private RecordIndex getIndexFor(Map properties) {
+        if (indexes == null || properties == null) return null;
+        for (RecordIndex index : indexes) {
+            if (index.covers(properties)) return index;
+        }
+        return null;
+    }
+
+    private static int findIndexed(RecordIndex index, Object... values) {
+        String key = index == null ? null : index.getLookupKey(values);
+        return key == null ? NOT_INDEXED : index.getPosition(key);
+    }
+
+    private static Record[] findAllIndexed(RecordIndex index, Object... values) {
+        String key = index == null ? null : index.getLookupKey(values);
+        if (key == null) return NOT_INDEXED_RECORDS;
+        JavaScriptObject rows = index.getRows(key);
+        return rows == null ? null : Record.convertToRecordArray(rows);
+    }
+
+    // Criteria are only compiled for plain arrays: other lists, such as a
+    // ResultSet, may have to fetch the records they are asked for.
+    private native boolean isNativeArray() /*-{
+        var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
+        return $wnd.isc.isAn.Array(self);
+    }-*/;
+
+    private native JavaScriptObject getRow(int pos) /*-{
+        var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
+        return pos < self.getLength() ? self.get(pos) : null;
+    }-*/;
+
     public interface SortNormalizer {
         /**
          * The normalization function.
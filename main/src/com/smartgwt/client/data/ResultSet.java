@@ -116,10 +116,19 @@ import com.smartgwt.client.util.SC;
  * ResultSet#getUpdatePartialCache updatePartialCache} is set to false, the ResultSet will&#010
  * simply invalidate cache immediately in this circumstance.
  */
-public class ResultSet extends RecordList implements com.smartgwt.client.data.events.HasDataArrivedHandlers {
+public class ResultSet extends RecordList implements com.smartgwt.client.data.events.HasDataArrivedHandlers, com.smartgwt.client.data.events.HasStatsUpdatedHandlers {
 
     private boolean ensuringCreated = false;
 
+    private PrefetchPolicy prefetchPolicy;
+    private JavaScriptObject prefetchState;
+
+    private int maxCachedRows;
+    private JavaScriptObject cacheState;
+
+    private JavaScriptObject statsState;
+    private boolean statsInstalled;
+
     public static ResultSet getOrCreateRef(JavaScriptObject jsObj) {
         if(jsObj == null) return null;
         BaseClass obj = getRef(jsObj);
@@ -381,10 +390,20 @@ public class ResultSet extends RecordList implements com.smartgwt.client.data.ev
      * change the criteria after initialization.
      * Set the filter criteria to use when fetching rows. <P> Setting new criteria will invalidate the current cache, if any. <P> Note: any field values in the criteria explicitly specified as null will be passed to the server. By default the server then returns only records whose value is null for that field. This differs from certain higher level methods such as  {@link com.smartgwt.client.widgets.grid.ListGrid#fetchData} which prune null criteria fields before performing a fetch operation.
      *
+     * <P>
+     * If the new criteria are equivalent to the current criteria - the same apart from the order
+     * or nesting of their clauses, as determined by {@link Criteria#isEquivalent} - this method
+     * does nothing, so the cache is kept.
+     *
      * @param criteria the filter criteria. Default value is null
      */
     public void setCriteria(Criteria criteria) {
-        setAttribute("criteria", criteria == null ? null : criteria.getJsObj(), true);
+        JavaScriptObject criteriaJS = criteria == null ? null : criteria.getJsObj();
+        if (isCreated() && criteriaJS != null) {
+            JavaScriptObject currentJS = getAttributeAsJavaScriptObject("criteria");
+            if (currentJS != null && Criteria.isEquivalent(criteriaJS, currentJS)) return;
+        }
+        setAttribute("criteria", criteriaJS, true);
     }
 
     /**
@@ -638,6 +657,445 @@ public class ResultSet extends RecordList implements com.smartgwt.client.data.ev
         return getAttributeAsBoolean("alwaysRequestVisibleRows");
     }
 
+    /**
+     * Policy deciding which rows to fetch when rows that are not loaded are requested, in place of
+     * fetching batches of {@link ResultSet#getResultSize resultSize} rows.  See
+     * {@link AdaptivePrefetchPolicy} for a policy which reads ahead according to the scroll
+     * velocity, server latency and row size.
+     * <P>
+     * Once a policy has been set, the ResultSet measures these and counts prefetched rows; see
+     * {@link #getPrefetchStats()}.  For the ResultSet of a ListGrid, set the policy on
+     * {@link com.smartgwt.client.widgets.grid.ListGrid#getResultSet getResultSet()} after each
+     * fetch which creates a new ResultSet.
+     *
+     * @param prefetchPolicy the prefetch policy, or null to restore the default batches. Default value is null
+     */
+    public void setPrefetchPolicy(PrefetchPolicy prefetchPolicy) {
+        this.prefetchPolicy = prefetchPolicy;
+        if (prefetchPolicy != null && isCreated()) installPrefetchPolicy();
+    }
+
+    /**
+     * Policy deciding which rows to fetch when rows that are not loaded are requested.
+     *
+     * @return the prefetch policy, or null if none has been set
+     */
+    public PrefetchPolicy getPrefetchPolicy() {
+        return prefetchPolicy;
+    }
+
+    /**
+     * Measurements and counters for prefetching, including prefetch hits and wasted rows.
+     * They are only kept once a {@link #setPrefetchPolicy prefetch policy} has been set.
+     *
+     * @return prefetch statistics, or null if no prefetch policy has ever been set
+     */
+    public PrefetchStats getPrefetchStats() {
+        return prefetchState == null ? null : new PrefetchStats(prefetchState);
+    }
+
+    /**
+     * Upper limit on the number of loaded rows a paged ResultSet keeps.  When rows arrive and
+     * more than this many are cached, whole pages of {@link ResultSet#getResultSize resultSize}
+     * rows are dropped from the cache, least recently requested first, until the limit is met.
+     * Pages containing the most recently requested rows - normally the visible rows - or
+     * selected records are kept.
+     * <P>
+     * Dropped rows are no longer reported as loaded by {@link #rowIsLoaded rowIsLoaded()} or
+     * {@link #rangeIsLoaded rangeIsLoaded()}, so they are simply fetched again when next
+     * requested, and {@link #addDataArrivedHandler dataArrived} fires when they arrive.  A
+     * complete cache of the rows matching the criteria is never dropped, since it is used for
+     * client-side sorting and filtering.
+     *
+     * @param maxCachedRows the most rows to keep cached, or 0 for no limit. Default value is 0
+     */
+    public void setMaxCachedRows(int maxCachedRows) {
+        this.maxCachedRows = maxCachedRows;
+        if (maxCachedRows > 0 && isCreated()) installCacheLimit();
+    }
+
+    /**
+     * Upper limit on the number of loaded rows a paged ResultSet keeps.
+     *
+     * @return the most rows to keep cached, or 0 for no limit
+     */
+    public int getMaxCachedRows() {
+        return maxCachedRows;
+    }
+
+    /**
+     * The number of rows currently loaded in the cache.
+     *
+     * @return cached row count
+     */
+    public native int getCachedRowCount() /*-{
+        var state = this.@com.smartgwt.client.data.ResultSet::cacheState;
+        if (state != null) return state.cachedRows;
+        var self = this.@com.smartgwt.client.core.BaseClass::getOrCreateJsObj()();
+        return @com.smartgwt.client.data.ResultSet::countLoadedRows(Lcom/google/gwt/core/client/JavaScriptObject;II)(self, 0, -1);
+    }-*/;
+
+    /**
+     * The number of pages dropped from the cache because of
+     * {@link #setMaxCachedRows maxCachedRows}.
+     *
+     * @return evicted page count
+     */
+    public native int getEvictedPageCount() /*-{
+        var state = this.@com.smartgwt.client.data.ResultSet::cacheState;
+        return state == null ? 0 : state.evictedPages;
+    }-*/;
+
+    /**
+     * The number of loaded rows dropped from the cache because of
+     * {@link #setMaxCachedRows maxCachedRows}.
+     *
+     * @return evicted row count
+     */
+    public native int getEvictedRowCount() /*-{
+        var state = this.@com.smartgwt.client.data.ResultSet::cacheState;
+        return state == null ? 0 : state.evictedRows;
+    }-*/;
+
+    /**
+     * Statistics on this ResultSet's fetches and cache: fetch count, rows and bytes fetched, a
+     * round-trip latency histogram, cache hit ratio, time spent in client-side filtering and
+     * sorting, and invalidations.  See {@link CacheStats} for details.
+     * <P>
+     * Statistics are collected from the first call to this method or to
+     * {@link #addStatsUpdatedHandler addStatsUpdatedHandler()}, which may be made before the
+     * ResultSet is created, or on an existing ResultSet such as the
+     * {@link com.smartgwt.client.widgets.grid.ListGrid#getResultSet ResultSet of a ListGrid}.
+     *
+     * @return the statistics
+     */
+    public CacheStats getStats() {
+        if (statsState == null) statsState = CacheStats.createState();
+        if (isCreated()) installStats();
+        return new CacheStats(statsState);
+    }
+
+    /**
+     * Add a statsUpdated handler.
+     * <p>
+     * Notification fired when rows arrive or the cache is invalidated, after the
+     * {@link #getStats() statistics} have been updated.  Use this hook to report the statistics
+     * to your own monitoring.
+     *
+     * @param handler the statsUpdated handler
+     * @return {@link com.google.gwt.event.shared.HandlerRegistration} used to remove this handler
+     */
+    public HandlerRegistration addStatsUpdatedHandler(com.smartgwt.client.data.events.StatsUpdatedHandler handler) {
+        if (statsState == null) statsState = CacheStats.createState();
+        if (isCreated()) installStats();
+        return doAddHandler(handler, com.smartgwt.client.data.events.StatsUpdatedEvent.getType());
+    }
+
+    @Override
+    protected void onInit() {
+        super.onInit();
+        if (statsState != null || CacheStats.isLogEnabled(getJsObj())) installStats();
+        if (prefetchPolicy != null) installPrefetchPolicy();
+        if (maxCachedRows > 0) installCacheLimit();
+    }
+
+    private void statsUpdated(JavaScriptObject sample) {
+        CacheStats.log(getJsObj(), statsState);
+        if (getHandlerCount(com.smartgwt.client.data.events.StatsUpdatedEvent.getType()) == 0) return;
+        JSOHelper.setAttribute(sample, "stats", statsState);
+        fireEvent(new com.smartgwt.client.data.events.StatsUpdatedEvent(sample));
+    }
+
+    // Overrides getRange() to count cache hits and misses, dataArrived() to record fetches,
+    // invalidateCache() to count invalidations, and applyFilter(), sortByProperty() and setSort()
+    // to time client-side filtering and sorting.  Latency is measured from the first miss.
+    private native void installStats() /*-{
+        if (this.@com.smartgwt.client.data.ResultSet::statsInstalled) return;
+        this.@com.smartgwt.client.data.ResultSet::statsInstalled = true;
+        if (this.@com.smartgwt.client.data.ResultSet::statsState == null) {
+            this.@com.smartgwt.client.data.ResultSet::statsState = @com.smartgwt.client.data.CacheStats::createState()();
+        }
+        var self = this.@com.smartgwt.client.core.BaseClass::getJsObj()(),
+            selfJ = this,
+            state = this.@com.smartgwt.client.data.ResultSet::statsState,
+            missTime = null;
+
+        var getRange = self.getRange;
+        self.getRange = function (start, end) {
+            if (this.rangeIsLoaded(start, end)) {
+                state.hits++;
+            } else {
+                state.misses++;
+                if (missTime == null) missTime = new Date().getTime();
+            }
+            return getRange.apply(this, arguments);
+        };
+
+        var dataArrived = self.dataArrived;
+        self.dataArrived = $entry(function (startRow, endRow) {
+            var latency = missTime == null ? -1 : new Date().getTime() - missTime,
+                sample = this.getCachedRow ? this.getCachedRow(startRow) : null;
+            missTime = null;
+            @com.smartgwt.client.data.CacheStats::recordFetch(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;IID)(
+                state, sample, endRow - startRow, -1, latency);
+            selfJ.@com.smartgwt.client.data.ResultSet::statsUpdated(Lcom/google/gwt/core/client/JavaScriptObject;)(
+                { kind: "fetch", rows: endRow - startRow, latency: latency < 0 ? null : latency });
+            if (dataArrived != null) return dataArrived.apply(this, arguments);
+        });
+
+        var invalidateCache = self.invalidateCache;
+        self.invalidateCache = $entry(function () {
+            state.invalidations++;
+            missTime = null;
+            var result = invalidateCache.apply(this, arguments);
+            selfJ.@com.smartgwt.client.data.ResultSet::statsUpdated(Lcom/google/gwt/core/client/JavaScriptObject;)({ kind: "invalidate" });
+            return result;
+        });
+
+        var timing = {};
+        var time = function (methodName, counter) {
+            var method = self[methodName];
+            if (method == null) return;
+            self[methodName] = function () {
+                // don't count nested calls, such as setSort() calling sortByProperty(), twice
+                if (timing[counter]) return method.apply(this, arguments);
+                timing[counter] = true;
+                var start = new Date().getTime();
+                try {
+                    return method.apply(this, arguments);
+                } finally {
+                    state[counter] += new Date().getTime() - start;
+                    timing[counter] = false;
+                }
+            };
+        };
+        time("applyFilter", "filterTime");
+        time("sortByProperty", "sortTime");
+        time("setSort", "sortTime");
+    }-*/;
+
+    // Called from the getRange() override installed below
+    private JavaScriptObject getPrefetchRange(int startRow, int endRow) {
+        if (prefetchPolicy == null) return null;
+        int totalRows = Boolean.TRUE.equals(lengthIsKnown()) ? getLength() : -1;
+        int[] range = prefetchPolicy.getFetchRange(startRow, endRow, totalRows, getPrefetchStats());
+        return range == null || range.length != 2 ? null : JSOHelper.convertToJavaScriptArray(range);
+    }
+
+    // Overrides getRange() to fetch the rows chosen by the prefetch policy and to measure scroll
+    // velocity, and dataArrived() to measure latency and row size.  Prefetched rows are tracked
+    // until they are requested (a hit) or the cache is invalidated (wasted).
+    private native void installPrefetchPolicy() /*-{
+        if (this.@com.smartgwt.client.data.ResultSet::prefetchState != null) return;
+        var self = this.@com.smartgwt.client.core.BaseClass::getJsObj()(),
+            selfJ = this,
+            state = {
+                velocity: 0, latency: null, rowSize: null,
+                prefetchedRows: 0, prefetchHits: 0, wastedRows: 0,
+                pending: {}, pendingCount: 0,
+                lastStart: null, lastTime: 0, fetchStarted: null, fetching: false
+            };
+        this.@com.smartgwt.client.data.ResultSet::prefetchState = state;
+
+        var getRange = self.getRange;
+        self.getRange = $entry(function (start, end) {
+            if (state.fetching) return getRange.apply(this, arguments);
+
+            var now = new Date().getTime();
+            if (start != state.lastStart) {
+                if (state.lastStart != null) {
+                    var elapsed = now - state.lastTime;
+                    state.velocity = elapsed > 1000 ? 0 : 0.7 * state.velocity +
+                        0.3 * (start - state.lastStart) * 1000 / Math.max(elapsed, 1);
+                }
+                state.lastStart = start;
+                state.lastTime = now;
+            }
+            if (state.pendingCount > 0) {
+                for (var i = start; i < end; i++) {
+                    if (state.pending[i]) {
+                        delete state.pending[i];
+                        state.pendingCount--;
+                        state.prefetchHits++;
+                    }
+                }
+            }
+
+            if (selfJ.@com.smartgwt.client.data.ResultSet::prefetchPolicy != null && !this.rangeIsLoaded(start, end)) {
+                var range = selfJ.@com.smartgwt.client.data.ResultSet::getPrefetchRange(II)(start, end);
+                if (range != null) {
+                    var fetchStart = Math.min(range[0], start),
+                        fetchEnd = Math.max(range[1], end),
+                        added = 0;
+                    for (var i = fetchStart; i < fetchEnd; i++) {
+                        if (i >= start && i < end) continue;
+                        if (!state.pending[i] && !this.rowIsLoaded(i)) {
+                            state.pending[i] = true;
+                            added++;
+                        }
+                    }
+                    state.pendingCount += added;
+                    state.prefetchedRows += added;
+                    if (state.fetchStarted == null) state.fetchStarted = now;
+                    state.fetching = true;
+                    try {
+                        getRange.call(this, fetchStart, fetchEnd);
+                    } finally {
+                        state.fetching = false;
+                    }
+                }
+            }
+            return getRange.apply(this, arguments);
+        });
+
+        var dataArrived = self.dataArrived;
+        self.dataArrived = $entry(function (startRow, endRow) {
+            if (state.fetchStarted != null) {
+                var latency = new Date().getTime() - state.fetchStarted;
+                state.latency = state.latency == null ? latency : 0.7 * state.latency + 0.3 * latency;
+                state.fetchStarted = null;
+            }
+            var row = this.getCachedRow ? this.getCachedRow(startRow) : null;
+            if (row != null) {
+                var size = 0;
+                for (var key in row) {
+                    var value = row[key];
+                    if (key.charAt(0) == "_" || typeof value == "function") continue;
+                    size += 2 * key.length + (typeof value == "string" ? 2 * value.length : 8);
+                }
+                state.rowSize = state.rowSize == null ? size : 0.8 * state.rowSize + 0.2 * size;
+            }
+            if (dataArrived != null) return dataArrived.apply(this, arguments);
+        });
+
+        var invalidateCache = self.invalidateCache;
+        self.invalidateCache = function () {
+            state.wastedRows += state.pendingCount;
+            state.pending = {};
+            state.pendingCount = 0;
+            state.fetchStarted = null;
+            return invalidateCache.apply(this, arguments);
+        };
+    }-*/;
+
+    // Counts the loaded rows of a paged ResultSet from start up to end (exclusive, or the
+    // end of the cache if negative).  Rows still loading hold the loading marker.
+    private static native int countLoadedRows(JavaScriptObject rs, int start, int end) /*-{
+        var data = rs.localData;
+        if (!$wnd.isc.isAn.Array(data)) return 0;
+        if (end < 0 || end > data.length) end = data.length;
+        var marker = $wnd.isc.ResultSet.getLoadingMarker(),
+            count = 0;
+        for (var i = start; i < end; i++) {
+            if (data[i] != null && data[i] !== marker) count++;
+        }
+        return count;
+    }-*/;
+
+    // Overrides getRange() to record when each page was last requested, and dataArrived() to
+    // count the cached rows per page and drop the least recently requested pages when there
+    // are more than maxCachedRows.
+    private native void installCacheLimit() /*-{
+        if (this.@com.smartgwt.client.data.ResultSet::cacheState != null) return;
+        var self = this.@com.smartgwt.client.core.BaseClass::getJsObj()(),
+            selfJ = this,
+            state = {
+                pages: {}, tick: 0, cachedRows: 0, evictedPages: 0, evictedRows: 0,
+                lastStart: 0, lastEnd: 0
+            };
+        this.@com.smartgwt.client.data.ResultSet::cacheState = state;
+
+        var countLoadedRows = @com.smartgwt.client.data.ResultSet::countLoadedRows(Lcom/google/gwt/core/client/JavaScriptObject;II);
+        state.cachedRows = countLoadedRows(self, 0, -1);
+
+        var getPageSize = function (rs) {
+            return rs.resultSize > 0 ? rs.resultSize : 75;
+        };
+        var touchPages = function (rs, start, end, recount) {
+            var pageSize = getPageSize(rs),
+                tick = ++state.tick;
+            for (var p = Math.floor(start / pageSize); p * pageSize < end; p++) {
+                var page = state.pages[p];
+                if (page == null) page = state.pages[p] = { rows: 0 };
+                page.tick = tick;
+                if (recount) {
+                    var rows = countLoadedRows(rs, p * pageSize, (p + 1) * pageSize);
+                    state.cachedRows += rows - page.rows;
+                    page.rows = rows;
+                }
+            }
+        };
+        var isSelected = function (record) {
+            for (var key in record) {
+                if (key.indexOf("_selection_") == 0 && record[key]) return true;
+            }
+            return false;
+        };
+        var evict = function (rs) {
+            var maxCachedRows = selfJ.@com.smartgwt.client.data.ResultSet::maxCachedRows;
+            if (maxCachedRows <= 0 || state.cachedRows <= maxCachedRows) return;
+            if (rs.allMatchingRowsCached() || !$wnd.isc.isAn.Array(rs.localData)) return;
+
+            var pageSize = getPageSize(rs),
+                firstKept = Math.floor(state.lastStart / pageSize),
+                lastKept = Math.floor(Math.max(state.lastEnd - 1, state.lastStart) / pageSize),
+                candidates = [];
+            for (var p in state.pages) {
+                var n = parseInt(p, 10);
+                if (state.pages[p].rows > 0 && (n < firstKept || n > lastKept)) candidates.push(n);
+            }
+            candidates.sort(function (a, b) { return state.pages[a].tick - state.pages[b].tick; });
+
+            var data = rs.localData,
+                marker = $wnd.isc.ResultSet.getLoadingMarker();
+            for (var c = 0; c < candidates.length && state.cachedRows > maxCachedRows; c++) {
+                var p = candidates[c],
+                    start = p * pageSize,
+                    end = Math.min(start + pageSize, data.length),
+                    keep = false;
+                for (var i = start; i < end && !keep; i++) {
+                    if (data[i] != null && data[i] !== marker && isSelected(data[i])) keep = true;
+                }
+                if (keep) continue;
+
+                var rows = 0;
+                for (var i = start; i < end; i++) {
+                    if (data[i] != null && data[i] !== marker) {
+                        data[i] = null;
+                        rows++;
+                    }
+                }
+                if (typeof rs.cachedRows == "number") rs.cachedRows -= rows;
+                delete state.pages[p];
+                state.cachedRows -= rows;
+                state.evictedRows += rows;
+                state.evictedPages++;
+            }
+        };
+
+        var getRange = self.getRange;
+        self.getRange = function (start, end) {
+            state.lastStart = start;
+            state.lastEnd = end;
+            touchPages(this, start, end, false);
+            return getRange.apply(this, arguments);
+        };
+
+        var dataArrived = self.dataArrived;
+        self.dataArrived = $entry(function (startRow, endRow) {
+            touchPages(this, startRow, endRow, true);
+            evict(this);
+            if (dataArrived != null) return dataArrived.apply(this, arguments);
+        });
+
+        var invalidateCache = self.invalidateCache;
+        self.invalidateCache = function () {
+            state.pages = {};
+            state.cachedRows = 0;
+            return invalidateCache.apply(this, arguments);
+        };
+    }-*/;
+
     // ********************* Methods ***********************
 
     /**
@@ -1360,7 +1818,9 @@ public class ResultSet extends RecordList implements com.smartgwt.client.data.ev
         } else {
             obj = this.@com.smartgwt.client.core.BaseClass::getConfig()();
         }
+        var dataArrived = obj.dataArrived;
         obj.dataArrived = $entry(function (startRow, endRow) {
+            if (dataArrived != null) dataArrived.apply(this, arguments);
             var param = { startRow: startRow, endRow: endRow };
             var event = @com.smartgwt.client.data.events.DataArrivedEvent::new(Lcom/google/gwt/core/client/JavaScriptObject;)(param);
             selfJ.@com.smartgwt.client.core.BaseClass::fireEvent(Lcom/google/gwt/event/shared/GwtEvent;)(event);
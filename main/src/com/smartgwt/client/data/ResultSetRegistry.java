@@ -0,0 +1,272 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.smartgwt.client.data.events.DataArrivedEvent;
+import com.smartgwt.client.data.events.DataArrivedHandler;
+import com.smartgwt.client.data.events.DataChangedEvent;
+import com.smartgwt.client.data.events.DataChangedHandler;
+import com.smartgwt.client.util.JSOHelper;
+
+/**
+ * A registry of reference-counted {@link ResultSet}s, shared between components showing the
+ * same rows.  Components which {@link #acquire acquire} a ResultSet for the same DataSource,
+ * fetch operation and {@link Criteria#isEquivalent equivalent criteria} receive the same
+ * ResultSet, so its row cache and server fetches are shared, and cache synchronization after
+ * updates to the DataSource is applied once for all of them.
+ * <P>
+ * Pass the shared ResultSet to each component with <code>setData()</code>, for example
+ * {@link com.smartgwt.client.widgets.grid.ListGrid#setData(RecordList) ListGrid.setData()}.
+ * Each component keeps its own selection, since selection is tracked per component on the
+ * shared records.  The sort order of a ResultSet is shared by every component holding it, so
+ * a component which needs its own order should {@link #acquireView acquire a view} instead: a
+ * {@link RecordList} of the records of the shared ResultSet, sorted locally in the
+ * component's order.  A view loads every matching row into the shared ResultSet, and is
+ * refilled and re-sorted whenever rows arrive in it or it is updated, so a dashboard showing
+ * the same rows in several orders still fetches them once.
+ * <P>
+ * To show different rows, a component should {@link #release release} its ResultSet and
+ * acquire another, rather than changing the criteria of the shared ResultSet, which would
+ * change them for all components.  A ResultSet whose criteria have been changed anyway is no
+ * longer handed out.
+ * <P>
+ * When the last reference is released, the ResultSet is destroyed.
+ */
+public class ResultSetRegistry {
+
+    private static class Entry {
+        final String key;
+        final String criteriaKey;
+        final ResultSet resultSet;
+        int references;
+
+        Entry(String key, String criteriaKey, ResultSet resultSet) {
+            this.key = key;
+            this.criteriaKey = criteriaKey;
+            this.resultSet = resultSet;
+        }
+
+        // Whether the ResultSet still has the criteria it was created with
+        boolean isUnchanged() {
+            return criteriaKey.equals(getCriteriaKey(resultSet.getAttributeAsJavaScriptObject("criteria")));
+        }
+    }
+
+    // A locally sorted view of the records of a shared ResultSet
+    private static class View {
+        final ResultSet resultSet;
+        final RecordList records = new RecordList();
+        final JavaScriptObject sort;
+        final HandlerRegistration arrivedRegistration, changedRegistration;
+
+        View(ResultSet resultSet, JavaScriptObject sort) {
+            this.resultSet = resultSet;
+            this.sort = sort;
+            arrivedRegistration = resultSet.addDataArrivedHandler(new DataArrivedHandler() {
+                public void onDataArrived(DataArrivedEvent event) {
+                    refresh();
+                }
+            });
+            changedRegistration = resultSet.addDataChangedHandler(new DataChangedHandler() {
+                public void onDataChanged(DataChangedEvent event) {
+                    refresh();
+                }
+            });
+            refresh();
+        }
+
+        void refresh() {
+            fill(records.getOrCreateJsObj(), resultSet.getJsObj(), sort);
+        }
+
+        void remove() {
+            arrivedRegistration.removeHandler();
+            changedRegistration.removeHandler();
+        }
+    }
+
+    // Entries by key, and every entry with outstanding references, including entries no
+    // longer handed out because their criteria have been changed.
+    private static final Map<String, Entry> shared = new HashMap<String, Entry>();
+    private static final Map<ResultSet, Entry> acquired = new HashMap<ResultSet, Entry>();
+    private static final Map<RecordList, View> views = new HashMap<RecordList, View>();
+
+    private ResultSetRegistry() {
+    }
+
+    /**
+     * Acquire a shared ResultSet for the default fetch operation.
+     *
+     * @param dataSource the DataSource to fetch from
+     * @param criteria the criteria to fetch with (may be null)
+     *
+     * @return the shared ResultSet
+     * @see #acquire(DataSource, Criteria, String)
+     */
+    public static ResultSet acquire(DataSource dataSource, Criteria criteria) {
+        return acquire(dataSource, criteria, null);
+    }
+
+    /**
+     * Acquire a shared ResultSet, creating it if no component holds a ResultSet for the same
+     * DataSource, fetch operation and equivalent criteria.  Each call must be matched by a
+     * call to {@link #release}.
+     *
+     * @param dataSource the DataSource to fetch from
+     * @param criteria the criteria to fetch with (may be null)
+     * @param fetchOperation the operationId of the fetch operation (may be null)
+     *
+     * @return the shared ResultSet
+     */
+    public static ResultSet acquire(DataSource dataSource, Criteria criteria, String fetchOperation) {
+        if (dataSource == null) throw new IllegalArgumentException("A dataSource is required.");
+        String criteriaKey = getCriteriaKey(criteria == null ? null : criteria.getJsObj()),
+               key = dataSource.getID() + "|" + (fetchOperation == null ? "" : fetchOperation) + "|" + criteriaKey;
+
+        Entry entry = shared.get(key);
+        if (entry != null && !entry.isUnchanged()) {
+            shared.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            ResultSet resultSet = new ResultSet(dataSource);
+            if (criteria != null) resultSet.setCriteria(criteria);
+            if (fetchOperation != null) resultSet.setFetchOperation(fetchOperation);
+            resultSet.ensureCreated();
+            entry = new Entry(key, criteriaKey, resultSet);
+            shared.put(key, entry);
+            acquired.put(resultSet, entry);
+        }
+        entry.references++;
+        return entry.resultSet;
+    }
+
+    /**
+     * Acquire a view of a shared ResultSet, sorted in its own order.  The view holds a
+     * reference to the ResultSet {@link #acquire(DataSource, Criteria, String) acquired} for
+     * the same DataSource, fetch operation and criteria, and loads every matching row into
+     * it.  The view is refilled and sorted again in the given order whenever rows arrive in
+     * the ResultSet or it is updated.  Each call must be matched by a call to
+     * {@link #releaseView}.
+     *
+     * @param dataSource the DataSource to fetch from
+     * @param criteria the criteria to fetch with (may be null)
+     * @param fetchOperation the operationId of the fetch operation (may be null)
+     * @param sortBy the sort order of the view (none to keep the order of the ResultSet)
+     *
+     * @return the view
+     */
+    public static RecordList acquireView(DataSource dataSource, Criteria criteria, String fetchOperation,
+                                         SortSpecifier... sortBy)
+    {
+        ResultSet resultSet = acquire(dataSource, criteria, fetchOperation);
+        JavaScriptObject sortJS = sortBy == null || sortBy.length == 0 ? null : JSOHelper.convertToJavaScriptArray(sortBy);
+        View view = new View(resultSet, sortJS);
+        views.put(view.records, view);
+        return view.records;
+    }
+
+    /**
+     * Release a ResultSet obtained from {@link #acquire}, destroying it if this was the last
+     * reference.  ResultSets not obtained from the registry are ignored.
+     *
+     * @param resultSet the ResultSet to release
+     */
+    public static void release(ResultSet resultSet) {
+        Entry entry = acquired.get(resultSet);
+        if (entry == null || --entry.references > 0) return;
+        acquired.remove(resultSet);
+        if (shared.get(entry.key) == entry) shared.remove(entry.key);
+        resultSet.destroy();
+    }
+
+    /**
+     * Release a view obtained from {@link #acquireView}, and its reference to the shared
+     * ResultSet.  Lists not obtained from the registry are ignored.
+     *
+     * @param view the view to release
+     */
+    public static void releaseView(RecordList view) {
+        View entry = views.remove(view);
+        if (entry == null) return;
+        entry.remove();
+        release(entry.resultSet);
+    }
+
+    /**
+     * The ResultSet whose records a view obtained from {@link #acquireView} shows.
+     *
+     * @param view the view
+     *
+     * @return the shared ResultSet, or null if the view was not obtained from the registry
+     */
+    public static ResultSet getResultSet(RecordList view) {
+        View entry = views.get(view);
+        return entry == null ? null : entry.resultSet;
+    }
+
+    /**
+     * The number of outstanding references to a shared ResultSet, including those held by
+     * views.
+     *
+     * @param resultSet the ResultSet
+     *
+     * @return the reference count, or 0 if the ResultSet is not held through the registry
+     */
+    public static int getReferenceCount(ResultSet resultSet) {
+        Entry entry = acquired.get(resultSet);
+        return entry == null ? 0 : entry.references;
+    }
+
+    /**
+     * The number of ResultSets currently held through the registry.
+     *
+     * @return shared ResultSet count
+     */
+    public static int getSharedCount() {
+        return acquired.size();
+    }
+
+    // No criteria and empty criteria are equivalent
+    private static String getCriteriaKey(JavaScriptObject criteriaJS) {
+        return Criteria.getNormalizedKey(criteriaJS == null ? JSOHelper.createObject() : criteriaJS);
+    }
+
+    // Refills the view with the loaded records of the ResultSet, in the order of the view,
+    // and asks the ResultSet for any rows not yet loaded
+    private static native void fill(JavaScriptObject view, JavaScriptObject resultSet, JavaScriptObject sort) /*-{
+        if (resultSet.destroyed) return;
+        var rows = resultSet.lengthIsKnown() ? resultSet.getAllCachedRows() : null;
+        view.length = 0;
+        if (rows != null) {
+            for (var i = 0; i < rows.length; i++) {
+                var row = rows[i];
+                if (row != null && !$wnd.Array.isLoading(row)) view[view.length] = row;
+            }
+        }
+        if (sort != null) view.setSort(sort);
+        else view.dataChanged();
+
+        if (!resultSet.lengthIsKnown()) resultSet.get(0);
+        else if (!resultSet.allMatchingRowsCached()) resultSet.getRange(0, resultSet.getLength());
+    }-*/;
+}
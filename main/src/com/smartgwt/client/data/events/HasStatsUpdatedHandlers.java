@@ -0,0 +1,32 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+ 
+package com.smartgwt.client.data.events;
+
+import com.google.gwt.event.shared.HandlerRegistration;
+import com.google.gwt.event.shared.HasHandlers;
+
+public interface HasStatsUpdatedHandlers extends HasHandlers {
+    /**
+     * Notification fired when a fetch completes or the cache is invalidated, after the
+     * {@link com.smartgwt.client.data.CacheStats statistics} have been updated.  Use this hook to
+     * report the statistics to your own monitoring.
+     *
+     * @param handler the statsUpdated handler
+     * @return {@link HandlerRegistration} used to remove this handler
+     */
+    HandlerRegistration addStatsUpdatedHandler(StatsUpdatedHandler handler);
+}
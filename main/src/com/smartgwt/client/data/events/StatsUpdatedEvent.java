@@ -0,0 +1,126 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data.events;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.event.shared.HasHandlers;
+import com.smartgwt.client.data.CacheStats;
+import com.smartgwt.client.event.AbstractSmartEvent;
+
+public class StatsUpdatedEvent extends AbstractSmartEvent<StatsUpdatedHandler>  {
+
+    /**
+     * Handler type.
+     */
+    private static Type<StatsUpdatedHandler> TYPE;
+
+    /**
+     * Fires a statsUpdated event on all registered handlers in the handler manager.  If no
+     * such handlers exist, this method will do nothing.
+     *
+     * @param <S> The event source
+     * @param source the source of the handlers
+     * @param jsObj the native event
+     */
+    public static <S extends HasStatsUpdatedHandlers & HasHandlers> void fire(
+        S source, JavaScriptObject jsObj) {
+        if (TYPE != null) {
+            StatsUpdatedEvent event = new StatsUpdatedEvent(jsObj);
+            source.fireEvent(event);
+        }
+    }
+
+    /**
+     * Gets the type associated with this event.
+     *
+     * @return returns the handler type
+     */
+    public static Type<StatsUpdatedHandler> getType() {
+        if (TYPE == null) {
+            TYPE = new Type<StatsUpdatedHandler>();
+        }
+        return TYPE;
+    }
+
+
+    @Override
+    protected void dispatch(StatsUpdatedHandler handler) {
+        handler.onStatsUpdated(this);
+    }
+
+    // Because of type erasure, our static type is
+    // wild carded, yet the "real" type should use our I param.
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Type<StatsUpdatedHandler> getAssociatedType() {
+        return TYPE;
+    }
+
+    public StatsUpdatedEvent(JavaScriptObject jsObj) {
+        super(jsObj);
+    }
+
+
+
+    /**
+     * What caused the update: <code>"fetch"</code> when rows arrived, or
+     * <code>"invalidate"</code> when the cache was invalidated
+     *
+     * @return the kind of update
+     */
+    public  native String getKind() /*-{
+        var jsObj = this.@com.smartgwt.client.event.AbstractSmartEvent::jsObj;
+        return jsObj.kind;
+    }-*/;
+
+    /**
+     * The number of rows which arrived, for a fetch
+     *
+     * @return rows fetched, or 0
+     */
+    public  native int getRows() /*-{
+        var jsObj = this.@com.smartgwt.client.event.AbstractSmartEvent::jsObj;
+        return jsObj.rows || 0;
+    }-*/;
+
+    /**
+     * The round-trip latency of a fetch, in milliseconds
+     *
+     * @return latency, or -1 if not measured
+     */
+    public  native double getLatency() /*-{
+        var jsObj = this.@com.smartgwt.client.event.AbstractSmartEvent::jsObj;
+        return jsObj.latency == null ? -1 : jsObj.latency;
+    }-*/;
+
+    /**
+     * The updated statistics of the ResultSet or DataSource
+     *
+     * @return the statistics
+     */
+    public CacheStats getStats() {
+        return new CacheStats(getStatsJS());
+    }
+
+    private native JavaScriptObject getStatsJS() /*-{
+        var jsObj = this.@com.smartgwt.client.event.AbstractSmartEvent::jsObj;
+        return jsObj.stats;
+    }-*/;
+
+
+}
@@ -10,12 +10,17 @@ package com.smartgwt.client.docs;
  * sophisticated conversion from native JS objects to GWT Java objects.  This article describes 
  * the common rules used when such conversions are run.<ul>
  * <li>Conversion is recursive; nested JavaScript objects and arrays will have their members converted as well</li>
- * <li>Circular references (where an object is referred to by its own children, grandchildren, etc) are <b>not</b>
- *     tolerated.  If you try to convert a JS object that contains circular references, your program will crash</li>
- * <li>This general prohibition of circular references includes native browser objects such as HTML elements 
- *     retrieved by the <code>getElementById()</code> API, amd common objects like <code>window</code> and the JSNI 
- *     <code>$wnd</code> object.  These DOM elements contain references to both parent and children, which are 
- *     inherently circular</li>
+ * <li>Each JavaScript object or array is converted at most once per conversion: if the same object is
+ *     referred to from several places, every reference is converted to the same Java <code>Map</code>,
+ *     <code>List</code> or array.  Circular references (where an object is referred to by its own children,
+ *     grandchildren, etc) therefore resolve to the Java object already created for it, so the resulting
+ *     Java structure is circular as well</li>
+ * <li>The depth and total number of objects converted can be bounded via
+ *     {@link com.smartgwt.client.util.JSOHelper#setConversionMaxDepth(int)} and
+ *     {@link com.smartgwt.client.util.JSOHelper#setConversionMaxNodes(int)}; objects beyond the limits are
+ *     converted to null.  Native browser objects such as HTML elements retrieved by the
+ *     <code>getElementById()</code> API and common objects like <code>window</code> and the JSNI
+ *     <code>$wnd</code> object reach a very large number of other objects, and should not be converted</li>
  * <li>null values, including <code>undefined</code>, are returned as null</li>
  * <li>JavaScript strings are returned as Java <code>String</code>s</li>
  * <li>JavaScript numbers are returned as<ul>
@@ -37,6 +37,10 @@ package com.smartgwt.client.docs;
  * <li>Java Maps are converted to JavaScript Objects with each key mapped to a property on the object.
  * 		Property values are recursively converted to the equivalent JavaScript object using the rules described 
  *      in this article</li>
+ * <li>Instances of classes for which a {@link com.smartgwt.client.util.JSOValueConverter} has been registered
+ *     via {@link com.smartgwt.client.util.JSOHelper#registerValueConverter JSOHelper.registerValueConverter()}
+ *     are passed to the converter, and the value it returns is converted using the rules described in this
+ *     article.  Such instances are never rejected as unconvertible</li>
  * </ul>
  * Other Java Objects, including POJOs, instances of {@link com.smartgwt.client.data.Record} and its subclasses,
  * and instances of {@link com.smartgwt.client.widgets.Canvas} and {@link com.smartgwt.client.widgets.form.fields.FormItem} 
@@ -651,11 +651,11 @@ public class RPCManager {
      * requests to the server.  Note that the list of {@link com.smartgwt.client.rpc.RPCRequest}'s passed to this
      * callback is strictly <b>read-only</b>.
      *
-     * @param callback the callback
+     * @param callback the callback, or null to remove the current callback
      */
     public static native void setQueueSentCallback(QueueSentCallback callback) /*-{
         $wnd.isc.RPCManager.addClassProperties({
-            queueSent : $entry(function (requests) {
+            queueSent : callback == null ? function () {} : $entry(function (requests) {
                var requestsJ = @com.smartgwt.client.rpc.RPCManager::convertToRPCRequestArray(Lcom/google/gwt/core/client/JavaScriptObject;)(requests);
                callback.@com.smartgwt.client.rpc.QueueSentCallback::queueSent([Lcom/smartgwt/client/rpc/RPCRequest;)(requestsJ);
             })
@@ -675,6 +675,472 @@ public class RPCManager {
         return objects;
     }
 
+    private static boolean autoBatch;
+    private static int autoBatchWindow;
+    private static int autoBatchMaxRequests = 50;
+    private static int autoBatchMaxBytes = 512 * 1024;
+
+    /**
+     * Automatically batch requests into queues.  With this enabled, a request sent while no
+     * queue is open starts one, as if {@link #startQueue()} had been called, and the queue is
+     * sent when the {@link #setAutoBatchWindow batching window} ends, or once it holds
+     * {@link #setAutoBatchMaxRequests maxRequests} requests or
+     * {@link #setAutoBatchMaxBytes maxBytes} of request data, whichever comes first.  A screen
+     * which issues many independent requests while it is drawn then makes a single round trip,
+     * without wrapping each call site in <code>startQueue()</code> and <code>sendQueue()</code>.
+     * <P>
+     * Requests are not batched if they set {@link RPCRequest#setAutoBatch autoBatch:false} or
+     * {@link RPCRequest#setSendNoQueue sendNoQueue:true}, or have
+     * {@link com.smartgwt.client.types.RPCPriority#BULK bulk} {@link RPCRequest#setPriority priority}:
+     * these are sent on their own.  A request with
+     * {@link com.smartgwt.client.types.RPCPriority#INTERACTIVE interactive} priority causes its batch
+     * to be sent as soon as the current thread of execution completes.  A queue started
+     * explicitly with <code>startQueue()</code> is left alone; calling <code>startQueue()</code>
+     * while an automatic batch is open adds the following requests to the batch.
+     * <P>
+     * Automatic batches are sent with <code>sendQueue()</code>, so they are reported to the
+     * {@link #setQueueSentCallback QueueSentCallback} like any other queue.
+     *
+     * @param autoBatch true to batch requests automatically. Default value is false
+     */
+    public static void setAutoBatch(boolean autoBatch) {
+        RPCManager.autoBatch = autoBatch;
+        if (autoBatch) installAutoBatch();
+    }
+
+    /**
+     * Whether requests are {@link #setAutoBatch automatically batched}.
+     *
+     * @return true if requests are batched automatically
+     */
+    public static boolean getAutoBatch() {
+        return autoBatch;
+    }
+
+    /**
+     * How long an {@link #setAutoBatch automatic batch} collects requests before it is sent.
+     * With 0, it is sent as soon as the current thread of execution completes, so it collects
+     * the requests issued by a single event handler.
+     *
+     * @param autoBatchWindow the window in milliseconds. Default value is 0
+     */
+    public static void setAutoBatchWindow(int autoBatchWindow) {
+        RPCManager.autoBatchWindow = Math.max(0, autoBatchWindow);
+    }
+
+    /**
+     * The maximum number of requests in an {@link #setAutoBatch automatic batch}.
+     *
+     * @param autoBatchMaxRequests maximum requests per batch. Default value is 50
+     */
+    public static void setAutoBatchMaxRequests(int autoBatchMaxRequests) {
+        RPCManager.autoBatchMaxRequests = Math.max(1, autoBatchMaxRequests);
+    }
+
+    /**
+     * The approximate maximum size of the request data in an {@link #setAutoBatch automatic batch},
+     * estimated from the strings and numbers in each request's data.
+     *
+     * @param autoBatchMaxBytes maximum bytes per batch. Default value is 524288
+     */
+    public static void setAutoBatchMaxBytes(int autoBatchMaxBytes) {
+        RPCManager.autoBatchMaxBytes = Math.max(1, autoBatchMaxBytes);
+    }
+
+    private static native void installAutoBatch() /*-{
+        var rpc = $wnd.isc.RPCManager;
+        if (rpc.__autoBatchSendRequest != null) return;
+        var sendRequest = rpc.__autoBatchSendRequest = rpc.sendRequest,
+            batch = null;
+
+        // Sends the batch unless it has already been sent, or replaced by another queue
+        var flush = function (current) {
+            if (current !== batch) return;
+            batch = null;
+            rpc.__autoBatchOpen = false;
+            if (rpc.queuing && rpc.getCurrentTransactionId() == current.transactionId) rpc.sendQueue();
+        };
+        var schedule = function (current, delay) {
+            if (delay == 0 && $wnd.Promise != null) {
+                $wnd.Promise.resolve().then(function () { flush(current); });
+            } else {
+                $wnd.setTimeout(function () { flush(current); }, delay);
+            }
+        };
+        // A rough size of the request data, for the maxBytes limit
+        var estimateSize = function (data, depth) {
+            if (data == null) return 0;
+            if (typeof data == "string") return data.length;
+            if (typeof data != "object") return 8;
+            if (depth > 4) return 0;
+            var size = 0;
+            for (var key in data) {
+                var value = data[key];
+                if (key.indexOf("__") == 0 || typeof value == "function") continue;
+                size += key.length + estimateSize(value, depth + 1);
+            }
+            return size;
+        };
+
+        rpc.sendRequest = function (request) {
+            // the batch was sent, or its queue replaced, by an explicit sendQueue() or startQueue()
+            if (batch != null && (!rpc.queuing ||
+                (batch.transactionId != null && rpc.getCurrentTransactionId() != batch.transactionId)))
+            {
+                batch = null;
+                rpc.__autoBatchOpen = false;
+            }
+            if (!@com.smartgwt.client.rpc.RPCManager::autoBatch || request == null ||
+                request.sendNoQueue || (rpc.queuing && batch == null))
+            {
+                return sendRequest.apply(rpc, arguments);
+            }
+            if (request.autoBatch === false || request.priority == "bulk") {
+                if (batch != null) request.sendNoQueue = true;
+                return sendRequest.apply(rpc, arguments);
+            }
+            if (batch == null) {
+                rpc.startQueue();
+                rpc.__autoBatchOpen = true;
+                batch = { count: 0, bytes: 0 };
+                schedule(batch, @com.smartgwt.client.rpc.RPCManager::autoBatchWindow);
+            }
+            var current = batch,
+                result = sendRequest.apply(rpc, arguments);
+            if (current.transactionId == null) current.transactionId = rpc.getCurrentTransactionId();
+            current.count++;
+            current.bytes += estimateSize(request.data, 0);
+            if (current.count >= @com.smartgwt.client.rpc.RPCManager::autoBatchMaxRequests ||
+                current.bytes >= @com.smartgwt.client.rpc.RPCManager::autoBatchMaxBytes)
+            {
+                flush(current);
+            } else if (request.priority == "interactive" && !current.interactive) {
+                current.interactive = true;
+                if (@com.smartgwt.client.rpc.RPCManager::autoBatchWindow > 0) schedule(current, 0);
+            }
+            return result;
+        };
+    }-*/;
+
+    private static boolean requestScheduling;
+    private static int interactiveLimit;
+    private static int backgroundLimit = 4;
+    private static int bulkLimit = 1;
+    private static int maxConcurrentRequests = 6;
+    private static int maxQueueWait = 2000;
+    private static RequestDispatchedCallback requestDispatchedCallback;
+    private static JavaScriptObject schedulerState;
+
+    /**
+     * Schedule outgoing requests by {@link RPCRequest#setPriority priority class}.  With this
+     * enabled, the number of requests in flight is limited, both in total by
+     * {@link #setMaxConcurrentRequests maxConcurrentRequests} and per class by
+     * {@link #setConcurrencyLimit setConcurrencyLimit()}.  A request which would exceed a limit
+     * waits until an earlier request completes.  Waiting requests are sent in priority order,
+     * interactive before background before bulk, so a save is not held up behind a large
+     * export or a series of prefetches.  To prevent starvation, a request which has waited
+     * longer than {@link #setMaxQueueWait maxQueueWait} is sent before requests of higher
+     * priority, although still within the limit of its own class.
+     * <P>
+     * A request without an explicit priority is interactive if it is a DataSource add, update
+     * or remove, bulk if it is an export or download, and otherwise background.  Requests
+     * sent with {@link RPCRequest#setSendNoQueue sendNoQueue:true}, and requests sent while a
+     * queue started with {@link #startQueue()} is open, are sent at once, but still count
+     * towards the limits while they are in flight.  A request counts as in flight until its
+     * callback or {@link #setHandleErrorCallback error handling} is called, or its
+     * {@link RPCRequest#setTimeout timeout} has passed.
+     * <P>
+     * The limits apply to HTTP transactions rather than to individual requests: the requests
+     * of a queue, whether started with <code>startQueue()</code> or an
+     * {@link #setAutoBatch automatic batch}, are counted once, in the priority class of the
+     * first of them, until all of them have completed.  A request which would join an
+     * automatic batch that is already counted is sent into the batch at once.
+     * <P>
+     * A request waiting in the scheduler has not been sent yet, so its transaction is not
+     * known; the JavaScript <code>isc.RPCManager.sendRequest()</code> returns the request
+     * itself for such a request.
+     * <P>
+     * The time each request waits is reported to the
+     * {@link #setRequestDispatchedCallback RequestDispatchedCallback}.
+     *
+     * @param requestScheduling true to schedule requests. Default value is false
+     */
+    public static void setRequestScheduling(boolean requestScheduling) {
+        RPCManager.requestScheduling = requestScheduling;
+        if (requestScheduling) {
+            // automatic batching must see requests as they are released by the scheduler
+            installAutoBatch();
+            installScheduler();
+        } else if (schedulerState != null) {
+            releaseWaitingRequests();
+        }
+    }
+
+    /**
+     * Whether requests are {@link #setRequestScheduling scheduled} by priority class.
+     *
+     * @return true if requests are scheduled
+     */
+    public static boolean getRequestScheduling() {
+        return requestScheduling;
+    }
+
+    /**
+     * The maximum number of requests of a priority class in flight at once, when
+     * {@link #setRequestScheduling scheduling} requests.  By default interactive requests are
+     * limited only by {@link #setMaxConcurrentRequests maxConcurrentRequests}, background
+     * requests to 4 and bulk requests to 1.
+     *
+     * @param priority the priority class
+     * @param limit the maximum requests in flight, or 0 for no limit other than maxConcurrentRequests
+     */
+    public static void setConcurrencyLimit(RPCPriority priority, int limit) {
+        limit = Math.max(0, limit);
+        switch (priority) {
+            case INTERACTIVE: interactiveLimit = limit; break;
+            case BACKGROUND: backgroundLimit = limit; break;
+            case BULK: bulkLimit = limit; break;
+        }
+        if (schedulerState != null) dispatchWaitingRequests();
+    }
+
+    /**
+     * The maximum number of requests of a priority class in flight at once.
+     *
+     * @param priority the priority class
+     *
+     * @return the limit, or 0 for no limit other than maxConcurrentRequests
+     * @see #setConcurrencyLimit
+     */
+    public static int getConcurrencyLimit(RPCPriority priority) {
+        switch (priority) {
+            case INTERACTIVE: return interactiveLimit;
+            case BACKGROUND: return backgroundLimit;
+            default: return bulkLimit;
+        }
+    }
+
+    /**
+     * The maximum number of requests in flight at once, of all priority classes, when
+     * {@link #setRequestScheduling scheduling} requests.  Browsers allow only a few
+     * simultaneous connections to a server, so further requests would otherwise wait in the
+     * browser, where the scheduler cannot reorder them.
+     *
+     * @param maxConcurrentRequests the maximum requests in flight. Default value is 6
+     */
+    public static void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        RPCManager.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
+        if (schedulerState != null) dispatchWaitingRequests();
+    }
+
+    /**
+     * How long a request may wait in the {@link #setRequestScheduling scheduler} before it is
+     * sent ahead of requests of higher priority.
+     *
+     * @param maxQueueWait the wait in milliseconds. Default value is 2000
+     */
+    public static void setMaxQueueWait(int maxQueueWait) {
+        RPCManager.maxQueueWait = Math.max(0, maxQueueWait);
+    }
+
+    /**
+     * Register a callback that is called each time the {@link #setRequestScheduling scheduler}
+     * sends a request, with the time the request waited.
+     *
+     * @param callback the callback, or null
+     */
+    public static void setRequestDispatchedCallback(RequestDispatchedCallback callback) {
+        requestDispatchedCallback = callback;
+    }
+
+    /**
+     * The number of requests of a priority class waiting in the
+     * {@link #setRequestScheduling scheduler}.
+     *
+     * @param priority the priority class
+     *
+     * @return waiting request count
+     */
+    public static int getWaitingRequestCount(RPCPriority priority) {
+        return schedulerState == null ? 0 : getWaitingRequestCount(schedulerState, priority.getValue());
+    }
+
+    /**
+     * The number of requests of a priority class in flight, as counted by the
+     * {@link #setRequestScheduling scheduler}.
+     *
+     * @param priority the priority class
+     *
+     * @return in-flight request count
+     */
+    public static int getActiveRequestCount(RPCPriority priority) {
+        return schedulerState == null ? 0 : getActiveRequestCount(schedulerState, priority.getValue());
+    }
+
+    // Called by the scheduler for the priority class names of RPCPriority
+    private static int getConcurrencyLimit(String priority) {
+        return getConcurrencyLimit(EnumUtil.getEnum(RPCPriority.values(), priority));
+    }
+
+    private static void requestDispatched(JavaScriptObject request, String priority, int queueWait) {
+        if (requestDispatchedCallback == null) return;
+        requestDispatchedCallback.requestDispatched(new RPCRequest(request),
+                EnumUtil.getEnum(RPCPriority.values(), priority), queueWait);
+    }
+
+    private static native int getWaitingRequestCount(JavaScriptObject state, String priority) /*-{
+        return state.waiting[priority].length;
+    }-*/;
+
+    private static native int getActiveRequestCount(JavaScriptObject state, String priority) /*-{
+        return state.active[priority];
+    }-*/;
+
+    private static native void dispatchWaitingRequests() /*-{
+        @com.smartgwt.client.rpc.RPCManager::schedulerState.dispatch();
+    }-*/;
+
+    private static native void releaseWaitingRequests() /*-{
+        @com.smartgwt.client.rpc.RPCManager::schedulerState.releaseAll();
+    }-*/;
+
+    private static native void installScheduler() /*-{
+        if (@com.smartgwt.client.rpc.RPCManager::schedulerState != null) return;
+        var isc = $wnd.isc,
+            rpc = isc.RPCManager,
+            sendRequest = rpc.sendRequest,
+            classes = ["interactive", "background", "bulk"],
+            state = { waiting: {}, active: {}, total: 0, slots: {} };
+        for (var i = 0; i < classes.length; i++) {
+            state.waiting[classes[i]] = [];
+            state.active[classes[i]] = 0;
+        }
+        @com.smartgwt.client.rpc.RPCManager::schedulerState = state;
+
+        var getPriority = function (request) {
+            if (request.priority == "interactive" || request.priority == "background" || request.priority == "bulk") {
+                return request.priority;
+            }
+            var operationType = request.operationType;
+            if (operationType == "add" || operationType == "update" || operationType == "remove") return "interactive";
+            if (request.exportResults || request.downloadResult) return "bulk";
+            return "background";
+        };
+        var hasSlot = function (priority) {
+            var limit = @com.smartgwt.client.rpc.RPCManager::getConcurrencyLimit(Ljava/lang/String;)(priority);
+            return state.total < @com.smartgwt.client.rpc.RPCManager::maxConcurrentRequests &&
+                   (limit <= 0 || state.active[priority] < limit);
+        };
+
+        // Counts the request as in flight until its callback, error handling or timeout.  The
+        // requests of one queue travel as one HTTP transaction, so they share a single slot,
+        // which is freed when the last of them completes.
+        var send = function (entry) {
+            var request = entry.request,
+                slot = { priority: entry.priority, requests: 1 },
+                released = false;
+            var release = function () {
+                if (released) return;
+                released = true;
+                if (--slot.requests > 0) return;
+                if (slot.transactionId != null && state.slots[slot.transactionId] === slot) {
+                    delete state.slots[slot.transactionId];
+                }
+                state.active[slot.priority]--;
+                state.total--;
+                state.dispatch();
+            };
+            state.active[slot.priority]++;
+            state.total++;
+            var callback = request.callback;
+            request.callback = function (rpcResponse, data, rpcRequest) {
+                release();
+                if (callback != null) return isc.Class.fireCallback(callback, "rpcResponse,data,rpcRequest", arguments);
+            };
+            request.__schedulerRelease = release;
+            $wnd.setTimeout(release, (request.timeout || rpc.defaultTimeout || 240000) + 1000);
+
+            var queueWait = entry.queued == null ? 0 : new Date().getTime() - entry.queued;
+            @com.smartgwt.client.rpc.RPCManager::requestDispatched(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;I)(request, entry.priority, queueWait);
+
+            var openTransaction = rpc.queuing ? rpc.getCurrentTransactionId() : null,
+                result = sendRequest.apply(rpc, entry.arguments);
+            // the request joined a queue, either one already open or an automatic batch it started
+            var transactionId = request.sendNoQueue ? null :
+                                openTransaction != null ? openTransaction :
+                                rpc.queuing ? rpc.getCurrentTransactionId() : null;
+            if (transactionId != null && !released) {
+                var shared = state.slots[transactionId];
+                if (shared == null) {
+                    slot.transactionId = transactionId;
+                    state.slots[transactionId] = slot;
+                } else {
+                    state.active[slot.priority]--;
+                    state.total--;
+                    shared.requests++;
+                    slot = shared;
+                }
+            }
+            return result;
+        };
+
+        // Sends waiting requests while there are free slots: first any which have waited too
+        // long, oldest first, then by priority
+        state.dispatch = $entry(function () {
+            var maxWait = @com.smartgwt.client.rpc.RPCManager::maxQueueWait,
+                now = new Date().getTime();
+            while (state.total < @com.smartgwt.client.rpc.RPCManager::maxConcurrentRequests) {
+                var next = null, nextQueue = null;
+                for (var i = 0; i < classes.length; i++) {
+                    var queue = state.waiting[classes[i]];
+                    if (queue.length == 0 || !hasSlot(classes[i])) continue;
+                    var head = queue[0];
+                    if (next == null) {
+                        next = head;
+                        nextQueue = queue;
+                    } else if (now - head.queued > maxWait && head.queued < next.queued) {
+                        next = head;
+                        nextQueue = queue;
+                    }
+                }
+                if (next == null) return;
+                nextQueue.shift();
+                send(next);
+            }
+        });
+        state.releaseAll = $entry(function () {
+            for (var i = 0; i < classes.length; i++) {
+                var queue = state.waiting[classes[i]];
+                state.waiting[classes[i]] = [];
+                for (var j = 0; j < queue.length; j++) send(queue[j]);
+            }
+        });
+
+        rpc.sendRequest = function (request) {
+            if (!@com.smartgwt.client.rpc.RPCManager::requestScheduling || request == null) {
+                return sendRequest.apply(rpc, arguments);
+            }
+            var entry = { request: request, priority: getPriority(request), arguments: arguments };
+            // requests which will join an automatic batch already holding a slot share it
+            var joinsBatch = rpc.__autoBatchOpen && request.autoBatch !== false && request.priority != "bulk" &&
+                             state.slots[rpc.getCurrentTransactionId()] != null;
+            if (request.sendNoQueue || (rpc.queuing && !rpc.__autoBatchOpen) || joinsBatch ||
+                (state.waiting[entry.priority].length == 0 && hasSlot(entry.priority)))
+            {
+                return send(entry);
+            }
+            entry.queued = new Date().getTime();
+            state.waiting[entry.priority].push(entry);
+            return request;
+        };
+
+        var handleError = rpc.handleError;
+        rpc.handleError = function (response, request) {
+            if (request != null && request.__schedulerRelease != null) request.__schedulerRelease();
+            return handleError.apply(this, arguments);
+        };
+    }-*/;
+
     /**
      * Send the passed RPCRequest to the server. If queuing is in effect, this queues the request instead.
      *
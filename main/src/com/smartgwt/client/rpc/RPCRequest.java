@@ -545,6 +545,47 @@ public class RPCRequest extends DataClass {
         return EnumUtil.getEnum(PromptStyle.values(), getAttribute("promptStyle"));
     }
 
+    /**
+     * Whether this request may be {@link com.smartgwt.client.rpc.RPCManager#setAutoBatch automatically batched}
+     * with other requests.  Set to false to send this request on its own, without waiting for the batching window.
+     *
+     * @param autoBatch autoBatch Default value is true
+     * @see com.smartgwt.client.rpc.RPCManager#setAutoBatch
+     */
+    public void setAutoBatch(Boolean autoBatch) {
+        setAttribute("autoBatch", autoBatch);
+    }
+
+    /**
+     * Whether this request may be automatically batched with other requests.
+     *
+     *
+     * @return Boolean
+     * @see com.smartgwt.client.rpc.RPCManager#setAutoBatch
+     */
+    public Boolean getAutoBatch()  {
+        return getAttributeAsBoolean("autoBatch");
+    }
+
+    /**
+     * The priority of this request, which controls how it is {@link com.smartgwt.client.rpc.RPCManager#setAutoBatch batched}.
+     *
+     * @param priority priority Default value is RPCPriority.BACKGROUND
+     */
+    public void setPriority(RPCPriority priority) {
+        setAttribute("priority", priority == null ? null : priority.getValue());
+    }
+
+    /**
+     * The priority of this request.
+     *
+     *
+     * @return RPCPriority
+     */
+    public RPCPriority getPriority()  {
+        return EnumUtil.getEnum(RPCPriority.values(), getAttribute("priority"));
+    }
+
     /**
      * When set to true, this request is sent to the server immediately, bypassing any current queue.
      * <p><b>Note : </b> This is an advanced setting</p>
@@ -0,0 +1,22 @@
+package com.smartgwt.client.rpc;
+
+import com.smartgwt.client.types.RPCPriority;
+
+public interface RequestDispatchedCallback {
+
+    /**
+     * <p>This method is called by the RPCManager each time the
+     * {@link com.smartgwt.client.rpc.RPCManager#setRequestScheduling request scheduler} sends a
+     * request, including requests sent at once because a slot was free.
+     * <p/>
+     * It is intended for collecting metrics such as the queue-wait time of each priority class.
+     * The {@link com.smartgwt.client.rpc.RPCRequest} passed to this method is strictly
+     * <b>read-only</b>.
+     *
+     * @param request the rpc request
+     * @param priority the priority class the request was scheduled in
+     * @param queueWait the time the request waited in the scheduler, in milliseconds
+     */
+    void requestDispatched(RPCRequest request, RPCPriority priority, int queueWait);
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Smart GWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * Smart GWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  Smart GWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+ 
+package com.smartgwt.client.types;
+
+/**
+ * The priority of an {@link com.smartgwt.client.rpc.RPCRequest}, set with
+ * {@link com.smartgwt.client.rpc.RPCRequest#setPriority RPCRequest.setPriority()}.
+ */
+public enum RPCPriority implements ValueEnum {
+    /**
+     * A request the user is waiting for, such as a save.  With
+     * {@link com.smartgwt.client.rpc.RPCManager#setAutoBatch automatic batching}, the batch
+     * holding it is sent as soon as the current thread of execution completes.
+     */
+    INTERACTIVE("interactive"),
+    /**
+     * A request the user is not directly waiting for, such as a refresh or prefetch.  This is
+     * the default.
+     */
+    BACKGROUND("background"),
+    /**
+     * A large or slow request, such as an export.  It is never automatically batched, so the
+     * server can respond to other requests without waiting for it.
+     */
+    BULK("bulk");
+
+    private String value;
+
+    RPCPriority(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return this.value;
+    }
+}
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.core.client.JsArray;
 import com.google.gwt.core.client.JsDate;
@@ -63,11 +64,16 @@ import com.smartgwt.client.widgets.BaseWidget;
  *   - null -> return null
  *   - isc.isA.Object() == false -> return the result of calling convertToJavaType(object) - see above
  *   - isc.isA.Date() == true -> return a java.util.Date (via JSOHelper.convertToJavaDate)
+ *   - A conversion context is created for the top-level call and passed down through the recursion
+ *     (fourth param).  Arrays and objects converted to a List / Java array / Map are memoized in the
+ *     context by JS object identity before their members are converted, so a shared sub-object is
+ *     converted once and cycles resolve to the already-created Java object.  The context also enforces
+ *     JSOHelper.getConversionMaxDepth() / getConversionMaxNodes(); objects beyond the limits become null
  *   - isc.isAn.Array:
- *     - Iterate over the array members and convert each by calling convertToJavaObject()
- *     - Add each converted member to a JS array
- *     - After the iteration, convert the JS array to either a Java array (via SOHelper.convertToJavaObjectArray)
- *       or an ArrayList, depending on the setting of the incoming "listAsArray" parameter (second param)
+ *     - If the array was already converted in this context, return the earlier result
+ *     - Create either a Java array or an ArrayList, depending on the setting of the incoming
+ *       "listAsArray" parameter (second param), and register it in the context
+ *     - Iterate over the array members, convert each by calling convertToJavaObject() and store it
  *     - Return this array or ArrayList
  *   - If the incoming "forceMap" parameter (third param) is not true (using exact !== test)
  *     - isJSO(object) == true -> return the object itself
@@ -87,9 +93,10 @@ import com.smartgwt.client.widgets.BaseWidget;
  *     - The object has a "__ref" property, and it is a Java Map (checked with JSOHelper::isJavaMap()),
  *       return the value of the object's __ref property
  *   - If get to this point without having converted the object, we try to render it as a Map
+ *     - If the object was already converted in this context, return the earlier Map
+ *     - Create a new empty map to contain the converted properties and register it in the context
  *     - If the object has a property named the same as isc.Tree.getPrototype().treeProperty, we assume
  *       it is a TreeNode and call isc.Tree.getCleanNodeData() on it
- *     - Create a new empty map to contain the converted properties
  *     - Iterate over the property names in object
  *       - If the property name is not a string, skip
  *       - If the property name is the same as isc.gwtModule, skip
@@ -296,20 +303,30 @@ public class JSOHelper {
     public static void setAttribute(JavaScriptObject elem, String attr, Object value) {
         if (value == null) {
             setNullAttribute(elem, attr);
-        } else if (value instanceof String || value instanceof Character) {
-            setAttribute(elem, attr, value.toString());
-        } else if (value instanceof Number) {
-            setAttribute(elem, attr, (Number)value);
-        } else if (value instanceof Boolean) {
-            setAttribute(elem, attr, ((Boolean)value).booleanValue());
-        } else if (value instanceof Date) {
-            setAttribute(elem, attr, (Date)value);
-        } else if (value instanceof RelativeDate) {
-            setAttribute(elem, attr, ((RelativeDate)value).getValue());
-        } else if (value instanceof ValueEnum) {
-            setAttribute(elem, attr, ((ValueEnum)value).getValue());
-        } else if (value.getClass().isArray()) {
-            if (value instanceof Object[]) {
+            return;
+        }
+        switch (JSOValueConverters.getKind(value)) {
+            case JSOValueConverters.STRING:
+            case JSOValueConverters.CHARACTER:
+                setAttribute(elem, attr, value.toString());
+                break;
+            case JSOValueConverters.LONG:
+            case JSOValueConverters.NUMBER:
+                setAttribute(elem, attr, (Number)value);
+                break;
+            case JSOValueConverters.BOOLEAN:
+                setAttribute(elem, attr, ((Boolean)value).booleanValue());
+                break;
+            case JSOValueConverters.DATE:
+                setAttribute(elem, attr, (Date)value);
+                break;
+            case JSOValueConverters.RELATIVE_DATE:
+                setAttribute(elem, attr, ((RelativeDate)value).getValue());
+                break;
+            case JSOValueConverters.VALUE_ENUM:
+                setAttribute(elem, attr, ((ValueEnum)value).getValue());
+                break;
+            case JSOValueConverters.OBJECT_ARRAY:
             	// The Object[] passed in may contain unconvertible elements (POJOs)
             	// In this case we'll end up with a JavaScript array which contains some
             	// unconverted sub objects
@@ -317,45 +334,94 @@ public class JSOHelper {
             	// instead throw an exception, but that's more intrusive than silently 
             	// storing some unconverted member.
             	setAttribute(elem, attr, convertToJavaScriptArray((Object[])value));
-            } else if (value instanceof int[]) {
+                break;
+            case JSOValueConverters.INT_ARRAY:
                 setAttribute(elem, attr, convertToJavaScriptArray((int[])value));
-            } else if (value instanceof double[]) {
+                break;
+            case JSOValueConverters.DOUBLE_ARRAY:
                 setAttribute(elem, attr, convertToJavaScriptArray((double[])value));
-            } else if (value instanceof float[]) {
+                break;
+            case JSOValueConverters.FLOAT_ARRAY:
                 setAttribute(elem, attr, convertToJavaScriptArray((float[])value));
-            } else if (value instanceof boolean[]) {
+                break;
+            case JSOValueConverters.BOOLEAN_ARRAY:
                 setAttribute(elem, attr, convertToJavaScriptArray((boolean[])value));
-            } else if (value instanceof char[]) {
+                break;
+            case JSOValueConverters.CHAR_ARRAY:
                 setAttribute(elem, attr, convertToJavaScriptArray((char[])value));
-            } else if (value instanceof byte[]) {
+                break;
+            case JSOValueConverters.BYTE_ARRAY:
                 setAttribute(elem, attr, convertToJavaScriptArray((byte[])value));
-            } else if (value instanceof short[]) {
+                break;
+            case JSOValueConverters.SHORT_ARRAY:
                 setAttribute(elem, attr, convertToJavaScriptArray((short[])value));
-            } else if (value instanceof long[]) {
+                break;
+            case JSOValueConverters.LONG_ARRAY:
                 setAttribute(elem, attr, convertToJavaScriptArray((long[])value));
-            } else {
-                assert false : value.getClass() + " should not be an array class.";
+                break;
+
+            // As with Object[]s, Java collections may contain unconvertible elements (POJOs)
+            // In this case we'll end up with a JavaScript array which contains some
+            // unconverted sub objects
+            case JSOValueConverters.LIST:
+                setAttribute(elem, attr, convertToJavaScriptArray(((List<?>)value).toArray()));
+                break;
+            case JSOValueConverters.ITERATOR:
+                setAttribute(elem, attr, convertToJavaScriptArray(toList((Iterator<?>)value).toArray()));
+                break;
+            case JSOValueConverters.SET:
+                setAttribute(elem, attr, convertToJavaScriptArray(((Set<?>)value).toArray()));
+                break;
+            case JSOValueConverters.MAP:
+                setAttribute(elem, attr, convertMapToJavascriptObject((Map<?, ?>) value));
+                break;
+            case JSOValueConverters.CUSTOM:
+                JSOValueConverters.enter(value);
+                try {
+                    setAttribute(elem, attr, JSOValueConverters.convert(value));
+                } finally {
+                    JSOValueConverters.exit();
+                }
+                break;
+            default:
+                // JavaScriptObjects, SmartGWT objects and unknown POJOs are stored as is
                 setObjectAttribute(elem, attr, value);
-            }
-
-        // As with Object[]s, Java collections may contain unconvertible elements (POJOs)
-    	// In this case we'll end up with a JavaScript array which contains some
-    	// unconverted sub objects
-    	} else if (value instanceof List) {
-            setAttribute(elem, attr, convertToJavaScriptArray(((List<?>)value).toArray()));
-        } else if (value instanceof Iterator) {
-        	List listVal = new ArrayList();
-        	while (((Iterator) value).hasNext()) listVal.add(((Iterator) value).next());
-            setAttribute(elem, attr, convertToJavaScriptArray(((List<?>)listVal).toArray()));
-        } else if (value instanceof Set) {
-        	setAttribute(elem, attr, JSOHelper.convertToJavaScriptArray(((Set<?>)value).toArray()));
-        } else if (value instanceof Map) {
-            setAttribute(elem, attr, convertMapToJavascriptObject((Map<?, ?>) value));
-        } else {
-            setObjectAttribute(elem, attr, value);
         }
     }
 
+    private static List<Object> toList(Iterator<?> iterator) {
+        List<Object> list = new ArrayList<Object>();
+        while (iterator.hasNext()) list.add(iterator.next());
+        return list;
+    }
+
+    /**
+     * Registers a converter used whenever an instance of <code>type</code>, or of a subclass,
+     * is converted to JavaScript by {@link #setAttribute(JavaScriptObject, String, Object)},
+     * {@link #convertToJavaScriptArray(Object[], boolean)} or
+     * {@link #convertMapToJavascriptObject(Map, boolean)}.  Converters take precedence over the
+     * built-in conversions.  Because GWT does not expose the interfaces implemented by a class,
+     * converters must be registered for a class rather than an interface.  The value returned
+     * by a converter is converted in turn; if converters are nested more than 64 deep, for
+     * example because two converters return each other's classes, an
+     * <code>IllegalStateException</code> is thrown.
+     *
+     * @param type the class of value to convert
+     * @param converter the converter
+     */
+    public static <T> void registerValueConverter(Class<T> type, JSOValueConverter<? super T> converter) {
+        JSOValueConverters.register(type, converter);
+    }
+
+    /**
+     * Removes a converter registered with {@link #registerValueConverter(Class, JSOValueConverter)}.
+     *
+     * @param type the class the converter was registered for
+     */
+    public static void unregisterValueConverter(Class<?> type) {
+        JSOValueConverters.unregister(type);
+    }
+
     public static native void setAttribute(JavaScriptObject elem, String attr, JavaScriptObject value) /*-{
 	    elem[attr] = value;
     }-*/;
@@ -469,8 +535,12 @@ public class JSOHelper {
         if (hold != null) {
             rtn = new int[getJavaScriptObjectArraySize(hold)];
 
-            for (int i = 0; i < rtn.length; i++) {
-                rtn[i] = getIntValueFromJavaScriptObjectArray(hold, i);
+            if (useBulkArrayCopy()) {
+                bulkCopyFromJavaScriptArray(hold, rtn, rtn.length);
+            } else {
+                for (int i = 0; i < rtn.length; i++) {
+                    rtn[i] = getIntValueFromJavaScriptObjectArray(hold, i);
+                }
             }
         }
         return rtn;
@@ -483,13 +553,31 @@ public class JSOHelper {
         if (hold != null) {
             rtn = new double[getJavaScriptObjectArraySize(hold)];
 
-            for (int i = 0; i < rtn.length; i++) {
-                rtn[i] = getDoubleValueFromJavaScriptObjectArray(hold, i);
+            if (useBulkArrayCopy()) {
+                bulkCopyFromJavaScriptArray(hold, rtn, rtn.length);
+            } else {
+                for (int i = 0; i < rtn.length; i++) {
+                    rtn[i] = getDoubleValueFromJavaScriptObjectArray(hold, i);
+                }
             }
         }
         return rtn;
     }
 
+    /**
+     * Returns attribute "attr" of JavaScriptObject "elem" as a {@link JsTypedArrayView}, which
+     * reads the underlying JavaScript array (typed or untyped) in place rather than copying it
+     * into a Java array.
+     *
+     * @param elem the JavaScriptObject containing the attribute
+     * @param attr the attribute name
+     * @return a view of the array, or null if the attribute is not set
+     */
+    public static JsTypedArrayView getAttributeAsTypedArrayView(JavaScriptObject elem, String attr) {
+        JavaScriptObject hold = getAttributeAsJavaScriptObject(elem, attr);
+        return hold == null ? null : new JsTypedArrayView(hold);
+    }
+
     public static String[] getAttributeAsStringArray(JavaScriptObject elem, String attr) {
         final JavaScriptObject hold = getAttributeAsJavaScriptObject(elem, attr);
 
@@ -717,6 +805,7 @@ public class JSOHelper {
 
     public static JavaScriptObject convertToJavaScriptArray(int[] array) {
         if(array == null) return null;
+        if (useBulkArrayCopy()) return bulkCopyToJavaScriptArray(array, array.length);
         JavaScriptObject jsArray = createJavaScriptArray();
         for (int i = 0; i < array.length; i++) {
             JSOHelper.setArrayValue(jsArray, i, array[i]);
@@ -726,6 +815,7 @@ public class JSOHelper {
 
     public static JavaScriptObject convertToJavaScriptArray(float[] array) {
         if(array == null) return null;
+        if (useBulkArrayCopy()) return bulkCopyToJavaScriptArray(array, array.length);
         JavaScriptObject jsArray = createJavaScriptArray();
         for (int i = 0; i < array.length; i++) {
             JSOHelper.setArrayValue(jsArray, i, array[i]);
@@ -735,6 +825,7 @@ public class JSOHelper {
 
     public static JavaScriptObject convertToJavaScriptArray(double[] array) {
         if(array == null) return null;
+        if (useBulkArrayCopy()) return bulkCopyToJavaScriptArray(array, array.length);
         JavaScriptObject jsArray = createJavaScriptArray();
         for (int i = 0; i < array.length; i++) {
             JSOHelper.setArrayValue(jsArray, i, array[i]);
@@ -744,6 +835,11 @@ public class JSOHelper {
 
     public static JavaScriptObject convertToJavaScriptArray(long[] array) {
         if(array == null) return null;
+        if (useBulkArrayCopy()) {
+            // Java longs are not JavaScript numbers in compiled code, so narrow them on the
+            // Java side first and then copy the resulting double[] in one call.
+            return bulkCopyToJavaScriptArray(toDoubleArray(array), array.length);
+        }
         JavaScriptObject jsArray = createJavaScriptArray();
         for (int i = 0; i < array.length; i++) {
             JSOHelper.setArrayValue(jsArray, i, array[i]);
@@ -751,10 +847,211 @@ public class JSOHelper {
         return jsArray;
     }
 
+    private static double[] toDoubleArray(long[] array) {
+        double[] result = new double[array.length];
+        for (int i = 0; i < array.length; i++) {
+            final long l = array[i];
+            final double d = (double)l;
+            if (Math.abs(l) > 9007199254740992L) {
+                SC.logWarn("The long value " + Long.toString(l) + " cannot be exactly represented in JavaScript. It will be truncated to: " + Long.toString((long)d));
+            }
+            result[i] = d;
+        }
+        return result;
+    }
+
+    private static boolean bulkArrayCopy = true;
+
+    /**
+     * Controls whether primitive arrays (<code>int[]</code>, <code>float[]</code>,
+     * <code>double[]</code> and <code>long[]</code>) are moved between Java and JavaScript
+     * in a single JSNI call rather than one call per element.  Bulk copying is only possible
+     * in compiled mode, where a Java primitive array is itself a JavaScript array; in
+     * development mode the per-element path is always used.  Enabled by default.
+     *
+     * @param enabled whether bulk primitive array conversion should be used
+     */
+    public static void setBulkArrayCopy(boolean enabled) {
+        bulkArrayCopy = enabled;
+    }
+
+    /**
+     * Returns whether bulk primitive array conversion is enabled.
+     * @return the current setting
+     * @see #setBulkArrayCopy(boolean)
+     */
+    public static boolean getBulkArrayCopy() {
+        return bulkArrayCopy;
+    }
+
+    private static boolean useBulkArrayCopy() {
+        return bulkArrayCopy && GWT.isScript();
+    }
+
+    // Only valid in compiled mode - see useBulkArrayCopy()
+    private static native JavaScriptObject bulkCopyToJavaScriptArray(Object array, int length) /*-{
+        var jsArray = $wnd.Array.create();
+        jsArray.length = length;
+        for (var i = 0; i < length; i++) {
+            jsArray[i] = array[i];
+        }
+        return jsArray;
+    }-*/;
+
+    // Only valid in compiled mode - see useBulkArrayCopy()
+    private static native void bulkCopyFromJavaScriptArray(JavaScriptObject jsArray, Object array, int length) /*-{
+        for (var i = 0; i < length; i++) {
+            array[i] = jsArray[i];
+        }
+    }-*/;
+
+    /**
+     * Converts the parameter int array to a JavaScript <code>Int32Array</code>.  Typed arrays
+     * are more compact than ordinary JavaScript arrays and may be passed to any SmartClient
+     * API that only indexes into the array, such as chart data series or cell coordinates.
+     * In browsers without typed array support an ordinary JavaScript array is returned.
+     *
+     * @param array the Java array to convert
+     * @return the equivalent JavaScript typed array
+     */
+    public static JavaScriptObject convertToJavaScriptTypedArray(int[] array) {
+        if (array == null) return null;
+        JavaScriptObject typedArray = createTypedArray("Int32Array", array.length);
+        fillTypedArray(typedArray, array);
+        return typedArray;
+    }
+
+    /**
+     * Converts the parameter float array to a JavaScript <code>Float32Array</code>.
+     * See {@link #convertToJavaScriptTypedArray(int[])} for details.
+     *
+     * @param array the Java array to convert
+     * @return the equivalent JavaScript typed array
+     */
+    public static JavaScriptObject convertToJavaScriptTypedArray(float[] array) {
+        if (array == null) return null;
+        JavaScriptObject typedArray = createTypedArray("Float32Array", array.length);
+        fillTypedArray(typedArray, array);
+        return typedArray;
+    }
+
+    /**
+     * Converts the parameter double array to a JavaScript <code>Float64Array</code>.
+     * See {@link #convertToJavaScriptTypedArray(int[])} for details.
+     *
+     * @param array the Java array to convert
+     * @return the equivalent JavaScript typed array
+     */
+    public static JavaScriptObject convertToJavaScriptTypedArray(double[] array) {
+        if (array == null) return null;
+        JavaScriptObject typedArray = createTypedArray("Float64Array", array.length);
+        fillTypedArray(typedArray, array);
+        return typedArray;
+    }
+
+    private static void fillTypedArray(JavaScriptObject typedArray, int[] array) {
+        if (useBulkArrayCopy()) {
+            bulkCopyToTypedArray(typedArray, array, array.length);
+        } else {
+            for (int i = 0; i < array.length; i++) setArrayValue(typedArray, i, array[i]);
+        }
+    }
+
+    private static void fillTypedArray(JavaScriptObject typedArray, float[] array) {
+        if (useBulkArrayCopy()) {
+            bulkCopyToTypedArray(typedArray, array, array.length);
+        } else {
+            for (int i = 0; i < array.length; i++) setArrayValue(typedArray, i, array[i]);
+        }
+    }
+
+    private static void fillTypedArray(JavaScriptObject typedArray, double[] array) {
+        if (useBulkArrayCopy()) {
+            bulkCopyToTypedArray(typedArray, array, array.length);
+        } else {
+            for (int i = 0; i < array.length; i++) setArrayValue(typedArray, i, array[i]);
+        }
+    }
+
+    private static native JavaScriptObject createTypedArray(String type, int length) /*-{
+        var constructor = $wnd[type];
+        if (constructor == null) {
+            var jsArray = $wnd.Array.create();
+            jsArray.length = length;
+            return jsArray;
+        }
+        return new constructor(length);
+    }-*/;
+
+    // Only valid in compiled mode - see useBulkArrayCopy()
+    private static native void bulkCopyToTypedArray(JavaScriptObject typedArray, Object array, int length) /*-{
+        if (typedArray.set != null && typedArray.BYTES_PER_ELEMENT != null) {
+            typedArray.set(array);
+        } else {
+            for (var i = 0; i < length; i++) {
+                typedArray[i] = array[i];
+            }
+        }
+    }-*/;
+
     private static void doAddToMap(Map map, String key, Object value) {
     	 map.put(key, value);
     }
 
+    private static Object[] createObjectArray(int length) {
+        return new Object[length];
+    }
+
+    private static void setObjectArrayValue(Object[] array, int index, Object value) {
+        array[index] = value;
+    }
+
+    private static int conversionMaxDepth = -1;
+    private static int conversionMaxNodes = -1;
+
+    /**
+     * Sets the maximum nesting depth of objects and arrays converted by
+     * {@link #convertToJava(JavaScriptObject)}, {@link #convertToMap(JavaScriptObject)} and
+     * related APIs such as {@link com.smartgwt.client.data.Record#toMap()}.  Objects nested
+     * more deeply than this are converted to null and a warning is logged.  A negative value,
+     * the default, means no limit.
+     *
+     * @param maxDepth the maximum depth, or -1 for no limit
+     */
+    public static void setConversionMaxDepth(int maxDepth) {
+        conversionMaxDepth = maxDepth;
+    }
+
+    /**
+     * Returns the maximum conversion depth.
+     * @return the maximum depth, or -1 for no limit
+     * @see #setConversionMaxDepth(int)
+     */
+    public static int getConversionMaxDepth() {
+        return conversionMaxDepth;
+    }
+
+    /**
+     * Sets the maximum number of distinct objects and arrays that a single call to
+     * {@link #convertToJava(JavaScriptObject)}, {@link #convertToMap(JavaScriptObject)} or a
+     * related API will convert.  Once the budget is used up, any further nested objects are
+     * converted to null and a warning is logged.  A negative value, the default, means no limit.
+     *
+     * @param maxNodes the maximum number of objects to convert, or -1 for no limit
+     */
+    public static void setConversionMaxNodes(int maxNodes) {
+        conversionMaxNodes = maxNodes;
+    }
+
+    /**
+     * Returns the conversion node budget.
+     * @return the maximum number of objects to convert, or -1 for no limit
+     * @see #setConversionMaxNodes(int)
+     */
+    public static int getConversionMaxNodes() {
+        return conversionMaxNodes;
+    }
+
     private native static Object convertToJava(JavaScriptObject object, boolean listAsArray, boolean forceMap) /*-{
         return $wnd.SmartGWT.convertToJavaObject(object, listAsArray, forceMap);
     }-*/;
@@ -852,6 +1149,56 @@ public class JSOHelper {
     	return (List)javaObj;
     }
 
+    /**
+     * Returns a live <code>Map</code> view of a JavaScript object.  Unlike
+     * {@link #convertToMap(JavaScriptObject)}, no conversion takes place up front: each value
+     * is converted following the rules described in the
+     * {@link com.smartgwt.client.docs.JavaScriptToJavaConversion JS -> Java conversion article}
+     * only when it is read, except that nested objects and arrays that would be converted to a
+     * Map or List are returned as further live views.  Nested views are cached, so repeated
+     * reads of the same key are cheap.
+     * <P>
+     * Changes made through the view (<code>put()</code>, <code>remove()</code>, etc) are
+     * converted to JavaScript and applied directly to the underlying object, and changes made
+     * to the underlying object are visible through the view.  This makes <code>asMap()</code>
+     * much cheaper than <code>convertToMap()</code> when only a few keys of a wide or deeply
+     * nested object are needed.  Smart GWT's internal back-reference properties are not
+     * exposed by the view.
+     *
+     * @param jsObj the JavaScript object to wrap
+     * @return a Map view of the object, or null if <code>jsObj</code> is null
+     * @see #asList(JavaScriptObject)
+     */
+    public static Map<String, Object> asMap(JavaScriptObject jsObj) {
+        if (jsObj == null) return null;
+        return new JSOMapView(jsObj);
+    }
+
+    /**
+     * Returns a live <code>List</code> view of a JavaScript array.  Elements are converted
+     * lazily, as described for {@link #asMap(JavaScriptObject)}, and changes made through the
+     * view are applied directly to the underlying array.
+     *
+     * @param jsArray the JavaScript array to wrap
+     * @return a List view of the array, or null if <code>jsArray</code> is null
+     * @throws IllegalArgumentException if the passed object is not a JavaScript array
+     */
+    public static List<Object> asList(JavaScriptObject jsArray) {
+        if (jsArray == null) return null;
+        if (!isArray(jsArray)) {
+            throw new IllegalArgumentException("asList - the passed JavaScript object is not " +
+                "an array.  JavaScript is: " + SC.echo(jsArray));
+        }
+        return new JSOListView(jsArray);
+    }
+
+    // Returns the JavaScript object underlying a view returned by asMap() / asList()
+    static JavaScriptObject getViewJsObj(Object view) {
+        if (view instanceof JSOMapView) return ((JSOMapView)view).getJsObj();
+        if (view instanceof JSOListView) return ((JSOListView)view).getJsObj();
+        return null;
+    }
+
     private static native JsDate createJavaScriptDate(double time) /*-{
         // Use $wnd.Date.create() instead of JsDate.create() so that instance methods like
         // duplicate() are added to the resulting JavaScript date object.
@@ -993,78 +1340,104 @@ public class JSOHelper {
         if(array == null) return null;
         JavaScriptObject jsArray = createJavaScriptArray();
         for (int i = 0; i < array.length; i++) {
-            Object val = array[i];
+            setArrayValue(jsArray, i, array[i], strict);
+        }
+        return jsArray;
+    }
 
-            if (val == null) {
-                setArrayValue(jsArray, i, (JavaScriptObject) val);
-            } else if (val instanceof String || val instanceof Character) {
+    private static void setArrayValue(JavaScriptObject jsArray, int i, Object val, boolean strict) {
+        if (val == null) {
+            setArrayValue(jsArray, i, (JavaScriptObject) val);
+            return;
+        }
+        switch (JSOValueConverters.getKind(val)) {
+            case JSOValueConverters.STRING:
+            case JSOValueConverters.CHARACTER:
                 setArrayValue(jsArray, i, val.toString());
-            } else if (val instanceof Number) {
-                if (val instanceof Long) setArrayValue(jsArray, i, ((Long) val).longValue());
-                else setArrayValue(jsArray, i, doubleValue((Number) val));
-            } else if (val instanceof Boolean) {
-                JSOHelper.setArrayValue(jsArray, i, ((Boolean) val).booleanValue());
-            } else if (val instanceof Date) {
-                JSOHelper.setArrayValue(jsArray, i, (Date) val);
-            } else if (val instanceof ValueEnum) {
-                JSOHelper.setArrayValue(jsArray, i, ((ValueEnum) val).getValue());
-            } else if (val instanceof JavaScriptObject) {
-                JSOHelper.setArrayValue(jsArray, i, (JavaScriptObject) val);
-            } else if (val instanceof RecordList) {
+                break;
+            case JSOValueConverters.LONG:
+                setArrayValue(jsArray, i, ((Long) val).longValue());
+                break;
+            case JSOValueConverters.NUMBER:
+                setArrayValue(jsArray, i, doubleValue((Number) val));
+                break;
+            case JSOValueConverters.BOOLEAN:
+                setArrayValue(jsArray, i, ((Boolean) val).booleanValue());
+                break;
+            case JSOValueConverters.DATE:
+                setArrayValue(jsArray, i, (Date) val);
+                break;
+            case JSOValueConverters.VALUE_ENUM:
+                setArrayValue(jsArray, i, ((ValueEnum) val).getValue());
+                break;
+            case JSOValueConverters.JAVASCRIPT_OBJECT:
+                setArrayValue(jsArray, i, (JavaScriptObject) val);
+                break;
+            case JSOValueConverters.RECORD_LIST:
             	if (val instanceof ResultSet) {
             		val = ((ResultSet)val).getAllCachedRows();
             	} 
         		val = ((RecordList) val).getRange(0,  ((RecordList) val).getLength());
         		setArrayValue(jsArray, i, convertToJavaScriptArray((Record[])val, strict));
-            	
-            } /*else if (val instanceof JsObject) {
-                JSOHelper.setArrayValue(jsArray, i, ((JsObject) val).getJsObj());
-            } */
-            else if (val instanceof DataClass) {
-                JSOHelper.setArrayValue(jsArray, i, ((DataClass) val).getJsObj());
-            } else if (val instanceof BaseClass) {
-                JSOHelper.setArrayValue(jsArray, i, ((BaseClass) val).getOrCreateJsObj());
-            } else if (val instanceof BaseWidget) {
-                JSOHelper.setArrayValue(jsArray, i, ((BaseWidget) val).getOrCreateJsObj());
-            } else if (val instanceof Record) {
-                JSOHelper.setArrayValue(jsArray, i, ((Record) val).getJsObj());
-            } else if (val.getClass().isArray()) {
-                if (val instanceof Object[]) {
-                    setArrayValue(jsArray, i, convertToJavaScriptArray((Object[])val, strict));
-                } else if (val instanceof int[]) {
-                    setArrayValue(jsArray, i, convertToJavaScriptArray((int[])val));
-                } else if (val instanceof double[]) {
-                    setArrayValue(jsArray, i, convertToJavaScriptArray((double[])val));
-                } else if (val instanceof float[]) {
-                    setArrayValue(jsArray, i, convertToJavaScriptArray((float[])val));
-                } else if (val instanceof boolean[]) {
-                    setArrayValue(jsArray, i, convertToJavaScriptArray((boolean[])val));
-                } else if (val instanceof char[]) {
-                    setArrayValue(jsArray, i, convertToJavaScriptArray((char[])val));
-                } else if (val instanceof byte[]) {
-                    setArrayValue(jsArray, i, convertToJavaScriptArray((byte[])val));
-                } else if (val instanceof short[]) {
-                    setArrayValue(jsArray, i, convertToJavaScriptArray((short[])val));
-                } else if (val instanceof long[]) {
-                    setArrayValue(jsArray, i, convertToJavaScriptArray((long[])val));
-                } else {
-                    assert false : val.getClass() + " should not be an array class.";
-                    setArrayValue(jsArray, i, (JavaScriptObject) null);
-                }
-            } else if (val instanceof List) {
-                setArrayValue(jsArray, i, JSOHelper.convertToJavaScriptArray(((List<?>)val).toArray(), strict));
-            } else if (val instanceof Iterator) {
-            	List listVal = new ArrayList();
-            	while (((Iterator) val).hasNext()) listVal.add(((Iterator) val).next());
-            	
-            	setArrayValue(jsArray, i, JSOHelper.convertToJavaScriptArray(((List<?>)listVal).toArray(), strict));
-            } else if (val instanceof Set) {
-                setArrayValue(jsArray, i, JSOHelper.convertToJavaScriptArray(((Set<?>)val).toArray(), strict));
-            } else if (val instanceof Map) {
+                break;
+            case JSOValueConverters.RELATIVE_DATE:
+            case JSOValueConverters.DATA_CLASS:
+                setArrayValue(jsArray, i, ((DataClass) val).getJsObj());
+                break;
+            case JSOValueConverters.BASE_CLASS:
+                setArrayValue(jsArray, i, ((BaseClass) val).getOrCreateJsObj());
+                break;
+            case JSOValueConverters.BASE_WIDGET:
+                setArrayValue(jsArray, i, ((BaseWidget) val).getOrCreateJsObj());
+                break;
+            case JSOValueConverters.OBJECT_ARRAY:
+                setArrayValue(jsArray, i, convertToJavaScriptArray((Object[])val, strict));
+                break;
+            case JSOValueConverters.INT_ARRAY:
+                setArrayValue(jsArray, i, convertToJavaScriptArray((int[])val));
+                break;
+            case JSOValueConverters.DOUBLE_ARRAY:
+                setArrayValue(jsArray, i, convertToJavaScriptArray((double[])val));
+                break;
+            case JSOValueConverters.FLOAT_ARRAY:
+                setArrayValue(jsArray, i, convertToJavaScriptArray((float[])val));
+                break;
+            case JSOValueConverters.BOOLEAN_ARRAY:
+                setArrayValue(jsArray, i, convertToJavaScriptArray((boolean[])val));
+                break;
+            case JSOValueConverters.CHAR_ARRAY:
+                setArrayValue(jsArray, i, convertToJavaScriptArray((char[])val));
+                break;
+            case JSOValueConverters.BYTE_ARRAY:
+                setArrayValue(jsArray, i, convertToJavaScriptArray((byte[])val));
+                break;
+            case JSOValueConverters.SHORT_ARRAY:
+                setArrayValue(jsArray, i, convertToJavaScriptArray((short[])val));
+                break;
+            case JSOValueConverters.LONG_ARRAY:
+                setArrayValue(jsArray, i, convertToJavaScriptArray((long[])val));
+                break;
+            case JSOValueConverters.LIST:
+                setArrayValue(jsArray, i, convertToJavaScriptArray(((List<?>)val).toArray(), strict));
+                break;
+            case JSOValueConverters.ITERATOR:
+            	setArrayValue(jsArray, i, convertToJavaScriptArray(toList((Iterator<?>)val).toArray(), strict));
+                break;
+            case JSOValueConverters.SET:
+                setArrayValue(jsArray, i, convertToJavaScriptArray(((Set<?>)val).toArray(), strict));
+                break;
+            case JSOValueConverters.MAP:
                 setArrayValue(jsArray, i, convertMapToJavascriptObject((Map)val, strict));
-            } else {
-                assert val != null;
-                assert !(val instanceof JavaScriptObject);
+                break;
+            case JSOValueConverters.CUSTOM:
+                JSOValueConverters.enter(val);
+                try {
+                    setArrayValue(jsArray, i, JSOValueConverters.convert(val), strict);
+                } finally {
+                    JSOValueConverters.exit();
+                }
+                break;
+            default:
                 if (strict) {
                 	throwUnconvertibleObjectException(val, 
                 			"Object is a member of an Array being converted to JavaScript. " + 
@@ -1073,9 +1446,7 @@ public class JSOHelper {
                 } else {
                     setArrayValue(jsArray, i, val);
                 }
-            }
         }
-        return jsArray;
     }
     
     // Helper to throw an exception if we want to convert a method to JS but it's not a convertible type
@@ -1271,12 +1642,29 @@ public class JSOHelper {
     public static int[] convertToJavaIntArray(JavaScriptObject array) {
         int length = getArrayLength(array);
         int[] arr = new int[length];
+        if (useBulkArrayCopy()) {
+            bulkCopyFromJavaScriptArray(array, arr, length);
+            return arr;
+        }
         for (int i = 0; i < length; i++) {
             arr[i] = getIntArrayValue(array, i);
         }
         return arr;
     }
 
+    public static double[] convertToJavaPrimitiveDoubleArray(JavaScriptObject array) {
+        int length = getArrayLength(array);
+        double[] arr = new double[length];
+        if (useBulkArrayCopy()) {
+            bulkCopyFromJavaScriptArray(array, arr, length);
+            return arr;
+        }
+        for (int i = 0; i < length; i++) {
+            arr[i] = getdoubleArrayValue(array, i);
+        }
+        return arr;
+    }
+
     /**
      * @deprecated deprecated in favor of {@link #convertToJavaIntegerArray}
      */
@@ -1405,47 +1793,81 @@ public class JSOHelper {
                 continue;
             }
 
-            Object value = valueMap.get(key);
+            setMapValue(valueJS, key, valueMap.get(key), strict);
+        }
+        return valueJS;
+    }
 
-            if (value instanceof JavaScriptObject) {
+    private static void setMapValue(JavaScriptObject valueJS, String key, Object value, boolean strict) {
+        if (value == null) {
+            setNullAttribute(valueJS, key);
+            return;
+        }
+        switch (JSOValueConverters.getKind(value)) {
+            case JSOValueConverters.JAVASCRIPT_OBJECT:
                 setAttribute(valueJS, key, (JavaScriptObject) value);
-            } else if (value instanceof Date) {
+                break;
+            case JSOValueConverters.DATE:
                 setAttribute(valueJS, key, ((Date) value));
-            } else if (value instanceof Number) {
+                break;
+            case JSOValueConverters.LONG:
+            case JSOValueConverters.NUMBER:
                 setAttribute(valueJS, key, doubleValue((Number) value));
-            } else if (value instanceof String) {
+                break;
+            case JSOValueConverters.STRING:
                 setAttribute(valueJS, key, ((String) value));
-            } else if (value instanceof Boolean) {
+                break;
+            case JSOValueConverters.BOOLEAN:
                 setAttribute(valueJS, key, ((Boolean) value).booleanValue());
-            } else if (value == null) {
-                setNullAttribute(valueJS, key);
-            } else if(value instanceof String[]) {
-                setAttribute(valueJS, key, convertToJavaScriptArray((String[]) value));
-            } else if (value instanceof Object[]) {
-                setAttribute(valueJS, key, convertToJavaScriptArray((Object[]) value, strict));
-            } else if (value instanceof int[]) {
+                break;
+            case JSOValueConverters.OBJECT_ARRAY:
+                if (value instanceof String[]) {
+                    setAttribute(valueJS, key, convertToJavaScriptArray((String[]) value));
+                } else {
+                    setAttribute(valueJS, key, convertToJavaScriptArray((Object[]) value, strict));
+                }
+                break;
+            case JSOValueConverters.INT_ARRAY:
                 setAttribute(valueJS, key, convertToJavaScriptArray((int[]) value));
-            } else if (value instanceof float[]) {
+                break;
+            case JSOValueConverters.FLOAT_ARRAY:
                 setAttribute(valueJS, key, convertToJavaScriptArray((float[]) value));
-            } else if (value instanceof double[]) {
+                break;
+            case JSOValueConverters.DOUBLE_ARRAY:
                 setAttribute(valueJS, key, convertToJavaScriptArray((double[]) value));
-            } else if (value instanceof long[]) {
+                break;
+            case JSOValueConverters.LONG_ARRAY:
                 setAttribute(valueJS, key, convertToJavaScriptArray((long[]) value));
-            } else if (value instanceof Map) {
-            	JavaScriptObject innerMapJS = convertMapToJavascriptObject((Map) value, strict);
-            	setAttribute(valueJS, key, innerMapJS);
-            } else if (value instanceof List){
-                setAttribute(valueJS, key, JSOHelper.convertToJavaScriptArray(((List)value).toArray(), strict));
-            } else if (value instanceof DataClass) {
+                break;
+            case JSOValueConverters.MAP:
+            	setAttribute(valueJS, key, convertMapToJavascriptObject((Map) value, strict));
+                break;
+            case JSOValueConverters.LIST:
+                setAttribute(valueJS, key, convertToJavaScriptArray(((List)value).toArray(), strict));
+                break;
+            case JSOValueConverters.RELATIVE_DATE:
+            case JSOValueConverters.DATA_CLASS:
                 setAttribute(valueJS, key, ((DataClass) value).getJsObj());
-            } else if (value instanceof BaseClass) {
+                break;
+            case JSOValueConverters.RECORD_LIST:
+            case JSOValueConverters.BASE_CLASS:
                 setAttribute(valueJS, key, ((BaseClass) value).getJsObj());
-            } else if (value instanceof BaseWidget) {
+                break;
+            case JSOValueConverters.BASE_WIDGET:
                 setAttribute(valueJS, key, ((BaseWidget) value).getOrCreateJsObj());
-            } else if (value instanceof ValueEnum) {
+                break;
+            case JSOValueConverters.VALUE_ENUM:
                 setAttribute(valueJS, key, ((ValueEnum) value).getValue());
-            } else {
-                assert value != null;
+                break;
+            case JSOValueConverters.CUSTOM:
+                JSOValueConverters.enter(value);
+                try {
+                    setMapValue(valueJS, key, JSOValueConverters.convert(value), strict);
+                } finally {
+                    JSOValueConverters.exit();
+                }
+                break;
+            default:
                 if (strict) {
                 	throwUnconvertibleObjectException(value, 
                 			"Object is stored as attribute " + key + " of a Map being converted to JavaScript. " +
@@ -1454,9 +1876,7 @@ public class JSOHelper {
                 } else {
                     setObjectAttribute(valueJS, key, value);
                 }
-            }
         }
-        return valueJS;
     }
 
     public static native String[] getProperties(JavaScriptObject jsObj) /*-{
@@ -0,0 +1,125 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.util;
+
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Live <code>List</code> view of a JavaScript array, returned by {@link JSOHelper#asList}.
+ * <p>
+ * Elements are converted from JavaScript to Java only when they are read.  Nested objects and
+ * arrays are returned as further views, which are cached until the list is structurally
+ * modified.  Writes are applied directly to the underlying JavaScript array.
+ */
+class JSOListView extends AbstractList<Object> {
+
+    private final JavaScriptObject jsArray;
+
+    // converted nested Map / List views, keyed by index
+    private Map<Integer, Object> nestedViews;
+
+    JSOListView(JavaScriptObject jsArray) {
+        this.jsArray = jsArray;
+    }
+
+    JavaScriptObject getJsObj() {
+        return jsArray;
+    }
+
+    @Override
+    public Object get(int index) {
+        checkIndex(index, size());
+        if (nestedViews != null) {
+            Object view = nestedViews.get(index);
+            if (view != null && holdsValue(jsArray, index, JSOHelper.getViewJsObj(view))) {
+                return view;
+            }
+        }
+        Object value = getConvertedValue(jsArray, index);
+        if (value instanceof JSOMapView || value instanceof JSOListView) {
+            if (nestedViews == null) nestedViews = new HashMap<Integer, Object>();
+            nestedViews.put(index, value);
+        }
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return JSOHelper.getJavaScriptObjectArraySize(jsArray);
+    }
+
+    @Override
+    public Object set(int index, Object element) {
+        Object previous = get(index);
+        if (nestedViews != null) nestedViews.remove(index);
+        JSOHelper.setAttribute(jsArray, String.valueOf(index), element);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Object element) {
+        checkIndex(index, size() + 1);
+        JavaScriptObject holder = JSOHelper.createObject();
+        JSOHelper.setAttribute(holder, "value", element);
+        splice(jsArray, index, 0, holder);
+        nestedViews = null;
+        modCount++;
+    }
+
+    @Override
+    public Object remove(int index) {
+        Object previous = get(index);
+        splice(jsArray, index, 1, null);
+        nestedViews = null;
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        JSOHelper.setAttribute(jsArray, "length", 0);
+        nestedViews = null;
+        modCount++;
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static native Object getConvertedValue(JavaScriptObject jsArray, int index) /*-{
+        var value = jsArray[index];
+        if ($wnd.SmartGWT.isNativeJavaObject(value)) return value;
+        return $wnd.SmartGWT.convertToJavaView(value);
+    }-*/;
+
+    private static native boolean holdsValue(JavaScriptObject jsArray, int index, JavaScriptObject value) /*-{
+        return jsArray[index] === value;
+    }-*/;
+
+    // holder.value carries the converted element so that primitives survive the JSNI boundary
+    private static native void splice(JavaScriptObject jsArray, int index, int deleteCount,
+                                      JavaScriptObject holder) /*-{
+        if (holder == null) jsArray.splice(index, deleteCount);
+        else jsArray.splice(index, deleteCount, holder.value);
+    }-*/;
+}
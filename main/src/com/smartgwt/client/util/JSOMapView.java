@@ -0,0 +1,240 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Live <code>Map</code> view of a JavaScript object, returned by {@link JSOHelper#asMap}.
+ * <p>
+ * Values are converted from JavaScript to Java only when they are read.  Nested objects and
+ * arrays are returned as further views, which are cached so that repeated reads of the same
+ * key return the same view.  Writes are applied directly to the underlying JavaScript object;
+ * the previous value returned by <code>put()</code> and <code>remove()</code> is converted as
+ * for <code>get()</code>.
+ * Only the object's own properties are exposed as keys, and the Smart GWT back-reference
+ * properties ({@link SC#REF} and {@link SC#MODULE}) are not exposed.
+ */
+class JSOMapView extends AbstractMap<String, Object> {
+
+    private final JavaScriptObject jsObj;
+
+    // converted nested Map / List views, keyed by property name
+    private Map<String, Object> nestedViews;
+
+    JSOMapView(JavaScriptObject jsObj) {
+        this.jsObj = jsObj;
+    }
+
+    JavaScriptObject getJsObj() {
+        return jsObj;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) return null;
+        final String property = (String)key;
+        if (nestedViews != null && nestedViews.containsKey(property)) {
+            // the view is only valid while the JS object still holds the same nested value
+            Object view = nestedViews.get(property);
+            if (holdsValue(jsObj, property, JSOHelper.getViewJsObj(view))) {
+                return view;
+            }
+            nestedViews.remove(property);
+        }
+        Object value = getConvertedValue(jsObj, property);
+        if (value instanceof JSOMapView || value instanceof JSOListView) {
+            if (nestedViews == null) nestedViews = new HashMap<String, Object>();
+            nestedViews.put(property, value);
+        }
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && hasKey(jsObj, (String)key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Object previous = takePrevious(key);
+        JSOHelper.setAttribute(jsObj, key, value);
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (!containsKey(key)) return null;
+        Object previous = takePrevious((String)key);
+        JSOHelper.deleteAttribute(jsObj, (String)key);
+        return previous;
+    }
+
+    // The value about to be replaced: its cached view if there is a valid one, and otherwise
+    // the converted value, which is not cached since the property will no longer hold it.
+    private Object takePrevious(String key) {
+        Object view = nestedViews == null ? null : nestedViews.remove(key);
+        if (view != null && holdsValue(jsObj, key, JSOHelper.getViewJsObj(view))) return view;
+        return getConvertedValue(jsObj, key);
+    }
+
+    @Override
+    public void clear() {
+        for (String key : getKeys(jsObj)) {
+            JSOHelper.deleteAttribute(jsObj, key);
+        }
+        nestedViews = null;
+    }
+
+    @Override
+    public int size() {
+        return getKeys(jsObj).length;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<Map.Entry<String, Object>>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new EntryIterator(getKeys(jsObj));
+            }
+
+            @Override
+            public int size() {
+                return JSOMapView.this.size();
+            }
+        };
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+        private final String[] keys;
+        private int next;
+        private String current;
+
+        EntryIterator(String[] keys) {
+            this.keys = keys;
+        }
+
+        public boolean hasNext() {
+            return next < keys.length;
+        }
+
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            current = keys[next++];
+            return new Entry(current);
+        }
+
+        public void remove() {
+            if (current == null) throw new IllegalStateException();
+            JSOMapView.this.remove(current);
+            current = null;
+        }
+    }
+
+    // Entries are lazy as well: the value is only converted when getValue() is called.
+    private class Entry implements Map.Entry<String, Object> {
+        private final String key;
+
+        Entry(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public Object getValue() {
+            return get(key);
+        }
+
+        public Object setValue(Object value) {
+            return put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>)obj;
+            Object value = getValue();
+            return key.equals(other.getKey()) &&
+                (value == null ? other.getValue() == null : value.equals(other.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
+    private static native Object getConvertedValue(JavaScriptObject jsObj, String key) /*-{
+        if (!@com.smartgwt.client.util.JSOMapView::hasKey(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;)(jsObj, key)) return null;
+        var value = jsObj[key];
+        if ($wnd.SmartGWT.isNativeJavaObject(value)) return value;
+        return $wnd.SmartGWT.convertToJavaView(value);
+    }-*/;
+
+    // SGWT back-references and the BeanFactory GWT module are not part of the data
+    private static boolean isHiddenKey(String key) {
+        return SC.REF.equals(key) || SC.MODULE.equals(key) || key.equals(getGwtModuleKey());
+    }
+
+    private static native String getGwtModuleKey() /*-{
+        var key = $wnd.isc.gwtModule;
+        return key == null ? null : String(key);
+    }-*/;
+
+    private static native boolean holdsValue(JavaScriptObject jsObj, String key, JavaScriptObject value) /*-{
+        return jsObj[key] === value;
+    }-*/;
+
+    private static boolean hasKey(JavaScriptObject jsObj, String key) {
+        return !isHiddenKey(key) && hasOwnProperty(jsObj, key);
+    }
+
+    private static native boolean hasOwnProperty(JavaScriptObject jsObj, String key) /*-{
+        return $wnd.Object.prototype.hasOwnProperty.call(jsObj, key);
+    }-*/;
+
+    private static native String[] getKeys(JavaScriptObject jsObj) /*-{
+        var keys = @com.smartgwt.client.util.JSOHelper::createJavaScriptArray()();
+        for (var key in jsObj) {
+            // own properties only, consistent with containsKey()
+            if (!$wnd.isc.isA.String(key) ||
+                !@com.smartgwt.client.util.JSOMapView::hasKey(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;)(jsObj, key))
+            {
+                continue;
+            }
+            keys.push(key);
+        }
+        return @com.smartgwt.client.util.JSOHelper::convertToJavaStringArray(Lcom/google/gwt/core/client/JavaScriptObject;)(keys);
+    }-*/;
+}
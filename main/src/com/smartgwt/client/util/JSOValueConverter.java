@@ -0,0 +1,44 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.util;
+
+/**
+ * Converts instances of an application class to a value that Smart GWT knows how to pass to
+ * JavaScript.  Register converters with
+ * {@link JSOHelper#registerValueConverter(Class, JSOValueConverter)}.
+ * <p>
+ * Registered converters are used by {@link JSOHelper#setAttribute(com.google.gwt.core.client.JavaScriptObject, String, Object)},
+ * {@link JSOHelper#convertToJavaScriptArray(Object[], boolean)} and
+ * {@link JSOHelper#convertMapToJavascriptObject(java.util.Map, boolean)}, and therefore by
+ * criteria, value maps, records and RPC data.  Values of a type with a registered converter
+ * are never rejected as unconvertible in <code>strict</code> mode.
+ *
+ * @param <T> the type of value converted
+ */
+public interface JSOValueConverter<T> {
+
+    /**
+     * Returns the value to store in JavaScript in place of <code>value</code>.  The result is
+     * converted again following the standard
+     * {@link com.smartgwt.client.docs.JavaToJavaScriptConversion Java -> JS conversion} rules,
+     * so it may be a String, Number, Boolean, Date, Map, List, array or JavaScriptObject.
+     *
+     * @param value the value to convert, never null
+     * @return the converted value
+     */
+    Object convert(T value);
+}
@@ -0,0 +1,197 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.util;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.core.BaseClass;
+import com.smartgwt.client.core.DataClass;
+import com.smartgwt.client.data.RecordList;
+import com.smartgwt.client.data.RelativeDate;
+import com.smartgwt.client.types.ValueEnum;
+import com.smartgwt.client.widgets.BaseWidget;
+
+/**
+ * Class-keyed registry used by JSOHelper to decide how a Java value is converted to
+ * JavaScript.  The kind of conversion is resolved once per class, by the same ordered
+ * <code>instanceof</code> tests JSOHelper used to apply to every value, and then cached.
+ * Each caller still decides what to do with a given kind, so the existing differences between
+ * setAttribute(), convertToJavaScriptArray() and convertMapToJavascriptObject() are preserved.
+ */
+final class JSOValueConverters {
+
+    static final int STRING = 1;
+    static final int CHARACTER = 2;
+    static final int LONG = 3;
+    static final int NUMBER = 4;
+    static final int BOOLEAN = 5;
+    static final int DATE = 6;
+    static final int VALUE_ENUM = 7;
+    static final int JAVASCRIPT_OBJECT = 8;
+    static final int RECORD_LIST = 9;
+    static final int RELATIVE_DATE = 10;
+    static final int DATA_CLASS = 11;
+    static final int BASE_CLASS = 12;
+    static final int BASE_WIDGET = 13;
+    static final int OBJECT_ARRAY = 14;
+    static final int INT_ARRAY = 15;
+    static final int DOUBLE_ARRAY = 16;
+    static final int FLOAT_ARRAY = 17;
+    static final int BOOLEAN_ARRAY = 18;
+    static final int CHAR_ARRAY = 19;
+    static final int BYTE_ARRAY = 20;
+    static final int SHORT_ARRAY = 21;
+    static final int LONG_ARRAY = 22;
+    static final int LIST = 23;
+    static final int ITERATOR = 24;
+    static final int SET = 25;
+    static final int MAP = 26;
+    static final int CUSTOM = 27;
+    static final int OTHER = 28;
+
+    // Converted values are converted again, so converters which produce each other's classes,
+    // or a value containing itself, would recurse without end
+    static final int MAX_DEPTH = 64;
+
+    private static final Map<Class<?>, JSOValueConverter<?>> registered = new HashMap<Class<?>, JSOValueConverter<?>>();
+
+    // caches, cleared whenever the registered converters change
+    private static final Map<Class<?>, Integer> kinds = new HashMap<Class<?>, Integer>();
+    private static final Map<Class<?>, JSOValueConverter<?>> resolved = new HashMap<Class<?>, JSOValueConverter<?>>();
+
+    // nesting of custom conversions in progress
+    private static int depth;
+
+    private JSOValueConverters() {
+    }
+
+    static <T> void register(Class<T> type, JSOValueConverter<? super T> converter) {
+        if (type == null || converter == null) {
+            throw new IllegalArgumentException("A class and a converter must be supplied");
+        }
+        if (type == Object.class) {
+            throw new IllegalArgumentException("A converter cannot be registered for java.lang.Object");
+        }
+        registered.put(type, converter);
+        kinds.clear();
+        resolved.clear();
+    }
+
+    static void unregister(Class<?> type) {
+        if (registered.remove(type) != null) {
+            kinds.clear();
+            resolved.clear();
+        }
+    }
+
+    /**
+     * Returns the conversion kind for a non-null value.
+     */
+    static int getKind(Object value) {
+        final Class<?> type = value.getClass();
+        Integer kind = kinds.get(type);
+        if (kind == null) {
+            kind = resolveKind(value, type);
+            kinds.put(type, kind);
+        }
+        return kind;
+    }
+
+    /**
+     * Called before a value of kind {@link #CUSTOM} is converted and its result converted in
+     * turn; must be matched by a call to {@link #exit()}.
+     *
+     * @throws IllegalStateException if custom conversions are nested more than
+     * {@link #MAX_DEPTH} deep
+     */
+    static void enter(Object value) {
+        if (depth >= MAX_DEPTH) {
+            throw new IllegalStateException("Converting " + value.getClass().getName() + " nested " +
+                                            MAX_DEPTH + " custom conversions - the registered converters " +
+                                            "probably form a cycle");
+        }
+        depth++;
+    }
+
+    static void exit() {
+        depth--;
+    }
+
+    /**
+     * Applies the registered converter to a value whose kind is {@link #CUSTOM}.
+     */
+    @SuppressWarnings("unchecked")
+    static Object convert(Object value) {
+        final JSOValueConverter<Object> converter = (JSOValueConverter<Object>)resolved.get(value.getClass());
+        final Object converted = converter.convert(value);
+        if (converted != null && converted.getClass() == value.getClass()) {
+            throw new IllegalStateException("The converter registered for " + value.getClass().getName() +
+                                            " returned another instance of the same class");
+        }
+        return converted;
+    }
+
+    private static int resolveKind(Object value, Class<?> type) {
+        // Registered converters apply to subclasses as well.  GWT does not expose the
+        // interfaces of a class, so only the superclass chain is searched.
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            final JSOValueConverter<?> converter = registered.get(c);
+            if (converter != null) {
+                resolved.put(type, converter);
+                return CUSTOM;
+            }
+        }
+
+        if (value instanceof String) return STRING;
+        if (value instanceof Character) return CHARACTER;
+        if (value instanceof Long) return LONG;
+        if (value instanceof Number) return NUMBER;
+        if (value instanceof Boolean) return BOOLEAN;
+        if (value instanceof Date) return DATE;
+        if (value instanceof ValueEnum) return VALUE_ENUM;
+        if (value instanceof JavaScriptObject) return JAVASCRIPT_OBJECT;
+        if (value instanceof RecordList) return RECORD_LIST;
+        if (value instanceof RelativeDate) return RELATIVE_DATE;
+        if (value instanceof DataClass) return DATA_CLASS;
+        if (value instanceof BaseClass) return BASE_CLASS;
+        if (value instanceof BaseWidget) return BASE_WIDGET;
+        if (type.isArray()) {
+            if (value instanceof Object[]) return OBJECT_ARRAY;
+            if (value instanceof int[]) return INT_ARRAY;
+            if (value instanceof double[]) return DOUBLE_ARRAY;
+            if (value instanceof float[]) return FLOAT_ARRAY;
+            if (value instanceof boolean[]) return BOOLEAN_ARRAY;
+            if (value instanceof char[]) return CHAR_ARRAY;
+            if (value instanceof byte[]) return BYTE_ARRAY;
+            if (value instanceof short[]) return SHORT_ARRAY;
+            if (value instanceof long[]) return LONG_ARRAY;
+            assert false : type + " should not be an array class.";
+            return OTHER;
+        }
+        if (value instanceof List) return LIST;
+        if (value instanceof Iterator) return ITERATOR;
+        if (value instanceof Set) return SET;
+        if (value instanceof Map) return MAP;
+        return OTHER;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.util;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Read/write view onto a numeric JavaScript array that does not copy the array into Java.
+ * <p>
+ * The underlying array may be a JavaScript typed array (such as <code>Float64Array</code> or
+ * <code>Int32Array</code>) or an ordinary JavaScript array of numbers.  Individual elements are
+ * read and written in place, which avoids the cost of converting a large array to a Java
+ * <code>int[]</code> or <code>double[]</code> when only some of the values are needed.
+ * Use {@link #toIntArray()} or {@link #toDoubleArray()} to take a copy.
+ *
+ * @see JSOHelper#getAttributeAsTypedArrayView(JavaScriptObject, String)
+ * @see JSOHelper#convertToJavaScriptTypedArray(double[])
+ */
+public class JsTypedArrayView {
+
+    private final JavaScriptObject jsArray;
+
+    /**
+     * Creates a view onto the passed JavaScript array.
+     *
+     * @param jsArray a JavaScript typed array or array of numbers
+     */
+    public JsTypedArrayView(JavaScriptObject jsArray) {
+        if (jsArray == null) {
+            throw new IllegalArgumentException("JsTypedArrayView requires a non-null array");
+        }
+        this.jsArray = jsArray;
+    }
+
+    /**
+     * Creates a view onto a new <code>Float64Array</code> holding a copy of the passed values.
+     *
+     * @param values the values to copy
+     * @return the new view
+     */
+    public static JsTypedArrayView create(double[] values) {
+        return new JsTypedArrayView(JSOHelper.convertToJavaScriptTypedArray(values));
+    }
+
+    /**
+     * Creates a view onto a new <code>Int32Array</code> holding a copy of the passed values.
+     *
+     * @param values the values to copy
+     * @return the new view
+     */
+    public static JsTypedArrayView create(int[] values) {
+        return new JsTypedArrayView(JSOHelper.convertToJavaScriptTypedArray(values));
+    }
+
+    /**
+     * Returns the underlying JavaScript array, suitable for passing to any API that accepts
+     * a numeric array.
+     *
+     * @return the JavaScript array
+     */
+    public JavaScriptObject getJsObj() {
+        return jsArray;
+    }
+
+    /**
+     * Returns the number of elements in the array.
+     * @return the array length
+     */
+    public int getLength() {
+        return JSOHelper.getJavaScriptObjectArraySize(jsArray);
+    }
+
+    /**
+     * Returns whether the underlying array is a JavaScript typed array rather than an
+     * ordinary JavaScript array.
+     * @return true if the array is a typed array
+     */
+    public boolean isTypedArray() {
+        return isTypedArray(jsArray);
+    }
+
+    private static native boolean isTypedArray(JavaScriptObject jsArray) /*-{
+        return jsArray.BYTES_PER_ELEMENT != null && jsArray.buffer != null;
+    }-*/;
+
+    /**
+     * Returns the element at <code>index</code>, truncated to an int.
+     * @param index element index
+     * @return the element value
+     */
+    public int getInt(int index) {
+        return getInt(jsArray, index);
+    }
+
+    private static native int getInt(JavaScriptObject jsArray, int index) /*-{
+        return jsArray[index] | 0;
+    }-*/;
+
+    /**
+     * Returns the element at <code>index</code>.  Elements that are not set are returned as
+     * <code>NaN</code>.
+     * @param index element index
+     * @return the element value
+     */
+    public double getDouble(int index) {
+        return getDouble(jsArray, index);
+    }
+
+    private static native double getDouble(JavaScriptObject jsArray, int index) /*-{
+        var value = jsArray[index];
+        return value == null ? NaN : +value;
+    }-*/;
+
+    /**
+     * Sets the element at <code>index</code>.  For integer typed arrays, the value is
+     * truncated as described by the JavaScript typed array specification.
+     * @param index element index
+     * @param value the new value
+     */
+    public void set(int index, double value) {
+        JSOHelper.setArrayValue(jsArray, index, value);
+    }
+
+    /**
+     * Copies the array into a new Java <code>int[]</code>.
+     * @return the copied values
+     */
+    public int[] toIntArray() {
+        return JSOHelper.convertToJavaIntArray(jsArray);
+    }
+
+    /**
+     * Copies the array into a new Java <code>double[]</code>.
+     * @return the copied values
+     */
+    public double[] toDoubleArray() {
+        return JSOHelper.convertToJavaPrimitiveDoubleArray(jsArray);
+    }
+}
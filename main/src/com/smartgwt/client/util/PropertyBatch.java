@@ -0,0 +1,287 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.util;
+
+import java.util.Date;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.core.BaseClass;
+import com.smartgwt.client.core.DataClass;
+import com.smartgwt.client.types.ValueEnum;
+import com.smartgwt.client.widgets.BaseWidget;
+
+/**
+ * Collects property values on the Java side so that they can be written to a JavaScript
+ * object in a single call, rather than one JSNI call per property.
+ * <p>
+ * Typical usage is to build a batch of configuration properties and pass it to
+ * {@link BaseWidget#applyProperties(PropertyBatch)} or
+ * {@link DataClass#applyProperties(PropertyBatch)}:
+ * <pre>
+ *     grid.applyProperties(new PropertyBatch()
+ *         .set("width", 500)
+ *         .set("canEdit", true)
+ *         .set("emptyMessage", "No rows"));
+ * </pre>
+ * Strings, numbers, booleans and JavaScriptObjects are held in Java arrays and copied in one
+ * pass when the batch is applied.  Other values (Dates, Maps, Lists, arrays, ...) are
+ * converted when they are added, following the same rules as
+ * {@link JSOHelper#setAttribute(JavaScriptObject, String, Object)}.  If the same property is
+ * set more than once, the last value wins.
+ */
+public class PropertyBatch {
+
+    // value kinds, interpreted by writeAll() below
+    private static final int STRING = 0;
+    private static final int NUMBER = 1;
+    private static final int BOOLEAN = 2;
+    private static final int OBJECT = 3;
+    private static final int NULL = 4;
+    private static final int CONVERTED = 5;
+
+    private String[] names;
+    private int[] kinds;
+    private double[] numbers;
+    private Object[] objects;
+    private int size;
+
+    // holds values that required conversion when added, keyed by property name
+    private JavaScriptObject converted;
+
+    public PropertyBatch() {
+        this(16);
+    }
+
+    /**
+     * Creates a batch sized for the expected number of properties.
+     *
+     * @param capacity the initial capacity
+     */
+    public PropertyBatch(int capacity) {
+        capacity = Math.max(capacity, 1);
+        names = new String[capacity];
+        kinds = new int[capacity];
+        numbers = new double[capacity];
+        objects = new Object[capacity];
+    }
+
+    public PropertyBatch set(String name, String value) {
+        if (value == null) return setNull(name);
+        add(name, STRING, 0, value);
+        return this;
+    }
+
+    public PropertyBatch set(String name, int value) {
+        add(name, NUMBER, value, null);
+        return this;
+    }
+
+    public PropertyBatch set(String name, double value) {
+        add(name, NUMBER, value, null);
+        return this;
+    }
+
+    public PropertyBatch set(String name, boolean value) {
+        add(name, BOOLEAN, value ? 1 : 0, null);
+        return this;
+    }
+
+    public PropertyBatch set(String name, Boolean value) {
+        if (value == null) return setNull(name);
+        return set(name, value.booleanValue());
+    }
+
+    public PropertyBatch set(String name, Number value) {
+        if (value == null) return setNull(name);
+        if (value instanceof Long) return setConverted(name, value);
+        return set(name, JSOHelper.doubleValue(value));
+    }
+
+    public PropertyBatch set(String name, ValueEnum value) {
+        if (value == null) return setNull(name);
+        return set(name, value.getValue());
+    }
+
+    public PropertyBatch set(String name, Date value) {
+        if (value == null) return setNull(name);
+        return set(name, (JavaScriptObject)JSOHelper.convertToJavaScriptDate(value));
+    }
+
+    public PropertyBatch set(String name, JavaScriptObject value) {
+        if (value == null) return setNull(name);
+        add(name, OBJECT, 0, value);
+        return this;
+    }
+
+    public PropertyBatch set(String name, DataClass value) {
+        if (value == null) return setNull(name);
+        return set(name, value.getJsObj());
+    }
+
+    public PropertyBatch set(String name, BaseClass value) {
+        if (value == null) return setNull(name);
+        return set(name, value.getOrCreateJsObj());
+    }
+
+    public PropertyBatch set(String name, BaseWidget value) {
+        if (value == null) return setNull(name);
+        return set(name, value.isConfigOnly() ? value.getConfig() : value.getOrCreateJsObj());
+    }
+
+    /**
+     * Adds a value of any type, dispatching on its runtime class.  Values that have no direct
+     * JavaScript representation are converted immediately, as by
+     * {@link JSOHelper#setAttribute(JavaScriptObject, String, Object)}.
+     *
+     * @param name the property name
+     * @param value the property value
+     * @return this batch
+     */
+    public PropertyBatch set(String name, Object value) {
+        if (value == null) return setNull(name);
+        if (value instanceof String) return set(name, (String)value);
+        if (value instanceof Boolean) return set(name, (Boolean)value);
+        if (value instanceof Number) return set(name, (Number)value);
+        if (value instanceof ValueEnum) return set(name, (ValueEnum)value);
+        if (value instanceof Date) return set(name, (Date)value);
+        if (value instanceof JavaScriptObject) return set(name, (JavaScriptObject)value);
+        if (value instanceof DataClass) return set(name, (DataClass)value);
+        if (value instanceof BaseClass) return set(name, (BaseClass)value);
+        if (value instanceof BaseWidget) return set(name, (BaseWidget)value);
+        return setConverted(name, value);
+    }
+
+    public PropertyBatch setNull(String name) {
+        add(name, NULL, 0, null);
+        return this;
+    }
+
+    private PropertyBatch setConverted(String name, Object value) {
+        if (converted == null) converted = JSOHelper.createObject();
+        JSOHelper.setAttribute(converted, name, value);
+        add(name, CONVERTED, 0, null);
+        return this;
+    }
+
+    private void add(String name, int kind, double number, Object object) {
+        if (name == null) throw new IllegalArgumentException("Property name must not be null");
+        if (size == names.length) grow();
+        names[size] = name;
+        kinds[size] = kind;
+        numbers[size] = number;
+        objects[size] = object;
+        size++;
+    }
+
+    private void grow() {
+        final int capacity = names.length * 2;
+        String[] newNames = new String[capacity];
+        int[] newKinds = new int[capacity];
+        double[] newNumbers = new double[capacity];
+        Object[] newObjects = new Object[capacity];
+        System.arraycopy(names, 0, newNames, 0, size);
+        System.arraycopy(kinds, 0, newKinds, 0, size);
+        System.arraycopy(numbers, 0, newNumbers, 0, size);
+        System.arraycopy(objects, 0, newObjects, 0, size);
+        names = newNames;
+        kinds = newKinds;
+        numbers = newNumbers;
+        objects = newObjects;
+    }
+
+    /**
+     * Returns the number of values added to this batch, counting repeated properties once per
+     * call.
+     * @return the number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all values from this batch so that it may be reused.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            names[i] = null;
+            objects[i] = null;
+        }
+        size = 0;
+        converted = null;
+    }
+
+    /**
+     * Writes every value in this batch to the target object.
+     *
+     * @param target the object to write to
+     */
+    public void applyTo(JavaScriptObject target) {
+        if (size == 0) return;
+        if (GWT.isScript()) {
+            // Java arrays and Strings are plain JavaScript arrays and strings in compiled
+            // code, so the whole batch can be copied in one native call.
+            writeAll(target, names, kinds, numbers, objects, size, converted);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            final String name = names[i];
+            switch (kinds[i]) {
+                case STRING:    JSOHelper.setAttribute(target, name, (String)objects[i]); break;
+                case NUMBER:    JSOHelper.setAttribute(target, name, numbers[i]); break;
+                case BOOLEAN:   JSOHelper.setAttribute(target, name, numbers[i] != 0); break;
+                case OBJECT:    JSOHelper.setAttribute(target, name, (JavaScriptObject)objects[i]); break;
+                case NULL:      JSOHelper.setNullAttribute(target, name); break;
+                default:        copyAttribute(converted, target, name); break;
+            }
+        }
+    }
+
+    /**
+     * Returns a new JavaScript object containing every value in this batch.
+     * @return the properties object
+     */
+    public JavaScriptObject toJavaScriptObject() {
+        JavaScriptObject properties = JSOHelper.createObject();
+        applyTo(properties);
+        return properties;
+    }
+
+    private static native void writeAll(JavaScriptObject target, String[] names, int[] kinds,
+                                        double[] numbers, Object[] objects, int size,
+                                        JavaScriptObject converted) /*-{
+        for (var i = 0; i < size; i++) {
+            var name = names[i];
+            switch (kinds[i]) {
+                case 0: target[name] = String(objects[i]); break;
+                case 1: target[name] = numbers[i]; break;
+                case 2: target[name] = numbers[i] != 0; break;
+                case 3: target[name] = objects[i]; break;
+                case 4: target[name] = null; break;
+                default: target[name] = converted[name];
+            }
+        }
+    }-*/;
+
+    private static native void copyAttribute(JavaScriptObject source, JavaScriptObject target, String name) /*-{
+        target[name] = source[name];
+    }-*/;
+}
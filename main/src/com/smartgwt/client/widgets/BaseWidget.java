@@ -38,6 +38,7 @@ import com.smartgwt.client.data.Record;
 import com.smartgwt.client.types.ValueEnum;
 import com.smartgwt.client.util.IDManager;
 import com.smartgwt.client.util.JSOHelper;
+import com.smartgwt.client.util.PropertyBatch;
 import com.smartgwt.client.util.SC;
 import com.smartgwt.client.widgets.events.DrawEvent;
 import com.smartgwt.client.widgets.events.DrawHandler;
@@ -1013,6 +1014,39 @@ public abstract class BaseWidget extends Widget implements HasHandlers, LogicalS
         }
     }
 
+    /**
+     * Applies every property in the batch with a single call into JavaScript.  Before the
+     * widget is created the values are written to its configuration; afterwards they are
+     * passed to the live widget in one <code>setProperties()</code> call, which invokes the
+     * SmartClient setters for any properties that have them.
+     * <p>
+     * As with {@link #setProperty(String, String) setProperty()}, no check is made that the
+     * properties may be changed after creation.
+     *
+     * @param properties the properties to apply
+     */
+    public void applyProperties(PropertyBatch properties) {
+        if (properties == null || properties.isEmpty()) return;
+        if (!isCreated()) {
+            properties.applyTo(config);
+        } else {
+            setProperties(properties.toJavaScriptObject());
+        }
+    }
+
+    /**
+     * Passes a JavaScript object of properties to the live SmartClient widget in a single
+     * <code>setProperties()</code> call, which invokes the SmartClient setters for any
+     * properties that have them.  The widget must already have been created; use
+     * {@link #applyProperties(PropertyBatch)} to configure a widget before it is created.
+     *
+     * @param properties the properties to set
+     */
+    public native void setProperties(JavaScriptObject properties)/*-{
+        var widget = this.@com.smartgwt.client.widgets.BaseWidget::getJsObj()();
+        widget.setProperties(properties);
+    }-*/;
+
     public native void setNullProperty(String property)/*-{
         var widget = this.@com.smartgwt.client.widgets.BaseWidget::getJsObj()();
         widget.setProperty(property, null);
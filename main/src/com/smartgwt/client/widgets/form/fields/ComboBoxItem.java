@@ -977,6 +977,7 @@ public class ComboBoxItem extends TextItem  implements PickList, com.smartgwt.cl
         if ($wnd.isc.ComboBoxItem.getPrototype().__getPickListFilterCriteria == null) {
             $wnd.isc.ComboBoxItem.getPrototype().__getPickListFilterCriteria = $wnd.isc.ComboBoxItem.getPrototype().getPickListFilterCriteria;
             $wnd.isc.ComboBoxItem.getPrototype().getPickListFilterCriteria = $entry(function() {
+                @com.smartgwt.client.widgets.form.fields.PickListFetchTracker::track(Lcom/google/gwt/core/client/JavaScriptObject;)(this);
                 var jObj = this.__ref;
                 //if widget was not created in in java via smartgwt, fallback to old behavior
                 if(jObj && @com.smartgwt.client.widgets.form.fields.ComboBoxItem::isComboBoxItem(Lcom/smartgwt/client/widgets/form/fields/FormItem;)(jObj)) {
@@ -1272,6 +1273,72 @@ public class ComboBoxItem extends TextItem  implements PickList, com.smartgwt.cl
         return getAttributeAsInt("fetchDelay");
     }
 
+    /**
+     * For a databound pickList, whether only the latest fetch is processed.  When the criteria change while fetches are
+     * pending, for example as the user types, the pending fetches are superseded: each is cancelled if it was sent in a
+     * transaction of its own, and otherwise its response is dropped before it is processed.  A fetch is sent in a
+     * transaction of its own unless a queue is open or {@link com.smartgwt.client.rpc.RPCManager#setAutoBatch automatic
+     * batching} is enabled.  Only the fetches of the pickList itself are tracked, not fetches for display values.  If the
+     * {@link PickListResultCache} is enabled, fetches are also answered from it where possible, including fetches with
+     * criteria that are at least as restrictive as a complete cached result, such as a longer typed-in prefix.
+     *
+     * @param latestFetchWins latestFetchWins Default value is false
+     */
+    public void setLatestFetchWins(Boolean latestFetchWins) {
+        setAttribute("latestFetchWins", latestFetchWins);
+    }
+
+    /**
+     * For a databound pickList, whether only the latest fetch is processed.
+     *
+     * @return Boolean
+     * @see #setLatestFetchWins
+     */
+    public Boolean getLatestFetchWins() {
+        Boolean latestFetchWins = getAttributeAsBoolean("latestFetchWins");
+        return latestFetchWins == null ? Boolean.FALSE : latestFetchWins;
+    }
+
+    /**
+     * The number of pickList fetches which were superseded by a later fetch before their response was processed.
+     *
+     * @return superseded fetch count
+     * @see #setLatestFetchWins
+     */
+    public int getSupersededFetchCount() {
+        return PickListFetchTracker.getSupersededFetchCount(getJsObj());
+    }
+
+    /**
+     * Adapt the {@link #setFetchDelay fetchDelay} to the way the user types.  The delay is kept a little longer than the
+     * user's usual interval between keystrokes, so that a burst of typing issues a single fetch, and is lengthened by the
+     * latency of recent fetches, so that a slow server receives fewer of them.  The delay stays between 50 and 800
+     * milliseconds.
+     *
+     * @param adaptiveFetchDelay adaptiveFetchDelay Default value is false
+     */
+    public void setAdaptiveFetchDelay(boolean adaptiveFetchDelay) {
+        if (adaptiveFetchDelay == (adaptiveFetchDelayRegistration != null)) return;
+        if (adaptiveFetchDelay) {
+            adaptiveFetchDelayRegistration = addKeyPressHandler(new PickListFetchTracker.AdaptiveFetchDelay(this));
+        } else {
+            adaptiveFetchDelayRegistration.removeHandler();
+            adaptiveFetchDelayRegistration = null;
+        }
+    }
+
+    /**
+     * Whether the {@link #setFetchDelay fetchDelay} adapts to the way the user types.
+     *
+     * @return boolean
+     * @see #setAdaptiveFetchDelay
+     */
+    public boolean getAdaptiveFetchDelay() {
+        return adaptiveFetchDelayRegistration != null;
+    }
+
+    private HandlerRegistration adaptiveFetchDelayRegistration;
+
     /**
      * Specifies the field by which this item should be initially sorted.  Can be set to  either a {@link
      * com.smartgwt.client.widgets.grid.ListGridField#getName 'field name'} or the index of the field in the fields  Array.
@@ -1466,6 +1533,7 @@ public class ComboBoxItem extends TextItem  implements PickList, com.smartgwt.cl
     public native void setPickListFilterCriteriaFunction(FilterCriteriaFunction filterCriteriaFunction) /*-{
         var self = this.@com.smartgwt.client.core.DataClass::getJsObj()();
         self.getPickListFilterCriteria = $entry(function() {
+            @com.smartgwt.client.widgets.form.fields.PickListFetchTracker::track(Lcom/google/gwt/core/client/JavaScriptObject;)(this);
             var crit = filterCriteriaFunction.@com.smartgwt.client.widgets.form.fields.FilterCriteriaFunction::getCriteria()();
             return crit == null ? null : crit.@com.smartgwt.client.data.Criteria::getJsObj()();
         });
@@ -1491,6 +1559,7 @@ public class ComboBoxItem extends TextItem  implements PickList, com.smartgwt.cl
     public native void setPickListFilterCriteriaFunction(FormItemCriteriaFunction filterCriteriaFunction) /*-{
         var self = this.@com.smartgwt.client.core.DataClass::getJsObj()();
         self.getPickListFilterCriteria = $entry(function() {
+            @com.smartgwt.client.widgets.form.fields.PickListFetchTracker::track(Lcom/google/gwt/core/client/JavaScriptObject;)(this);
             var context = @com.smartgwt.client.widgets.form.fields.FormItemFunctionContext::new()();
             var itemJ = @com.smartgwt.client.widgets.form.fields.ComboBoxItem::getOrCreateRef(Lcom/google/gwt/core/client/JavaScriptObject;)(this);
             context.@com.smartgwt.client.widgets.form.fields.FormItemFunctionContext::setFormItem(Lcom/smartgwt/client/widgets/form/fields/FormItem;)(itemJ);
@@ -0,0 +1,194 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.widgets.form.fields;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.widgets.form.fields.events.KeyPressEvent;
+import com.smartgwt.client.widgets.form.fields.events.KeyPressHandler;
+
+/**
+ * Tracks the fetches of the databound pickLists of ComboBoxItems and SelectItems, so that
+ * only the latest fetch of each item is processed.  Tracking is off unless
+ * {@link ComboBoxItem#setLatestFetchWins latestFetchWins} is set on the item; until then the
+ * DataSource fetch path is not wrapped at all.
+ * <P>
+ * Only the fetches of an item's pickList are tracked, recognized by the
+ * <code>componentId</code> of the request; other fetches of the item, such as those for
+ * display values, are left alone.  When an item issues a fetch with new criteria while earlier
+ * ones are still pending, each of them is superseded: its transaction is cancelled if it was
+ * sent on its own, and otherwise its response is dropped before it reaches the pickList.
+ * Fetches with the same criteria, such as those for further pages, stay pending side by side.
+ * A fetch is sent on its own unless a queue is open or requests are
+ * {@link com.smartgwt.client.rpc.RPCManager#setAutoBatch automatically batched}, in which
+ * case it travels with the other requests of the batch.  If the {@link PickListResultCache}
+ * is enabled, fetches which it can answer are served from it without a request, and the
+ * responses of the others are added to it.
+ */
+class PickListFetchTracker {
+
+    private PickListFetchTracker() {
+    }
+
+    // Called before each pickList fetch of an item, from getPickListFilterCriteria()
+    static native void track(JavaScriptObject item) /*-{
+        if (item.latestFetchWins !== true) return;
+        @com.smartgwt.client.widgets.form.fields.PickListFetchTracker::install()();
+        // a pickList may be reused by several items, so it is tagged before each fetch
+        if (item.pickList != null) item.pickList.__pickListItem = item.ID;
+    }-*/;
+
+    private static native void install() /*-{
+        var proto = $wnd.isc.DataSource.getPrototype();
+        if (proto.__pickListPerformDSOperation != null) return;
+        var performDSOperation = proto.__pickListPerformDSOperation = proto.performDSOperation,
+            trackedFetch = @com.smartgwt.client.widgets.form.fields.PickListFetchTracker::createTrackedFetch(Lcom/google/gwt/core/client/JavaScriptObject;)(performDSOperation);
+        proto.performDSOperation = function (operationType, data, callback, requestProperties) {
+            var componentID = requestProperties == null ? null : requestProperties.componentId,
+                component = componentID == null ? null : $wnd[componentID],
+                itemID = component == null ? null : component.__pickListItem,
+                item = itemID == null ? null : $wnd[itemID];
+            if (operationType != "fetch" || item == null || item.latestFetchWins !== true) {
+                return performDSOperation.apply(this, arguments);
+            }
+            return trackedFetch.call(this, item, data, callback, requestProperties);
+        };
+    }-*/;
+
+    private static native JavaScriptObject createTrackedFetch(JavaScriptObject performDSOperation) /*-{
+        var isc = $wnd.isc, rpc = isc.RPCManager;
+
+        // Answers the fetch from the PickListResultCache, if it holds the rows
+        var fetchFromCache = function (ds, tracker, criteria, callback, requestProperties) {
+            var dsResponse = @com.smartgwt.client.widgets.form.fields.PickListResultCache::find(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(ds, criteria, requestProperties);
+            if (dsResponse == null) return null;
+            var dsRequest = isc.addProperties({}, requestProperties, {
+                operationType: "fetch", dataSource: ds.ID, data: criteria
+            });
+            tracker.servedLocally++;
+            // deliver asynchronously, as a server response would be
+            $wnd.setTimeout($entry(function () {
+                if (callback != null) isc.Class.fireCallback(callback, "dsResponse,data,dsRequest", [dsResponse, dsResponse.data, dsRequest]);
+            }), 0);
+            return dsRequest;
+        };
+
+        return function (item, criteria, callback, requestProperties) {
+            var ds = this,
+                tracker = item.__pickListFetches ||
+                          (item.__pickListFetches = { superseded: 0, servedLocally: 0, pending: [] });
+
+            // A fetch with new criteria supersedes every pending fetch, while one with the same
+            // criteria, such as a fetch for the next page, is pending alongside them
+            var pending = tracker.pending,
+                latest = pending.length == 0 ? null : pending[pending.length - 1];
+            if (latest != null && ds.compareCriteria(criteria || {}, latest.criteria || {}, requestProperties) != 0) {
+                for (var i = 0; i < pending.length; i++) {
+                    pending[i].superseded = true;
+                    tracker.superseded++;
+                    if (pending[i].transactionNum != null) rpc.cancelQueue(pending[i].transactionNum);
+                }
+                pending = tracker.pending = [];
+            }
+            var useCache = @com.smartgwt.client.widgets.form.fields.PickListResultCache::isEnabled()() &&
+                           item.cachePickListResults !== false;
+            if (useCache) {
+                var cachedRequest = fetchFromCache(ds, tracker, criteria, callback, requestProperties);
+                if (cachedRequest != null) return cachedRequest;
+            }
+
+            var fetch = { criteria: criteria, started: new Date().getTime() };
+            pending.push(fetch);
+            var trackedCallback = function (dsResponse, data, dsRequest) {
+                var index = tracker.pending.indexOf(fetch);
+                if (index >= 0) tracker.pending.splice(index, 1);
+                if (fetch.superseded) return;
+                tracker.latency = new Date().getTime() - fetch.started;
+                if (useCache && dsResponse != null) {
+                    @com.smartgwt.client.widgets.form.fields.PickListResultCache::store(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(ds, criteria, requestProperties, dsResponse);
+                }
+                if (callback != null) return isc.Class.fireCallback(callback, "dsResponse,data,dsRequest", arguments);
+            };
+
+            // Send the fetch in a transaction of its own, if no queue is open and requests are not
+            // batched automatically, so that it can be cancelled if it is superseded
+            var ownTransaction = !rpc.queuing && !ds.clientOnly &&
+                                 !@com.smartgwt.client.rpc.RPCManager::getAutoBatch()();
+            if (ownTransaction) rpc.startQueue();
+            var result = performDSOperation.call(ds, "fetch", criteria, trackedCallback, requestProperties);
+            if (ownTransaction) {
+                fetch.transactionNum = rpc.getCurrentTransactionId();
+                rpc.sendQueue();
+            }
+            return result;
+        };
+    }-*/;
+
+    // The number of fetches of an item which were superseded, and answered on the client
+    static native int getSupersededFetchCount(JavaScriptObject item) /*-{
+        return item.__pickListFetches == null ? 0 : item.__pickListFetches.superseded;
+    }-*/;
+
+    static native int getLocalFetchCount(JavaScriptObject item) /*-{
+        return item.__pickListFetches == null ? 0 : item.__pickListFetches.servedLocally;
+    }-*/;
+
+    // The latency of the last completed fetch of an item, or -1
+    static native int getLatency(JavaScriptObject item) /*-{
+        var tracker = item.__pickListFetches;
+        return tracker == null || tracker.latency == null ? -1 : tracker.latency;
+    }-*/;
+
+    /**
+     * Adapts the fetchDelay of an item to the way the user types.  The delay is kept a little
+     * longer than the user's usual interval between keystrokes, so that a burst of typing
+     * issues a single fetch, and is lengthened by the latency of recent fetches, so that a slow
+     * server receives fewer of them.
+     */
+    static class AdaptiveFetchDelay implements KeyPressHandler {
+
+        static final int MIN_DELAY = 50;
+        static final int MAX_DELAY = 800;
+
+        // Gaps longer than this are pauses rather than typing
+        private static final int MAX_KEY_INTERVAL = 1000;
+
+        private final FormItem item;
+        private double lastKeyPress = -1;
+        private double keyInterval = -1;
+
+        AdaptiveFetchDelay(FormItem item) {
+            this.item = item;
+        }
+
+        public void onKeyPress(KeyPressEvent event) {
+            double now = System.currentTimeMillis();
+            if (lastKeyPress >= 0 && now - lastKeyPress <= MAX_KEY_INTERVAL) {
+                double interval = now - lastKeyPress;
+                keyInterval = keyInterval < 0 ? interval : 0.7 * keyInterval + 0.3 * interval;
+            }
+            lastKeyPress = now;
+            if (keyInterval < 0) return;
+
+            item.setAttribute("fetchDelay", getDelay(keyInterval, getLatency(item.getJsObj())));
+        }
+
+        static int getDelay(double keyInterval, int latency) {
+            double delay = 1.25 * keyInterval + (latency < 0 ? 0 : 0.25 * latency);
+            return (int) Math.round(Math.max(MIN_DELAY, Math.min(MAX_DELAY, delay)));
+        }
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.widgets.form.fields;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.data.DataSource;
+
+/**
+ * A least-recently-used cache of the results of pickList fetches, shared by the ComboBoxItems
+ * and SelectItems of an application, which answers repeated and narrowing searches without
+ * a server round trip.
+ * <P>
+ * Results are cached by option DataSource, fetch operation, textMatchStyle, sort and
+ * {@link com.smartgwt.client.data.Criteria#getEquivalenceKey normalized criteria}, which
+ * include the search text typed into a ComboBoxItem.  A fetch with the same criteria, such as typing
+ * "ab", then "abc", then deleting back to "ab", is answered from the cache.  Once a search has
+ * returned every matching row, a fetch with criteria which are at least as restrictive, such as
+ * a longer prefix, is answered by filtering the cached rows on the client, and the filtered
+ * result is cached in turn.  The first page of a result which was not complete answers fetches
+ * for rows within that page.
+ * <P>
+ * Entries expire after the {@link #setTimeToLive time to live}, the least recently used
+ * entries are dropped beyond {@link #setMaxEntries maxEntries} or {@link #setMaxRows maxRows},
+ * and all entries of a DataSource are dropped when an add, update or remove operation on it
+ * updates the caches of its components.
+ * <P>
+ * Cached results do not reflect changes made by other users, or changes which do not pass
+ * through the DataSource, until they expire, so the cache is off unless
+ * {@link #setEnabled enabled}.  Once enabled, it applies to items with
+ * {@link ComboBoxItem#setLatestFetchWins latestFetchWins}, and can still be turned off for an
+ * item with {@link ComboBoxItem#setCachePickListResults cachePickListResults:false}.
+ */
+public class PickListResultCache {
+
+    private static boolean enabled;
+    private static int maxEntries = 100;
+    private static int maxRows = 50000;
+    private static int timeToLive = 5 * 60 * 1000;
+    private static JavaScriptObject cache;
+
+    // The source of the time at which results are fetched and reused, replaced by tests
+    interface Clock {
+        double now();
+    }
+
+    static final Clock SYSTEM_CLOCK = new Clock() {
+        public double now() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    static Clock clock = SYSTEM_CLOCK;
+
+    private PickListResultCache() {
+    }
+
+    /**
+     * Whether pickList results are cached.  Enable this only where options may be shown up to
+     * the {@link #setTimeToLive time to live} out of date.  Disabling the cache drops all cached
+     * results.
+     *
+     * @param enabled true to cache pickList results. Default value is false
+     */
+    public static void setEnabled(boolean enabled) {
+        PickListResultCache.enabled = enabled;
+        if (!enabled) clear();
+    }
+
+    /**
+     * Whether pickList results are cached.
+     *
+     * @return true if the cache is enabled
+     * @see #setEnabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The maximum number of cached results.
+     *
+     * @param maxEntries maximum entries. Default value is 100
+     */
+    public static void setMaxEntries(int maxEntries) {
+        PickListResultCache.maxEntries = Math.max(0, maxEntries);
+        if (cache != null) evict(cache);
+    }
+
+    /**
+     * The maximum number of rows held by all cached results together.
+     *
+     * @param maxRows maximum rows. Default value is 50000
+     */
+    public static void setMaxRows(int maxRows) {
+        PickListResultCache.maxRows = Math.max(0, maxRows);
+        if (cache != null) evict(cache);
+    }
+
+    /**
+     * How long a result may be reused after it was fetched.
+     *
+     * @param timeToLive the time to live in milliseconds. Default value is 300000
+     */
+    public static void setTimeToLive(int timeToLive) {
+        PickListResultCache.timeToLive = Math.max(0, timeToLive);
+    }
+
+    /**
+     * Drop all cached results.
+     */
+    public static void clear() {
+        if (cache != null) invalidate(cache, null);
+    }
+
+    /**
+     * Drop the cached results of a DataSource.
+     *
+     * @param dataSource the option DataSource
+     */
+    public static void invalidate(DataSource dataSource) {
+        if (cache != null) invalidate(cache, dataSource.getID());
+    }
+
+    /**
+     * The number of cached results.
+     *
+     * @return entry count
+     */
+    public static int getEntryCount() {
+        return cache == null ? 0 : getCounter(cache, "entries");
+    }
+
+    /**
+     * The number of fetches answered from the cache.
+     *
+     * @return hit count
+     */
+    public static int getHitCount() {
+        return cache == null ? 0 : getCounter(cache, "hits");
+    }
+
+    /**
+     * The number of fetches which could not be answered from the cache.
+     *
+     * @return miss count
+     */
+    public static int getMissCount() {
+        return cache == null ? 0 : getCounter(cache, "misses");
+    }
+
+    // Called by the PickListFetchTracker for each pickList fetch, and with its response.  find()
+    // returns a response for the fetch, or null.
+
+    static JavaScriptObject find(JavaScriptObject dataSource, JavaScriptObject criteria, JavaScriptObject requestProperties) {
+        return find(getCache(), dataSource, criteria, requestProperties);
+    }
+
+    static void store(JavaScriptObject dataSource, JavaScriptObject criteria, JavaScriptObject requestProperties,
+                      JavaScriptObject dsResponse) {
+        store(getCache(), dataSource, criteria, requestProperties, dsResponse);
+    }
+
+    private static double now() {
+        return clock.now();
+    }
+
+    private static JavaScriptObject getCache() {
+        if (cache == null) cache = createCache();
+        return cache;
+    }
+
+    // The key of a fetch: the group of results it may be answered from, and its criteria
+    private static String getKey(String group, JavaScriptObject criteria) {
+        return group + "|" + new com.smartgwt.client.data.Criteria(criteria).getEquivalenceKey();
+    }
+
+    private static native JavaScriptObject createCache() /*-{
+        var cache = { entries: 0, hits: 0, misses: 0, rows: 0, tick: 0, byKey: {} };
+        // results are stale once an operation on the DataSource updates the caches
+        var proto = $wnd.isc.DataSource.getPrototype(),
+            updateCaches = proto.updateCaches;
+        proto.updateCaches = function () {
+            @com.smartgwt.client.widgets.form.fields.PickListResultCache::invalidate(Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;)(cache, this.ID);
+            return updateCaches.apply(this, arguments);
+        };
+        return cache;
+    }-*/;
+
+    private static native int getCounter(JavaScriptObject cache, String counter) /*-{
+        return cache[counter];
+    }-*/;
+
+    private static native void invalidate(JavaScriptObject cache, String dataSourceID) /*-{
+        for (var key in cache.byKey) {
+            var entry = cache.byKey[key];
+            if (dataSourceID == null || entry.dataSource == dataSourceID) {
+                @com.smartgwt.client.widgets.form.fields.PickListResultCache::remove(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(cache, entry);
+            }
+        }
+    }-*/;
+
+    private static native void remove(JavaScriptObject cache, JavaScriptObject entry) /*-{
+        if (cache.byKey[entry.key] !== entry) return;
+        delete cache.byKey[entry.key];
+        cache.entries--;
+        cache.rows -= entry.records.length;
+    }-*/;
+
+    // Drops the least recently used entries beyond the limits
+    private static native void evict(JavaScriptObject cache) /*-{
+        var maxEntries = @com.smartgwt.client.widgets.form.fields.PickListResultCache::maxEntries,
+            maxRows = @com.smartgwt.client.widgets.form.fields.PickListResultCache::maxRows;
+        while (cache.entries > 0 && (cache.entries > maxEntries || cache.rows > maxRows)) {
+            var oldest = null;
+            for (var key in cache.byKey) {
+                var entry = cache.byKey[key];
+                if (oldest == null || entry.tick < oldest.tick) oldest = entry;
+            }
+            @com.smartgwt.client.widgets.form.fields.PickListResultCache::remove(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(cache, oldest);
+        }
+    }-*/;
+
+    private static native String getGroup(JavaScriptObject dataSource, JavaScriptObject requestProperties) /*-{
+        var sortBy = requestProperties.sortBy;
+        return [dataSource.ID, requestProperties.operationId || "", requestProperties.textMatchStyle || "",
+                sortBy == null ? "" : String(sortBy)].join("|");
+    }-*/;
+
+    private static native void store(JavaScriptObject cache, JavaScriptObject dataSource, JavaScriptObject criteria,
+                                     JavaScriptObject requestProperties, JavaScriptObject dsResponse) /*-{
+        var records = dsResponse.data;
+        if (dsResponse.status < 0 || !$wnd.isc.isAn.Array(records) || (dsResponse.startRow || 0) != 0 ||
+            dsResponse.totalRows == null)
+        {
+            return;
+        }
+        var group = @com.smartgwt.client.widgets.form.fields.PickListResultCache::getGroup(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(dataSource, requestProperties);
+        // copies, since the pickList which receives the response marks the records it shows
+        var copies = [];
+        for (var i = 0; i < records.length; i++) {
+            copies[i] = $wnd.isc.isAn.Object(records[i]) ? $wnd.isc.addProperties({}, records[i]) : records[i];
+        }
+        @com.smartgwt.client.widgets.form.fields.PickListResultCache::add(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;I)(
+            cache, dataSource, group, criteria || {}, copies, dsResponse.totalRows);
+    }-*/;
+
+    private static native void add(JavaScriptObject cache, JavaScriptObject dataSource, String group,
+                                   JavaScriptObject criteria, JavaScriptObject records, int totalRows) /*-{
+        var key = @com.smartgwt.client.widgets.form.fields.PickListResultCache::getKey(Ljava/lang/String;Lcom/google/gwt/core/client/JavaScriptObject;)(group, criteria),
+            existing = cache.byKey[key];
+        if (existing != null) {
+            @com.smartgwt.client.widgets.form.fields.PickListResultCache::remove(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(cache, existing);
+        }
+        cache.byKey[key] = {
+            key: key, group: group, dataSource: dataSource.ID, criteria: criteria, records: records,
+            totalRows: totalRows, complete: totalRows <= records.length,
+            created: @com.smartgwt.client.widgets.form.fields.PickListResultCache::now()(), tick: ++cache.tick
+        };
+        cache.entries++;
+        cache.rows += records.length;
+        @com.smartgwt.client.widgets.form.fields.PickListResultCache::evict(Lcom/google/gwt/core/client/JavaScriptObject;)(cache);
+    }-*/;
+
+    private static native JavaScriptObject find(JavaScriptObject cache, JavaScriptObject dataSource,
+                                                JavaScriptObject criteria, JavaScriptObject requestProperties) /*-{
+        var isc = $wnd.isc,
+            now = @com.smartgwt.client.widgets.form.fields.PickListResultCache::now()(),
+            timeToLive = @com.smartgwt.client.widgets.form.fields.PickListResultCache::timeToLive,
+            group = @com.smartgwt.client.widgets.form.fields.PickListResultCache::getGroup(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(dataSource, requestProperties),
+            key = @com.smartgwt.client.widgets.form.fields.PickListResultCache::getKey(Ljava/lang/String;Lcom/google/gwt/core/client/JavaScriptObject;)(group, criteria || {}),
+            startRow = requestProperties.startRow || 0,
+            endRow = requestProperties.endRow;
+
+        var isFresh = function (entry) {
+            if (now - entry.created <= timeToLive) return true;
+            @com.smartgwt.client.widgets.form.fields.PickListResultCache::remove(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(cache, entry);
+            return false;
+        };
+        var respond = function (entry) {
+            entry.tick = ++cache.tick;
+            cache.hits++;
+            var end = endRow == null ? entry.records.length : Math.min(endRow, entry.records.length),
+                records = new $wnd.Array();
+            // each pickList receives its own copies, since components mark the records they show
+            for (var i = startRow; i < end; i++) records.push(isc.addProperties({}, entry.records[i]));
+            return {
+                status: 0, operationType: "fetch", data: records, startRow: startRow,
+                endRow: startRow + records.length, totalRows: entry.totalRows,
+                clientContext: requestProperties.clientContext
+            };
+        };
+
+        // the same criteria, for rows which were fetched
+        var exact = cache.byKey[key];
+        if (exact != null && isFresh(exact) &&
+            (exact.complete || (endRow != null && endRow <= exact.records.length)))
+        {
+            return respond(exact);
+        }
+        // a complete result for criteria which are less restrictive
+        for (var otherKey in cache.byKey) {
+            var entry = cache.byKey[otherKey];
+            if (entry.group != group || !entry.complete || !isFresh(entry)) continue;
+            if (dataSource.compareCriteria(criteria || {}, entry.criteria, requestProperties) != 1) continue;
+            var matches = dataSource.applyFilter(entry.records, criteria, requestProperties);
+            entry.tick = ++cache.tick;
+            @com.smartgwt.client.widgets.form.fields.PickListResultCache::add(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;Ljava/lang/String;Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;I)(
+                cache, dataSource, group, criteria || {}, matches, matches.length);
+            var added = cache.byKey[key];
+            if (added != null) return respond(added);
+            break;
+        }
+        cache.misses++;
+        return null;
+    }-*/;
+}
@@ -897,6 +897,7 @@ public class SelectItem extends FormItem  implements PickList, com.smartgwt.clie
         if ($wnd.isc.SelectItem.getPrototype().__getPickListFilterCriteria == null) {
             $wnd.isc.SelectItem.getPrototype().__getPickListFilterCriteria = $wnd.isc.SelectItem.getPrototype().getPickListFilterCriteria;
             $wnd.isc.SelectItem.getPrototype().getPickListFilterCriteria = $entry(function() {
+                @com.smartgwt.client.widgets.form.fields.PickListFetchTracker::track(Lcom/google/gwt/core/client/JavaScriptObject;)(this);
                 var jObj = this.__ref;
                 //if widget was not created in java via smartgwt, fallback to old behavior
                 if(jObj && @com.smartgwt.client.widgets.form.fields.SelectItem::isSelectItem(Lcom/smartgwt/client/widgets/form/fields/FormItem;)(jObj)) {
@@ -1347,6 +1348,42 @@ public class SelectItem extends FormItem  implements PickList, com.smartgwt.clie
         return getAttributeAsInt("fetchDelay");
     }
 
+    /**
+     * For a databound pickList, whether only the latest fetch is processed.  When the criteria change while fetches are
+     * pending, for example as the user types, the pending fetches are superseded: each is cancelled if it was sent in a
+     * transaction of its own, and otherwise its response is dropped before it is processed.  A fetch is sent in a
+     * transaction of its own unless a queue is open or {@link com.smartgwt.client.rpc.RPCManager#setAutoBatch automatic
+     * batching} is enabled.  Only the fetches of the pickList itself are tracked, not fetches for display values.  If the
+     * {@link PickListResultCache} is enabled, fetches are also answered from it where possible, including fetches with
+     * criteria that are at least as restrictive as a complete cached result, such as a longer typed-in prefix.
+     *
+     * @param latestFetchWins latestFetchWins Default value is false
+     */
+    public void setLatestFetchWins(Boolean latestFetchWins) {
+        setAttribute("latestFetchWins", latestFetchWins);
+    }
+
+    /**
+     * For a databound pickList, whether only the latest fetch is processed.
+     *
+     * @return Boolean
+     * @see #setLatestFetchWins
+     */
+    public Boolean getLatestFetchWins() {
+        Boolean latestFetchWins = getAttributeAsBoolean("latestFetchWins");
+        return latestFetchWins == null ? Boolean.FALSE : latestFetchWins;
+    }
+
+    /**
+     * The number of pickList fetches which were superseded by a later fetch before their response was processed.
+     *
+     * @return superseded fetch count
+     * @see #setLatestFetchWins
+     */
+    public int getSupersededFetchCount() {
+        return PickListFetchTracker.getSupersededFetchCount(getJsObj());
+    }
+
     // ********************* Methods ***********************
     
     /**
@@ -1528,6 +1565,7 @@ public class SelectItem extends FormItem  implements PickList, com.smartgwt.clie
     public native void setPickListFilterCriteriaFunction(FilterCriteriaFunction filterCriteriaFunction) /*-{
         var self = this.@com.smartgwt.client.core.DataClass::getJsObj()();
         self.getPickListFilterCriteria = $entry(function() {
+            @com.smartgwt.client.widgets.form.fields.PickListFetchTracker::track(Lcom/google/gwt/core/client/JavaScriptObject;)(this);
             var crit = filterCriteriaFunction.@com.smartgwt.client.widgets.form.fields.FilterCriteriaFunction::getCriteria()();
             return crit == null ? null : crit.@com.smartgwt.client.data.Criteria::getJsObj()();
         });
@@ -1546,6 +1584,7 @@ public class SelectItem extends FormItem  implements PickList, com.smartgwt.clie
     public native void setPickListFilterCriteriaFunction(FormItemCriteriaFunction filterCriteriaFunction) /*-{
         var self = this.@com.smartgwt.client.core.DataClass::getJsObj()();
         self.getPickListFilterCriteria = $entry(function() {
+            @com.smartgwt.client.widgets.form.fields.PickListFetchTracker::track(Lcom/google/gwt/core/client/JavaScriptObject;)(this);
             var context = @com.smartgwt.client.widgets.form.fields.FormItemFunctionContext::new()();
             var itemJ = @com.smartgwt.client.widgets.form.fields.SelectItem::getOrCreateRef(Lcom/google/gwt/core/client/JavaScriptObject;)(this);
             context.@com.smartgwt.client.widgets.form.fields.FormItemFunctionContext::setFormItem(Lcom/smartgwt/client/widgets/form/fields/FormItem;)(itemJ);
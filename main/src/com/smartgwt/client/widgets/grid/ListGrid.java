@@ -11435,6 +11435,55 @@ public class ListGrid extends Canvas  implements DataBoundComponent, com.smartgw
         }
     }
 
+    /**
+     * Returns a cursor over the same records as {@link #getRecords()}, which uses a single
+     * reusable ListGridRecord for rows that have no wrapper object of their own instead of
+     * creating one per row.  This is much cheaper for large grids when each record is only
+     * read once; see {@link com.smartgwt.client.data.RecordCursor} for the restrictions on
+     * the records it returns.
+     *
+     * @return a cursor positioned before the first record
+     */
+    public RecordCursor<ListGridRecord> getRecordCursor() {
+        return createListGridRecordCursor(getAttributeAsJavaScriptObject(isGrouped() ? "originalData" : "data"));
+    }
+
+    /**
+     * Returns the same records as {@link #getRecords()} as a List which only creates
+     * ListGridRecord objects for the rows actually accessed.  See
+     * {@link com.smartgwt.client.data.RecordArrayView}.
+     *
+     * @return a lazy view of the records
+     */
+    public RecordArrayView<ListGridRecord> getRecordsView() {
+        return getRecordCursor().createView();
+    }
+
+    /**
+     * Returns the current set of records displayed in this grid as a List of Maps.  If the grid
+     * has a {@link #getDataSource DataSource}, values are converted using its declared field
+     * types (see {@link com.smartgwt.client.data.RecordConverter}), which is much cheaper than
+     * calling {@link com.smartgwt.client.data.Record#toMap()} on each result of
+     * {@link #getRecords()}.  The same restrictions as for <code>getRecords()</code> apply to
+     * DataBound grids.
+     *
+     * @return the records as Maps
+     */
+    public List<Map<String, Object>> getRecordsAsMaps() {
+        JavaScriptObject dataJS = isGrouped() ? getAttributeAsJavaScriptObject("originalData")
+                                              : getAttributeAsJavaScriptObject("data");
+        List<Map<String, Object>> maps = new java.util.ArrayList<Map<String, Object>>();
+        if (dataJS == null) return maps;
+        DataSource dataSource = getDataSource();
+        if (dataSource != null && JSOHelper.isArray(dataJS)) {
+            return dataSource.getRecordConverter().toMaps(dataJS);
+        }
+        for (ListGridRecord record : convertToListGridRecordArray(dataJS)) {
+            maps.add(dataSource == null ? record.toMap() : record.toMap(dataSource));
+        }
+        return maps;
+    }
+
     /**
      * Return true if the ListGrid is grouped on a field.
      *
@@ -12038,10 +12087,10 @@ public class ListGrid extends Canvas  implements DataBoundComponent, com.smartgw
         if (nativeArray == null) {
             return new ListGridRecord[]{};
         }
-        JavaScriptObject[] componentsj = JSOHelper.toArray(nativeArray);
-        ListGridRecord[] objects = new ListGridRecord[componentsj.length];
-        for (int i = 0; i < componentsj.length; i++) {
-            JavaScriptObject componentJS = componentsj[i];
+        int length = JSOHelper.getArrayLength(nativeArray);
+        ListGridRecord[] objects = new ListGridRecord[length];
+        for (int i = 0; i < length; i++) {
+            JavaScriptObject componentJS = JSOHelper.getValueFromJavaScriptObjectArray(nativeArray, i);
             ListGridRecord obj = (ListGridRecord) RefDataClass.getRef(componentJS);
             if (obj == null) obj = new ListGridRecord(componentJS);
             objects[i] = obj;
@@ -12049,6 +12098,15 @@ public class ListGrid extends Canvas  implements DataBoundComponent, com.smartgw
         return objects;
     }
 
+    private static RecordCursor<ListGridRecord> createListGridRecordCursor(JavaScriptObject nativeArray) {
+        return new RecordCursor<ListGridRecord>(nativeArray, new ListGridRecord()) {
+            @Override
+            protected ListGridRecord createRecord(JavaScriptObject jsObj) {
+                return new ListGridRecord(jsObj);
+            }
+        };
+    }
+
     /**
      * Get the complete array of fields for this ListGrid, including fields that are not currently visible or were specified
      * implicitly via {@link com.smartgwt.client.widgets.grid.ListGrid#getDataSource dataSource}. <P> This list of fields is
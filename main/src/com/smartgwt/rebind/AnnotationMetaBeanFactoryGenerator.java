@@ -16,8 +16,9 @@
 
 package com.smartgwt.rebind;
 
-import com.google.gwt.core.ext.Generator;
 import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.IncrementalGenerator;
+import com.google.gwt.core.ext.RebindResult;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
 import com.google.gwt.core.ext.typeinfo.*;
@@ -34,9 +35,14 @@ import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
 
-public class AnnotationMetaBeanFactoryGenerator extends Generator {
+public class AnnotationMetaBeanFactoryGenerator extends IncrementalGenerator {
     @Override
-    public String generate (TreeLogger logger, GeneratorContext context, String typeName) throws UnableToCompleteException {
+    public long getVersionId () {
+        return RebindCache.VERSION_ID;
+    }
+
+    @Override
+    public RebindResult generateIncrementally (TreeLogger logger, GeneratorContext context, String typeName) throws UnableToCompleteException {
         TypeOracle oracle = context.getTypeOracle();
 
         final String genPackageName = "com.smartgwt.client.bean";
@@ -45,7 +51,48 @@ public class AnnotationMetaBeanFactoryGenerator extends Generator {
         ClassSourceFileComposerFactory composer = new ClassSourceFileComposerFactory(genPackageName, genClassName);
         composer.addImplementedInterface(BeanFactory.AnnotationMetaFactory.class.getCanonicalName());
 
-        PrintWriter printWriter = context.tryCreate(logger, genPackageName, genClassName);
+        FactoryRegistrationWriter registration = new FactoryRegistrationWriter(logger, context);
+        registration.configureComposer(composer);
+
+        RebindCache cache = new RebindCache(context);
+
+        Set<JClassType> typesGenerated = new HashSet<JClassType>();
+
+        // Collect the types ... we generate (or reuse) the factories before
+        // writing anything, since that has to be done even if this class
+        // itself is reused from the cache.
+        for (JClassType classType : oracle.getTypes()) {
+            BeanFactory.Generate annotation = classType.getAnnotation(BeanFactory.Generate.class);
+
+            if (annotation != null) {
+                TreeLogger annotationLogger = logger.branch(TreeLogger.DEBUG, "Processing @BeanFactory.Generate annotation on " + classType.getQualifiedSourceName());
+                
+                Class[] value = annotation.value();
+                if (value.length == 0) {
+                    // No value supplied, so we use the class the annotation was applied to
+                    if (!typesGenerated.contains(classType)) {
+                        typesGenerated.add(classType);
+                        generateFactory(classType, annotationLogger, context, registration, cache);
+                    }
+                } else {
+                    // Some values were supplied, so we use them, and not the class itself
+                    for (Class klass : value) {
+                        JClassType klassValue = oracle.findType(klass.getCanonicalName());
+                        if (klassValue == null) {
+                            annotationLogger.log(TreeLogger.ERROR, "Could not find " + klass.getName() + " in source classpath.");
+                            throw new UnableToCompleteException();
+                        } else {
+                            if (!typesGenerated.contains(klassValue)) {
+                                typesGenerated.add(klassValue);
+                                generateFactory(klassValue, annotationLogger, context, registration, cache);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        PrintWriter printWriter = cache.tryCreate(logger, genPackageName, genClassName, registration.fingerprint(cache));
         if (printWriter != null) {
             SourceWriter sourceWriter = composer.createSourceWriter(context, printWriter);
             sourceWriter.println("// This class lovingly generated by " + this.getClass().getCanonicalName() + "\n");
@@ -54,53 +101,22 @@ public class AnnotationMetaBeanFactoryGenerator extends Generator {
             sourceWriter.println(genClassName + " () {");
             sourceWriter.indent();
 
-            Set<JClassType> typesGenerated = new HashSet<JClassType>();
-
-            // Collect the types ...
-            for (JClassType classType : oracle.getTypes()) {
-                BeanFactory.Generate annotation = classType.getAnnotation(BeanFactory.Generate.class);
-
-                if (annotation != null) {
-                    TreeLogger annotationLogger = logger.branch(TreeLogger.DEBUG, "Processing @BeanFactory.Generate annotation on " + classType.getQualifiedSourceName());
-                    
-                    Class[] value = annotation.value();
-                    if (value.length == 0) {
-                        // No value supplied, so we use the class the annotation was applied to
-                        if (!typesGenerated.contains(classType)) {
-                            typesGenerated.add(classType);
-                            generateFactory(classType, annotationLogger, context, sourceWriter);
-                        }
-                    } else {
-                        // Some values were supplied, so we use them, and not the class itself
-                        for (Class klass : value) {
-                            JClassType klassValue = oracle.findType(klass.getCanonicalName());
-                            if (klassValue == null) {
-                                annotationLogger.log(TreeLogger.ERROR, "Could not find " + klass.getName() + " in source classpath.");
-                                throw new UnableToCompleteException();
-                            } else {
-                                if (!typesGenerated.contains(klassValue)) {
-                                    typesGenerated.add(klassValue);
-                                    generateFactory(klassValue, annotationLogger, context, sourceWriter);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+            // Register the factories in the BeanFactory static API
+            registration.writeRegistration(sourceWriter);
 
             sourceWriter.outdent();
             sourceWriter.println("}");
+
+            registration.writeLoadFactory(sourceWriter);
             sourceWriter.commit(logger);
         }
 
-        return composer.getCreatedClassName();
+        return cache.getResult(logger, composer.getCreatedClassName());
     }
 
-    public void generateFactory (JClassType classType, TreeLogger logger, GeneratorContext context, SourceWriter sourceWriter) throws UnableToCompleteException {
+    public void generateFactory (JClassType classType, TreeLogger logger, GeneratorContext context, FactoryRegistrationWriter registration, RebindCache cache) throws UnableToCompleteException {
         BeanClass beanClass = new BeanClass(classType);
-        beanClass.generateFactory(logger, context);
-
-        // We have to instantiate the factory to register it in the BeanFactory static API
-        sourceWriter.println(beanClass.getQualifiedFactoryName() + ".create(false);");
+        beanClass.generateFactory(logger, context, cache);
+        registration.addBeanClass(beanClass);
     }
 }
@@ -16,6 +16,8 @@
 
 package com.smartgwt.rebind;
 
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.core.ext.ConfigurationProperty;
 import com.google.gwt.core.ext.Generator;
 import com.google.gwt.core.ext.GeneratorContext;
 import com.google.gwt.core.ext.TreeLogger;
@@ -43,9 +45,11 @@ import java.util.Set;
 import java.util.List;
 import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.HashMap;
 import java.util.TreeMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Iterator;
 import java.util.Map.Entry;
@@ -65,6 +69,14 @@ public class BeanClass {
     private JClassType factoryClass;
     private SourceWriter source;
     private boolean hasStaticInitMethod;
+    private boolean compactMetadata;
+
+    public static final String METADATA_PROPERTY = "smartgwt.beanFactoryMetadata";
+    private static final String DEFAULT_METADATA = "default";
+    private static final String COMPACT_METADATA = "compact";
+
+    // How many numbers to write per line in the compact property table
+    private static final int TABLE_LINE_LENGTH = 24;
 
     private Map<String, BeanProperty> properties;
     
@@ -231,7 +243,7 @@ public class BeanClass {
         return methods.indexOf(method);
     }
 
-    public String generateFactory (TreeLogger logger, GeneratorContext context) throws UnableToCompleteException {
+    public String generateFactory (TreeLogger logger, GeneratorContext context, RebindCache cache) throws UnableToCompleteException {
         // Must extend BaseWidget or DataCLass
         if (factoryClass == null) {
             logger.log(TreeLogger.ERROR, 
@@ -253,6 +265,13 @@ public class BeanClass {
             throw new UnableToCompleteException();
         }
 
+        String metadata = getConfigurationProperty(context, METADATA_PROPERTY, DEFAULT_METADATA);
+        if (!DEFAULT_METADATA.equals(metadata) && !COMPACT_METADATA.equals(metadata)) {
+            logger.log(TreeLogger.WARN, "Unknown value '" + metadata + "' for " + METADATA_PROPERTY +
+                       ", using '" + DEFAULT_METADATA + "'");
+        }
+        compactMetadata = COMPACT_METADATA.equals(metadata);
+
         final String packageName = beanClassType.getPackage().getName();
         final String factoryName = getSimpleFactoryName();
         ClassSourceFileComposerFactory composer = new ClassSourceFileComposerFactory(packageName, factoryName);
@@ -271,6 +290,7 @@ public class BeanClass {
         composer.addImport(com.smartgwt.client.bean.BeanPropertyMultiple.class.getCanonicalName());
         composer.addImport(com.smartgwt.client.bean.BeanProperty.class.getCanonicalName());
         composer.addImport(com.smartgwt.client.bean.BeanMethod.class.getCanonicalName());
+        composer.addImport(com.smartgwt.client.bean.BeanValueType.class.getCanonicalName());
 
         // Import our beanClass ... makes the generated code prettier ...
         composer.addImport(getQualifiedBeanClassName());
@@ -279,8 +299,24 @@ public class BeanClass {
         // superclass, rather than it being our superclass.
         composer.setSuperclass(factoryClass.getSimpleSourceName() +  "<" + beanClassType.getSimpleSourceName() + ">");
 
-        PrintWriter printWriter = context.tryCreate(logger, packageName, factoryName);
-        if (printWriter != null) {        
+        // Our generated code depends on our own declarations and those of our
+        // superclasses, on our value types, and on the metadata mode.
+        List<JType> inputTypes = new ArrayList<JType>();
+        inputTypes.add(beanClassType);
+        for (BeanMethod method : methods) {
+            if (!inputTypes.contains(method.getValueType())) inputTypes.add(method.getValueType());
+        }
+        String fingerprint = cache.fingerprint(inputTypes.toArray(new JType[inputTypes.size()]), metadata);
+
+        PrintWriter printWriter = cache.tryCreate(logger, packageName, factoryName, fingerprint);
+        if (printWriter == null) {
+            // Either we were already generated in this run, or we are being
+            // reused from the cache. In the latter case, the value type
+            // factories we would have generated must be reused as well.
+            for (BeanValueType valueType : getValueTypes()) {
+                valueType.generateFactories(logger, context, cache);
+            }
+        } else {
             source = composer.createSourceWriter(context, printWriter);
              
             source.println("// This class lovingly generated by com.smartgwt.rebind.BeanFactoryGenerator");
@@ -313,25 +349,49 @@ public class BeanClass {
 
             writeMetadata();
 
-            writeRegisterValueTypes(logger, context);
+            writeRegisterValueTypes(logger, context, cache);
             writeBlankLine();
 
-            writeGetPropertiesAndGetMethods();
+            if (compactMetadata) {
+                // The compact mode is about code size, so we don't generate
+                // dispatchSetProperty, which would call each setter again.
+                writeCompactGetPropertiesAndGetMethods();
+            } else {
+                writeGetPropertiesAndGetMethods();
+                writeBlankLine();
 
-            source.commit(logger);
-            
-            // Note that this won't do much if the factory has already been
-            // generated, which will quite often be the case. Also, note that
-            // we only need to generate our immediate superclass, since it will
-            // in turn generate its superclass.
-            if (superclass != null) {
-                superclass.generateFactory(logger, context);
+                writeDispatchSetProperty();
             }
+
+            source.commit(logger);
+        }
+
+        // Note that this won't do much if the factory has already been
+        // generated, which will quite often be the case. Also, note that
+        // we only need to generate our immediate superclass, since it will
+        // in turn generate its superclass. We do this even if we were reused
+        // from the cache, since then our superclass factory must be reused too.
+        if (superclass != null) {
+            superclass.generateFactory(logger, context, cache);
         }
 
         return composer.getCreatedClassName();
     }
     
+    // Returns the first value of a configuration property, or the defaultValue
+    // if the property is not defined (as when the module does not inherit our
+    // standard modules).
+    public static String getConfigurationProperty (GeneratorContext context, String name, String defaultValue) {
+        try {
+            ConfigurationProperty property = context.getPropertyOracle().getConfigurationProperty(name);
+            List<String> values = property.getValues();
+            if (values.size() > 0 && values.get(0) != null) return values.get(0).trim();
+        } catch (BadPropertyValueException e) {
+            // Fall through to the default
+        }
+        return defaultValue;
+    }
+
     public String getSimpleBeanClassName () {
         return beanClassType.getSimpleSourceName();
     }
@@ -340,6 +400,11 @@ public class BeanClass {
         return beanClassType.getParameterizedQualifiedSourceName(); 
     }
 
+    // Unlike getQualifiedBeanClassName(), this never includes type parameters
+    public String getBeanClassLiteral () {
+        return beanClassType.getQualifiedSourceName() + ".class";
+    }
+
     public String getSimpleFactoryName () { 
         StringBuilder builder = new StringBuilder();
         JClassType iterator = beanClassType;
@@ -460,6 +525,155 @@ public class BeanClass {
         source.println("}-*/;");
     }
 
+    // Writes getProperties and getMethods for the "compact" metadata mode.
+    // Instead of a constructor call for each property and a JSNI function for
+    // each method, we write a table describing the properties and a single
+    // JSNI function which calls a method given its index, and let
+    // BeanFactory build the same objects from them at run-time.
+    private void writeCompactGetPropertiesAndGetMethods () {
+        String beanClassName = getSimpleBeanClassName();
+
+        StringBuilder names = new StringBuilder();
+        List<Integer> table = new ArrayList<Integer>();
+        Map<JType, Integer> valueTypeIndexes = new LinkedHashMap<JType, Integer>();
+        for (BeanProperty property : properties.values()) {
+            if (!property.hasMethods()) continue;
+            if (names.length() > 0) names.append(",");
+            names.append(property.getName());
+            property.appendTableEntry(table, valueTypeIndexes);
+        }
+
+        // The value types are in the order in which their indexes were assigned
+        List<String> classLiterals = new ArrayList<String>();
+        for (JType valueType : valueTypeIndexes.keySet()) {
+            for (BeanMethod method : methods) {
+                if (method.getValueType() == valueType) {
+                    classLiterals.add(method.getClassLiteral());
+                    break;
+                }
+            }
+        }
+
+        source.println("@Override protected BeanProperty<" + beanClassName + ">[] getProperties (JsArray<JavaScriptObject> methods) {");
+        source.indent();
+        source.println("return createProperties(\"" + names + "\",");
+        source.indent();
+
+        source.println("new Class<?>[] {");
+        source.indent();
+        for (int i = 0; i < classLiterals.size(); i++) {
+            source.println(classLiterals.get(i) + (i < classLiterals.size() - 1 ? "," : ""));
+        }
+        source.outdent();
+        source.println("},");
+
+        source.println("new int[] {");
+        source.indent();
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < table.size(); i++) {
+            line.append(table.get(i));
+            if (i < table.size() - 1) line.append(",");
+            if ((i + 1) % TABLE_LINE_LENGTH == 0 || i == table.size() - 1) {
+                source.println(line.toString());
+                line.setLength(0);
+            }
+        }
+        source.outdent();
+        source.println("},");
+
+        source.println("methods");
+        source.outdent();
+        source.println(");");
+        source.outdent();
+        source.println("}");
+
+        writeBlankLine();
+
+        source.println("// Any native longs are safe because we're not actually manipulating them in Javascript");
+        source.println("// We will reference some deprecated methods ... we could exclude them if desired");
+        source.println("@Override @UnsafeNativeLong @SuppressWarnings(\"deprecation\")");
+        source.println("protected native JsArray<JavaScriptObject> getMethods () /*-{");
+        source.indent();
+        source.println("var dispatcher = function (i, b, v) {");
+        source.indent();
+        source.println("switch (i) {");
+
+        int index = 0;
+        for (BeanMethod method : methods) {
+            method.writeJSNICase(source, index++);
+        }
+
+        source.println("}");
+        source.outdent();
+        source.println("};");
+        source.println("return @com.smartgwt.client.bean.BeanFactory::bindMethods(Lcom/google/gwt/core/client/JavaScriptObject;I)(dispatcher, " + methods.size() + ");");
+        source.outdent();
+        source.println("}-*/;");
+    }
+
+    // Writes a switch on the hash code of the property name, which calls
+    // single setters directly instead of going through the BeanProperty
+    // objects. This is the same thing the Java compiler does for a switch on a
+    // String, which we can't use with our source level. Property names which
+    // share a hash code end up in the same case, and are checked in turn.
+    private void writeDispatchSetProperty () {
+        TreeMap<Integer, List<BeanProperty>> propertiesByHash = new TreeMap<Integer, List<BeanProperty>>();
+        for (BeanProperty property : properties.values()) {
+            if (!property.hasMethods()) continue;
+            Integer hash = property.getName().hashCode();
+            List<BeanProperty> bucket = propertiesByHash.get(hash);
+            if (bucket == null) {
+                bucket = new LinkedList<BeanProperty>();
+                propertiesByHash.put(hash, bucket);
+            }
+            bucket.add(property);
+        }
+
+        final String beanClassName = getSimpleBeanClassName();
+
+        source.println("// We will reference some deprecated methods ... we could exclude them if desired");
+        source.println("@Override @SuppressWarnings({\"deprecation\", \"unchecked\"})");
+        source.println("protected int dispatchSetProperty (Object bean, String propertyName, Object value) {");
+        source.indent();
+        source.println("try {");
+        source.indent();
+        source.println("switch (propertyName.hashCode()) {");
+        source.indent();
+
+        for (Map.Entry<Integer, List<BeanProperty>> entry : propertiesByHash.entrySet()) {
+            source.println("case " + entry.getKey() + ":");
+            source.indent();
+            for (BeanProperty property : entry.getValue()) {
+                source.println("if (propertyName.equals(\"" + property.getName() + "\")) {");
+                source.indent();
+                BeanMethod setter = property.directSetter();
+                if (setter == null) {
+                    source.println("return PROPERTY_NOT_DISPATCHED;");
+                } else {
+                    setter.writeDirectSetterCall(source, beanClassName);
+                    source.println("return PROPERTY_SET;");
+                }
+                source.outdent();
+                source.println("}");
+            }
+            source.println("break;");
+            source.outdent();
+        }
+
+        source.outdent();
+        source.println("}");
+        source.outdent();
+        source.println("}");
+        source.println("catch (IllegalArgumentException e) {");
+        source.indent();
+        source.println("throw setPropertyException(bean, propertyName, value, e);");
+        source.outdent();
+        source.println("}");
+        source.println("return PROPERTY_NOT_FOUND;");
+        source.outdent();
+        source.println("}");
+    }
+
     public Collection<BeanValueType> getValueTypes () {
         HashMap<JType, BeanValueType> result = new HashMap<JType, BeanValueType>();
         for (BeanMethod method : methods) {
@@ -471,12 +685,12 @@ public class BeanClass {
         return result.values();
     }
 
-    private void writeRegisterValueTypes (TreeLogger logger, GeneratorContext context) {
+    private void writeRegisterValueTypes (TreeLogger logger, GeneratorContext context, RebindCache cache) {
         source.println("@Override protected void registerValueTypes () {");
         source.indent();
         for (BeanValueType valueType : getValueTypes()) {
             // Create the types ... the constructor won't register more than one
-            valueType.writeRegisterValueType(source, logger, context);
+            valueType.writeRegisterValueType(source, logger, context, cache);
         }
         source.outdent();
         source.println("}");
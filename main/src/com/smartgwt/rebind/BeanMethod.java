@@ -218,6 +218,27 @@ public class BeanMethod {
         }
     }
 
+    public String getClassLiteral () {
+        return classLiteral;
+    }
+
+    // Writes the case for this method in the dispatch function which compact
+    // factories generate instead of a JSNI function per method.
+    public void writeJSNICase (SourceWriter source, int index) {
+        if (isGetter()) {
+            source.println("case " + index + ": return " + box(jsniGetter()) + ";");
+        } else {
+            source.println(
+                "case " + index + ": b.@" +
+                method.getEnclosingType().getQualifiedSourceName() +
+                "::" +
+                method.getName() +
+                "(" + valueType.getJNISignature() + ")" +
+                "(v" + deboxer + "); return;"
+            );
+        }
+    }
+
     public void writeJSNIFunction (SourceWriter source, boolean addComma) {
         if (isGetter()) {
             source.println("function (b) {return " + box(jsniGetter()) + "}" + (addComma ? "," : ""));
@@ -234,6 +255,64 @@ public class BeanMethod {
         }
     }
 
+    // Whether the generated dispatchSetProperty can call this setter directly.
+    // Type parameters have no class literal, so they go through the
+    // BeanProperty instead (as do primitives we have no boxed type for).
+    public boolean canCallSetterDirectly () {
+        return isSetter() && genericType != null && valueType.isTypeParameter() == null;
+    }
+
+    // Writes a statement which converts "value" and calls the setter on "bean".
+    // For primitive setters we unbox explicitly, so that the call resolves to
+    // exactly this method even if there is an overload taking the boxed type.
+    public void writeDirectSetterCall (SourceWriter source, String beanClassName) {
+        source.println(
+            "((" + beanClassName + ") bean)." + method.getName() + "(" + conversionExpression("value") + ");"
+        );
+    }
+
+    // Returns an expression which converts the named Object variable to the
+    // setter's parameter type. The usual cases (a Number for a numeric type,
+    // a Boolean for a boolean, a String for a String) are converted inline, so
+    // that the generated setter does not have to look up the BeanValueType at
+    // run-time. Anything else falls back to BeanValueType.convertFrom(), which
+    // implements the same conversions for these cases.
+    String conversionExpression (String variable) {
+        String genericName = genericType.getQualifiedSourceName();
+        String generic = "(" + genericName + ") BeanValueType.convertFrom(" + classLiteral + ", " + variable + ")";
+        String numberMethod = numberValueMethod(genericName);
+
+        if (isPrimitive()) {
+            String unboxMethod = valueType.isPrimitive().getQualifiedSourceName() + "Value()";
+            String fallback = "(" + generic + ")." + unboxMethod;
+            if (numberMethod != null) {
+                return variable + " instanceof Number ? ((Number) " + variable + ")." + numberMethod + " : " + fallback;
+            } else {
+                return variable + " instanceof " + genericName + " ? ((" + genericName + ") " + variable + ")." +
+                       unboxMethod + " : " + fallback;
+            }
+        } else if (numberMethod != null) {
+            // Box explicitly, since a conditional mixing a primitive and a
+            // boxed operand would unbox a null result of the fallback
+            return variable + " instanceof Number ? " + genericName + ".valueOf(((Number) " + variable + ")." +
+                   numberMethod + ") : " + generic;
+        } else if (genericName.equals(Boolean.class.getName()) || genericName.equals(String.class.getName())) {
+            return variable + " instanceof " + genericName + " ? (" + genericName + ") " + variable + " : " + generic;
+        } else {
+            return generic;
+        }
+    }
+
+    // The Number method which converts to the boxed type, as the BeanValueType
+    // for the type does, or null if the type is not one of the numeric types
+    private static String numberValueMethod (String boxedName) {
+        if (boxedName.equals(Integer.class.getName())) return "intValue()";
+        if (boxedName.equals(Long.class.getName())) return "longValue()";
+        if (boxedName.equals(Float.class.getName())) return "floatValue()";
+        if (boxedName.equals(Double.class.getName())) return "doubleValue()";
+        return null;
+    }
+
     public void writeNew (SourceWriter source, String beanClassName, Integer getterMethodNumber, Integer setterMethodNumber, boolean addComma) {
         // This should look like this:
         // new BeanMethod<Canvas, Integer>(Integer.class, 27, 35),  
@@ -187,6 +187,40 @@ public class BeanProperty {
         }
     }
 
+    // Whether the property will be present in the generated properties array
+    public boolean hasMethods () {
+        return getters.size() > 0 || setters.size() > 0;
+    }
+
+    // Returns the setter which the generated dispatchSetProperty can call
+    // directly, or null if the property has no setter, or if the BeanProperty
+    // has to choose amongst overloaded setters at run-time.
+    public BeanMethod directSetter () {
+        if (setters.size() != 1) return null;
+        BeanMethod setter = setters.get(0);
+        return setter.canCallSetterDirectly() ? setter : null;
+    }
+
+    // Appends the entry for this property to the table which compact
+    // factories generate instead of constructors. See
+    // com.smartgwt.client.bean.BeanFactory#createProperties for the layout.
+    public void appendTableEntry (List<Integer> table, Map<JType, Integer> valueTypeIndexes) {
+        table.add(getters.size());
+        table.add(setters.size());
+        for (BeanMethod getter : getters) appendMethod(table, valueTypeIndexes, getter);
+        for (BeanMethod setter : setters) appendMethod(table, valueTypeIndexes, setter);
+    }
+
+    private void appendMethod (List<Integer> table, Map<JType, Integer> valueTypeIndexes, BeanMethod method) {
+        Integer valueTypeIndex = valueTypeIndexes.get(method.getValueType());
+        if (valueTypeIndex == null) {
+            valueTypeIndex = valueTypeIndexes.size();
+            valueTypeIndexes.put(method.getValueType(), valueTypeIndex);
+        }
+        table.add(valueTypeIndex);
+        table.add(getMethodIndex(method));
+    }
+
     public void writeConstructor (SourceWriter source, boolean addComma) {
         if (getters.size() == 0 && setters.size() == 0) {
             source.println("// Skipping because there are no getters and no setters: " + getName());
@@ -365,7 +365,7 @@ public class BeanValueType {
         return getSimpleTypeName() + ".class";
     }
 
-    public void writeRegisterValueType (SourceWriter source, TreeLogger logger, GeneratorContext context) {
+    public void writeRegisterValueType (SourceWriter source, TreeLogger logger, GeneratorContext context, RebindCache cache) {
         final String registerValueTypeStaticMethodName;
         if (findType(EnumValueType.class).equals(beanValueType)) {
             registerValueTypeStaticMethodName = "registerEnumValueType";
@@ -392,16 +392,28 @@ public class BeanValueType {
 
         // If we have a component type, we'll need to make sure to register that as well.
         if (componentValueType != null) {
-            componentValueType.writeRegisterValueType(source, logger, context);
+            componentValueType.writeRegisterValueType(source, logger, context, cache);
         }
 
         // Make sure we're generated if we are referenced
         if (requiresGeneration) {
-            generateFactory(logger, context);            
+            generateFactory(logger, context, cache);            
         }
     }
 
-    public String generateFactory (TreeLogger logger, GeneratorContext context) {
+    // Generates (or reuses) the factories which writeRegisterValueType would,
+    // without writing anything. This is used when the type which registers us
+    // is itself reused from the generator result cache.
+    public void generateFactories (TreeLogger logger, GeneratorContext context, RebindCache cache) {
+        if (componentValueType != null) {
+            componentValueType.generateFactories(logger, context, cache);
+        }
+        if (requiresGeneration) {
+            generateFactory(logger, context, cache);
+        }
+    }
+
+    public String generateFactory (TreeLogger logger, GeneratorContext context, RebindCache cache) {
         final String packageName = getFactoryPackage();
         final String factoryName = getSimpleFactoryName(); 
         ClassSourceFileComposerFactory composer = new ClassSourceFileComposerFactory(packageName, factoryName);
@@ -415,7 +427,7 @@ public class BeanValueType {
         composer.addImport(beanValueType.getQualifiedSourceName());
         composer.setSuperclass(beanValueType.getSimpleSourceName() + "<" + getSimpleGenericName() + ">");
 
-        PrintWriter printWriter = context.tryCreate(logger, packageName, factoryName);
+        PrintWriter printWriter = cache.tryCreate(logger, packageName, factoryName, cache.fingerprint(valueType));
         if (printWriter != null) {        
             SourceWriter source = composer.createSourceWriter(context, printWriter);
              
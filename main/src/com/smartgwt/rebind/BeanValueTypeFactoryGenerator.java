@@ -16,8 +16,9 @@
 
 package com.smartgwt.rebind;
 
-import com.google.gwt.core.ext.Generator;
 import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.IncrementalGenerator;
+import com.google.gwt.core.ext.RebindResult;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.TreeLogger.Type;
 import com.google.gwt.core.ext.UnableToCompleteException;
@@ -29,9 +30,17 @@ import com.google.gwt.user.rebind.SourceWriter;
 import com.smartgwt.rebind.BeanValueType;
 
 import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
 
-public class BeanValueTypeFactoryGenerator extends Generator {
-    public String generate(TreeLogger logger, GeneratorContext context, String typeName) throws UnableToCompleteException {
+public class BeanValueTypeFactoryGenerator extends IncrementalGenerator {
+    @Override
+    public long getVersionId () {
+        return RebindCache.VERSION_ID;
+    }
+
+    @Override
+    public RebindResult generateIncrementally (TreeLogger logger, GeneratorContext context, String typeName) throws UnableToCompleteException {
         TypeOracle typeOracle = context.getTypeOracle();
         JClassType metaFactoryType = typeOracle.findType(typeName);
         
@@ -43,60 +52,70 @@ public class BeanValueTypeFactoryGenerator extends Generator {
         composer.addImport(com.smartgwt.client.bean.BeanValueType.class.getCanonicalName());
         composer.addImport("com.smartgwt.client.bean.types.*");
 
-        PrintWriter printWriter = context.tryCreate(logger, genPackageName, genClassName);
+        RebindCache cache = new RebindCache(context);
+
+        List<BeanValueType> beanValueTypes = new ArrayList<BeanValueType>();
+        List<JType> inputTypes = new ArrayList<JType>();
+        inputTypes.add(metaFactoryType);
+
+        StringBuilder functions = new StringBuilder();
+
+        JClassType beanValueTypeClass = typeOracle.findType(com.smartgwt.client.bean.BeanValueType.class.getCanonicalName()).isClass();
+
+        // Iterate over the methods defined on the interface
+        for (JMethod method : metaFactoryType.getMethods()) {
+            if (method.getParameters().length != 0) {
+                logger.log(Type.ERROR, typeName + "::" + method.getName() + " should have no parameters.");
+                throw new UnableToCompleteException();
+            }
+
+            JParameterizedType returnType = method.getReturnType().isParameterized();
+            if (returnType == null) {
+                logger.log(Type.ERROR, typeName + "::" + method.getName() + " has a non-parameterized return type.");
+                throw new UnableToCompleteException();
+            }
+
+            if (returnType.getBaseType() != beanValueTypeClass) {
+                logger.log(Type.ERROR, typeName + "::" + method.getName() + " does not have BeanValueType<> as its return type.");
+                throw new UnableToCompleteException();                    
+            }
+           
+            JClassType[] typeArgs = returnType.getTypeArgs();
+            if (typeArgs.length != 1) {
+                logger.log(Type.ERROR, typeName + "::" + method.getName() + " should have a return type with one parameterized type.");
+                throw new UnableToCompleteException();
+            }
+
+            BeanValueType beanValueType = new BeanValueType(typeArgs[0], typeOracle);
+            beanValueTypes.add(beanValueType);
+            inputTypes.add(typeArgs[0]);
+
+            // And we'll need to generate the function!
+            functions.append(
+                "\n\n@Override public BeanValueType<" + 
+                beanValueType.getQualifiedTypeName() + 
+                "> " + method.getName() + "() {\n  " +
+                "return (BeanValueType<" +
+                beanValueType.getQualifiedTypeName() + 
+                ">) BeanValueType.getBeanValueType(" +
+                beanValueType.getQualifiedValueTypeLiteral() + 
+                ");\n}"
+            );
+        }
+
+        PrintWriter printWriter = cache.tryCreate(logger, genPackageName, genClassName, cache.fingerprint(inputTypes.toArray(new JType[inputTypes.size()])));
         if (printWriter != null) {
             SourceWriter sourceWriter = composer.createSourceWriter(context, printWriter);
             sourceWriter.println("// This class lovingly generated by " + BeanValueTypeFactoryGenerator.class.getCanonicalName() + "\n");
 
-            StringBuilder functions = new StringBuilder();
-
             // Our constructor ... will be called by GWT.create()
             sourceWriter.println(genClassName + " () {");
             sourceWriter.indent();
 
-            JClassType beanValueTypeClass = typeOracle.findType(com.smartgwt.client.bean.BeanValueType.class.getCanonicalName()).isClass();
-
-            // Iterate over the methods defined on the interface
-            for (JMethod method : metaFactoryType.getMethods()) {
-                if (method.getParameters().length != 0) {
-                    logger.log(Type.ERROR, typeName + "::" + method.getName() + " should have no parameters.");
-                    throw new UnableToCompleteException();
-                }
-
-                JParameterizedType returnType = method.getReturnType().isParameterized();
-                if (returnType == null) {
-                    logger.log(Type.ERROR, typeName + "::" + method.getName() + " has a non-parameterized return type.");
-                    throw new UnableToCompleteException();
-                }
-
-                if (returnType.getBaseType() != beanValueTypeClass) {
-                    logger.log(Type.ERROR, typeName + "::" + method.getName() + " does not have BeanValueType<> as its return type.");
-                    throw new UnableToCompleteException();                    
-                }
-               
-                JClassType[] typeArgs = returnType.getTypeArgs();
-                if (typeArgs.length != 1) {
-                    logger.log(Type.ERROR, typeName + "::" + method.getName() + " should have a return type with one parameterized type.");
-                    throw new UnableToCompleteException();
-                }
-
-                BeanValueType beanValueType = new BeanValueType(typeArgs[0], typeOracle);
-                
+            for (BeanValueType beanValueType : beanValueTypes) {
                 // Write the function to register the value type. Note that a side-effect
                 // is that the factory for the value type is actually generated!
-                beanValueType.writeRegisterValueType(sourceWriter, logger, context);
-
-                // And we'll need to generate the function!
-                functions.append(
-                    "\n\n@Override public BeanValueType<" + 
-                    beanValueType.getQualifiedTypeName() + 
-                    "> " + method.getName() + "() {\n  " +
-                    "return (BeanValueType<" +
-                    beanValueType.getQualifiedTypeName() + 
-                    ">) BeanValueType.getBeanValueType(" +
-                    beanValueType.getQualifiedValueTypeLiteral() + 
-                    ");\n}"
-                );
+                beanValueType.writeRegisterValueType(sourceWriter, logger, context, cache);
             }
 
             sourceWriter.outdent();
@@ -104,8 +123,14 @@ public class BeanValueTypeFactoryGenerator extends Generator {
 
             sourceWriter.println(functions.toString());
             sourceWriter.commit(logger);
+        } else {
+            // We are reused from the cache (or already generated), but the
+            // value type factories still have to be generated or reused.
+            for (BeanValueType beanValueType : beanValueTypes) {
+                beanValueType.generateFactories(logger, context, cache);
+            }
         }
 
-        return composer.getCreatedClassName();
+        return cache.getResult(logger, composer.getCreatedClassName());
     }
 }
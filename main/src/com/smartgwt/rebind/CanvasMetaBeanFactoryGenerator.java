@@ -16,8 +16,9 @@
 
 package com.smartgwt.rebind;
 
-import com.google.gwt.core.ext.Generator;
 import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.IncrementalGenerator;
+import com.google.gwt.core.ext.RebindResult;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.UnableToCompleteException;
 import com.google.gwt.core.ext.typeinfo.*;
@@ -31,9 +32,14 @@ import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.List;
 
-public class CanvasMetaBeanFactoryGenerator extends Generator {
+public class CanvasMetaBeanFactoryGenerator extends IncrementalGenerator {
     @Override
-    public String generate (TreeLogger logger, GeneratorContext context, String typeName) throws UnableToCompleteException {
+    public long getVersionId () {
+        return RebindCache.VERSION_ID;
+    }
+
+    @Override
+    public RebindResult generateIncrementally (TreeLogger logger, GeneratorContext context, String typeName) throws UnableToCompleteException {
         TypeOracle oracle = context.getTypeOracle();
         JClassType canvasType = oracle.findType(Canvas.class.getCanonicalName());
 
@@ -43,7 +49,22 @@ public class CanvasMetaBeanFactoryGenerator extends Generator {
         ClassSourceFileComposerFactory composer = new ClassSourceFileComposerFactory(genPackageName, genClassName);
         composer.addImplementedInterface(BeanFactory.CanvasMetaFactory.class.getCanonicalName());
 
-        PrintWriter printWriter = context.tryCreate(logger, genPackageName, genClassName);
+        FactoryRegistrationWriter registration = new FactoryRegistrationWriter(logger, context);
+        registration.configureComposer(composer);
+
+        RebindCache cache = new RebindCache(context);
+
+        // We generate (or reuse) the factories first, since that has to be
+        // done even if this class itself is reused from the cache.
+        for (JClassType classType : oracle.getTypes()) {
+            if (classType.isAssignableTo(canvasType) && isEligibleForGeneration(classType)) {
+                BeanClass beanClass = new BeanClass(classType);
+                beanClass.generateFactory(logger, context, cache);
+                registration.addBeanClass(beanClass);
+            }
+        }
+
+        PrintWriter printWriter = cache.tryCreate(logger, genPackageName, genClassName, registration.fingerprint(cache));
         if (printWriter != null) {
             SourceWriter sourceWriter = composer.createSourceWriter(context, printWriter);
             sourceWriter.println("// This class lovingly generated by " + CanvasMetaBeanFactoryGenerator.class.getCanonicalName() + "\n");
@@ -52,22 +73,17 @@ public class CanvasMetaBeanFactoryGenerator extends Generator {
             sourceWriter.println(genClassName + " () {");
             sourceWriter.indent();
 
-            for (JClassType classType : oracle.getTypes()) {
-                if (classType.isAssignableTo(canvasType) && isEligibleForGeneration(classType)) {
-                    BeanClass beanClass = new BeanClass(classType);
-                    beanClass.generateFactory(logger, context);
-
-                    // We have to instantiate the factory to register it in the BeanFactory static API
-                    sourceWriter.println(beanClass.getQualifiedFactoryName() + ".create(false);");
-                }
-            }
+            // Register the factories in the BeanFactory static API
+            registration.writeRegistration(sourceWriter);
 
             sourceWriter.outdent();
             sourceWriter.println("}");
+
+            registration.writeLoadFactory(sourceWriter);
             sourceWriter.commit(logger);
         }
 
-        return composer.getCreatedClassName();
+        return cache.getResult(logger, composer.getCreatedClassName());
     }
 
     private boolean isEligibleForGeneration (JClassType classType) {
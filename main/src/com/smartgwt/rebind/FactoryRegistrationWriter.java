@@ -0,0 +1,127 @@
+/*
+ * Smart GWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * Smart GWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * is published by the Free Software Foundation.  Smart GWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.rebind;
+
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.typeinfo.JType;
+import com.google.gwt.user.rebind.ClassSourceFileComposerFactory;
+import com.google.gwt.user.rebind.SourceWriter;
+
+import com.smartgwt.client.bean.BeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes the code with which a generated meta factory registers the bean
+// factories it has generated. This used to be a call to create() for every
+// factory in the meta factory's constructor. Depending on the
+// smartgwt.beanFactoryRegistration configuration property, we can instead
+// register just the class literals with BeanFactory, and generate a
+// FactoryLoader which creates each factory the first time it is looked up.
+//
+//   eager    - create every factory in the constructor (the default)
+//   lazy     - create factories only when they are looked up
+//   deferred - as lazy, but also create the remaining factories in the
+//              background once startup has finished
+public class FactoryRegistrationWriter {
+    public static final String REGISTRATION_PROPERTY = "smartgwt.beanFactoryRegistration";
+
+    private static final String EAGER = "eager";
+    private static final String LAZY = "lazy";
+    private static final String DEFERRED = "deferred";
+
+    private final String mode;
+    private final List<BeanClass> beanClasses = new ArrayList<BeanClass>();
+
+    public FactoryRegistrationWriter (TreeLogger logger, GeneratorContext context) {
+        String value = BeanClass.getConfigurationProperty(context, REGISTRATION_PROPERTY, EAGER);
+        if (!EAGER.equals(value) && !LAZY.equals(value) && !DEFERRED.equals(value)) {
+            logger.log(TreeLogger.WARN, "Unknown value '" + value + "' for " + REGISTRATION_PROPERTY +
+                       ", using '" + EAGER + "'");
+            value = EAGER;
+        }
+        mode = value;
+    }
+
+    public boolean isEager () {
+        return EAGER.equals(mode);
+    }
+
+    public void addBeanClass (BeanClass beanClass) {
+        beanClasses.add(beanClass);
+    }
+
+    // The fingerprint of the generated meta factory for the RebindCache. The
+    // registration code depends only on which bean classes there are, and on
+    // the registration mode; the caller passes any other types it depends on.
+    public String fingerprint (RebindCache cache, JType... types) {
+        StringBuilder names = new StringBuilder();
+        for (BeanClass beanClass : beanClasses) {
+            names.append(beanClass.getBeanClassLiteral()).append(',');
+        }
+        return cache.fingerprint(types, mode, names.toString());
+    }
+
+    // Must be called before the source writer is created
+    public void configureComposer (ClassSourceFileComposerFactory composer) {
+        if (!isEager()) {
+            composer.addImplementedInterface(BeanFactory.FactoryLoader.class.getCanonicalName());
+        }
+    }
+
+    // Writes the statements for the meta factory's constructor
+    public void writeRegistration (SourceWriter source) {
+        if (isEager()) {
+            for (BeanClass beanClass : beanClasses) {
+                // We have to instantiate the factory to register it in the BeanFactory static API
+                source.println(beanClass.getQualifiedFactoryName() + ".create(false);");
+            }
+            return;
+        }
+
+        if (beanClasses.isEmpty()) return;
+
+        // The index of each class literal is the token passed back to loadFactory
+        source.println(BeanFactory.class.getCanonicalName() + ".registerFactoryLoader(this, new Class<?>[] {");
+        source.indent();
+        for (int i = 0; i < beanClasses.size(); i++) {
+            source.println(beanClasses.get(i).getBeanClassLiteral() + (i < beanClasses.size() - 1 ? "," : ""));
+        }
+        source.outdent();
+        source.println("}, " + DEFERRED.equals(mode) + ");");
+    }
+
+    // Writes the FactoryLoader implementation, if needed
+    public void writeLoadFactory (SourceWriter source) {
+        if (isEager()) return;
+
+        source.println("");
+        source.println("public " + BeanFactory.class.getCanonicalName() + "<?> loadFactory (int token) {");
+        source.indent();
+        source.println("switch (token) {");
+        source.indent();
+        for (int i = 0; i < beanClasses.size(); i++) {
+            source.println("case " + i + ": return " + beanClasses.get(i).getQualifiedFactoryName() + ".create(false);");
+        }
+        source.outdent();
+        source.println("}");
+        source.println("return null;");
+        source.outdent();
+        source.println("}");
+    }
+}
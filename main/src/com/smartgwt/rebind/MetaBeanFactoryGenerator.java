@@ -16,8 +16,9 @@
 
 package com.smartgwt.rebind;
 
-import com.google.gwt.core.ext.Generator;
 import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.IncrementalGenerator;
+import com.google.gwt.core.ext.RebindResult;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.TreeLogger.Type;
 import com.google.gwt.core.ext.UnableToCompleteException;
@@ -33,7 +34,7 @@ import com.smartgwt.rebind.BeanClass;
 
 import java.io.PrintWriter;
 
-public class MetaBeanFactoryGenerator extends Generator {
+public class MetaBeanFactoryGenerator extends IncrementalGenerator {
     public String getSimpleFactoryName (JClassType interfaceType) {
         StringBuilder builder = new StringBuilder();
         JClassType iterator = interfaceType;
@@ -50,7 +51,13 @@ public class MetaBeanFactoryGenerator extends Generator {
         return interfaceType.getPackage().getName();
     }
     
-    public String generate(TreeLogger logger, GeneratorContext context, String typeName) throws UnableToCompleteException {
+    @Override
+    public long getVersionId () {
+        return RebindCache.VERSION_ID;
+    }
+
+    @Override
+    public RebindResult generateIncrementally (TreeLogger logger, GeneratorContext context, String typeName) throws UnableToCompleteException {
         TypeOracle typeOracle = context.getTypeOracle();
         JClassType metaFactoryType = typeOracle.findType(typeName);
         
@@ -61,80 +68,90 @@ public class MetaBeanFactoryGenerator extends Generator {
         composer.addImplementedInterface(typeName);
         composer.addImport(com.smartgwt.client.bean.BeanFactory.class.getCanonicalName());
 
-        PrintWriter printWriter = context.tryCreate(logger, genPackageName, genClassName);
+        FactoryRegistrationWriter registration = new FactoryRegistrationWriter(logger, context);
+        registration.configureComposer(composer);
+
+        RebindCache cache = new RebindCache(context);
+
+        StringBuilder functions = new StringBuilder();
+
+        JClassType beanFactoryType = typeOracle.findType(BeanFactory.class.getCanonicalName()).isClass();
+        JClassType baseWidgetType = typeOracle.findType(BaseWidget.class.getCanonicalName()).isClass();
+        JClassType dataClassType = typeOracle.findType(DataClass.class.getCanonicalName()).isClass();
+
+        // Iterate over the methods defined on the interface. We generate (or
+        // reuse) the factories before writing anything, since that has to be
+        // done even if this class itself is reused from the cache.
+        for (JMethod method : metaFactoryType.getMethods()) {
+            if (method.getParameters().length != 0) {
+                logger.log(Type.ERROR, typeName + "::" + method.getName() + " should have no parameters.");
+                throw new UnableToCompleteException();
+            }
+
+            JParameterizedType returnType = method.getReturnType().isParameterized();
+            if (returnType == null) {
+                logger.log(Type.ERROR, typeName + "::" + method.getName() + " has a non-parameterized return type.");
+                throw new UnableToCompleteException();
+            }
+
+            if (returnType.getBaseType() != beanFactoryType) {
+                logger.log(Type.ERROR, typeName + "::" + method.getName() + " does not have BeanFactory<> as its return type.");
+                throw new UnableToCompleteException();                    
+            }
+           
+            JClassType[] typeArgs = returnType.getTypeArgs();
+            if (typeArgs.length != 1) {
+                logger.log(Type.ERROR, typeName + "::" + method.getName() + " should have a return type with one parameterized type.");
+                throw new UnableToCompleteException();
+            }
+
+            JClassType beanClassType = typeArgs[0];
+            if (
+                !baseWidgetType.isAssignableFrom(beanClassType) &&
+                !dataClassType.isAssignableFrom(beanClassType)
+            ) {
+                logger.log(Type.ERROR, typeName + "::" + method.getName() + ": for now, factories can only be created for Canvas or DataClass and subclasses.");
+                throw new UnableToCompleteException();
+            }
+
+            BeanClass beanClass = new BeanClass(beanClassType);
+            beanClass.generateFactory(logger, context, cache);
+            registration.addBeanClass(beanClass);
+
+            // And we'll need to generate the function!
+            functions.append(
+                "\n\n@Override public BeanFactory<" + 
+                beanClassType.getQualifiedSourceName() + 
+                "> " + method.getName() + "() {\n  " +
+                "return (BeanFactory<" +
+                beanClassType.getQualifiedSourceName() + 
+                ">) BeanFactory.getFactory(" +
+                beanClassType.getQualifiedSourceName() + 
+                ".class);\n}"
+            );
+        }
+
+        // The functions depend on the declarations of the interface
+        PrintWriter printWriter = cache.tryCreate(logger, genPackageName, genClassName, registration.fingerprint(cache, metaFactoryType));
         if (printWriter != null) {
             SourceWriter sourceWriter = composer.createSourceWriter(context, printWriter);
             sourceWriter.println("// This class lovingly generated by " + MetaBeanFactoryGenerator.class.getCanonicalName() + "\n");
 
-            StringBuilder functions = new StringBuilder();
-
             // Our constructor ... will be called by GWT.create()
             sourceWriter.println(genClassName + " () {");
             sourceWriter.indent();
 
-            JClassType beanFactoryType = typeOracle.findType(BeanFactory.class.getCanonicalName()).isClass();
-            JClassType baseWidgetType = typeOracle.findType(BaseWidget.class.getCanonicalName()).isClass();
-            JClassType dataClassType = typeOracle.findType(DataClass.class.getCanonicalName()).isClass();
-
-            // Iterate over the methods defined on the interface
-            for (JMethod method : metaFactoryType.getMethods()) {
-                if (method.getParameters().length != 0) {
-                    logger.log(Type.ERROR, typeName + "::" + method.getName() + " should have no parameters.");
-                    throw new UnableToCompleteException();
-                }
-
-                JParameterizedType returnType = method.getReturnType().isParameterized();
-                if (returnType == null) {
-                    logger.log(Type.ERROR, typeName + "::" + method.getName() + " has a non-parameterized return type.");
-                    throw new UnableToCompleteException();
-                }
-
-                if (returnType.getBaseType() != beanFactoryType) {
-                    logger.log(Type.ERROR, typeName + "::" + method.getName() + " does not have BeanFactory<> as its return type.");
-                    throw new UnableToCompleteException();                    
-                }
-               
-                JClassType[] typeArgs = returnType.getTypeArgs();
-                if (typeArgs.length != 1) {
-                    logger.log(Type.ERROR, typeName + "::" + method.getName() + " should have a return type with one parameterized type.");
-                    throw new UnableToCompleteException();
-                }
-
-                JClassType beanClassType = typeArgs[0];
-                if (
-                    !baseWidgetType.isAssignableFrom(beanClassType) &&
-                    !dataClassType.isAssignableFrom(beanClassType)
-                ) {
-                    logger.log(Type.ERROR, typeName + "::" + method.getName() + ": for now, factories can only be created for Canvas or DataClass and subclasses.");
-                    throw new UnableToCompleteException();
-                }
-
-                BeanClass beanClass = new BeanClass(beanClassType);
-                beanClass.generateFactory(logger, context);
-                    
-                // We have to instantiate the factory to register it in the BeanFactory static API
-                sourceWriter.println(beanClass.getQualifiedFactoryName() + ".create(false);");
-
-                // And we'll need to generate the function!
-                functions.append(
-                    "\n\n@Override public BeanFactory<" + 
-                    beanClassType.getQualifiedSourceName() + 
-                    "> " + method.getName() + "() {\n  " +
-                    "return (BeanFactory<" +
-                    beanClassType.getQualifiedSourceName() + 
-                    ">) BeanFactory.getFactory(" +
-                    beanClassType.getQualifiedSourceName() + 
-                    ".class);\n}"
-                );
-            }
+            // Register the factories in the BeanFactory static API
+            registration.writeRegistration(sourceWriter);
 
             sourceWriter.outdent();
             sourceWriter.println("}");
 
             sourceWriter.println(functions.toString());
+            registration.writeLoadFactory(sourceWriter);
             sourceWriter.commit(logger);
         }
 
-        return composer.getCreatedClassName();
+        return cache.getResult(logger, composer.getCreatedClassName());
     }
 }
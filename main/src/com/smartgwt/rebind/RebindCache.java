@@ -0,0 +1,242 @@
+/*
+ * Smart GWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * Smart GWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * is published by the Free Software Foundation.  Smart GWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.rebind;
+
+import com.google.gwt.core.ext.CachedGeneratorResult;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.RebindMode;
+import com.google.gwt.core.ext.RebindResult;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.typeinfo.JAbstractMethod;
+import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.core.ext.typeinfo.JConstructor;
+import com.google.gwt.core.ext.typeinfo.JMethod;
+import com.google.gwt.core.ext.typeinfo.JParameter;
+import com.google.gwt.core.ext.typeinfo.JType;
+
+import com.smartgwt.client.bean.BeanFactory;
+
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+// Keeps track of the types which one run of one of our generators creates, so
+// that types whose inputs have not changed since the last compile (or Super
+// Dev Mode refresh) can be reused from GWT's generator result cache instead
+// of being written and compiled again.
+//
+// The inputs of a generated type are summarized as a fingerprint: a hash of
+// the declarations which our generators look at, for the relevant types and
+// their superclasses, plus whatever configuration affects the output. The
+// fingerprints are stored as client data in the RebindResult, and compared
+// with the new ones on the next run. We use the declarations rather than the
+// source itself, because that is what the generated code depends on, and
+// because it is available through the public TypeOracle API.
+public class RebindCache {
+    // Bump this whenever the code which our generators write changes, so that
+    // cached results from an older version are not reused.
+    public static final long VERSION_ID = 1;
+
+    private static final String FINGERPRINTS_KEY = "smartgwt.fingerprints";
+
+    private final GeneratorContext context;
+    private final CachedGeneratorResult lastResult;
+    private final Map<String, String> cachedFingerprints;
+    private final HashMap<String, String> fingerprints = new HashMap<String, String>();
+
+    // Descriptions of the types we have already seen in this run
+    private final Map<JClassType, String> typeDescriptions = new HashMap<JClassType, String>();
+
+    private int reusedCount;
+    private int generatedCount;
+
+    @SuppressWarnings("unchecked")
+    public RebindCache (GeneratorContext context) {
+        this.context = context;
+
+        lastResult = context.isGeneratorResultCachingEnabled() ? context.getCachedGeneratorResult() : null;
+
+        Map<String, String> cached = null;
+        if (lastResult != null) {
+            Object clientData = lastResult.getClientData(FINGERPRINTS_KEY);
+            if (clientData instanceof Map) cached = (Map<String, String>) clientData;
+        }
+        cachedFingerprints = cached;
+    }
+
+    // Used instead of context.tryCreate(). If the type's fingerprint matches
+    // the one from the last run, and GWT still has the type in its cache, then
+    // the cached type is reused and we return null -- just as tryCreate does
+    // when the type has already been generated. Callers should therefore
+    // still visit any types which the skipped code would have generated, so
+    // that those are reused as well.
+    public PrintWriter tryCreate (TreeLogger logger, String packageName, String simpleName, String fingerprint) {
+        final String qualifiedName = packageName + "." + simpleName;
+
+        // A type can be reached more than once in a single run (for instance,
+        // a common superclass), but we only need to deal with it once.
+        if (fingerprints.containsKey(qualifiedName)) return null;
+        fingerprints.put(qualifiedName, fingerprint);
+
+        if (cachedFingerprints != null &&
+            fingerprint.equals(cachedFingerprints.get(qualifiedName)) &&
+            lastResult.isTypeCached(qualifiedName) &&
+            context.tryReuseTypeFromCache(qualifiedName))
+        {
+            reusedCount++;
+            return null;
+        }
+
+        PrintWriter printWriter = context.tryCreate(logger, packageName, simpleName);
+        if (printWriter != null) generatedCount++;
+        return printWriter;
+    }
+
+    public int getReusedCount () {
+        return reusedCount;
+    }
+
+    public int getGeneratedCount () {
+        return generatedCount;
+    }
+
+    public RebindResult getResult (TreeLogger logger, String resultTypeName) {
+        logger.log(TreeLogger.DEBUG, "Generated " + generatedCount + " types and reused " + reusedCount + " cached types");
+
+        if (!context.isGeneratorResultCachingEnabled()) {
+            return new RebindResult(RebindMode.USE_ALL_NEW_WITH_NO_CACHING, resultTypeName);
+        }
+
+        // We don't use USE_ALL_CACHED even if nothing was generated, since
+        // that would also bring back cached types which are no longer needed
+        // (for instance, factories for classes which have been removed).
+        RebindMode mode = reusedCount > 0 ? RebindMode.USE_PARTIAL_CACHED : RebindMode.USE_ALL_NEW;
+        RebindResult result = new RebindResult(mode, resultTypeName);
+        result.putClientData(FINGERPRINTS_KEY, fingerprints);
+        return result;
+    }
+
+    // Returns a fingerprint combining the declarations of the types (and their
+    // superclasses) with any other strings which affect the generated code.
+    public String fingerprint (JType[] types, String... settings) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(VERSION_ID).append('\n');
+        for (String setting : settings) {
+            builder.append(setting).append('\n');
+        }
+        for (JType type : types) {
+            describeType(builder, type);
+        }
+        return digest(builder.toString());
+    }
+
+    public String fingerprint (JType type, String... settings) {
+        return fingerprint(new JType[] {type}, settings);
+    }
+
+    private void describeType (StringBuilder builder, JType type) {
+        if (type.isArray() != null) {
+            builder.append("[]");
+            describeType(builder, type.isArray().getComponentType());
+            return;
+        }
+
+        JClassType classType = type.isClassOrInterface();
+        if (classType == null) {
+            // Primitives are described completely by their name
+            builder.append(type.getQualifiedSourceName()).append('\n');
+            return;
+        }
+
+        // The declarations of the superclasses matter as well, since we merge
+        // inherited properties and check assignability.
+        for (JClassType iterator = classType.getErasedType(); iterator != null; iterator = iterator.getSuperclass()) {
+            builder.append(describeClass(iterator));
+        }
+    }
+
+    private String describeClass (JClassType classType) {
+        String description = typeDescriptions.get(classType);
+        if (description != null) return description;
+
+        StringBuilder builder = new StringBuilder();
+        builder.append(classType.getQualifiedSourceName());
+        builder.append(classType.isAbstract() ? " abstract" : "");
+        builder.append(classType.isPrivate() ? " private" : "");
+        builder.append(classType.isInterface() != null ? " interface" : "");
+        builder.append(classType.isEnum() != null ? " enum" : "");
+        for (JClassType implemented : classType.getImplementedInterfaces()) {
+            builder.append(" implements ").append(implemented.getParameterizedQualifiedSourceName());
+        }
+        if (classType.isAnnotationPresent(BeanFactory.FrameworkClass.class)) {
+            builder.append(" @FrameworkClass");
+        }
+        BeanFactory.ScClassName scClassName = classType.getAnnotation(BeanFactory.ScClassName.class);
+        if (scClassName != null) {
+            builder.append(" @ScClassName(").append(scClassName.value()).append(")");
+        }
+        builder.append('\n');
+
+        for (JConstructor constructor : classType.getConstructors()) {
+            describeMethod(builder, constructor, "<init>");
+        }
+        for (JMethod method : classType.getMethods()) {
+            builder.append(method.getReturnType().getParameterizedQualifiedSourceName()).append(' ');
+            describeMethod(builder, method, method.getName());
+        }
+
+        description = builder.toString();
+        typeDescriptions.put(classType, description);
+        return description;
+    }
+
+    private void describeMethod (StringBuilder builder, JAbstractMethod method, String name) {
+        builder.append(method.isPublic() ? "public " : "");
+        builder.append(method.isPrivate() ? "private " : "");
+        if (method.isMethod() != null) {
+            builder.append(method.isMethod().isStatic() ? "static " : "");
+            builder.append(method.isMethod().isAbstract() ? "abstract " : "");
+        }
+        builder.append(name).append('(');
+        for (JParameter parameter : method.getParameters()) {
+            builder.append(parameter.getType().getParameterizedQualifiedSourceName()).append(',');
+        }
+        builder.append(")\n");
+    }
+
+    private static String digest (String input) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            byte[] bytes = md.digest(input.getBytes("UTF-8"));
+            StringBuilder hex = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16));
+                hex.append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM has MD5, but if not, then a fingerprint which never
+            // matches simply means that nothing is reused.
+            return String.valueOf(System.nanoTime());
+        } catch (UnsupportedEncodingException e) {
+            return String.valueOf(System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.bean;
+package com.smartgwt.client.bean;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gwt.core.client.GWT;
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.widgets.Canvas;
+
+/**
+ * Test for the generated direct property dispatch in BeanFactory.
+ */
+public class BeanFactoryDispatchTestCase extends SmartGWTTestCase {
+
+    /**
+     * A Canvas subclass with setters of primitive, boxed and String types, which records the
+     * values it is passed.
+     */
+    public static class TypedCanvas extends Canvas {
+        int intValue = -1;
+        long longValue = -1;
+        float floatValue = -1;
+        double doubleValue = -1;
+        boolean booleanValue;
+        Integer integerObject;
+        Double doubleObject;
+        Boolean booleanObject;
+        String stringValue;
+
+        public void setIntValue(int value) { intValue = value; }
+        public void setLongValue(long value) { longValue = value; }
+        public void setFloatValue(float value) { floatValue = value; }
+        public void setDoubleValue(double value) { doubleValue = value; }
+        public void setBooleanValue(boolean value) { booleanValue = value; }
+        public void setIntegerObject(Integer value) { integerObject = value; }
+        public void setDoubleObject(Double value) { doubleObject = value; }
+        public void setBooleanObject(Boolean value) { booleanObject = value; }
+        public void setStringValue(String value) { stringValue = value; }
+    }
+
+    public interface DispatchMetaFactory extends BeanFactory.MetaFactory {
+        BeanFactory<TypedCanvas> getTypedCanvasFactory();
+    }
+
+    @Override
+    protected void gwtSetUp() throws Exception {
+        super.gwtSetUp();
+        GWT.create(DispatchMetaFactory.class);
+    }
+
+    @Override
+    protected void gwtTearDown() throws Exception {
+        BeanFactory.setDirectPropertyDispatch(true);
+        super.gwtTearDown();
+    }
+
+    /**
+     * Values of the setter's own type are passed through by both dispatch paths.
+     */
+    public void testExactTypes() {
+        for (boolean direct : new boolean[] {false, true}) {
+            BeanFactory.setDirectPropertyDispatch(direct);
+            Map<String, Object> properties = new HashMap<String, Object>();
+            properties.put("intValue", 3);
+            properties.put("longValue", 4L);
+            properties.put("floatValue", 1.5f);
+            properties.put("doubleValue", 2.25);
+            properties.put("booleanValue", Boolean.TRUE);
+            properties.put("integerObject", 5);
+            properties.put("doubleObject", 6.5);
+            properties.put("booleanObject", Boolean.FALSE);
+            properties.put("stringValue", "text");
+
+            TypedCanvas canvas = new TypedCanvas();
+            BeanFactory.setProperties(canvas, properties);
+
+            assertEquals(3, canvas.intValue);
+            assertEquals(4L, canvas.longValue);
+            assertEquals(1.5f, canvas.floatValue);
+            assertEquals(2.25, canvas.doubleValue);
+            assertTrue(canvas.booleanValue);
+            assertEquals(Integer.valueOf(5), canvas.integerObject);
+            assertEquals(Double.valueOf(6.5), canvas.doubleObject);
+            assertEquals(Boolean.FALSE, canvas.booleanObject);
+            assertEquals("text", canvas.stringValue);
+        }
+    }
+
+    /**
+     * Numbers of another type are converted to the setter's type, and other values are
+     * converted as they would be by the properties map, by both dispatch paths.
+     */
+    public void testConversions() {
+        for (boolean direct : new boolean[] {false, true}) {
+            BeanFactory.setDirectPropertyDispatch(direct);
+            Map<String, Object> properties = new HashMap<String, Object>();
+            properties.put("intValue", 7.0);
+            properties.put("longValue", 8);
+            properties.put("doubleValue", 9);
+            properties.put("integerObject", 10L);
+            properties.put("doubleObject", 11);
+            properties.put("booleanValue", "true");
+            properties.put("floatValue", "2.5");
+            properties.put("stringValue", 12);
+
+            TypedCanvas canvas = new TypedCanvas();
+            BeanFactory.setProperties(canvas, properties);
+
+            assertEquals(7, canvas.intValue);
+            assertEquals(8L, canvas.longValue);
+            assertEquals(9.0, canvas.doubleValue);
+            assertEquals(Integer.valueOf(10), canvas.integerObject);
+            assertEquals(Double.valueOf(11), canvas.doubleObject);
+            assertTrue(canvas.booleanValue);
+            assertEquals(2.5f, canvas.floatValue);
+            assertEquals("12", canvas.stringValue);
+        }
+    }
+
+    /**
+     * Both dispatch paths apply own and inherited properties, and leave unknown properties to
+     * setAttribute().
+     */
+    public void testDirectDispatch() {
+        for (boolean direct : new boolean[] {false, true}) {
+            BeanFactory.setDirectPropertyDispatch(direct);
+            Map<String, Object> properties = new HashMap<String, Object>();
+            properties.put("intValue", 3);
+            properties.put("width", 250);
+            properties.put("unknownProperty", "x");
+
+            TypedCanvas canvas = new TypedCanvas();
+            BeanFactory.setProperties(canvas, properties);
+
+            assertEquals(3, canvas.intValue);
+            assertEquals(Integer.valueOf(250), canvas.getWidth());
+            assertEquals("x", canvas.getAttribute("unknownProperty"));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.data;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.SmartGWTTestCase;
+
+/**
+ * Test for the adaptive prefetch policy.
+ */
+public class AdaptivePrefetchPolicyTestCase extends SmartGWTTestCase {
+
+    private final AdaptivePrefetchPolicy policy = new AdaptivePrefetchPolicy();
+
+    /**
+     * Without scrolling, rows are read ahead on both sides.
+     */
+    public void testIdle() {
+        int[] range = policy.getFetchRange(1000, 1050, -1, createStats(0, -1, -1));
+        assertTrue(range[0] < 1000);
+        assertTrue(range[1] > 1050);
+        assertEquals(policy.getMinRows(), (1000 - range[0]) + (range[1] - 1050));
+    }
+
+    /**
+     * Rows are read ahead in the direction of scrolling, in proportion to latency.
+     */
+    public void testDirection() {
+        int[] down = policy.getFetchRange(1000, 1050, -1, createStats(500, 400, 100));
+        assertEquals(1050 + 300, down[1]);
+        assertTrue(1000 - down[0] < policy.getMinRows());
+
+        int[] up = policy.getFetchRange(1000, 1050, -1, createStats(-500, 400, 100));
+        assertEquals(1000 - 300, up[0]);
+
+        int[] slower = policy.getFetchRange(1000, 1050, -1, createStats(500, 100, 100));
+        assertEquals(1050 + policy.getMinRows(), slower[1]);
+    }
+
+    /**
+     * Wide rows and known lengths limit the read-ahead, and flinging fetches only what is
+     * requested.
+     */
+    public void testLimits() {
+        int[] wide = policy.getFetchRange(0, 50, -1, createStats(500, 400, 4096));
+        assertEquals(50 + 256, wide[1]);
+
+        int[] end = policy.getFetchRange(950, 1000, 1010, createStats(500, 400, 100));
+        assertEquals(1010, end[1]);
+
+        int[] fling = policy.getFetchRange(100000, 100050, -1, createStats(50000, 400, 100));
+        assertEquals(100000, fling[0]);
+        assertEquals(100050, fling[1]);
+    }
+
+    private static PrefetchStats createStats(double velocity, double latency, double rowSize) {
+        return new PrefetchStats(createState(velocity, latency, rowSize));
+    }
+
+    private static native JavaScriptObject createState(double velocity, double latency, double rowSize) /*-{
+        return {
+            velocity: velocity,
+            latency: latency < 0 ? null : latency,
+            rowSize: rowSize < 0 ? null : rowSize
+        };
+    }-*/;
+}
@@ -0,0 +1,105 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.data;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.data.events.StatsUpdatedEvent;
+import com.smartgwt.client.data.events.StatsUpdatedHandler;
+import com.smartgwt.client.types.FetchMode;
+
+/**
+ * Test for ResultSet and DataSource statistics.
+ */
+public class CacheStatsTestCase extends SmartGWTTestCase {
+
+    /**
+     * Latencies are counted in the bucket of their upper bound.
+     */
+    public void testHistogram() {
+        JavaScriptObject state = CacheStats.createState();
+        CacheStats.recordLatency(state, 5);
+        CacheStats.recordLatency(state, 10);
+        CacheStats.recordLatency(state, 11);
+        CacheStats.recordLatency(state, 60000);
+
+        CacheStats stats = new CacheStats(state);
+        int[] histogram = stats.getLatencyHistogram();
+        assertEquals(CacheStats.getLatencyBounds().length + 1, histogram.length);
+        assertEquals(2, histogram[0]);
+        assertEquals(1, histogram[1]);
+        assertEquals(1, histogram[histogram.length - 1]);
+        assertEquals(60026 / 4.0, stats.getAverageLatency(), 0.001);
+
+        stats.reset();
+        assertEquals(-1.0, stats.getAverageLatency(), 0);
+        assertEquals(-1.0, stats.getCacheHitRatio(), 0);
+    }
+
+    /**
+     * A paged fetch is recorded by the ResultSet and DataSource, and later requests for the
+     * same rows are cache hits.
+     */
+    public void testFetch() {
+        final DataSource dataSource = new ClientOnlyDS(500);
+        final CacheStats dataSourceStats = dataSource.getStats();
+        final ResultSet resultSet = new ResultSet(dataSource);
+        resultSet.setFetchMode(FetchMode.PAGED);
+        resultSet.setResultSize(100);
+        resultSet.ensureCreated();
+
+        resultSet.addStatsUpdatedHandler(new StatsUpdatedHandler() {
+            public void onStatsUpdated(StatsUpdatedEvent event) {
+                if (!"fetch".equals(event.getKind())) return;
+                CacheStats stats = event.getStats();
+                assertEquals(1, stats.getFetchCount());
+                assertTrue(stats.getRowsFetched() >= 50);
+                assertTrue(stats.getBytesFetched() > 0);
+                assertEquals(1, stats.getCacheMisses());
+
+                resultSet.getRange(0, 50);
+                assertEquals(1, stats.getCacheHits());
+                resultSet.invalidateCache();
+                assertEquals(1, stats.getInvalidationCount());
+
+                assertEquals(1, dataSourceStats.getFetchCount());
+                finishTest();
+            }
+        });
+        resultSet.getRange(0, 50);
+        delayTestFinish(10000);
+    }
+
+    /**
+     * Statistics are only collected once they have been requested.
+     */
+    public void testNotRequested() {
+        final DataSource dataSource = new ClientOnlyDS(10);
+        dataSource.fetchData(null, new DSCallback() {
+            public void execute(DSResponse response, Object rawData, DSRequest request) {
+                final CacheStats stats = dataSource.getStats();
+                assertEquals(0, stats.getFetchCount());
+                dataSource.fetchData(null, new DSCallback() {
+                    public void execute(DSResponse response, Object rawData, DSRequest request) {
+                        assertEquals(1, stats.getFetchCount());
+                        finishTest();
+                    }
+                });
+            }
+        });
+        delayTestFinish(10000);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data;
+
+import com.smartgwt.client.data.fields.DataSourceIntegerField;
+import com.smartgwt.client.data.fields.DataSourceTextField;
+
+/**
+ * Client-only DataSource with an integer "id" primary key and a text "name" field, holding
+ * <code>rowCount</code> rows with ids from 0 and names "row 0", "row 1" and so on.
+ */
+public class ClientOnlyDS extends DataSource {
+
+    public ClientOnlyDS(int rowCount) {
+        this(null, rowCount);
+    }
+
+    public ClientOnlyDS(String id, int rowCount) {
+        if (id != null) setID(id);
+        setClientOnly(true);
+        DataSourceIntegerField idField = new DataSourceIntegerField("id");
+        idField.setPrimaryKey(true);
+        setFields(idField, new DataSourceTextField("name"));
+        setCacheData(createRecords(rowCount));
+    }
+
+    public static Record[] createRecords(int rowCount) {
+        Record[] records = new Record[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            records[i] = new Record();
+            records[i].setAttribute("id", i);
+            records[i].setAttribute("name", "row " + i);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.data;
+
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.data.events.DataArrivedEvent;
+import com.smartgwt.client.data.events.DataArrivedHandler;
+import com.smartgwt.client.data.fields.DataSourceBooleanField;
+import com.smartgwt.client.data.fields.DataSourceFloatField;
+import com.smartgwt.client.data.fields.DataSourceIntegerField;
+import com.smartgwt.client.data.fields.DataSourceTextField;
+import com.smartgwt.client.types.OperatorId;
+import com.smartgwt.client.types.SortDirection;
+import com.smartgwt.client.types.SummaryFunctionType;
+
+/**
+ * Test for filtering, sorting and summarizing in a ColumnarStore.
+ */
+public class ColumnarStoreTestCase extends SmartGWTTestCase {
+
+    private static final String[] COLORS = {"Red", "green", "Blue", null};
+
+    /**
+     * Criteria on numeric, boolean and dictionary-encoded fields give the same rows as
+     * evaluating them on each record.
+     */
+    public void testFilter() {
+        ColumnarStore store = createStore(100);
+        assertEquals(100, store.getLength());
+        assertEquals(100, store.getRowCount(null));
+        assertEquals(25, store.getRowCount(new Criteria("color", "Red")));
+        assertEquals(25, store.getRowCount(new AdvancedCriteria("color", OperatorId.IEQUALS, "red")));
+        assertEquals(25, store.getRowCount(new AdvancedCriteria("color", OperatorId.IS_NULL)));
+        assertEquals(50, store.getRowCount(new AdvancedCriteria("active", OperatorId.EQUALS, true)));
+        assertEquals(10, store.getRowCount(new AdvancedCriteria("id", OperatorId.LESS_THAN, 10)));
+        assertEquals(11, store.getRowCount(new AdvancedCriteria(new Criterion("id", OperatorId.BETWEEN_INCLUSIVE, 10, 20))));
+
+        AdvancedCriteria criteria = new AdvancedCriteria(OperatorId.AND, new Criterion[] {
+            new Criterion("id", OperatorId.GREATER_OR_EQUAL, 50),
+            new Criterion("color", OperatorId.STARTS_WITH, "g")
+        });
+        assertEquals(store.getRowCount(criteria), countMatches(store, criteria));
+
+        AdvancedCriteria negated = new AdvancedCriteria(OperatorId.NOT, new Criterion[] {
+            new Criterion("active", OperatorId.EQUALS, true)
+        });
+        assertEquals(50, store.getRowCount(negated));
+    }
+
+    /**
+     * A "not" of several subcriteria matches the rows matching none of them.
+     */
+    public void testNot() {
+        ColumnarStore store = createStore(100);
+        AdvancedCriteria negated = new AdvancedCriteria(OperatorId.NOT, new Criterion[] {
+            new Criterion("active", OperatorId.EQUALS, true),
+            new Criterion("id", OperatorId.LESS_THAN, 10)
+        });
+        assertEquals(45, store.getRowCount(negated));
+        assertEquals(countMatches(store, negated), store.getRowCount(negated));
+    }
+
+    /**
+     * Summaries skip null values and apply criteria.
+     */
+    public void testSummary() {
+        ColumnarStore store = createStore(100);
+        assertEquals(4950.0, store.getSummary("id", SummaryFunctionType.SUM, null), 0);
+        assertEquals(49.5, store.getSummary("id", SummaryFunctionType.AVG, null), 0);
+        assertEquals(99.0, store.getSummary("id", SummaryFunctionType.MAX, null), 0);
+        assertEquals(75.0, store.getSummary("color", SummaryFunctionType.COUNT, null), 0);
+        assertEquals(0.0, store.getSummary("id", SummaryFunctionType.MIN, new Criteria("color", "Red")), 0);
+        assertNull(store.getSummary("id", SummaryFunctionType.SUM, new AdvancedCriteria("id", OperatorId.LESS_THAN, 0)));
+        try {
+            store.getSummary("id", SummaryFunctionType.TITLE, null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    /**
+     * A fetch is served from the store, sorted, with only the requested rows returned.
+     */
+    public void testFetch() {
+        DataSource dataSource = new DataSource();
+        dataSource.setClientOnly(true);
+        dataSource.setFields(createFields());
+        dataSource.setColumnarStore(createStore(100));
+
+        final ResultSet resultSet = new ResultSet(dataSource);
+        resultSet.setCriteria(new AdvancedCriteria("id", OperatorId.GREATER_OR_EQUAL, 40));
+        resultSet.setInitialSort(new SortSpecifier("id", SortDirection.DESCENDING));
+        resultSet.addDataArrivedHandler(new DataArrivedHandler() {
+            public void onDataArrived(DataArrivedEvent event) {
+                assertEquals(60, resultSet.getLength());
+                assertEquals(99, resultSet.get(0).getAttributeAsInt("id").intValue());
+                finishTest();
+            }
+        });
+        resultSet.getRange(0, 10);
+        delayTestFinish(10000);
+    }
+
+    private static int countMatches(ColumnarStore store, AdvancedCriteria criteria) {
+        CompiledCriteria compiled = CompiledCriteria.compile(criteria);
+        int count = 0;
+        for (int i = 0; i < store.getLength(); i++) {
+            if (compiled.matches(store.getRecord(i))) count++;
+        }
+        return count;
+    }
+
+    private static DataSourceField[] createFields() {
+        DataSourceIntegerField id = new DataSourceIntegerField("id");
+        id.setPrimaryKey(true);
+        return new DataSourceField[] {
+            id, new DataSourceTextField("color"), new DataSourceBooleanField("active"),
+            new DataSourceFloatField("value")
+        };
+    }
+
+    static ColumnarStore createStore(int rowCount) {
+        Record[] records = new Record[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            records[i] = new Record();
+            records[i].setAttribute("id", i);
+            if (COLORS[i % 4] != null) records[i].setAttribute("color", COLORS[i % 4]);
+            records[i].setAttribute("active", i % 2 == 0);
+            records[i].setAttribute("value", (i * 7919 % 1000) / 1000.0);
+        }
+        return new ColumnarStore(createFields(), records);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.data;
+
+import java.util.Date;
+
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.types.OperatorId;
+
+/**
+ * Test for compiled criteria.
+ */
+public class CompiledCriteriaTestCase extends SmartGWTTestCase {
+
+    /**
+     * Compiled operators match records as documented.
+     */
+    public void testOperators() {
+        Record record = new Record();
+        record.setAttribute("name", "Widget Deluxe");
+        record.setAttribute("count", 5);
+        record.setAttribute("created", new Date(1000));
+        record.setAttribute("other", 5);
+
+        assertTrue(matches(record, new Criterion("name", OperatorId.EQUALS, "Widget Deluxe")));
+        assertFalse(matches(record, new Criterion("name", OperatorId.EQUALS, "widget deluxe")));
+        assertTrue(matches(record, new Criterion("name", OperatorId.IEQUALS, "widget deluxe")));
+        assertTrue(matches(record, new Criterion("name", OperatorId.ICONTAINS, "DELUXE")));
+        assertTrue(matches(record, new Criterion("name", OperatorId.NOT_STARTS_WITH, "Deluxe")));
+        assertTrue(matches(record, new Criterion("name", OperatorId.ENDS_WITH, "Deluxe")));
+        assertTrue(matches(record, new Criterion("name", OperatorId.REGEXP, "^W.*e$")));
+        assertTrue(matches(record, new Criterion("count", OperatorId.BETWEEN_INCLUSIVE, 5, 6)));
+        assertFalse(matches(record, new Criterion("count", OperatorId.BETWEEN, 5, 6)));
+        assertTrue(matches(record, new Criterion("count", OperatorId.IN_SET, new Integer[] {1, 5})));
+        assertTrue(matches(record, new Criterion("created", OperatorId.EQUALS, new Date(1000))));
+        assertTrue(matches(record, new Criterion("created", OperatorId.LESS_THAN, new Date(2000))));
+        assertTrue(matches(record, new Criterion("missing", OperatorId.IS_NULL)));
+        assertTrue(matches(record, new Criterion("count", OperatorId.EQUALS_FIELD, "other")));
+
+        AdvancedCriteria or = new AdvancedCriteria(OperatorId.OR, new Criterion[] {
+            new Criterion("count", OperatorId.GREATER_THAN, 10),
+            new Criterion("name", OperatorId.STARTS_WITH, "Widget")
+        });
+        assertTrue(matches(record, or));
+        assertFalse(matches(record, new AdvancedCriteria(OperatorId.NOT, new Criterion[] {or})));
+
+        // "not" is true when none of its subcriteria match
+        Criterion large = new Criterion("count", OperatorId.GREATER_THAN, 10),
+                  widget = new Criterion("name", OperatorId.STARTS_WITH, "Widget"),
+                  gadget = new Criterion("name", OperatorId.STARTS_WITH, "Gadget");
+        assertFalse(matches(record, new AdvancedCriteria(OperatorId.NOT, new Criterion[] {large, widget})));
+        assertTrue(matches(record, new AdvancedCriteria(OperatorId.NOT, new Criterion[] {large, gadget})));
+
+        Criteria simple = new Criteria("count", "5");
+        assertTrue(CompiledCriteria.compile(simple).matches(record));
+    }
+
+    /**
+     * Equal criteria share one compiled predicate.
+     */
+    public void testCache() {
+        CompiledCriteria first = CompiledCriteria.compile(new AdvancedCriteria("count", OperatorId.GREATER_THAN, 3));
+        CompiledCriteria second = CompiledCriteria.compile(new AdvancedCriteria("count", OperatorId.GREATER_THAN, 3));
+        assertSame(first, second);
+        assertNotSame(first, CompiledCriteria.compile(new AdvancedCriteria("count", OperatorId.GREATER_THAN, 4)));
+    }
+
+    private static boolean matches(Record record, Criterion criterion) {
+        return CompiledCriteria.compile(criterion).matches(record);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.data;
+
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.types.OperatorId;
+
+/**
+ * Test for criteria normalization and fingerprints.
+ */
+public class CriteriaNormalizeTestCase extends SmartGWTTestCase {
+
+    /**
+     * Reordered and redundantly nested criteria share a fingerprint.
+     */
+    public void testEquivalentCriteria() {
+        Criterion a = new Criterion("name", OperatorId.STARTS_WITH, "A");
+        Criterion b = new Criterion("count", OperatorId.GREATER_THAN, 3);
+        Criterion c = new Criterion("region", OperatorId.IN_SET, new String[] {"west", "east"});
+
+        AdvancedCriteria flat = new AdvancedCriteria(OperatorId.AND, new Criterion[] {a, b, c});
+        AdvancedCriteria nested = new AdvancedCriteria(OperatorId.AND, new Criterion[] {
+            new Criterion("region", OperatorId.IN_SET, new String[] {"east", "west"}),
+            new Criterion(OperatorId.AND, new Criterion[] {b, new Criterion(OperatorId.OR, new Criterion[] {a})})
+        });
+        assertEquals(flat.fingerprint(), nested.fingerprint());
+        assertEquals(16, flat.fingerprint().length());
+
+        Criteria normalized = nested.normalize();
+        assertTrue(normalized instanceof AdvancedCriteria);
+        assertEquals(3, ((AdvancedCriteria) normalized).getCriteria().length);
+
+        AdvancedCriteria or = new AdvancedCriteria(OperatorId.OR, new Criterion[] {a, b, c});
+        assertFalse(flat.fingerprint().equals(or.fingerprint()));
+    }
+
+    /**
+     * A "not" group absorbs a nested "or", which it negates as a whole, but not a nested "and".
+     */
+    public void testNot() {
+        Criterion a = new Criterion("name", OperatorId.STARTS_WITH, "A");
+        Criterion b = new Criterion("count", OperatorId.GREATER_THAN, 3);
+        AdvancedCriteria not = new AdvancedCriteria(OperatorId.NOT, new Criterion[] {a, b});
+
+        AdvancedCriteria notOr = new AdvancedCriteria(OperatorId.NOT, new Criterion[] {
+            new Criterion(OperatorId.OR, new Criterion[] {b, a})
+        });
+        assertEquals(not.fingerprint(), notOr.fingerprint());
+        assertEquals(2, ((AdvancedCriteria) notOr.normalize()).getCriteria().length);
+
+        AdvancedCriteria notAnd = new AdvancedCriteria(OperatorId.NOT, new Criterion[] {
+            new Criterion(OperatorId.AND, new Criterion[] {a, b})
+        });
+        assertFalse(not.fingerprint().equals(notAnd.fingerprint()));
+        Criterion[] criteria = ((AdvancedCriteria) notAnd.normalize()).getCriteria();
+        assertEquals(1, criteria.length);
+        assertEquals(OperatorId.AND, criteria[0].getOperator());
+    }
+
+    /**
+     * Simple criteria stay simple, and property order does not matter.
+     */
+    public void testSimpleCriteria() {
+        Criteria first = new Criteria("a", "1");
+        first.addCriteria("b", "2");
+        Criteria second = new Criteria("b", "2");
+        second.addCriteria("a", "1");
+
+        assertEquals(first.fingerprint(), second.fingerprint());
+        assertTrue(first.isEquivalent(second));
+        assertFalse(first.normalize().isAdvanced());
+        assertFalse(first.fingerprint().equals(new Criteria("a", "2").fingerprint()));
+        assertFalse(first.isEquivalent(new Criteria("a", "2")));
+    }
+
+    /**
+     * Property names containing the separators of the canonical form are not confused with
+     * separate properties.
+     */
+    public void testSeparatorsInNames() {
+        Criteria two = new Criteria("a", "x");
+        two.addCriteria("b", "y");
+        Criteria one = new Criteria("a=s1:x;b", "y");
+
+        assertFalse(two.isEquivalent(one));
+        assertFalse(two.fingerprint().equals(one.fingerprint()));
+    }
+
+    /**
+     * A single-clause group collapses to its clause.
+     */
+    public void testSingleClause() {
+        Criterion clause = new Criterion("count", OperatorId.EQUALS, 1);
+        AdvancedCriteria group = new AdvancedCriteria(OperatorId.OR, new Criterion[] {clause});
+        Criteria normalized = group.normalize();
+        assertTrue(normalized.isAdvanced());
+        assertEquals("count", ((AdvancedCriteria) normalized).getFieldName());
+        assertEquals(new AdvancedCriteria("count", OperatorId.EQUALS, 1).fingerprint(), group.fingerprint());
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.data;
+
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.types.TextMatchStyle;
+
+/**
+ * Test for coalescing identical pending DataSource fetches.
+ */
+public class FetchCoalescingTestCase extends SmartGWTTestCase {
+
+    private int callbacks;
+    private Record[] firstData;
+
+    /**
+     * Identical fetches issued together share one request, and each callback receives its
+     * own records and clientContext.
+     */
+    public void testCoalescing() {
+        final DataSource dataSource = new ClientOnlyDS(6);
+        dataSource.setCoalesceFetches(true);
+        final Criteria criteria = new Criteria("name", "row 1");
+
+        for (int i = 0; i < 3; i++) {
+            DSRequest requestProperties = new DSRequest();
+            final String caller = "caller" + i;
+            Record clientContext = new Record();
+            clientContext.setAttribute("caller", caller);
+            requestProperties.setAttribute("clientContext", clientContext.getJsObj());
+            dataSource.fetchData(criteria, new DSCallback() {
+                public void execute(DSResponse response, Object rawData, DSRequest request) {
+                    assertEquals(caller, response.getAttributeAsRecord("clientContext").getAttribute("caller"));
+                    Record[] data = response.getData();
+                    assertEquals(1, data.length);
+                    if (firstData == null) {
+                        firstData = data;
+                    } else {
+                        assertNotSame(firstData[0].getJsObj(), data[0].getJsObj());
+                    }
+                    if (++callbacks == 3) {
+                        assertEquals(2, dataSource.getCoalescedFetchCount());
+                        finishTest();
+                    }
+                }
+            }, requestProperties);
+        }
+        // a fetch with other criteria is sent separately
+        dataSource.fetchData(new Criteria("name", "row 2"), null);
+        assertEquals(2, dataSource.getCoalescedFetchCount());
+        delayTestFinish(10000);
+    }
+
+    /**
+     * Fetches differing in criteria or in request properties which change the result are
+     * each sent, and receive their own results.
+     */
+    public void testNotCoalesced() {
+        final DataSource dataSource = new ClientOnlyDS(6);
+        dataSource.setCoalesceFetches(true);
+
+        DSRequest substring = new DSRequest();
+        substring.setTextMatchStyle(TextMatchStyle.SUBSTRING);
+        DSRequest otherOperation = new DSRequest();
+        otherOperation.setOperationId("otherFetch");
+
+        fetchExpecting(dataSource, new Criteria("name", "row 1"), null, "row 1");
+        fetchExpecting(dataSource, new Criteria("name", "row 2"), null, "row 2");
+        fetchExpecting(dataSource, new Criteria("name", "row 1"), substring, "row 1");
+        fetchExpecting(dataSource, new Criteria("name", "row 1"), otherOperation, "row 1");
+        assertEquals(0, dataSource.getCoalescedFetchCount());
+        delayTestFinish(10000);
+    }
+
+    private void fetchExpecting(final DataSource dataSource, Criteria criteria, DSRequest properties,
+                                final String name) {
+        dataSource.fetchData(criteria, new DSCallback() {
+            public void execute(DSResponse response, Object rawData, DSRequest request) {
+                Record[] data = response.getData();
+                assertEquals(1, data.length);
+                assertEquals(name, data[0].getAttribute("name"));
+                if (++callbacks == 4) {
+                    assertEquals(0, dataSource.getCoalescedFetchCount());
+                    finishTest();
+                }
+            }
+        }, properties);
+    }
+}
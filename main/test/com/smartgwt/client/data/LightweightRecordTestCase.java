@@ -0,0 +1,43 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.data;
+
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.util.JSOHelper;
+import com.smartgwt.client.util.SC;
+
+/**
+ * Test for records without back-references.
+ */
+public class LightweightRecordTestCase extends SmartGWTTestCase {
+
+    /**
+     * Lightweight records neither add nor remove back-references.
+     */
+    public void testNoBackReferences() {
+        LightweightRecord record = new LightweightRecord();
+        record.setAttribute("id", 1);
+        assertNull(JSOHelper.getAttributeAsObject(record.getJsObj(), SC.REF));
+        assertNull(JSOHelper.getAttributeAsObject(record.getJsObj(), SC.MODULE));
+
+        Record wrapped = new Record();
+        LightweightRecord view = new LightweightRecord(wrapped.getJsObj());
+        assertSame(wrapped, JSOHelper.getAttributeAsObject(wrapped.getJsObj(), SC.REF));
+        assertEquals(wrapped, view);
+        assertEquals(view, new LightweightRecord(wrapped.getJsObj()));
+        assertSame(wrapped, Record.getOrCreateRef(view.getJsObj()));
+    }
+}
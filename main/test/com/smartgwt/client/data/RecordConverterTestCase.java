@@ -0,0 +1,93 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.data;
+
+import java.util.Date;
+import java.util.Map;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.data.fields.*;
+
+/**
+ * Test for schema-driven record conversion.
+ */
+public class RecordConverterTestCase extends SmartGWTTestCase {
+
+    /**
+     * Values are coerced to the declared field types.
+     */
+    public void testTypedConversion() {
+        DataSource ds = new DataSource();
+        ds.setID("recordConverterTypesDS");
+        ds.setClientOnly(true);
+        ds.setFields(new DataSourceTextField("name"), new DataSourceIntegerField("count"),
+                     new DataSourceFloatField("price"), new DataSourceBooleanField("active"),
+                     new DataSourceDateField("created"));
+
+        Record record = new Record();
+        record.setAttribute("name", "widget");
+        record.setAttribute("count", 3);
+        record.setAttribute("price", 2.0);
+        record.setAttribute("active", true);
+        record.setAttribute("created", new Date(0));
+        record.setAttribute("extra", 7);
+
+        Map map = record.toMap(ds);
+        assertEquals("widget", map.get("name"));
+        assertEquals(Integer.valueOf(3), map.get("count"));
+        // declared float, so a whole number is still a Double
+        assertEquals(Double.valueOf(2.0), map.get("price"));
+        assertEquals(Boolean.TRUE, map.get("active"));
+        assertTrue(map.get("created") instanceof Date);
+        assertEquals(Integer.valueOf(7), map.get("extra"));
+        assertFalse(map.containsKey("__ref"));
+
+        ds.getRecordConverter().setIncludeUndeclaredFields(false);
+        assertFalse(ds.getRecordConverter().toMap(record).containsKey("extra"));
+        assertSame(ds.getRecordConverter(), ds.getRecordConverter());
+    }
+
+    /**
+     * The cached converter is recompiled when the DataSource's fields are replaced.
+     */
+    public void testFieldsChanged() {
+        DataSource ds = new DataSource();
+        ds.setID("recordConverterFieldsDS");
+        ds.setClientOnly(true);
+        ds.setFields(new DataSourceTextField("name"));
+
+        RecordConverter converter = ds.getRecordConverter();
+        assertEquals(1, converter.getFieldNames().length);
+        assertSame(converter, ds.getRecordConverter());
+
+        replaceFields(ds.getOrCreateJsObj(), "count", "integer");
+        RecordConverter updated = ds.getRecordConverter();
+        assertNotSame(converter, updated);
+        assertEquals(2, updated.getFieldNames().length);
+
+        Record record = new Record();
+        record.setAttribute("count", 2);
+        assertEquals(Integer.valueOf(2), updated.toMap(record).get("count"));
+    }
+
+    // Changes the fields of the live DataSource from JavaScript by replacing its fields object
+    private static native void replaceFields(JavaScriptObject ds, String name, String type) /*-{
+        var fields = $wnd.isc.addProperties({}, ds.fields);
+        fields[name] = { name: name, type: type };
+        ds.fields = fields;
+    }-*/;
+}
@@ -0,0 +1,87 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.data;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.util.JSOHelper;
+
+/**
+ * Test for walking record arrays without a wrapper per row.
+ */
+public class RecordCursorTestCase extends SmartGWTTestCase {
+
+    /**
+     * The cursor visits every row, reusing one record for rows without a wrapper.
+     */
+    public void testCursor() {
+        Record wrapped = new Record();
+        wrapped.setAttribute("id", 1);
+        JavaScriptObject rows = JSOHelper.createJavaScriptArray();
+        JSOHelper.setArrayValue(rows, 0, createRow(0));
+        JSOHelper.setArrayValue(rows, 1, wrapped.getJsObj());
+        JSOHelper.setArrayValue(rows, 2, createRow(2));
+
+        RecordCursor<Record> cursor = Record.createCursor(rows);
+        assertEquals(3, cursor.getLength());
+        assertEquals(-1, cursor.getIndex());
+
+        assertTrue(cursor.next());
+        Record flyweight = cursor.get();
+        assertEquals(0, flyweight.getAttributeAsInt("id").intValue());
+        assertTrue(cursor.next());
+        assertSame(wrapped, cursor.get());
+        assertTrue(cursor.next());
+        assertSame(flyweight, cursor.get());
+        assertEquals(2, flyweight.getAttributeAsInt("id").intValue());
+        assertNotSame(flyweight, cursor.toRecord());
+        assertFalse(cursor.next());
+        assertNull(cursor.get());
+
+        cursor.reset();
+        assertTrue(cursor.next());
+        assertEquals(0, cursor.getIndex());
+
+        assertEquals(0, Record.createCursor(null).getLength());
+        assertEquals(1, Record.createCursor(createRow(5)).getLength());
+    }
+
+    /**
+     * The view creates a wrapper once per accessed row, and reuses existing wrappers.
+     */
+    public void testArrayView() {
+        Record wrapped = new Record();
+        wrapped.setAttribute("id", 1);
+        JavaScriptObject rows = JSOHelper.createJavaScriptArray();
+        JSOHelper.setArrayValue(rows, 0, createRow(0));
+        JSOHelper.setArrayValue(rows, 1, wrapped.getJsObj());
+
+        RecordArrayView<Record> view = Record.createArrayView(rows);
+        assertEquals(2, view.size());
+        assertSame(view.get(0), view.get(0));
+        assertSame(wrapped, view.get(1));
+        assertEquals(0, view.get(0).getAttributeAsInt("id").intValue());
+        try {
+            view.get(2);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+        }
+    }
+
+    private static native JavaScriptObject createRow(int id) /*-{
+        return { id: id };
+    }-*/;
+}
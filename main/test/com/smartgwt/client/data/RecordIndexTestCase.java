@@ -0,0 +1,139 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.smartgwt.client.SmartGWTTestCase;
+
+/**
+ * Test for RecordList hash indexes.
+ */
+public class RecordIndexTestCase extends SmartGWTTestCase {
+
+    /**
+     * Lookups through an index agree with the list as it is modified.
+     */
+    public void testIndexMaintenance() {
+        RecordList list = new RecordList();
+        list.add(createRecord(1, "a"));
+        list.add(createRecord(2, "b"));
+        list.add(createRecord(3, "a"));
+
+        RecordIndex byId = list.createIndex("id");
+        RecordIndex byGroup = list.createIndex("group");
+        assertSame(byId, list.createIndex("id"));
+        assertTrue(byId.isUnique());
+        assertFalse(byGroup.isUnique());
+
+        assertEquals(1, list.findIndex("id", 2));
+        assertEquals(2, list.findAll("group", "a").length);
+        assertNull(list.findAll("group", "z"));
+        assertEquals(-1, list.findIndex("id", 4));
+        // values of another type are matched as a scan matches them
+        assertEquals(1, byId.findIndex("2"));
+        assertEquals(1, list.findIndex("id", "2"));
+
+        list.add(createRecord(4, "b"));
+        assertEquals(3, list.findIndex("id", 4));
+
+        list.set(0, createRecord(5, "b"));
+        assertEquals(-1, list.findIndex("id", 1));
+        assertEquals(0, list.findIndex("id", 5));
+        assertEquals(3, list.findAll("group", "b").length);
+
+        list.addAt(createRecord(6, "c"), 0);
+        assertEquals(1, list.findIndex("id", 5));
+        list.removeAt(0);
+        assertEquals(-1, list.findIndex("id", 6));
+
+        list.sortByProperty("id", false);
+        assertEquals(0, list.findIndex("id", 5));
+        assertEquals(list.getLength() - 1, list.findIndex("id", 2));
+
+        list.get(0).setAttribute("id", 7);
+        byId.invalidate();
+        assertEquals(0, list.findIndex("id", 7));
+
+        list.dropIndex(byId);
+        assertNull(list.getIndex("id"));
+        assertEquals(0, list.findIndex("id", 7));
+    }
+
+    /**
+     * A composite index is used for lookups by Map on the same properties.
+     */
+    public void testCompositeIndex() {
+        RecordList list = new RecordList();
+        list.add(createRecord(1, "a"));
+        list.add(createRecord(1, "b"));
+        RecordIndex index = list.createIndex("group", "id");
+        assertEquals(1, index.findIndex("b", 1));
+
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("id", 1);
+        values.put("group", "b");
+        assertEquals(1, list.findIndex(values));
+        assertEquals(1, list.findAll(values).length);
+    }
+
+    /**
+     * Lookups return the records a scan would when the list holds values of several types.
+     */
+    public void testMixedTypes() {
+        RecordList list = new RecordList();
+        list.add(createRecord(1, "a"));
+        Record record = new Record();
+        record.setAttribute("id", "2");
+        record.setAttribute("group", "b");
+        list.add(record);
+        list.add(createRecord(3, "c"));
+
+        RecordIndex byId = list.createIndex("id");
+        assertEquals(1, list.findIndex("id", 2));
+        assertEquals(1, list.findIndex("id", "2"));
+        assertEquals(0, byId.findIndex("1"));
+        assertEquals(2, list.findIndex("id", 3));
+        assertEquals(-1, list.findIndex("id", 4));
+
+        // the index notes the types of values added after it was built
+        RecordIndex byGroup = list.createIndex("group");
+        assertEquals(0, byGroup.findIndex("a"));
+        Record numbered = createRecord(4, "d");
+        numbered.setAttribute("group", 5);
+        list.add(numbered);
+        assertEquals(3, list.findIndex("group", "5"));
+        assertEquals(3, list.findIndex("group", 5));
+        assertEquals(0, list.findIndex("group", "a"));
+    }
+
+    /**
+     * An index over a ResultSet without all matching rows cached is not reported as unique.
+     */
+    public void testUnusableIndex() {
+        ResultSet resultSet = new ResultSet(new ClientOnlyDS(10));
+        RecordIndex byId = resultSet.createIndex("id");
+        assertFalse(byId.isUnique());
+    }
+
+    private static Record createRecord(int id, String group) {
+        Record record = new Record();
+        record.setAttribute("id", id);
+        record.setAttribute("group", group);
+        return record;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.data;
+
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.data.events.DataArrivedEvent;
+import com.smartgwt.client.data.events.DataArrivedHandler;
+import com.smartgwt.client.types.FetchMode;
+
+/**
+ * Test for the ResultSet cache limit.
+ */
+public class ResultSetCacheLimitTestCase extends SmartGWTTestCase {
+
+    private static final int ROW_COUNT = 2000;
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_CACHED_ROWS = 300;
+
+    /**
+     * Paging through the data keeps at most maxCachedRows rows, and dropped rows are fetched
+     * again when requested.
+     */
+    public void testEviction() {
+        final ResultSet resultSet = new ResultSet(new ClientOnlyDS(ROW_COUNT));
+        resultSet.setFetchMode(FetchMode.PAGED);
+        resultSet.setResultSize(PAGE_SIZE);
+        resultSet.setMaxCachedRows(MAX_CACHED_ROWS);
+        resultSet.ensureCreated();
+
+        resultSet.addDataArrivedHandler(new DataArrivedHandler() {
+            private int nextRow = PAGE_SIZE;
+            private boolean refetching;
+
+            public void onDataArrived(DataArrivedEvent event) {
+                assertTrue(resultSet.getCachedRowCount() <= MAX_CACHED_ROWS);
+                if (refetching) {
+                    assertTrue(resultSet.rowIsLoaded(0));
+                    // rows are dropped in whole pages
+                    assertTrue(resultSet.getEvictedRowCount() > 0);
+                    assertTrue(resultSet.getEvictedRowCount() <= resultSet.getEvictedPageCount() * PAGE_SIZE);
+                    finishTest();
+                } else if (nextRow < ROW_COUNT) {
+                    resultSet.getRange(nextRow, nextRow + PAGE_SIZE / 2);
+                    nextRow += PAGE_SIZE;
+                } else {
+                    assertFalse(resultSet.rowIsLoaded(0));
+                    assertFalse(resultSet.rangeIsLoaded(0, PAGE_SIZE));
+                    assertTrue(resultSet.getEvictedPageCount() > 0);
+                    refetching = true;
+                    resultSet.getRange(0, PAGE_SIZE / 2);
+                }
+            }
+        });
+        resultSet.getRange(0, PAGE_SIZE / 2);
+        delayTestFinish(10000);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.client.data;
+
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.data.events.DataArrivedEvent;
+import com.smartgwt.client.data.events.DataArrivedHandler;
+import com.smartgwt.client.types.FetchMode;
+
+/**
+ * Test for prefetching by a ResultSet with a prefetch policy.
+ */
+public class ResultSetPrefetchTestCase extends SmartGWTTestCase {
+
+    private static final int ROW_COUNT = 1000;
+    private static final int READ_AHEAD = 100;
+
+    // Reads a fixed number of rows beyond the requested rows
+    private static class FixedPrefetchPolicy implements PrefetchPolicy {
+        int calls;
+        int lastTotalRows;
+
+        public int[] getFetchRange(int startRow, int endRow, int totalRows, PrefetchStats stats) {
+            calls++;
+            lastTotalRows = totalRows;
+            return new int[] {startRow, endRow + READ_AHEAD};
+        }
+    }
+
+    /**
+     * Rows chosen by the policy are fetched with the requested rows, counted as hits when
+     * requested and as wasted when the cache is invalidated, and the latency, row size and
+     * scroll velocity are measured.
+     */
+    public void testPrefetch() {
+        final FixedPrefetchPolicy policy = new FixedPrefetchPolicy();
+        final ResultSet resultSet = new ResultSet(new ClientOnlyDS(ROW_COUNT));
+        resultSet.setFetchMode(FetchMode.PAGED);
+        resultSet.setResultSize(50);
+        resultSet.setPrefetchPolicy(policy);
+        resultSet.ensureCreated();
+
+        final PrefetchStats stats = resultSet.getPrefetchStats();
+        assertNotNull(stats);
+        assertEquals(-1.0, stats.getLatency());
+        assertEquals(-1.0, stats.getRowSize());
+
+        resultSet.addDataArrivedHandler(new DataArrivedHandler() {
+            private boolean done;
+
+            public void onDataArrived(DataArrivedEvent event) {
+                if (done) return;
+                done = true;
+
+                assertTrue(stats.getLatency() >= 0);
+                assertTrue(stats.getRowSize() > 0);
+                assertTrue(resultSet.rangeIsLoaded(0, 20 + READ_AHEAD));
+
+                // requesting prefetched rows counts hits without fetching again
+                resultSet.getRange(20, 40);
+                resultSet.getRange(40, 60);
+                assertEquals(1, policy.calls);
+                assertEquals(40, stats.getPrefetchHits());
+                assertEquals(READ_AHEAD - 40, stats.getPendingRows());
+                assertTrue(stats.getScrollVelocity() > 0);
+
+                // prefetched rows never requested are wasted
+                resultSet.invalidateCache();
+                assertEquals(READ_AHEAD - 40, stats.getWastedRows());
+                assertEquals(0, stats.getPendingRows());
+                finishTest();
+            }
+        });
+
+        resultSet.getRange(0, 20);
+        assertEquals(1, policy.calls);
+        assertEquals(-1, policy.lastTotalRows);
+        assertEquals(READ_AHEAD, stats.getPrefetchedRows());
+        assertEquals(READ_AHEAD, stats.getPendingRows());
+        assertEquals(0, stats.getPrefetchHits());
+        delayTestFinish(10000);
+    }
+
+    /**
+     * Without a policy no statistics are kept.
+     */
+    public void testNoPolicy() {
+        ResultSet resultSet = new ResultSet(new ClientOnlyDS(ROW_COUNT));
+        resultSet.ensureCreated();
+        assertNull(resultSet.getPrefetchStats());
+    }
+}
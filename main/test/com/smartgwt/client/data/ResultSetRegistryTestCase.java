@@ -0,0 +1,192 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.data;
+
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.data.events.DataArrivedEvent;
+import com.smartgwt.client.data.events.DataArrivedHandler;
+import com.smartgwt.client.data.events.DataChangedEvent;
+import com.smartgwt.client.data.events.DataChangedHandler;
+import com.smartgwt.client.types.OperatorId;
+import com.smartgwt.client.types.SortDirection;
+
+/**
+ * Test for sharing ResultSets through the registry.
+ */
+public class ResultSetRegistryTestCase extends SmartGWTTestCase {
+
+    private static final int ROW_COUNT = 100;
+
+    /**
+     * Equivalent requests share one ResultSet until the last reference is released.
+     */
+    public void testSharing() {
+        DataSource dataSource = WorldDS.getInstance();
+        AdvancedCriteria criteria = new AdvancedCriteria(OperatorId.AND, new Criterion[] {
+            new Criterion("continent", OperatorId.EQUALS, "Europe"),
+            new Criterion("population", OperatorId.GREATER_THAN, 1000000)
+        });
+        AdvancedCriteria reordered = new AdvancedCriteria(OperatorId.AND, new Criterion[] {
+            new Criterion("population", OperatorId.GREATER_THAN, 1000000),
+            new Criterion("continent", OperatorId.EQUALS, "Europe")
+        });
+
+        ResultSet first = ResultSetRegistry.acquire(dataSource, criteria);
+        ResultSet second = ResultSetRegistry.acquire(dataSource, reordered);
+        assertSame(first, second);
+        assertEquals(2, ResultSetRegistry.getReferenceCount(first));
+
+        ResultSet other = ResultSetRegistry.acquire(dataSource, new Criteria("continent", "Asia"));
+        assertNotSame(first, other);
+        ResultSet otherOperation = ResultSetRegistry.acquire(dataSource, criteria, "customFetch");
+        assertNotSame(first, otherOperation);
+        ResultSetRegistry.release(other);
+        ResultSetRegistry.release(otherOperation);
+
+        ResultSetRegistry.release(first);
+        assertEquals(1, ResultSetRegistry.getReferenceCount(first));
+        ResultSetRegistry.release(second);
+        assertEquals(0, ResultSetRegistry.getReferenceCount(first));
+        assertEquals(0, ResultSetRegistry.getSharedCount());
+
+        ResultSet third = ResultSetRegistry.acquire(dataSource, criteria);
+        assertNotSame(first, third);
+        ResultSetRegistry.release(third);
+    }
+
+    /**
+     * A ResultSet whose criteria have been changed is not handed out again.
+     */
+    public void testChangedCriteria() {
+        DataSource dataSource = WorldDS.getInstance();
+        ResultSet first = ResultSetRegistry.acquire(dataSource, null);
+        first.setCriteria(new Criteria("continent", "Europe"));
+
+        ResultSet second = ResultSetRegistry.acquire(dataSource, null);
+        assertNotSame(first, second);
+        assertEquals(2, ResultSetRegistry.getSharedCount());
+
+        ResultSetRegistry.release(first);
+        ResultSetRegistry.release(second);
+        assertEquals(0, ResultSetRegistry.getSharedCount());
+    }
+
+    /**
+     * Views with different sort orders share one ResultSet, whose rows are fetched once, and
+     * each shows them in its own order.
+     */
+    public void testSortedViews() {
+        final DataSource dataSource = new ClientOnlyDS("resultSetRegistryViewDS", ROW_COUNT);
+        final CacheStats stats = dataSource.getStats();
+        final RecordList byName = ResultSetRegistry.acquireView(dataSource, null, null,
+                                      new SortSpecifier("name", SortDirection.DESCENDING)),
+                         byId = ResultSetRegistry.acquireView(dataSource, new Criteria(), null,
+                                    new SortSpecifier("id", SortDirection.DESCENDING));
+        final ResultSet resultSet = ResultSetRegistry.getResultSet(byName);
+        assertSame(resultSet, ResultSetRegistry.getResultSet(byId));
+        assertEquals(2, ResultSetRegistry.getReferenceCount(resultSet));
+        assertEquals(1, ResultSetRegistry.getSharedCount());
+
+        byId.addDataChangedHandler(new DataChangedHandler() {
+            public void onDataChanged(DataChangedEvent event) {
+                if (byId.getLength() < ROW_COUNT) return;
+                assertEquals(ROW_COUNT, byName.getLength());
+                assertEquals("row 99", byName.get(0).getAttribute("name"));
+                assertEquals(ROW_COUNT - 1, byId.get(0).getAttributeAsInt("id").intValue());
+                assertEquals(0, byId.get(ROW_COUNT - 1).getAttributeAsInt("id").intValue());
+                assertTrue(stats.getFetchCount() <= 2);
+
+                ResultSetRegistry.releaseView(byName);
+                assertEquals(1, ResultSetRegistry.getReferenceCount(resultSet));
+                ResultSetRegistry.releaseView(byId);
+                assertEquals(0, ResultSetRegistry.getSharedCount());
+                finishTest();
+            }
+        });
+        delayTestFinish(10000);
+    }
+
+    /**
+     * Rows requested by several components holding a shared ResultSet are fetched once.
+     */
+    public void testSharedFetch() {
+        final DataSource dataSource = new ClientOnlyDS("resultSetRegistryFetchDS", ROW_COUNT);
+        final CacheStats stats = dataSource.getStats();
+        final ResultSet first = ResultSetRegistry.acquire(dataSource, null),
+                        second = ResultSetRegistry.acquire(dataSource, null);
+
+        first.addDataArrivedHandler(new DataArrivedHandler() {
+            public void onDataArrived(DataArrivedEvent event) {
+                assertTrue(second.rangeIsLoaded(0, 20));
+                assertEquals(1, stats.getFetchCount());
+                ResultSetRegistry.release(first);
+                ResultSetRegistry.release(second);
+                finishTest();
+            }
+        });
+        first.getRange(0, 20);
+        second.getRange(0, 20);
+        delayTestFinish(10000);
+    }
+
+    /**
+     * An update to the DataSource is applied once to a shared ResultSet, and every component
+     * holding it is notified.
+     */
+    public void testCacheSyncFanOut() {
+        final DataSource dataSource = new ClientOnlyDS("resultSetRegistrySyncDS", ROW_COUNT);
+        final ResultSet first = ResultSetRegistry.acquire(dataSource, null),
+                        second = ResultSetRegistry.acquire(dataSource, null);
+        final int[] notified = new int[2];
+
+        first.addDataArrivedHandler(new DataArrivedHandler() {
+            private boolean added;
+
+            public void onDataArrived(DataArrivedEvent event) {
+                if (added) return;
+                added = true;
+                assertEquals(ROW_COUNT, first.getLength());
+
+                // one handler per component
+                for (int i = 0; i < notified.length; i++) {
+                    final int component = i;
+                    (i == 0 ? first : second).addDataChangedHandler(new DataChangedHandler() {
+                        public void onDataChanged(DataChangedEvent event) {
+                            notified[component]++;
+                        }
+                    });
+                }
+
+                Record record = new Record();
+                record.setAttribute("id", ROW_COUNT);
+                record.setAttribute("name", "added");
+                dataSource.addData(record, new DSCallback() {
+                    public void execute(DSResponse response, Object rawData, DSRequest request) {
+                        assertEquals(ROW_COUNT + 1, second.getLength());
+                        assertEquals(1, second.findAll("id", ROW_COUNT).length);
+                        assertEquals(1, notified[0]);
+                        assertEquals(1, notified[1]);
+                        ResultSetRegistry.release(first);
+                        ResultSetRegistry.release(second);
+                        finishTest();
+                    }
+                });
+            }
+        });
+        first.getRange(0, ROW_COUNT);
+        delayTestFinish(10000);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.rpc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.core.client.GWT;
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.types.RPCPriority;
+
+/**
+ * Test for automatic batching of RPC requests.
+ */
+public class AutoBatchTestCase extends SmartGWTTestCase {
+
+    protected void gwtTearDown() throws Exception {
+        RPCManager.setQueueSentCallback(null);
+        RPCManager.setAutoBatch(false);
+        RPCManager.setAutoBatchWindow(0);
+        super.gwtTearDown();
+    }
+
+    /**
+     * Requests sent together go out as one queue, except those which opt out.
+     */
+    public void testBatching() {
+        final List<Integer> queueSizes = new ArrayList<Integer>();
+        RPCManager.setQueueSentCallback(new QueueSentCallback() {
+            public void queueSent(RPCRequest[] requests) {
+                queueSizes.add(requests.length);
+                if (queueSizes.size() < 2) return;
+                // the bulk request is sent at once, and the batch when this thread completes
+                assertEquals(1, queueSizes.get(0).intValue());
+                assertEquals(3, queueSizes.get(1).intValue());
+                finishTest();
+            }
+        });
+        RPCManager.setAutoBatch(true);
+        RPCManager.setAutoBatchWindow(0);
+
+        for (int i = 0; i < 3; i++) {
+            RPCManager.sendRequest(createRequest("request" + i, null));
+        }
+        RPCManager.sendRequest(createRequest("export", RPCPriority.BULK));
+        delayTestFinish(10000);
+    }
+
+    /**
+     * Requests sent after the batch has been sent explicitly start a new batch.
+     */
+    public void testExplicitSendQueue() {
+        final List<Integer> queueSizes = new ArrayList<Integer>();
+        RPCManager.setQueueSentCallback(new QueueSentCallback() {
+            public void queueSent(RPCRequest[] requests) {
+                queueSizes.add(requests.length);
+                if (queueSizes.size() < 2) return;
+                assertEquals(2, queueSizes.get(0).intValue());
+                assertEquals(2, queueSizes.get(1).intValue());
+                finishTest();
+            }
+        });
+        RPCManager.setAutoBatch(true);
+        RPCManager.setAutoBatchWindow(0);
+
+        RPCManager.sendRequest(createRequest("request0", null));
+        RPCManager.sendRequest(createRequest("request1", null));
+        RPCManager.sendQueue();
+        RPCManager.sendRequest(createRequest("request2", null));
+        RPCManager.sendRequest(createRequest("request3", null));
+        delayTestFinish(10000);
+    }
+
+    private static RPCRequest createRequest(String data, RPCPriority priority) {
+        RPCRequest request = new RPCRequest();
+        request.setActionURL(GWT.getModuleBaseURL() + "autoBatch");
+        request.setData(data);
+        request.setWillHandleError(true);
+        request.setShowPrompt(false);
+        if (priority != null) request.setPriority(priority);
+        return request;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.rpc;
+
+import com.google.gwt.core.client.GWT;
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.types.RPCPriority;
+
+/**
+ * Test for scheduling RPC requests by priority class.
+ */
+public class RequestSchedulingTestCase extends SmartGWTTestCase {
+
+    private int bulkDispatched;
+
+    protected void gwtTearDown() throws Exception {
+        RPCManager.setRequestDispatchedCallback(null);
+        RPCManager.setQueueSentCallback(null);
+        RPCManager.setRequestScheduling(false);
+        RPCManager.setAutoBatch(false);
+        RPCManager.setMaxConcurrentRequests(6);
+        RPCManager.setConcurrencyLimit(RPCPriority.BULK, 1);
+        super.gwtTearDown();
+    }
+
+    /**
+     * A bulk request waits for the one in flight, while an interactive request is sent at once.
+     */
+    public void testConcurrencyLimit() {
+        RPCManager.setRequestScheduling(true);
+        RPCManager.setConcurrencyLimit(RPCPriority.BULK, 1);
+        RPCManager.setRequestDispatchedCallback(new RequestDispatchedCallback() {
+            public void requestDispatched(RPCRequest request, RPCPriority priority, int queueWait) {
+                if (priority != RPCPriority.BULK || ++bulkDispatched < 2) return;
+                assertTrue(queueWait >= 0);
+                finishTest();
+            }
+        });
+
+        RPCManager.sendRequest(createRequest(RPCPriority.BULK));
+        RPCManager.sendRequest(createRequest(RPCPriority.BULK));
+        RPCManager.sendRequest(createRequest(RPCPriority.INTERACTIVE));
+        assertEquals(1, RPCManager.getActiveRequestCount(RPCPriority.BULK));
+        assertEquals(1, RPCManager.getWaitingRequestCount(RPCPriority.BULK));
+        assertEquals(1, RPCManager.getActiveRequestCount(RPCPriority.INTERACTIVE));
+        assertEquals(0, RPCManager.getWaitingRequestCount(RPCPriority.INTERACTIVE));
+        delayTestFinish(10000);
+    }
+
+    /**
+     * An automatic batch takes one slot however many requests it holds, and a request sent
+     * on its own waits for the batch to complete.
+     */
+    public void testAutoBatch() {
+        RPCManager.setRequestScheduling(true);
+        RPCManager.setAutoBatch(true);
+        RPCManager.setMaxConcurrentRequests(1);
+        RPCManager.setQueueSentCallback(new QueueSentCallback() {
+            public void queueSent(RPCRequest[] requests) {
+                if (requests.length > 1) assertEquals(3, requests.length);
+            }
+        });
+        RPCManager.setRequestDispatchedCallback(new RequestDispatchedCallback() {
+            public void requestDispatched(RPCRequest request, RPCPriority priority, int queueWait) {
+                if (priority != RPCPriority.BULK) return;
+                assertEquals(0, RPCManager.getActiveRequestCount(RPCPriority.BACKGROUND));
+                finishTest();
+            }
+        });
+
+        for (int i = 0; i < 3; i++) {
+            RPCManager.sendRequest(createRequest(RPCPriority.BACKGROUND));
+        }
+        RPCManager.sendRequest(createRequest(RPCPriority.BULK));
+        assertEquals(1, RPCManager.getActiveRequestCount(RPCPriority.BACKGROUND));
+        assertEquals(0, RPCManager.getWaitingRequestCount(RPCPriority.BACKGROUND));
+        assertEquals(1, RPCManager.getWaitingRequestCount(RPCPriority.BULK));
+        delayTestFinish(10000);
+    }
+
+    private static RPCRequest createRequest(RPCPriority priority) {
+        RPCRequest request = new RPCRequest();
+        request.setActionURL(GWT.getModuleBaseURL() + "scheduling");
+        request.setData(priority.getValue());
+        request.setWillHandleError(true);
+        request.setShowPrompt(false);
+        request.setPriority(priority);
+        return request;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.util;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.SmartGWTTestCase;
+
+/**
+ * Test for bulk primitive array conversion in JSOHelper.
+ */
+public class JSOHelperArrayConversionTestCase extends SmartGWTTestCase {
+
+    @Override
+    protected void gwtTearDown() throws Exception {
+        JSOHelper.setBulkArrayCopy(true);
+        super.gwtTearDown();
+    }
+
+    /**
+     * Round trip of int[] and double[] must produce identical values in both modes.
+     */
+    public void testRoundTrip() {
+        int[] ints = new int[1000];
+        double[] doubles = new double[1000];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i * 3 - 500;
+            doubles[i] = i / 7.0;
+        }
+        for (boolean bulk : new boolean[] {false, true}) {
+            JSOHelper.setBulkArrayCopy(bulk);
+            JavaScriptObject holder = JSOHelper.createObject();
+            JSOHelper.setAttribute(holder, "ints", ints);
+            JSOHelper.setAttribute(holder, "doubles", doubles);
+
+            int[] intsBack = JSOHelper.getAttributeAsIntArray(holder, "ints");
+            double[] doublesBack = JSOHelper.getAttributeAsDoubleArray(holder, "doubles");
+            assertEquals(ints.length, intsBack.length);
+            assertEquals(doubles.length, doublesBack.length);
+            for (int i = 0; i < ints.length; i++) {
+                assertEquals(ints[i], intsBack[i]);
+                assertEquals(doubles[i], doublesBack[i], 0);
+            }
+        }
+    }
+
+    /**
+     * Typed arrays created from Java arrays must be readable in place through JsTypedArrayView.
+     */
+    public void testTypedArrayView() {
+        double[] doubles = {1.5, -2.25, 3};
+        JsTypedArrayView view = JsTypedArrayView.create(doubles);
+        assertEquals(3, view.getLength());
+        assertEquals(-2.25, view.getDouble(1), 0);
+        view.set(2, 4.5);
+        assertEquals(4.5, view.toDoubleArray()[2], 0);
+
+        JsTypedArrayView intView = JsTypedArrayView.create(new int[] {7, 8, 9});
+        assertEquals(8, intView.getInt(1));
+        assertEquals(9, intView.toIntArray()[2]);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.util;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.SmartGWTTestCase;
+
+/**
+ * Test for identity memoization and limits in JS to Java conversion.
+ */
+public class JSOHelperConversionTestCase extends SmartGWTTestCase {
+
+    @Override
+    protected void gwtTearDown() throws Exception {
+        JSOHelper.setConversionMaxDepth(-1);
+        JSOHelper.setConversionMaxNodes(-1);
+        super.gwtTearDown();
+    }
+
+    /**
+     * A sub-object referred to twice is converted once, and a cycle resolves to the Map
+     * already being converted.
+     */
+    @SuppressWarnings("unchecked")
+    public void testSharedAndCyclic() {
+        JavaScriptObject root = createGraph();
+        Map<String, Object> map = JSOHelper.convertToMap(root);
+
+        assertSame(map.get("first"), map.get("second"));
+        Map<String, Object> shared = (Map<String, Object>)map.get("first");
+        assertEquals("shared", shared.get("name"));
+        assertSame(map, shared.get("owner"));
+
+        List<Object> list = (List<Object>)map.get("list");
+        assertSame(shared, list.get(0));
+        assertSame(list, list.get(1));
+    }
+
+    /**
+     * Objects beyond the depth or node limit are converted to null.
+     */
+    @SuppressWarnings("unchecked")
+    public void testLimits() {
+        JavaScriptObject root = createChain(10);
+
+        JSOHelper.setConversionMaxDepth(3);
+        Map<String, Object> map = JSOHelper.convertToMap(root);
+        assertEquals(3, getChainLength(map));
+
+        JSOHelper.setConversionMaxDepth(-1);
+        JSOHelper.setConversionMaxNodes(5);
+        assertEquals(5, getChainLength(JSOHelper.convertToMap(root)));
+
+        JSOHelper.setConversionMaxNodes(-1);
+        assertEquals(11, getChainLength(JSOHelper.convertToMap(root)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int getChainLength(Map<String, Object> map) {
+        int length = 0;
+        while (map != null) {
+            length++;
+            map = (Map<String, Object>)map.get("next");
+        }
+        return length;
+    }
+
+    // Objects and arrays are created in the SmartClient window, as SmartClient would create them
+    private static native JavaScriptObject createGraph() /*-{
+        var root = new $wnd.Object(), shared = new $wnd.Object(), list = new $wnd.Array();
+        shared.name = "shared";
+        shared.owner = root;
+        list.push(shared);
+        list.push(list);
+        root.first = shared;
+        root.second = shared;
+        root.list = list;
+        return root;
+    }-*/;
+
+    private static native JavaScriptObject createChain(int length) /*-{
+        var root = new $wnd.Object(), node = root;
+        root.index = 0;
+        for (var i = 1; i <= length; i++) {
+            node = node.next = new $wnd.Object();
+            node.index = i;
+        }
+        return root;
+    }-*/;
+}
@@ -0,0 +1,100 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.util;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.data.Record;
+
+/**
+ * Test for the live Map and List views of JSOHelper.asMap() and asList().
+ */
+public class JSOMapViewTestCase extends SmartGWTTestCase {
+
+    /**
+     * keySet(), containsKey() and get() agree: inherited and back-reference properties are
+     * not keys.
+     */
+    @SuppressWarnings("unchecked")
+    public void testKeys() {
+        JavaScriptObject jsObj = createWithInheritedProperty("inherited");
+        JSOHelper.setAttribute(jsObj, "name", "Alice");
+        Map<String, Object> map = JSOHelper.asMap(jsObj);
+
+        assertEquals(1, map.size());
+        assertTrue(map.keySet().contains("name"));
+        assertTrue(map.containsKey("name"));
+        assertFalse(map.keySet().contains("inherited"));
+        assertFalse(map.containsKey("inherited"));
+        assertNull(map.get("inherited"));
+        for (String key : map.keySet()) {
+            assertTrue(key, map.containsKey(key));
+        }
+
+        // a Record's back-references are hidden
+        Record record = new Record();
+        record.setAttribute("id", 1);
+        Map<String, Object> recordMap = JSOHelper.asMap(record.getJsObj());
+        assertEquals(1, recordMap.size());
+        assertFalse(recordMap.containsKey(SC.REF));
+    }
+
+    /**
+     * Nested objects are returned as cached views, and writes go to the JavaScript object.
+     */
+    @SuppressWarnings("unchecked")
+    public void testLiveView() {
+        JavaScriptObject jsObj = JSOHelper.createObject();
+        JavaScriptObject address = JSOHelper.createObject();
+        JSOHelper.setAttribute(address, "city", "Paris");
+        JSOHelper.setAttribute(jsObj, "address", address);
+        JSOHelper.setAttribute(jsObj, "tags", new String[] {"a", "b"});
+        Map<String, Object> map = JSOHelper.asMap(jsObj);
+
+        Map<String, Object> nested = (Map<String, Object>)map.get("address");
+        assertSame(nested, map.get("address"));
+        assertEquals("Paris", nested.get("city"));
+        nested.put("city", "Lyon");
+        assertEquals("Lyon", JSOHelper.getAttribute(address, "city"));
+
+        // replacing the nested object invalidates the cached view
+        JSOHelper.setAttribute(jsObj, "address", JSOHelper.createObject());
+        assertNotSame(nested, map.get("address"));
+
+        List<Object> tags = (List<Object>)map.get("tags");
+        assertEquals(2, tags.size());
+        tags.add(1, "c");
+        tags.remove(0);
+        assertEquals("c", tags.get(0));
+        assertEquals(2, JSOHelper.getArrayLength(JSOHelper.getAttributeAsJavaScriptObject(jsObj, "tags")));
+
+        assertNotNull(map.remove("address"));
+        assertFalse(map.containsKey("address"));
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    private static native JavaScriptObject createWithInheritedProperty(String name) /*-{
+        var proto = {};
+        proto[name] = "value";
+        var Constructor = function () {};
+        Constructor.prototype = proto;
+        return new Constructor();
+    }-*/;
+}
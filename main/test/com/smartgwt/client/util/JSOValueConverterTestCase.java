@@ -0,0 +1,110 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.SmartGWTTestCase;
+
+/**
+ * Test for custom Java to JS value converters.
+ */
+public class JSOValueConverterTestCase extends SmartGWTTestCase {
+
+    private static class Money {
+        final int cents;
+
+        Money(int cents) {
+            this.cents = cents;
+        }
+    }
+
+    private static class Ping {
+    }
+
+    private static class Pong {
+    }
+
+    @Override
+    protected void gwtTearDown() throws Exception {
+        JSOHelper.unregisterValueConverter(Money.class);
+        JSOHelper.unregisterValueConverter(Ping.class);
+        JSOHelper.unregisterValueConverter(Pong.class);
+        super.gwtTearDown();
+    }
+
+    /**
+     * A registered converter applies to attributes, array members and Map values, and its
+     * result is converted in turn.
+     */
+    public void testConverter() {
+        JSOHelper.registerValueConverter(Money.class, new JSOValueConverter<Money>() {
+            public Object convert(Money value) {
+                Map<String, Object> map = new HashMap<String, Object>();
+                map.put("amount", value.cents / 100.0);
+                return map;
+            }
+        });
+        JavaScriptObject jsObj = JSOHelper.createObject();
+        JSOHelper.setAttribute(jsObj, "price", (Object)new Money(250));
+        JavaScriptObject price = JSOHelper.getAttributeAsJavaScriptObject(jsObj, "price");
+        assertEquals(2.5, JSOHelper.getAttributeAsDouble(price, "amount"), 0);
+
+        JavaScriptObject array = JSOHelper.convertToJavaScriptArray(new Object[] {new Money(100)}, true);
+        JavaScriptObject member = JSOHelper.getValueFromJavaScriptObjectArray(array, 0);
+        assertEquals(1.0, JSOHelper.getAttributeAsDouble(member, "amount"), 0);
+
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("price", new Money(50));
+        JavaScriptObject converted = JSOHelper.convertMapToJavascriptObject(map, true);
+        price = JSOHelper.getAttributeAsJavaScriptObject(converted, "price");
+        assertEquals(0.5, JSOHelper.getAttributeAsDouble(price, "amount"), 0);
+    }
+
+    /**
+     * Converters which return each other's classes fail instead of recursing without end.
+     */
+    public void testCycle() {
+        JSOHelper.registerValueConverter(Ping.class, new JSOValueConverter<Ping>() {
+            public Object convert(Ping value) {
+                return new Pong();
+            }
+        });
+        JSOHelper.registerValueConverter(Pong.class, new JSOValueConverter<Pong>() {
+            public Object convert(Pong value) {
+                return new Ping();
+            }
+        });
+        JavaScriptObject jsObj = JSOHelper.createObject();
+        try {
+            JSOHelper.setAttribute(jsObj, "value", (Object)new Ping());
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        }
+
+        // the nesting count is unwound, so other conversions still work
+        JSOHelper.unregisterValueConverter(Pong.class);
+        JSOHelper.registerValueConverter(Pong.class, new JSOValueConverter<Pong>() {
+            public Object convert(Pong value) {
+                return "pong";
+            }
+        });
+        JSOHelper.setAttribute(jsObj, "value", (Object)new Ping());
+        assertEquals("pong", JSOHelper.getAttribute(jsObj, "value"));
+    }
+}
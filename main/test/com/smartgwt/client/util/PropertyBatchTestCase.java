@@ -0,0 +1,88 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.util;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.data.Record;
+import com.smartgwt.client.types.Alignment;
+import com.smartgwt.client.widgets.Canvas;
+
+/**
+ * Test for applying properties in a PropertyBatch.
+ */
+public class PropertyBatchTestCase extends SmartGWTTestCase {
+
+    /**
+     * Each kind of value is written with its JavaScript type, and the last value of a
+     * repeated property wins.
+     */
+    public void testApply() {
+        PropertyBatch batch = new PropertyBatch(2)
+            .set("name", "widget")
+            .set("count", 3)
+            .set("price", 2.5)
+            .set("active", true)
+            .set("align", Alignment.CENTER)
+            .set("created", new Date(1000))
+            .set("big", Long.valueOf(1L << 40))
+            .set("tags", Arrays.asList("a", "b"))
+            .set("removed", (String)null)
+            .set("count", 4);
+        assertEquals(10, batch.size());
+
+        Record record = new Record();
+        record.applyProperties(batch);
+        JavaScriptObject jsObj = record.getJsObj();
+        assertEquals("widget", JSOHelper.getAttribute(jsObj, "name"));
+        assertEquals(Integer.valueOf(4), JSOHelper.getAttributeAsInt(jsObj, "count"));
+        assertEquals(2.5, JSOHelper.getAttributeAsDouble(jsObj, "price"), 0);
+        assertTrue(JSOHelper.getAttributeAsBoolean(jsObj, "active"));
+        assertEquals("center", JSOHelper.getAttribute(jsObj, "align"));
+        assertEquals(1000, JSOHelper.getAttributeAsDate(jsObj, "created").getTime());
+        assertEquals((double)(1L << 40), JSOHelper.getAttributeAsDouble(jsObj, "big"), 0);
+        assertEquals(2, JSOHelper.getAttributeAsStringArray(jsObj, "tags").length);
+        assertTrue(hasNullValue(jsObj, "removed"));
+
+        batch.clear();
+        assertTrue(batch.isEmpty());
+        record.applyProperties(batch);
+        assertEquals(Integer.valueOf(4), JSOHelper.getAttributeAsInt(jsObj, "count"));
+    }
+
+    /**
+     * A widget receives the batch in its configuration before it is created, and through its
+     * setters afterwards.
+     */
+    public void testApplyToWidget() {
+        Canvas canvas = new Canvas();
+        canvas.applyProperties(new PropertyBatch().set("width", 200).set("contents", "before"));
+        assertEquals(200, canvas.getWidth().intValue());
+
+        canvas.draw();
+        canvas.applyProperties(new PropertyBatch().set("width", 300).set("contents", "after"));
+        assertEquals(300, canvas.getWidth().intValue());
+        assertEquals("after", canvas.getContents());
+        canvas.destroy();
+    }
+
+    private static native boolean hasNullValue(JavaScriptObject jsObj, String name) /*-{
+        return (name in jsObj) && jsObj[name] === null;
+    }-*/;
+}
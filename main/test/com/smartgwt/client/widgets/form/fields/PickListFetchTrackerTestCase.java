@@ -0,0 +1,222 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.widgets.form.fields;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.data.ClientOnlyDS;
+import com.smartgwt.client.data.DSResponse;
+import com.smartgwt.client.data.DataSource;
+import com.smartgwt.client.data.fields.DataSourceTextField;
+import com.smartgwt.client.rpc.QueueSentCallback;
+import com.smartgwt.client.rpc.RPCManager;
+import com.smartgwt.client.rpc.RPCRequest;
+import com.smartgwt.client.types.DSDataFormat;
+import com.smartgwt.client.util.JSOHelper;
+
+/**
+ * Test for tracking pickList fetches.
+ */
+public class PickListFetchTrackerTestCase extends SmartGWTTestCase {
+
+    protected void gwtTearDown() throws Exception {
+        RPCManager.setQueueSentCallback(null);
+        RPCManager.setAutoBatch(false);
+        super.gwtTearDown();
+    }
+
+    /**
+     * The adaptive fetch delay follows the typing interval and latency, within its bounds.
+     */
+    public void testAdaptiveDelay() {
+        assertEquals(125, PickListFetchTracker.AdaptiveFetchDelay.getDelay(100, -1));
+        assertEquals(175, PickListFetchTracker.AdaptiveFetchDelay.getDelay(100, 200));
+        assertEquals(PickListFetchTracker.AdaptiveFetchDelay.MIN_DELAY,
+                     PickListFetchTracker.AdaptiveFetchDelay.getDelay(10, -1));
+        assertEquals(PickListFetchTracker.AdaptiveFetchDelay.MAX_DELAY,
+                     PickListFetchTracker.AdaptiveFetchDelay.getDelay(500, 5000));
+    }
+
+    /**
+     * Tracking an item tags its pickList, and leaves its optionFilterContext, which is also
+     * used for display value fetches, alone.
+     */
+    public void testTracking() {
+        JavaScriptObject context = JSOHelper.createObject();
+        JSOHelper.setAttribute(context, "operationId", "lookup");
+        JavaScriptObject item = createItem("trackedItem");
+        JSOHelper.setAttribute(item, "optionFilterContext", context);
+
+        PickListFetchTracker.track(item);
+        JavaScriptObject pickList = JSOHelper.getAttributeAsJavaScriptObject(item, "pickList");
+        assertEquals("trackedItem", JSOHelper.getAttribute(pickList, "__pickListItem"));
+        assertSame(context, JSOHelper.getAttributeAsJavaScriptObject(item, "optionFilterContext"));
+        assertNull(JSOHelper.getAttribute(context, "__pickListItem"));
+        assertEquals(0, PickListFetchTracker.getSupersededFetchCount(item));
+    }
+
+    /**
+     * The response of a superseded fetch which shares a transaction is dropped, and fetches
+     * which are not made by the pickList are not tracked.
+     */
+    public void testDropped() {
+        final JavaScriptObject item = createItem("droppedItem");
+        JavaScriptObject ds = new ClientOnlyDS(6).getOrCreateJsObj();
+
+        fetch(ds, item, "row 1", true, new FetchCallback() {
+            public void execute(DSResponse response) {
+                fail("The superseded fetch should not be processed");
+            }
+        });
+        fetch(ds, item, "row 3", false, null);
+        fetch(ds, item, "row 2", true, new FetchCallback() {
+            public void execute(DSResponse response) {
+                assertEquals(1, response.getData().length);
+                assertEquals("row 2", response.getData()[0].getAttribute("name"));
+                assertEquals(1, PickListFetchTracker.getSupersededFetchCount(item));
+                finishTest();
+            }
+        });
+        delayTestFinish(10000);
+    }
+
+    /**
+     * Fetches with the same criteria, such as those for further pages, are all superseded by
+     * a fetch with new criteria.
+     */
+    public void testPagesSuperseded() {
+        final JavaScriptObject item = createItem("pagedItem");
+        JavaScriptObject ds = new ClientOnlyDS(6).getOrCreateJsObj();
+        FetchCallback superseded = new FetchCallback() {
+            public void execute(DSResponse response) {
+                fail("The superseded fetch should not be processed");
+            }
+        };
+
+        fetch(ds, item, "row 1", true, superseded);
+        fetch(ds, item, "row 1", true, superseded);
+        fetch(ds, item, "row 2", true, new FetchCallback() {
+            public void execute(DSResponse response) {
+                assertEquals("row 2", response.getData()[0].getAttribute("name"));
+                assertEquals(2, PickListFetchTracker.getSupersededFetchCount(item));
+                finishTest();
+            }
+        });
+        delayTestFinish(10000);
+    }
+
+    /**
+     * A superseded fetch sent on its own is cancelled.
+     */
+    public void testCancelled() {
+        final JavaScriptObject item = createItem("cancelledItem");
+        JavaScriptObject ds = createRemoteDataSource().getOrCreateJsObj();
+        final List<Integer> queueSizes = new ArrayList<Integer>();
+        RPCManager.setQueueSentCallback(new QueueSentCallback() {
+            public void queueSent(RPCRequest[] requests) {
+                queueSizes.add(requests.length);
+            }
+        });
+
+        fetch(ds, item, "a", true, new FetchCallback() {
+            public void execute(DSResponse response) {
+                fail("The cancelled fetch should not be processed");
+            }
+        });
+        fetch(ds, item, "ab", true, new FetchCallback() {
+            public void execute(DSResponse response) {
+                assertEquals(2, queueSizes.size());
+                assertEquals(1, queueSizes.get(0).intValue());
+                assertEquals(1, PickListFetchTracker.getSupersededFetchCount(item));
+                finishTest();
+            }
+        });
+        delayTestFinish(10000);
+    }
+
+    /**
+     * With automatic batching, fetches join the batch rather than being sent on their own, and
+     * a superseded fetch is dropped.
+     */
+    public void testAutoBatch() {
+        final JavaScriptObject item = createItem("batchedItem");
+        JavaScriptObject ds = createRemoteDataSource().getOrCreateJsObj();
+        final List<Integer> queueSizes = new ArrayList<Integer>();
+        RPCManager.setQueueSentCallback(new QueueSentCallback() {
+            public void queueSent(RPCRequest[] requests) {
+                queueSizes.add(requests.length);
+            }
+        });
+        RPCManager.setAutoBatch(true);
+
+        fetch(ds, item, "a", true, new FetchCallback() {
+            public void execute(DSResponse response) {
+                fail("The superseded fetch should not be processed");
+            }
+        });
+        fetch(ds, item, "ab", true, new FetchCallback() {
+            public void execute(DSResponse response) {
+                assertEquals(1, queueSizes.size());
+                assertEquals(2, queueSizes.get(0).intValue());
+                assertEquals(1, PickListFetchTracker.getSupersededFetchCount(item));
+                finishTest();
+            }
+        });
+        delayTestFinish(10000);
+    }
+
+    interface FetchCallback {
+        void execute(DSResponse response);
+    }
+
+    private static DataSource createRemoteDataSource() {
+        DataSource dataSource = new DataSource();
+        dataSource.setDataURL(GWT.getModuleBaseURL() + "pickListFetch");
+        dataSource.setDataFormat(DSDataFormat.JSON);
+        dataSource.setFields(new DataSourceTextField("name"));
+        return dataSource;
+    }
+
+    // An item with a pickList and latestFetchWins, not using the PickListResultCache
+    static native JavaScriptObject createItem(String id) /*-{
+        var item = $wnd[id] = { ID: id, latestFetchWins: true, cachePickListResults: false },
+            pickList = $wnd[id + "_pickList"] = { ID: id + "_pickList" };
+        item.pickList = pickList;
+        return item;
+    }-*/;
+
+    // Fetches as the item's pickList would, or as another fetch of the item
+    static native void fetch(JavaScriptObject ds, JavaScriptObject item, String name, boolean fromPickList,
+                             FetchCallback callback) /*-{
+        if (fromPickList) @com.smartgwt.client.widgets.form.fields.PickListFetchTracker::track(Lcom/google/gwt/core/client/JavaScriptObject;)(item);
+        ds.performDSOperation("fetch", { name: name }, $entry(function (dsResponse) {
+            if (callback == null) return;
+            callback.@com.smartgwt.client.widgets.form.fields.PickListFetchTrackerTestCase$FetchCallback::execute(Lcom/smartgwt/client/data/DSResponse;)(
+                @com.smartgwt.client.data.DSResponse::new(Lcom/google/gwt/core/client/JavaScriptObject;)(dsResponse));
+        }), {
+            componentId: fromPickList ? item.pickList.ID : null,
+            textMatchStyle: "startsWith",
+            startRow: 0,
+            endRow: 75,
+            willHandleError: true,
+            showPrompt: false
+        });
+    }-*/;
+}
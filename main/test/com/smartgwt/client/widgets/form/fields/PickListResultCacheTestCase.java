@@ -0,0 +1,159 @@
+/*
+ * SmartGWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * SmartGWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * as published by the Free Software Foundation.  SmartGWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+package com.smartgwt.client.widgets.form.fields;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.smartgwt.client.SmartGWTTestCase;
+import com.smartgwt.client.data.ClientOnlyDS;
+import com.smartgwt.client.data.Criteria;
+import com.smartgwt.client.data.DSRequest;
+import com.smartgwt.client.data.DSResponse;
+import com.smartgwt.client.data.DataSource;
+import com.smartgwt.client.data.Record;
+import com.smartgwt.client.types.TextMatchStyle;
+import com.smartgwt.client.util.JSOHelper;
+
+/**
+ * Test for caching pickList results.
+ */
+public class PickListResultCacheTestCase extends SmartGWTTestCase {
+
+    private static final String[] NAMES = {"apple", "apricot", "avocado", "banana", "blueberry", "cherry"};
+
+    private double time = 1000;
+
+    protected void gwtTearDown() throws Exception {
+        PickListResultCache.clear();
+        PickListResultCache.setEnabled(false);
+        PickListResultCache.clock = PickListResultCache.SYSTEM_CLOCK;
+        PickListResultCache.setMaxEntries(100);
+        PickListResultCache.setTimeToLive(5 * 60 * 1000);
+        super.gwtTearDown();
+    }
+
+    /**
+     * A complete result for a prefix answers the same prefix and longer prefixes, and not a
+     * shorter prefix.
+     */
+    public void testPrefixFiltering() {
+        DataSource dataSource = new ClientOnlyDS(0);
+        JavaScriptObject ds = dataSource.getOrCreateJsObj();
+        JavaScriptObject request = createRequest();
+        int hits = PickListResultCache.getHitCount();
+
+        JavaScriptObject stored = createResponse("a");
+        PickListResultCache.store(ds, new Criteria("name", "a").getJsObj(), request, stored);
+        // the pickList receiving the stored response marks its records, which the cache copied
+        new DSResponse(stored).getData()[0].setAttribute("_selected", true);
+        JavaScriptObject response = PickListResultCache.find(ds, new Criteria("name", "ap").getJsObj(), request);
+        assertNotNull(response);
+        assertNull(new DSResponse(response).getData()[0].getAttribute("_selected"));
+        assertEquals(2, new DSResponse(response).getData().length);
+        assertNotNull(PickListResultCache.find(ds, new Criteria("name", "a").getJsObj(), request));
+        assertNull(PickListResultCache.find(ds, new Criteria("name", "").getJsObj(), request));
+        assertEquals(hits + 2, PickListResultCache.getHitCount());
+
+        // an update to the DataSource drops its results
+        PickListResultCache.invalidate(dataSource);
+        assertNull(PickListResultCache.find(ds, new Criteria("name", "a").getJsObj(), request));
+    }
+
+    /**
+     * The least recently used results are dropped beyond maxEntries, and results expire.
+     */
+    public void testBounds() {
+        JavaScriptObject ds = new ClientOnlyDS(0).getOrCreateJsObj();
+        JavaScriptObject request = createRequest();
+        PickListResultCache.clear();
+        PickListResultCache.clock = new PickListResultCache.Clock() {
+            public double now() {
+                return time;
+            }
+        };
+        PickListResultCache.setMaxEntries(2);
+
+        PickListResultCache.store(ds, new Criteria("name", "a").getJsObj(), request, createResponse("a"));
+        PickListResultCache.store(ds, new Criteria("name", "b").getJsObj(), request, createResponse("b"));
+        assertNotNull(PickListResultCache.find(ds, new Criteria("name", "a").getJsObj(), request));
+        PickListResultCache.store(ds, new Criteria("name", "c").getJsObj(), request, createResponse("c"));
+        assertEquals(2, PickListResultCache.getEntryCount());
+        assertNull(PickListResultCache.find(ds, new Criteria("name", "b").getJsObj(), request));
+        assertNotNull(PickListResultCache.find(ds, new Criteria("name", "a").getJsObj(), request));
+
+        PickListResultCache.setTimeToLive(1000);
+        time += 1000;
+        assertNotNull(PickListResultCache.find(ds, new Criteria("name", "a").getJsObj(), request));
+        time += 1;
+        assertNull(PickListResultCache.find(ds, new Criteria("name", "a").getJsObj(), request));
+    }
+
+    /**
+     * A pickList fetch with a longer prefix than a complete earlier result is answered from
+     * the cache by the fetch tracker, without a request.
+     */
+    public void testFetchTracker() {
+        final JavaScriptObject item = PickListFetchTrackerTestCase.createItem("cachedItem");
+        JSOHelper.setAttribute(item, "cachePickListResults", true);
+        PickListResultCache.setEnabled(true);
+        final JavaScriptObject ds = new ClientOnlyDS(20).getOrCreateJsObj();
+        final int hits = PickListResultCache.getHitCount();
+
+        PickListFetchTrackerTestCase.fetch(ds, item, "row 1", true, new PickListFetchTrackerTestCase.FetchCallback() {
+            public void execute(DSResponse response) {
+                assertEquals(11, response.getData().length);
+                assertEquals(0, PickListFetchTracker.getLocalFetchCount(item));
+                PickListFetchTrackerTestCase.fetch(ds, item, "row 12", true, new PickListFetchTrackerTestCase.FetchCallback() {
+                    public void execute(DSResponse response) {
+                        assertEquals(1, response.getData().length);
+                        assertEquals("row 12", response.getData()[0].getAttribute("name"));
+                        assertEquals(1, PickListFetchTracker.getLocalFetchCount(item));
+                        assertEquals(hits + 1, PickListResultCache.getHitCount());
+                        finishTest();
+                    }
+                });
+            }
+        });
+        delayTestFinish(10000);
+    }
+
+    static JavaScriptObject createRequest() {
+        DSRequest request = new DSRequest();
+        request.setTextMatchStyle(TextMatchStyle.STARTS_WITH);
+        request.setStartRow(0);
+        request.setEndRow(75);
+        return request.getJsObj();
+    }
+
+    private static JavaScriptObject createResponse(String prefix) {
+        int count = 0;
+        for (String name : NAMES) {
+            if (name.startsWith(prefix)) count++;
+        }
+        Record[] records = new Record[count];
+        count = 0;
+        for (int i = 0; i < NAMES.length; i++) {
+            if (!NAMES[i].startsWith(prefix)) continue;
+            records[count] = new Record();
+            records[count].setAttribute("id", i);
+            records[count++].setAttribute("name", NAMES[i]);
+        }
+        DSResponse response = new DSResponse();
+        response.setData(records);
+        response.setStartRow(0);
+        response.setTotalRows(records.length);
+        return response.getJsObj();
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Smart GWT (GWT for SmartClient)
+ * Copyright 2008 and beyond, Isomorphic Software, Inc.
+ *
+ * Smart GWT is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License version 3
+ * is published by the Free Software Foundation.  Smart GWT is also
+ * available under typical commercial license terms - see
+ * http://smartclient.com/license
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ */
+
+package com.smartgwt.rebind;
+
+import com.google.gwt.core.ext.BadPropertyValueException;
+import com.google.gwt.core.ext.CachedGeneratorResult;
+import com.google.gwt.core.ext.ConfigurationProperty;
+import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.IncrementalGenerator;
+import com.google.gwt.core.ext.PropertyOracle;
+import com.google.gwt.core.ext.RebindResult;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.dev.CompilerContext;
+import com.google.gwt.dev.javac.CompilationStateBuilder;
+import com.google.gwt.dev.javac.testing.impl.JavaResourceBase;
+import com.google.gwt.dev.javac.testing.impl.MockJavaResource;
+import com.google.gwt.dev.resource.Resource;
+import com.google.gwt.dev.util.log.PrintWriterTreeLogger;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Times the bean factory generators against a synthetic type oracle, with and without cached
+ * results from a previous run. This is not a GWTTestCase -- it runs the generators directly in
+ * the JVM. Run it with the compiled Smart GWT classes, gwt-user.jar and gwt-dev.jar on the
+ * classpath:
+ * <pre>
+ * java com.smartgwt.rebind.BeanFactoryGeneratorTimingHarness [classes] [properties] [metadata]
+ * </pre>
+ * The synthetic type oracle contains stubs of the Smart GWT types which the generators look
+ * at, plus the requested number of Canvas subclasses, each with the requested number of
+ * properties. Three runs are timed: a cold run, a run with nothing changed, and a run after
+ * one class has gained a property.
+ */
+public class BeanFactoryGeneratorTimingHarness {
+
+    private static final String SYNTHETIC_PACKAGE = "com.smartgwt.synthetic";
+
+    private static final String[] PROPERTY_TYPES = {
+        "String", "int", "Boolean", "double", "java.util.Date", "com.smartgwt.client.widgets.Canvas", "String[]"
+    };
+
+    private static final String[] VALUE_TYPE_CLASSES = {
+        "BooleanValueType", "CanvasBaseValueType", "DataSourceBaseValueType", "DateValueType", "DoubleValueType",
+        "EnumValueType", "FloatValueType", "IntegerValueType", "InterfaceArrayValueType", "InterfaceValueType",
+        "JsoValueType", "JsoWrapperValueType", "LongValueType", "NumberValueType", "ObjectArrayValueType",
+        "OtherValueType", "PBooleanArrayValueType", "PBooleanValueType", "PDoubleArrayValueType", "PDoubleValueType",
+        "PFloatArrayValueType", "PFloatValueType", "PIntegerArrayValueType", "PIntegerValueType", "PLongArrayValueType",
+        "PLongValueType", "StringValueType", "ValueEnumValueType"
+    };
+
+    public static void main (String[] args) throws Exception {
+        final int classCount = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        final int propertyCount = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        final String metadata = args.length > 2 ? args[2] : "default";
+
+        PrintWriterTreeLogger logger = new PrintWriterTreeLogger();
+        logger.setMaxDetail(TreeLogger.WARN);
+
+        TypeOracle oracle = buildTypeOracle(logger, classCount, propertyCount, -1);
+        Run cold = run(logger, oracle, metadata, null);
+        cold.report("cold");
+
+        Run unchanged = run(logger, oracle, metadata, cold);
+        unchanged.report("unchanged");
+
+        TypeOracle editedOracle = buildTypeOracle(logger, classCount, propertyCount, classCount / 2);
+        Run edited = run(logger, editedOracle, metadata, unchanged);
+        edited.report("one class edited");
+    }
+
+    private static Run run (TreeLogger logger, TypeOracle oracle, String metadata, Run previous) throws Exception {
+        Run run = new Run(oracle, metadata, previous);
+        run.generate(logger, new CanvasMetaBeanFactoryGenerator(), "com.smartgwt.client.bean.BeanFactory.CanvasMetaFactory");
+        run.generate(logger, new AnnotationMetaBeanFactoryGenerator(), "com.smartgwt.client.bean.BeanFactory.AnnotationMetaFactory");
+        return run;
+    }
+
+    // The state of one run of the generators, which implements the parts of
+    // GeneratorContext that they use.
+    private static class Run implements InvocationHandler {
+        private final TypeOracle oracle;
+        private final String metadata;
+        private final Run previous;
+
+        private final Map<String, RebindResult> results = new HashMap<String, RebindResult>();
+        private final Map<String, Set<String>> typesByGenerator = new HashMap<String, Set<String>>();
+        private final Set<String> createdTypes = new HashSet<String>();
+        private final Map<PrintWriter, StringWriter> writers = new HashMap<PrintWriter, StringWriter>();
+
+        private String currentGenerator;
+        private int generatedCount;
+        private int reusedCount;
+        private long charsWritten;
+        private long elapsed;
+
+        Run (TypeOracle oracle, String metadata, Run previous) {
+            this.oracle = oracle;
+            this.metadata = metadata;
+            this.previous = previous;
+        }
+
+        void generate (TreeLogger logger, IncrementalGenerator generator, String typeName) throws Exception {
+            currentGenerator = generator.getClass().getName();
+            typesByGenerator.put(currentGenerator, new HashSet<String>());
+
+            GeneratorContext context = (GeneratorContext) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {GeneratorContext.class}, this);
+
+            long start = System.nanoTime();
+            results.put(currentGenerator, generator.generateIncrementally(logger, context, typeName));
+            elapsed += System.nanoTime() - start;
+        }
+
+        void report (String label) {
+            System.out.println(label + ": " + (elapsed / 1000000) + "ms, " + generatedCount + " types generated (" +
+                               charsWritten + " chars), " + reusedCount + " types reused");
+        }
+
+        public Object invoke (Object proxy, Method method, Object[] args) throws Throwable {
+            final String name = method.getName();
+            if (name.equals("getTypeOracle")) return oracle;
+            if (name.equals("getPropertyOracle")) return propertyOracle(metadata);
+            if (name.equals("isGeneratorResultCachingEnabled")) return true;
+            if (name.equals("isProdMode")) return true;
+            if (name.equals("getCachedGeneratorResult")) return cachedResult();
+            if (name.equals("tryReuseTypeFromCache")) return tryReuse((String) args[0]);
+            if (name.equals("tryCreate")) return tryCreate((String) args[1], (String) args[2]);
+            if (name.equals("commit")) {
+                StringWriter writer = writers.remove(args[1]);
+                if (writer != null) charsWritten += writer.getBuffer().length();
+                return null;
+            }
+            return defaultValue(method.getReturnType());
+        }
+
+        private PrintWriter tryCreate (String packageName, String simpleName) {
+            String typeName = packageName + "." + simpleName;
+            if (!createdTypes.add(typeName)) return null;
+            typesByGenerator.get(currentGenerator).add(typeName);
+            generatedCount++;
+
+            StringWriter writer = new StringWriter();
+            PrintWriter printWriter = new PrintWriter(writer);
+            writers.put(printWriter, writer);
+            return printWriter;
+        }
+
+        private boolean tryReuse (String typeName) {
+            if (previous == null) return false;
+            Set<String> cached = previous.typesByGenerator.get(currentGenerator);
+            if (cached == null || !cached.contains(typeName) || !createdTypes.add(typeName)) return false;
+            typesByGenerator.get(currentGenerator).add(typeName);
+            reusedCount++;
+            return true;
+        }
+
+        private CachedGeneratorResult cachedResult () {
+            if (previous == null) return null;
+            final RebindResult result = previous.results.get(currentGenerator);
+            final Set<String> types = previous.typesByGenerator.get(currentGenerator);
+            if (result == null) return null;
+
+            return (CachedGeneratorResult) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {CachedGeneratorResult.class},
+                new InvocationHandler() {
+                    public Object invoke (Object proxy, Method method, Object[] args) {
+                        final String name = method.getName();
+                        if (name.equals("getClientData")) return result.getClientData((String) args[0]);
+                        if (name.equals("getResultTypeName")) return result.getResultTypeName();
+                        if (name.equals("isTypeCached")) return types.contains(args[0]);
+                        return defaultValue(method.getReturnType());
+                    }
+                });
+        }
+    }
+
+    private static PropertyOracle propertyOracle (final String metadata) {
+        final Map<String, String> values = new HashMap<String, String>();
+        values.put(FactoryRegistrationWriter.REGISTRATION_PROPERTY, "deferred");
+        values.put(BeanClass.METADATA_PROPERTY, metadata);
+
+        return (PropertyOracle) Proxy.newProxyInstance(
+            BeanFactoryGeneratorTimingHarness.class.getClassLoader(), new Class<?>[] {PropertyOracle.class},
+            new InvocationHandler() {
+                public Object invoke (Object proxy, Method method, Object[] args) throws Throwable {
+                    if (method.getName().equals("getConfigurationProperty")) {
+                        final String name = (String) args[0];
+                        final String value = values.get(name);
+                        if (value == null) throw new BadPropertyValueException(name);
+                        return Proxy.newProxyInstance(
+                            BeanFactoryGeneratorTimingHarness.class.getClassLoader(), new Class<?>[] {ConfigurationProperty.class},
+                            new InvocationHandler() {
+                                public Object invoke (Object proxy, Method method, Object[] args) {
+                                    if (method.getName().equals("getName")) return name;
+                                    if (method.getName().equals("getValues")) return Collections.singletonList(value);
+                                    return defaultValue(method.getReturnType());
+                                }
+                            });
+                    }
+                    throw new BadPropertyValueException(method.getName());
+                }
+            });
+    }
+
+    private static Object defaultValue (Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        return null;
+    }
+
+    // Builds a type oracle from stubs of the types the generators look at, and
+    // the synthetic bean classes. If editedClass is not negative, that class
+    // gets an extra property.
+    private static TypeOracle buildTypeOracle (TreeLogger logger, int classCount, int propertyCount, int editedClass) throws Exception {
+        Map<String, Resource> resources = new LinkedHashMap<String, Resource>();
+        for (Resource resource : JavaResourceBase.getStandardResources()) {
+            resources.put(resource.getPath(), resource);
+        }
+
+        addSource(resources, "java.util.Date", "package java.util; public class Date { public Date () {} }");
+        addSource(resources, "com.google.gwt.core.client.JavaScriptObject",
+                  "package com.google.gwt.core.client; public class JavaScriptObject { protected JavaScriptObject () {} }");
+        addSource(resources, "com.smartgwt.client.types.ValueEnum",
+                  "package com.smartgwt.client.types; public interface ValueEnum { String getValue (); }");
+        addSource(resources, "com.smartgwt.client.core.DataClass",
+                  "package com.smartgwt.client.core; public class DataClass { public DataClass () {} }");
+        addSource(resources, "com.smartgwt.client.data.DataSource",
+                  "package com.smartgwt.client.data; public class DataSource extends com.smartgwt.client.core.DataClass { public DataSource () {} }");
+        addSource(resources, "com.smartgwt.client.widgets.BaseWidget",
+                  "package com.smartgwt.client.widgets; public abstract class BaseWidget { public BaseWidget () {} }");
+        addSource(resources, "com.smartgwt.client.widgets.Canvas",
+                  "package com.smartgwt.client.widgets; public class Canvas extends BaseWidget { public Canvas () {}\n" +
+                  "  public void setWidth (int width) {} public int getWidth () { return 0; }\n" +
+                  "  public void setTitle (String title) {} public String getTitle () { return null; } }");
+        addSource(resources, "com.smartgwt.client.bean.BeanFactory",
+                  "package com.smartgwt.client.bean; public abstract class BeanFactory<B> {\n" +
+                  "  public @interface Generate { Class[] value() default {}; }\n" +
+                  "  public @interface FrameworkClass {}\n" +
+                  "  public @interface ScClassName { String value(); }\n" +
+                  "  public interface CanvasMetaFactory {}\n" +
+                  "  public interface AnnotationMetaFactory {} }");
+        addSource(resources, "com.smartgwt.client.bean.BeanFactoryForBaseWidget",
+                  "package com.smartgwt.client.bean; public abstract class BeanFactoryForBaseWidget<B> extends BeanFactory<B> {}");
+        addSource(resources, "com.smartgwt.client.bean.BeanFactoryForDataClass",
+                  "package com.smartgwt.client.bean; public abstract class BeanFactoryForDataClass<B> extends BeanFactory<B> {}");
+        addSource(resources, "com.smartgwt.client.bean.BeanValueType",
+                  "package com.smartgwt.client.bean; public abstract class BeanValueType<V> {}");
+        for (String valueType : VALUE_TYPE_CLASSES) {
+            addSource(resources, "com.smartgwt.client.bean.types." + valueType,
+                      "package com.smartgwt.client.bean.types; public class " + valueType +
+                      "<V> extends com.smartgwt.client.bean.BeanValueType<V> { public " + valueType + " () {} }");
+        }
+
+        for (int i = 0; i < classCount; i++) {
+            addSource(resources, SYNTHETIC_PACKAGE + ".Widget" + i, syntheticClass(i, propertyCount, i == editedClass));
+        }
+
+        return CompilationStateBuilder.buildFrom(logger, new CompilerContext(), new HashSet<Resource>(resources.values())).getTypeOracle();
+    }
+
+    private static String syntheticClass (int index, int propertyCount, boolean edited) {
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(SYNTHETIC_PACKAGE).append(";\n");
+        // Every tenth class is also annotated, and every fifth one extends the
+        // previous class, so that there are some inherited properties.
+        if (index % 10 == 0) source.append("@com.smartgwt.client.bean.BeanFactory.Generate\n");
+        source.append("public class Widget").append(index).append(" extends ");
+        source.append(index % 5 == 4 ? "Widget" + (index - 1) : "com.smartgwt.client.widgets.Canvas");
+        source.append(" {\n  public Widget").append(index).append(" () {}\n");
+        for (int p = 0; p < propertyCount; p++) {
+            String type = PROPERTY_TYPES[(index + p) % PROPERTY_TYPES.length];
+            String property = "Property" + index + "x" + p;
+            source.append("  public void set").append(property).append(" (").append(type).append(" value) {}\n");
+            source.append("  public ").append(type).append(" get").append(property).append(" () { return ");
+            source.append(type.equals("int") || type.equals("double") ? "0" : "null").append("; }\n");
+        }
+        if (edited) source.append("  public void setEdited (String value) {}\n");
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private static void addSource (Map<String, Resource> resources, String typeName, final String source) {
+        MockJavaResource resource = new MockJavaResource(typeName) {
+            @Override
+            public CharSequence getContent () {
+                return source;
+            }
+        };
+        if (!resources.containsKey(resource.getPath())) resources.put(resource.getPath(), resource);
+    }
+}